@@ -0,0 +1,100 @@
+package io.github.scorpio4938.LLMCall;
+
+import io.github.scorpio4938.LLMCall.scheduling.Priority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Immutable per-call options such as priority, deadline and tenant.
+ * 
+ * @since 1.1.0
+ */
+public final class CallOptions {
+    private static final CallOptions DEFAULTS = new CallOptions(Priority.NORMAL, null, null);
+
+    private final Priority priority;
+    private final Instant deadline;
+    private final String tenant;
+
+    private CallOptions(Priority priority, Instant deadline, String tenant) {
+        this.priority = priority;
+        this.deadline = deadline;
+        this.tenant = tenant;
+    }
+
+    /**
+     * Gets the default options: normal priority, no deadline and the default
+     * tenant.
+     *
+     * @return The default options
+     * 
+     * @since 1.1.0
+     */
+    public static CallOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a copy with the given priority.
+     *
+     * @param priority The priority of the call
+     * @return The updated options
+     * 
+     * @since 1.1.0
+     */
+    public CallOptions withPriority(Priority priority) {
+        return new CallOptions(Objects.requireNonNull(priority, "Priority must not be null"), deadline, tenant);
+    }
+
+    /**
+     * Returns a copy with the given absolute deadline.
+     *
+     * @param deadline The instant by which the call must complete, or null for
+     *                 none
+     * @return The updated options
+     * 
+     * @since 1.1.0
+     */
+    public CallOptions withDeadline(Instant deadline) {
+        return new CallOptions(priority, deadline, tenant);
+    }
+
+    /**
+     * Returns a copy whose deadline is the given time from now.
+     *
+     * @param timeout The time the call may take
+     * @return The updated options
+     * 
+     * @since 1.1.0
+     */
+    public CallOptions withTimeout(Duration timeout) {
+        return withDeadline(Instant.now().plus(timeout));
+    }
+
+    /**
+     * Returns a copy attributed to the given tenant for usage accounting and
+     * budgets.
+     *
+     * @param tenant The tenant tag, or null for the default tenant
+     * @return The updated options
+     * 
+     * @since 1.1.0
+     */
+    public CallOptions withTenant(String tenant) {
+        return new CallOptions(priority, deadline, tenant);
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.scorpio4938.LLMCall;
+
+import io.github.scorpio4938.LLMCall.scheduling.RequestScheduler;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the retry, coalescing and scheduling settings of a
+ * client.
+ * <p>
+ * A client holds one snapshot and replaces it atomically, so each call reads
+ * a consistent set of settings once, however many threads share the client
+ * and change its settings.
+ *
+ * <pre>
+ * client.setConfig(ClientConfig.builder()
+ *         .withMaxRetries(5)
+ *         .withRetryDelay(Duration.ofMillis(200))
+ *         .build());
+ * client.updateConfig(builder -&gt; builder.withRequestCoalescing(true));
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public final class ClientConfig {
+    private static final ClientConfig DEFAULTS = builder().build();
+
+    private final int maxRetries;
+    private final Duration retryDelay;
+    private final boolean requestCoalescing;
+    private final RequestScheduler scheduler;
+
+    private ClientConfig(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.retryDelay = builder.retryDelay;
+        this.requestCoalescing = builder.requestCoalescing;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Gets the default settings: 3 retries one second apart, no coalescing
+     * and no scheduler.
+     *
+     * @return The default settings
+     * 
+     * @since 1.1.0
+     */
+    public static ClientConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a builder starting from these settings.
+     *
+     * @return The builder
+     * 
+     * @since 1.1.0
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .withMaxRetries(maxRetries)
+                .withRetryDelay(retryDelay)
+                .withRequestCoalescing(requestCoalescing)
+                .withScheduler(scheduler);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Builds {@link ClientConfig} snapshots.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Builder {
+        private int maxRetries = 3;
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private boolean requestCoalescing = false;
+        private RequestScheduler scheduler;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how many times a failed request is retried.
+         *
+         * @param maxRetries The number of retries after the first attempt
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withMaxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries must not be negative");
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the pause before each retry.
+         *
+         * @param retryDelay The delay
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withRetryDelay(Duration retryDelay) {
+            Objects.requireNonNull(retryDelay, "Retry delay must not be null");
+            if (retryDelay.isNegative()) {
+                throw new IllegalArgumentException("Retry delay must not be negative");
+            }
+            this.retryDelay = retryDelay;
+            return this;
+        }
+
+        /**
+         * Sets whether concurrent identical requests share one upstream call.
+         *
+         * @param requestCoalescing Whether to coalesce identical requests
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler that queues calls made with {@link CallOptions}.
+         *
+         * @param scheduler The scheduler, or null to run such calls directly
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withScheduler(RequestScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public ClientConfig build() {
+            return new ClientConfig(this);
+        }
+    }
+}
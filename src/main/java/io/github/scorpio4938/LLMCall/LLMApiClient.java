@@ -2,27 +2,79 @@ package io.github.scorpio4938.LLMCall;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 
+import io.github.scorpio4938.LLMCall.accounting.BudgetExceededException;
+import io.github.scorpio4938.LLMCall.accounting.UsageLedger;
+import io.github.scorpio4938.LLMCall.codec.ChatCodec;
+import io.github.scorpio4938.LLMCall.compaction.ContextCompactor;
+import io.github.scorpio4938.LLMCall.health.HealthMonitor;
+import io.github.scorpio4938.LLMCall.interceptor.InterceptorChain;
 import io.github.scorpio4938.LLMCall.messages.LLMRequest;
 import io.github.scorpio4938.LLMCall.messages.LLMResponse;
 import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.messages.PromptPrefix;
+import io.github.scorpio4938.LLMCall.messages.StreamStalledException;
 import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.recording.TrafficRecord;
+import io.github.scorpio4938.LLMCall.recording.TrafficRecorder;
+import io.github.scorpio4938.LLMCall.recording.TrafficReplayer;
+import io.github.scorpio4938.LLMCall.scheduling.AdaptiveLimiter;
+import io.github.scorpio4938.LLMCall.scheduling.DeadlineExceededException;
+import io.github.scorpio4938.LLMCall.scheduling.RequestScheduler;
+import io.github.scorpio4938.LLMCall.service.compression.CompressionPolicy;
+import io.github.scorpio4938.LLMCall.service.compression.ContentEncoding;
+import io.github.scorpio4938.LLMCall.service.concurrent.SingleFlight;
+import io.github.scorpio4938.LLMCall.service.concurrent.StallWatchdog;
+import io.github.scorpio4938.LLMCall.service.concurrent.StreamFlight;
+import io.github.scorpio4938.LLMCall.service.concurrent.VirtualThreads;
 import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+import io.github.scorpio4938.LLMCall.service.metrics.RaceStats;
 import io.github.scorpio4938.LLMCall.service.utils.MapSorter;
+import io.github.scorpio4938.LLMCall.session.SessionStore;
+import io.github.scorpio4938.LLMCall.streaming.StopCondition;
+import io.github.scorpio4938.LLMCall.structured.IncrementalJsonDecoder;
+import io.github.scorpio4938.LLMCall.structured.JsonSchemaGenerator;
 
 // import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Simplified LLM API Client for making requests to language models.
@@ -36,9 +88,28 @@ public class LLMApiClient {
 
     private final Provider provider;
     private final HttpClient httpClient;
+    private final URI apiUri;
+    private final String authorization;
 
-    private int maxRetries = 3;
-    private long retryDelayMillis = 1000;
+    // A leader's deadline is its own: followers with later deadlines retry
+    private final SingleFlight<String, String> inFlightRequests = new SingleFlight<>(
+            e -> e instanceof DeadlineExceededException);
+    private final StreamFlight<String> inFlightStreams = new StreamFlight<>(
+            e -> e instanceof StreamStalledException); // The stall timeout is the caller's own
+
+    private final AtomicReference<ClientConfig> config = new AtomicReference<>(ClientConfig.defaults());
+    private volatile TrafficRecorder recorder;
+    private volatile TrafficReplayer replayer;
+    private volatile CompressionPolicy compression = CompressionPolicy.defaults();
+    private volatile UsageLedger ledger;
+    private volatile boolean stablePrefixOrdering = false;
+    private volatile AdaptiveLimiter limiter;
+    private volatile ContextCompactor compactor;
+    private volatile InterceptorChain interceptors = InterceptorChain.empty();
+    private volatile ChatCodec codec = ChatCodec.gson();
+    private volatile HealthMonitor health;
+    private final RaceStats raceStats = new RaceStats();
+    private Executor asyncExecutor; // null: CompletableFuture default async executor
 
     /**
      * Constructs a new LLMApiClient with the specified provider.
@@ -64,21 +135,64 @@ public class LLMApiClient {
     public LLMApiClient(Provider provider, HttpClient httpClient) {
         this.provider = Objects.requireNonNull(provider, "Provider must not be null");
         this.httpClient = Objects.requireNonNull(httpClient, "HttpClient must not be null");
+        this.apiUri = URI.create(provider.getUrl());
+        this.authorization = "Bearer " + provider.getKey();
+    }
+
+    /**
+     * Creates a client whose blocking work runs on virtual threads: the
+     * HttpClient executor and the executor of the asynchronous calls are
+     * thread-per-task executors. On Java 21 and later (through the
+     * multi-release JAR) these are virtual threads, so synchronous calls such
+     * as {@link #directCallLLM(String, Map)} scale to many thousands of
+     * concurrent callers. On Java 17 they fall back to platform threads.
+     *
+     * @param provider The LLM provider to use (must not be null)
+     * @return The new client
+     * 
+     * @since 1.1.0
+     */
+    public static LLMApiClient withVirtualThreads(Provider provider) {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        LLMApiClient client = new LLMApiClient(provider, HttpClient.newBuilder()
+                .connectTimeout(DEFAULT_TIMEOUT)
+                .executor(executor)
+                .build());
+        client.asyncExecutor = executor;
+        return client;
     }
 
     /**
-     * Builds the JSON request body from the model, message map, and parameters.
+     * Builds the request from the model, message map, and parameters.
      *
      * @param model  The model to use
      * @param data   The message data
      * @param params Additional parameters for the LLM call (e.g., max_tokens,
      *               temperature)
-     * @return JSON string representing the request body
+     * @return The request
      * @throws IllegalArgumentException if model is null or empty, or data is null
      * 
      * @since 1.0.0
      */
-    private String buildRequestBody(String model, Map<String, String> data, Map<String, Object> params) {
+    private LLMRequest buildRequest(String model, Map<String, String> data, Map<String, Object> params) {
+        return buildRequest(model, data, params, null);
+    }
+
+    /**
+     * Builds the request from the model, message map, and parameters, ending
+     * with an assistant prefix for the model to continue. The prefix is part
+     * of the conversation that is fitted into the context window.
+     *
+     * @param model  The model to use
+     * @param data   The message data
+     * @param params Additional parameters for the LLM call
+     * @param prefix The assistant prefix, or null for none
+     * @return The request
+     * 
+     * @since 1.1.0
+     */
+    private LLMRequest buildRequest(String model, Map<String, String> data, Map<String, Object> params,
+            String prefix) {
         // Objects.requireNonNull(model, "Model must not be null");
         // Objects.requireNonNull(data, "Data must not be null");
         // Objects.requireNonNull(params, "Params must not be null");
@@ -87,17 +201,244 @@ public class LLMApiClient {
             throw new IllegalArgumentException("Model must not be empty");
         }
 
+        boolean stable = stablePrefixOrdering;
         Map<String, String> sortedData = MapSorter.sortByKeys(data);
         List<LLMRequest.Message> dataList = new ArrayList<>();
+        if (stable && sortedData.containsKey("system")) {
+            dataList.add(LLMRequest.createMessage("system", sortedData.get("system"))); // Shared prefix first
+        }
         for (Map.Entry<String, String> entry : sortedData.entrySet()) {
-            dataList.add(LLMRequest.createMessage(entry.getKey(), entry.getValue()));
+            if (!stable || !entry.getKey().equals("system")) {
+                dataList.add(LLMRequest.createMessage(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (prefix != null) {
+            dataList.add(LLMRequest.createMessage("assistant", prefix));
         }
 
         // Create request with dynamic parameters
-        LLMRequest request = new LLMRequest(provider.getModel(model), dataList);
+        String providerModel = provider.getModel(model);
+        LLMRequest request = new LLMRequest(providerModel, compact(providerModel, dataList, params), stable);
         request.addParameters(params);
 
-        return GSON.toJson(request);
+        return request;
+    }
+
+    /**
+     * Fits the messages into the model's context window when context
+     * compaction is enabled.
+     *
+     * @param model    The provider model
+     * @param messages The messages
+     * @param params   The call parameters
+     * @return The messages to send
+     * 
+     * @since 1.1.0
+     */
+    private List<LLMRequest.Message> compact(String model, List<LLMRequest.Message> messages,
+            Map<String, Object> params) {
+        ContextCompactor compactor = this.compactor;
+        return compactor == null ? messages : compactor.compact(provider.getContextLimit(model), messages, params);
+    }
+
+    /**
+     * Builds the HTTP request posting the given body to the provider's API.
+     *
+     * @param requestBody The UTF-8 request body to send
+     * @param timeout     The request timeout
+     * @return The HTTP request
+     * 
+     * @since 1.1.0
+     */
+    private HttpRequest buildHttpRequest(byte[] requestBody, Duration timeout) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(apiUri)
+                .header("Content-Type", "application/json")
+                .header("Authorization", authorization)
+                .timeout(timeout);
+
+        CompressionPolicy compression = this.compression;
+        if (compression.getAcceptEncodingHeader() != null) {
+            builder.header("Accept-Encoding", compression.getAcceptEncodingHeader());
+        }
+        byte[] body = requestBody;
+        if (compression.shouldCompress(body.length)) {
+            builder.header("Content-Encoding", compression.getRequestEncoding().token());
+            body = compression.getRequestEncoding().encode(body);
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    /**
+     * Opens a response body, decompressing it as it is read according to its
+     * {@code Content-Encoding}.
+     *
+     * @param response The response
+     * @return The decoded body stream
+     * @throws IOException if the encoding is unsupported
+     * 
+     * @since 1.1.0
+     */
+    private static InputStream openBody(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        try {
+            return ContentEncoding.fromHeader(encoding).decode(response.body());
+        } catch (IOException e) {
+            response.body().close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a whole response body as UTF-8 text, decompressing it on the fly.
+     *
+     * @param response The response
+     * @return The decoded body
+     * @throws IOException if reading fails
+     * 
+     * @since 1.1.0
+     */
+    private static String readBody(HttpResponse<InputStream> response) throws IOException {
+        try (Reader reader = new InputStreamReader(openBody(response), StandardCharsets.UTF_8)) {
+            StringBuilder body = new StringBuilder();
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                body.append(buffer, 0, read);
+            }
+            return body.toString();
+        }
+    }
+
+    /**
+     * Computes the fingerprint identifying equivalent requests: model,
+     * messages, canonically ordered parameters and output options.
+     *
+     * @param request The request
+     * @return The fingerprint
+     * 
+     * @since 1.1.0
+     */
+    private static String fingerprint(LLMRequest request) {
+        return request.getModel() + '\n' + GSON.toJson(request.getMessages())
+                + '\n' + GSON.toJson(new TreeMap<>(request.getParameters()))
+                + '\n' + GSON.toJson(request.getTools())
+                + '\n' + GSON.toJson(request.getResponseFormat());
+    }
+
+    /**
+     * Sends the request through the interceptor chain.
+     *
+     * @param request  The request to send
+     * @param deadline The deadline of the call, or null for none
+     * @param billing  The billing of the call
+     * @return The response body
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String sendLLMRequest(LLMRequest request, Instant deadline, Billing billing) throws Exception {
+        InterceptorChain interceptors = this.interceptors;
+        if (interceptors.isEmpty()) {
+            return exchangeLLMRequest(request, deadline, billing);
+        }
+        return interceptors.execute(request, next -> exchangeLLMRequest(next, deadline, billing));
+    }
+
+    /**
+     * Sends the request, joining an identical in-flight request when request
+     * coalescing is enabled.
+     *
+     * @param request  The request to send
+     * @param deadline The deadline of the call, or null for none
+     * @param billing  The billing of the call
+     * @return The response body
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String exchangeLLMRequest(LLMRequest request, Instant deadline, Billing billing) throws Exception {
+        return exchange(fingerprint(request), codec.encodeRequest(request), request.getModel(), deadline, billing);
+    }
+
+    /**
+     * Sends a request body, joining an identical in-flight request when
+     * request coalescing is enabled. A coalesced call is billed once, by the
+     * caller that makes the upstream call, rather than by every caller that
+     * shares its response.
+     *
+     * @param key         The key identifying identical requests
+     * @param requestBody The UTF-8 request body
+     * @param model       The requested model, or null to bill the model the
+     *                    response names
+     * @param deadline    The deadline of the call, or null for none
+     * @param billing     The billing of the call
+     * @return The response body
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String exchange(String key, byte[] requestBody, String model, Instant deadline, Billing billing)
+            throws Exception {
+        if (!config.get().isRequestCoalescing()) {
+            return sendRequestWithRetry(requestBody, deadline);
+        }
+        String responseBody = inFlightRequests.execute(key, deadline, () -> {
+            String leaderBody = sendRequestWithRetry(requestBody, deadline);
+            UsageLedger ledger = this.ledger;
+            if (ledger != null) {
+                record(ledger, model, codec.decodeResponse(leaderBody), billing.tenant);
+            }
+            return leaderBody;
+        });
+        billing.recorded = true;
+        return responseBody;
+    }
+
+    /**
+     * Streams the request, attaching to an identical in-flight stream when
+     * request coalescing is enabled.
+     *
+     * @param request The request to stream
+     * @param onDelta Consumer receiving each content delta
+     * @return The full streamed content
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String streamLLMRequest(LLMRequest request, Consumer<String> onDelta) throws Exception {
+        return streamLLMRequest(request, onDelta, null, null, null);
+    }
+
+    /**
+     * Streams the request, failing with a {@link StreamStalledException} when
+     * no content arrives within the stall timeout and ending early when the
+     * stop condition is met. Streams with a stop condition are never
+     * coalesced, since their output depends on the condition.
+     *
+     * @param request      The request to stream
+     * @param onDelta      Consumer receiving each content delta
+     * @param stallTimeout The longest allowed gap between deltas, or null for
+     *                     none
+     * @param stop         The condition ending the stream early, or null for
+     *                     none
+     * @param tenant       The tenant whose budget is checked, or null for the
+     *                     default tenant
+     * @return The full streamed content
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String streamLLMRequest(LLMRequest request, Consumer<String> onDelta, Duration stallTimeout,
+            StopCondition stop, String tenant) throws Exception {
+        checkBudget(tenant);
+        request.setStream(true);
+        byte[] requestBody = codec.encodeRequest(request);
+        if (!config.get().isRequestCoalescing() || stop != null) {
+            return streamRequestWithRetry(requestBody, onDelta, stallTimeout, stop);
+        }
+        return inFlightStreams.execute(fingerprint(request), onDelta,
+                consumer -> streamRequestWithRetry(requestBody, consumer, stallTimeout, null));
     }
 
     /**
@@ -132,50 +473,279 @@ public class LLMApiClient {
     }
 
     /**
-     * Sends HTTP request to the provider's API with retry logic.
+     * Sends HTTP request to the provider's API with retry logic, bounded by a
+     * deadline. The remaining time is used as the timeout of each attempt, and
+     * no retry is attempted that could not start before the deadline.
      *
-     * @param requestBody The request body to send
+     * @param requestBody The UTF-8 request body to send
+     * @param deadline    The deadline of the call, or null for none
      * @return The response body
-     * @throws Exception if there is an error while sending the request
+     * @throws Exception                 if there is an error while sending the
+     *                                   request
+     * @throws DeadlineExceededException if the deadline passes
      * 
-     * @since 1.0.1
+     * @since 1.1.0
      */
-    private String sendRequestWithRetry(String requestBody) throws Exception {
+    private String sendRequestWithRetry(byte[] requestBody, Instant deadline) throws Exception {
         String apiUrl = provider.getUrl();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + provider.getKey())
-                .timeout(DEFAULT_TIMEOUT)
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
+        HttpRequest request = deadline == null ? buildHttpRequest(requestBody, DEFAULT_TIMEOUT) : null;
 
-        int totalAttempts = maxRetries + 1;
+        ClientConfig config = this.config.get();
+        int totalAttempts = config.getMaxRetries() + 1;
+        long retryDelayMillis = config.getRetryDelay().toMillis();
         Exception lastError = null;
 
         for (int attempt = 1; attempt <= totalAttempts; attempt++) {
+            if (deadline != null && !Instant.now().isBefore(deadline)) {
+                throw deadlineExceeded(attempt - 1, lastError);
+            }
+
             try {
                 Debugger.log("Attempt %d/%d to: %s".formatted(attempt, totalAttempts, apiUrl));
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                String body = sendOnce(request, requestBody, deadline);
+                Debugger.log("Response received: " + body);
+                return body;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e; // Cancelled: the HTTP exchange was aborted, do not re-send
+            } catch (DeadlineExceededException e) {
+                throw e; // No concurrency slot freed up in time
+            } catch (Exception e) {
+                lastError = e;
+                if (attempt < totalAttempts && shouldRetry(e)) {
+                    if (deadline != null && Instant.now().plusMillis(retryDelayMillis).isAfter(deadline)) {
+                        throw deadlineExceeded(attempt, e); // The retry could not start in time
+                    }
+                    Debugger.log("Retrying in %dms...".formatted(retryDelayMillis));
+                    Thread.sleep(retryDelayMillis);
+                }
+            }
+        }
+
+        if (deadline != null && !Instant.now().isBefore(deadline)) {
+            throw deadlineExceeded(totalAttempts, lastError); // The last attempt timed out at the deadline
+        }
+        throw lastError;
+    }
+
+    /**
+     * Performs a single attempt, replaying or recording traffic when
+     * configured. With a deadline, the wait for a concurrency slot is bounded
+     * by it and the HTTP timeout is the time left once the slot is claimed.
+     *
+     * @param request     The HTTP request, or null to build it from the
+     *                    deadline
+     * @param requestBody The UTF-8 request body
+     * @param deadline    The deadline of the call, or null for none
+     * @return The response body
+     * @throws Exception                 if the attempt fails
+     * @throws DeadlineExceededException if the deadline passes before the
+     *                                   request is sent
+     * 
+     * @since 1.1.0
+     */
+    private String sendOnce(HttpRequest request, byte[] requestBody, Instant deadline) throws Exception {
+        TrafficReplayer replayer = this.replayer;
+        if (replayer != null) {
+            return replayer.replay(new String(requestBody, StandardCharsets.UTF_8));
+        }
+
+        AdaptiveLimiter limiter = this.limiter;
+        if (limiter != null) {
+            limiter.acquire(deadline);
+        }
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        String body;
+        AdaptiveLimiter.Outcome outcome = AdaptiveLimiter.Outcome.IGNORED;
+        try {
+            if (request == null) {
+                Duration remaining = Duration.between(Instant.now(), deadline);
+                if (remaining.isNegative() || remaining.isZero()) {
+                    throw new DeadlineExceededException("Deadline exceeded waiting for a concurrency slot");
+                }
+                request = buildHttpRequest(requestBody, remaining);
+            }
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            body = readBody(response);
+            int status = response.statusCode();
+            outcome = status == 429 || status >= 500 ? AdaptiveLimiter.Outcome.DROPPED
+                    : status < 400 ? AdaptiveLimiter.Outcome.SUCCESS : AdaptiveLimiter.Outcome.IGNORED;
+        } catch (HttpTimeoutException e) {
+            outcome = AdaptiveLimiter.Outcome.DROPPED;
+            throw e;
+        } finally {
+            if (limiter != null) {
+                limiter.release(System.nanoTime() - start, outcome);
+            }
+        }
+
+        TrafficRecorder recorder = this.recorder;
+        if (recorder != null) {
+            Map<String, String> headers = new HashMap<>();
+            response.headers().map().forEach((name, values) -> {
+                if (!values.isEmpty()) {
+                    headers.put(name, values.get(0));
+                }
+            });
+            recorder.record(new TrafficRecord(startMillis, System.nanoTime() - start, response.statusCode(),
+                    new String(requestBody, StandardCharsets.UTF_8), body, headers));
+        }
+
+        if (response.statusCode() >= 400) {
+            throw new LLMResponseException(response.statusCode(), body);
+        }
+        return body;
+    }
+
+    private static DeadlineExceededException deadlineExceeded(int attempts, Exception lastError) {
+        DeadlineExceededException exception = new DeadlineExceededException(
+                "Deadline exceeded after " + attempts + " attempt(s)");
+        if (lastError != null) {
+            exception.initCause(lastError);
+        }
+        return exception;
+    }
+
+    /**
+     * Sends a streaming HTTP request to the provider's API with retry logic.
+     * <p>
+     * Only failures before the first delta are retried; once content has been
+     * handed to the consumer the error is propagated.
+     *
+     * @param requestBody  The UTF-8 request body to send (with streaming
+     *                     enabled)
+     * @param onDelta      Consumer receiving each content delta
+     * @param stallTimeout The longest allowed gap between deltas, or null for
+     *                     none
+     * @param stop         The condition ending the stream early, or null for
+     *                     none
+     * @return The full streamed content
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    private String streamRequestWithRetry(byte[] requestBody, Consumer<String> onDelta, Duration stallTimeout,
+            StopCondition stop) throws Exception {
+        String apiUrl = provider.getUrl();
+        ChatCodec codec = this.codec;
+        HttpRequest request = buildHttpRequest(requestBody, DEFAULT_TIMEOUT);
+
+        ClientConfig config = this.config.get();
+        int totalAttempts = config.getMaxRetries() + 1;
+        long retryDelayMillis = config.getRetryDelay().toMillis();
+        StringBuilder content = new StringBuilder();
+        Exception lastError = null;
+
+        for (int attempt = 1; attempt <= totalAttempts; attempt++) {
+            try {
+                Debugger.log("Stream attempt %d/%d to: %s".formatted(attempt, totalAttempts, apiUrl));
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
 
                 if (response.statusCode() >= 400) {
-                    throw new LLMResponseException(response);
+                    throw new LLMResponseException(response.statusCode(), readBody(response));
                 }
 
-                Debugger.log("Response received: " + response.body());
-                return response.body();
+                StopCondition.Check check = stop != null ? stop.newCheck() : null;
+                if (stallTimeout == null) {
+                    readEventStream(openBody(response), codec, content, onDelta, check);
+                } else {
+                    readEventStream(response, codec, content, onDelta, check, stallTimeout);
+                }
+                Debugger.log("Stream completed: " + content.length() + " chars");
+                return content.toString();
             } catch (Exception e) {
                 lastError = e;
-                if (attempt < totalAttempts && shouldRetry(e)) {
-                    Debugger.log("Retrying in %dms...".formatted(retryDelayMillis));
-                    Thread.sleep(retryDelayMillis);
+                if (attempt >= totalAttempts || content.length() > 0 || !shouldRetry(e)) {
+                    break;
                 }
+                Debugger.log("Retrying in %dms...".formatted(retryDelayMillis));
+                Thread.sleep(retryDelayMillis);
             }
         }
 
         throw lastError;
     }
 
+    /**
+     * Reads a server-sent events response under a stall watchdog, which closes
+     * the body when no delta arrives within the stall timeout.
+     *
+     * @param response     The streaming response
+     * @param codec        The codec decoding the events
+     * @param content      Buffer receiving the full content
+     * @param onDelta      Consumer receiving each content delta
+     * @param stop         The check ending the stream early, or null for none
+     * @param stallTimeout The longest allowed gap between deltas
+     * @throws IOException if reading the body fails
+     * 
+     * @since 1.1.0
+     */
+    private static void readEventStream(HttpResponse<InputStream> response, ChatCodec codec,
+            StringBuilder content, Consumer<String> onDelta, StopCondition.Check stop, Duration stallTimeout)
+            throws IOException {
+        try (StallWatchdog watchdog = new StallWatchdog(stallTimeout, response.body())) {
+            try {
+                readEventStream(openBody(response), codec, content, delta -> {
+                    watchdog.progress();
+                    onDelta.accept(delta);
+                }, stop);
+            } catch (IOException e) {
+                if (watchdog.isStalled()) {
+                    throw new StreamStalledException("No content received for " + stallTimeout.toMillis() + "ms");
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads a server-sent events body, forwarding each content delta. When the
+     * stop check fires, the content is cut at its position and the body is
+     * closed, which cancels the HTTP stream.
+     *
+     * @param body    The response body
+     * @param codec   The codec decoding the events
+     * @param content Buffer receiving the full content
+     * @param onDelta Consumer receiving each content delta
+     * @param stop    The check ending the stream early, or null for none
+     * @throws IOException if reading the body fails
+     * 
+     * @since 1.1.0
+     */
+    private static void readEventStream(InputStream body, ChatCodec codec, StringBuilder content,
+            Consumer<String> onDelta, StopCondition.Check stop) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue; // Blank separators, comments and other fields
+                }
+                String payload = line.substring(5).trim();
+                if (payload.equals("[DONE]")) {
+                    return;
+                }
+                String delta = codec.decodeDeltaContent(payload);
+                if (delta == null || delta.isEmpty()) {
+                    continue;
+                }
+                int from = content.length();
+                content.append(delta);
+                int end = stop != null ? stop.stopAt(content, from) : -1;
+                if (end >= 0) {
+                    content.setLength(Math.max(from, end));
+                    if (end > from) {
+                        onDelta.accept(content.substring(from));
+                    }
+                    Debugger.log("Stop condition met after " + content.length() + " chars");
+                    return; // Closing the body cancels the stream
+                }
+                onDelta.accept(delta);
+            }
+        }
+    }
+
     /**
      * Calls the LLM with the given model, message map, and parameters.
      *
@@ -190,99 +760,523 @@ public class LLMApiClient {
      * @since 1.0.0
      */
     public String directCallLLM(String model, Map<String, String> data, Map<String, Object> params) throws Exception {
-        String requestBody = buildRequestBody(model, data, params);
-        String responseBody = sendRequestWithRetry(requestBody);
-        LLMResponse response = GSON.fromJson(responseBody, LLMResponse.class);
-        return response.getFirstMessageContent();
+        return callWithOptions(model, data, params, CallOptions.defaults());
     }
 
     /**
-     * Calls the LLM with the given model and message map using default
-     * parameters.
+     * Calls the LLM with a priority and deadline.
+     * <p>
+     * With a scheduler set, the call waits in its priority queue and fails fast
+     * if its deadline cannot be met. The remaining time until the deadline is
+     * used as the HTTP timeout.
      *
-     * @param model The model to use
-     * @param data  The message data
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param options The priority and deadline of the call
      * @return The content of the first message in the response
-     * @throws Exception                if there is an error while processing the
-     *                                  request
-     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * @throws Exception                 if there is an error while processing the
+     *                                   request
+     * @throws DeadlineExceededException if the deadline cannot be met
      * 
-     * @since 1.0.0
+     * @since 1.1.0
      */
-    public String directCallLLM(String model, Map<String, String> data) throws Exception {
-        return directCallLLM(model, data, Map.of("max_tokens", DEFAULT_MAX_TOKENS));
+    public String directCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            CallOptions options) throws Exception {
+        if (config.get().getScheduler() == null) {
+            return callWithOptions(model, data, params, options);
+        }
+        try {
+            return asyncCallLLM(model, data, params, options).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
     }
 
     /**
-     * Calls the LLM with the given model and message map using default
-     * parameters.
+     * Calls the LLM asynchronously with a priority and deadline, through the
+     * scheduler when one is set.
      *
-     * @param model The model to use
-     * @param data  The message data
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param options The priority and deadline of the call
      * @return The content of the first message in the response
      * 
-     * @since 1.0.0
+     * @since 1.1.0
      */
-    public ModelChain callLLM(String model, Map<String, String> data) {
-        return new ModelChain(model, data, Map.of("max_tokens", DEFAULT_MAX_TOKENS));
+    public CompletableFuture<String> asyncCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            CallOptions options) {
+        RequestScheduler scheduler = config.get().getScheduler();
+        if (scheduler != null) {
+            return scheduler.submit(provider.getProvider(), options,
+                    () -> callWithOptions(model, data, params, options));
+        }
+        InterceptorChain interceptors = this.interceptors;
+        if (interceptors.isEmpty()) {
+            return supplyAsync(() -> callWithOptions(model, data, params, options));
+        }
+        Billing billing = new Billing(options.getTenant());
+        return supplyAsync(() -> {
+            LLMRequest request = buildRequest(model, data, params);
+            checkBudget(options.getTenant());
+            return request;
+        }).thenCompose(request -> interceptors
+                .executeAsync(request,
+                        next -> supplyAsync(() -> exchangeLLMRequest(next, options.getDeadline(), billing)))
+                .thenApply(body -> parseResponse(request.getModel(), body, billing).getFirstMessageContent()));
+    }
+
+    private String callWithOptions(String model, Map<String, String> data, Map<String, Object> params,
+            CallOptions options) throws Exception {
+        LLMRequest request = buildRequest(model, data, params);
+        checkBudget(options.getTenant());
+        Billing billing = new Billing(options.getTenant());
+        String responseBody = sendLLMRequest(request, options.getDeadline(), billing);
+        return parseResponse(request.getModel(), responseBody, billing).getFirstMessageContent();
     }
 
     /**
-     * Calls the LLM with the given model and message map using the specified
-     * parameters.
+     * Rejects a call if the tenant has exhausted its budget in the ledger.
      *
-     * @param model  The model to use
-     * @param data   The message data
-     * @param params Additional parameters for the LLM call
-     * @return The content of the first message in the response
+     * @param tenant The tenant, or null for the default tenant
+     * @throws BudgetExceededException if the budget is exhausted
      * 
-     * @since 1.0.0
+     * @since 1.1.0
      */
+    private void checkBudget(String tenant) {
+        UsageLedger ledger = this.ledger;
+        if (ledger != null) {
+            ledger.checkBudget(tenant);
+        }
+    }
 
-    public class ModelChain {
-        private final String primaryModel;
-        private final Map<String, String> data;
-        private final Map<String, Object> params;
-        private final List<String> fallbackModels = new ArrayList<>();
-
-        public ModelChain(String model, Map<String, String> data, Map<String, Object> params) {
-            this.primaryModel = model;
-            this.data = data;
-            this.params = params;
+    /**
+     * Parses a response body and records its usage in the ledger, unless a
+     * coalesced call already recorded it.
+     *
+     * @param model        The requested model, used when the response does not
+     *                     name one
+     * @param responseBody The response body
+     * @param billing      The billing of the call
+     * @return The parsed response
+     * 
+     * @since 1.1.0
+     */
+    private LLMResponse parseResponse(String model, String responseBody, Billing billing) {
+        LLMResponse response = codec.decodeResponse(responseBody);
+        UsageLedger ledger = this.ledger;
+        if (ledger != null && !billing.recorded) {
+            record(ledger, model, response, billing.tenant);
         }
+        return response;
+    }
 
-        /**
-         * Adds fallback models to the chain.
-         *
-         * @param models The models to add
-         * @return The updated ModelChain
-         * 
-         * @since 1.0.0
-         */
-        public ModelChain withFallback(String... models) {
-            fallbackModels.addAll(Arrays.asList(models));
-            return this;
+    private void record(UsageLedger ledger, String model, LLMResponse response, String tenant) {
+        if (response.getUsage() != null) {
+            ledger.record(tenant, provider.getProvider(), model != null ? model : response.getModel(),
+                    response.getUsage());
         }
+    }
 
-        /**
-         * Executes the model chain.
-         *
-         * @return The content of the first message in the response
-         * @throws Exception if all models fail
-         * 
-         * @since 1.0.0
-         */
-        public String execute() throws Exception {
-            List<String> allModels = new ArrayList<>();
-            allModels.add(primaryModel);
-            allModels.addAll(fallbackModels);
+    /**
+     * Who a call is billed to, and whether its usage is already recorded.
+     */
+    private static final class Billing {
+        private final String tenant;
+        private volatile boolean recorded = false;
 
-            StringBuilder errors = new StringBuilder(); // Track all errors
-            Exception lastError = null;
-            for (String model : allModels) {
-                try {
-                    return LLMApiClient.this.directCallLLM(model, data, params);
-                } catch (Exception e) {
+        private Billing(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Calls the LLM and streams the generated content as it arrives.
+     *
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param onDelta Consumer receiving each content delta
+     * @return The full generated content
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public String streamCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            Consumer<String> onDelta) throws Exception {
+        return streamCallLLM(model, data, params, CallOptions.defaults(), onDelta);
+    }
+
+    /**
+     * Calls the LLM on behalf of a tenant and streams the generated content as
+     * it arrives. The call is rejected if the tenant has exhausted its budget;
+     * streams report no usage, so they are not recorded in the ledger. The
+     * priority and deadline of the options do not apply to streams.
+     *
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param options The call options naming the tenant
+     * @param onDelta Consumer receiving each content delta
+     * @return The full generated content
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public String streamCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            CallOptions options, Consumer<String> onDelta) throws Exception {
+        return streamLLMRequest(buildRequest(model, data, params), onDelta, null, null, options.getTenant());
+    }
+
+    /**
+     * Calls the LLM and streams the generated content until a client-side stop
+     * condition is met, at which point the HTTP stream is cancelled so the
+     * provider stops generating.
+     *
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param stop    The condition ending the stream early
+     * @param onDelta Consumer receiving each content delta, cut at the stop
+     *                position
+     * @return The generated content up to the stop position
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public String streamCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            StopCondition stop, Consumer<String> onDelta) throws Exception {
+        Objects.requireNonNull(stop, "Stop condition must not be null");
+        return streamLLMRequest(buildRequest(model, data, params), onDelta, null, stop, null);
+    }
+
+    /**
+     * Calls the LLM in structured output mode and decodes the answer into the
+     * given type. The JSON schema sent as {@code response_format} is generated
+     * from the type and cached.
+     *
+     * @param model The model to use
+     * @param data  The message data
+     * @param type  The type to decode the answer into
+     * @return The decoded answer
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public <T> T callLLM(String model, Map<String, String> data, Class<T> type) throws Exception {
+        return callLLM(model, data, Map.of("max_tokens", DEFAULT_MAX_TOKENS), type);
+    }
+
+    /**
+     * Calls the LLM in structured output mode with the specified parameters and
+     * decodes the answer into the given type.
+     *
+     * @param model  The model to use
+     * @param data   The message data
+     * @param params Additional parameters for the LLM call
+     * @param type   The type to decode the answer into
+     * @return The decoded answer
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public <T> T callLLM(String model, Map<String, String> data, Map<String, Object> params, Class<T> type)
+            throws Exception {
+        return callLLM(model, data, params, CallOptions.defaults(), type);
+    }
+
+    /**
+     * Calls the LLM in structured output mode with a deadline and tenant, and
+     * decodes the answer into the given type.
+     *
+     * @param model   The model to use
+     * @param data    The message data
+     * @param params  Additional parameters for the LLM call
+     * @param options The deadline and tenant of the call
+     * @param type    The type to decode the answer into
+     * @return The decoded answer
+     * @throws Exception                 if there is an error while processing
+     *                                   the request
+     * @throws DeadlineExceededException if the deadline cannot be met
+     * @throws IllegalArgumentException  if model is null or empty, or data is
+     *                                   null
+     * 
+     * @since 1.1.0
+     */
+    public <T> T callLLM(String model, Map<String, String> data, Map<String, Object> params, CallOptions options,
+            Class<T> type) throws Exception {
+        LLMRequest request = buildRequest(model, data, params);
+        request.setResponseFormat(JsonSchemaGenerator.responseFormat(type));
+        checkBudget(options.getTenant());
+        Billing billing = new Billing(options.getTenant());
+        String responseBody = sendLLMRequest(request, options.getDeadline(), billing);
+        String content = parseResponse(request.getModel(), responseBody, billing).getFirstMessageContent();
+        return GSON.fromJson(content, type);
+    }
+
+    /**
+     * Calls the LLM in structured output mode and streams the answer, decoding
+     * the elements of its top-level array (or of array properties of its
+     * top-level object) as soon as each one is complete.
+     *
+     * @param model       The model to use
+     * @param data        The message data
+     * @param params      Additional parameters for the LLM call
+     * @param type        The type to decode the full answer into
+     * @param elementType The type of the streamed array elements
+     * @param onElement   Consumer receiving each decoded element
+     * @return The decoded answer
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.1.0
+     */
+    public <T, E> T streamCallLLM(String model, Map<String, String> data, Map<String, Object> params,
+            Class<T> type, Class<E> elementType, Consumer<? super E> onElement) throws Exception {
+        LLMRequest request = buildRequest(model, data, params);
+        request.setResponseFormat(JsonSchemaGenerator.responseFormat(type));
+
+        IncrementalJsonDecoder decoder = new IncrementalJsonDecoder(
+                element -> onElement.accept(GSON.fromJson(element, elementType)));
+        streamLLMRequest(request, decoder::feed);
+        return GSON.fromJson(decoder.getDocument(), type);
+    }
+
+    /**
+     * Calls the LLM with a shared prompt prefix. The request body starts with
+     * the byte-identical serialization of the prefix, so providers can serve
+     * it from their prefix cache; cache hits are reported by
+     * {@link LLMResponse.Usage#getCachedTokens()} and aggregated by the ledger.
+     *
+     * @param model   The model to use
+     * @param prefix  The shared prompt prefix
+     * @param data    The per-call messages, following the prefix
+     * @param params  Additional parameters for the LLM call
+     * @param options The call options
+     * @return The parsed response
+     * @throws Exception if there is an error while processing the request
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse directCallLLM(String model, PromptPrefix prefix, Map<String, String> data,
+            Map<String, Object> params, CallOptions options) throws Exception {
+        Objects.requireNonNull(prefix, "Prefix must not be null");
+        String providerModel = provider.getModel(model);
+        List<LLMRequest.Message> messages = new ArrayList<>(data.size());
+        for (Map.Entry<String, String> entry : MapSorter.sortByKeys(data).entrySet()) {
+            messages.add(LLMRequest.createMessage(entry.getKey(), entry.getValue()));
+        }
+        String requestBody = prefix.toRequestBody(providerModel, messages, params);
+
+        checkBudget(options.getTenant());
+        Billing billing = new Billing(options.getTenant());
+        String responseBody = exchange(requestBody, requestBody.getBytes(StandardCharsets.UTF_8), providerModel,
+                options.getDeadline(), billing);
+        return parseResponse(providerModel, responseBody, billing);
+    }
+
+    /**
+     * Sends an already serialized request body and parses the response.
+     * <p>
+     * Used by callers that assemble the body themselves, e.g. the tool loop
+     * which only serializes the newest turn of a growing conversation.
+     *
+     * @param requestBody The JSON request body
+     * @return The parsed response
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse sendPreparedRequest(String requestBody) throws Exception {
+        return sendPreparedRequest(requestBody, CallOptions.defaults());
+    }
+
+    /**
+     * Sends an already serialized request body with a deadline and tenant,
+     * and parses the response.
+     *
+     * @param requestBody The JSON request body
+     * @param options     The deadline and tenant of the call
+     * @return The parsed response
+     * @throws Exception                 if there is an error while sending the
+     *                                   request
+     * @throws DeadlineExceededException if the deadline cannot be met
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse sendPreparedRequest(String requestBody, CallOptions options) throws Exception {
+        checkBudget(options.getTenant());
+        Billing billing = new Billing(options.getTenant());
+        String responseBody = exchange(requestBody, requestBody.getBytes(StandardCharsets.UTF_8), null,
+                options.getDeadline(), billing);
+        return parseResponse(null, responseBody, billing);
+    }
+
+    /**
+     * Continues a conversation kept in a session store. The stored history is
+     * decoded while the request body is serialized, and the user message and
+     * the answer are appended once the call succeeds.
+     *
+     * @param model       The model to use
+     * @param sessions    The session store
+     * @param sessionId   The conversation id
+     * @param userMessage The new user message
+     * @param params      Additional parameters for the LLM call
+     * @return The content of the first message in the response
+     * @throws Exception if there is an error while processing the request
+     * 
+     * @since 1.1.0
+     */
+    public String sessionCallLLM(String model, SessionStore sessions, String sessionId, String userMessage,
+            Map<String, Object> params) throws Exception {
+        Objects.requireNonNull(sessions, "Sessions must not be null");
+        LLMRequest.Message message = LLMRequest.createMessage("user", userMessage);
+        String providerModel = provider.getModel(model);
+        LLMRequest request = new LLMRequest(providerModel,
+                compact(providerModel, sessions.history(sessionId, message), params), stablePrefixOrdering);
+        request.addParameters(params);
+
+        checkBudget(null);
+        Billing billing = new Billing(null);
+        String responseBody = sendLLMRequest(request, null, billing);
+        String answer = parseResponse(request.getModel(), responseBody, billing).getFirstMessageContent();
+        sessions.append(sessionId, message, LLMRequest.createMessage("assistant", answer));
+        return answer;
+    }
+
+    /**
+     * Calls the LLM with the given model and message map using default
+     * parameters.
+     *
+     * @param model The model to use
+     * @param data  The message data
+     * @return The content of the first message in the response
+     * @throws Exception                if there is an error while processing the
+     *                                  request
+     * @throws IllegalArgumentException if model is null or empty, or data is null
+     * 
+     * @since 1.0.0
+     */
+    public String directCallLLM(String model, Map<String, String> data) throws Exception {
+        return directCallLLM(model, data, Map.of("max_tokens", DEFAULT_MAX_TOKENS));
+    }
+
+    /**
+     * Calls the LLM with the given model and message map using default
+     * parameters.
+     *
+     * @param model The model to use
+     * @param data  The message data
+     * @return The content of the first message in the response
+     * 
+     * @since 1.0.0
+     */
+    public ModelChain callLLM(String model, Map<String, String> data) {
+        return new ModelChain(model, data, Map.of("max_tokens", DEFAULT_MAX_TOKENS));
+    }
+
+    /**
+     * Calls the LLM with the given model and message map using the specified
+     * parameters.
+     *
+     * @param model  The model to use
+     * @param data   The message data
+     * @param params Additional parameters for the LLM call
+     * @return The chain, ready to execute
+     * 
+     * @since 1.1.0
+     */
+    public ModelChain callLLM(String model, Map<String, String> data, Map<String, Object> params) {
+        return new ModelChain(model, data, params);
+    }
+
+    /**
+     * An immutable plan trying a primary model and then its fallbacks until
+     * one answers.
+     * <p>
+     * The models, messages and parameters are fixed when the chain is built,
+     * so one chain can be executed by many threads at once and again later.
+     * The {@code with} methods return new chains.
+     *
+     * @since 1.0.0
+     */
+    public class ModelChain {
+        private final String[] models; // The primary model, then the fallbacks
+        private final Map<String, String> data;
+        private final Map<String, Object> params;
+        private final Duration stallTimeout;
+
+        public ModelChain(String model, Map<String, String> data, Map<String, Object> params) {
+            this(new String[] { model }, data != null ? Collections.unmodifiableMap(new LinkedHashMap<>(data)) : null,
+                    params != null ? Collections.unmodifiableMap(new LinkedHashMap<>(params)) : null, null);
+        }
+
+        private ModelChain(String[] models, Map<String, String> data, Map<String, Object> params,
+                Duration stallTimeout) {
+            this.models = models;
+            this.data = data;
+            this.params = params;
+            this.stallTimeout = stallTimeout;
+        }
+
+        /**
+         * Adds fallback models to the chain.
+         * <p>
+         * Breaking change in 1.1.0: this chain is left unchanged and the
+         * returned chain holds the fallbacks, so the result must be used, as
+         * in {@code callLLM(model, data).withFallback("x").execute()}. Code
+         * that calls {@code chain.withFallback("x")} and then
+         * {@code chain.execute()} runs without the fallbacks.
+         *
+         * @param models The models to add
+         * @return A new chain trying the given models after those of this one
+         * 
+         * @since 1.0.0
+         */
+        public ModelChain withFallback(String... models) {
+            String[] extended = Arrays.copyOf(this.models, this.models.length + models.length);
+            System.arraycopy(models, 0, extended, this.models.length, models.length);
+            return new ModelChain(extended, data, params, stallTimeout);
+        }
+
+        /**
+         * Gets the models in the order they are tried when all are healthy.
+         *
+         * @return The primary model followed by the fallbacks
+         * 
+         * @since 1.1.0
+         */
+        public List<String> getModels() {
+            return Collections.unmodifiableList(Arrays.asList(models));
+        }
+
+        /**
+         * Executes the model chain.
+         *
+         * @return The content of the first message in the response
+         * @throws Exception if all models fail
+         * 
+         * @since 1.0.0
+         */
+        public String execute() throws Exception {
+            StringBuilder errors = new StringBuilder(); // Track all errors
+            Exception lastError = null;
+            for (String model : route(models)) {
+                try {
+                    return LLMApiClient.this.directCallLLM(model, data, params);
+                } catch (Exception e) {
                     errors.append("Model ").append(model).append(" failed: ").append(e.getMessage()).append("\n");
                     lastError = e;
                     Debugger.log("Model " + model + " failed: " + e.getMessage());
@@ -290,6 +1284,264 @@ public class LLMApiClient {
             }
             throw new Exception("All models failed. Errors:\n" + errors, lastError);
         }
+
+        /**
+         * Sets the inter-token timeout after which a streaming model is
+         * considered stalled and the chain moves on to the next model.
+         *
+         * @param stallTimeout The longest allowed gap between deltas
+         * @return A new chain with the timeout
+         * 
+         * @since 1.1.0
+         */
+        public ModelChain withStallTimeout(Duration stallTimeout) {
+            return new ModelChain(models, data, params, stallTimeout);
+        }
+
+        /**
+         * Executes the model chain in streaming mode.
+         * <p>
+         * When a model fails or stalls partway through, the next model is asked
+         * to continue: the content streamed so far is sent as an assistant
+         * prefix and its continuation is fed to the same consumer.
+         *
+         * @param onDelta Consumer receiving each content delta across all models
+         * @return The full generated content
+         * @throws Exception if all models fail
+         * 
+         * @since 1.1.0
+         */
+        public String stream(Consumer<String> onDelta) throws Exception {
+            StringBuilder partial = new StringBuilder();
+            Consumer<String> forward = delta -> {
+                partial.append(delta);
+                onDelta.accept(delta);
+            };
+
+            StringBuilder errors = new StringBuilder();
+            Exception lastError = null;
+            for (String model : route(models)) {
+                try {
+                    LLMRequest request = buildRequest(model, data, params,
+                            partial.length() > 0 ? partial.toString() : null);
+                    streamLLMRequest(request, forward, stallTimeout, null, null);
+                    return partial.toString();
+                } catch (Exception e) {
+                    errors.append("Model ").append(model).append(" failed: ").append(e.getMessage()).append("\n");
+                    lastError = e;
+                    Debugger.log("Model " + model + " failed after " + partial.length() + " chars: "
+                            + e.getMessage());
+                }
+            }
+            throw new Exception("All models failed. Errors:\n" + errors, lastError);
+        }
+    }
+
+    /**
+     * Races the given models: the prompt is sent to all of them at once and the
+     * first valid answer wins.
+     *
+     * @param data   The message data
+     * @param models The models to race
+     * @return The race, ready to execute
+     * 
+     * @since 1.1.0
+     */
+    public ModelRace raceLLM(Map<String, String> data, String... models) {
+        return raceLLM(data, Map.of("max_tokens", DEFAULT_MAX_TOKENS), models);
+    }
+
+    /**
+     * Races the given models with the specified parameters.
+     *
+     * @param data   The message data
+     * @param params Additional parameters for the LLM calls
+     * @param models The models to race
+     * @return The race, ready to execute
+     * 
+     * @since 1.1.0
+     */
+    public ModelRace raceLLM(Map<String, String> data, Map<String, Object> params, String... models) {
+        LLMApiClient[] clients = new LLMApiClient[models.length];
+        Arrays.fill(clients, this);
+        return new ModelRace(data != null ? Collections.unmodifiableMap(new LinkedHashMap<>(data)) : null,
+                params != null ? Collections.unmodifiableMap(new LinkedHashMap<>(params)) : null, clients,
+                models.clone(), ModelRace.NON_BLANK);
+    }
+
+    /**
+     * Gets the win rates and latencies of the races run by this client.
+     *
+     * @return The race statistics
+     * 
+     * @since 1.1.0
+     */
+    public RaceStats getRaceStats() {
+        return raceStats;
+    }
+
+    /**
+     * An immutable race sending one prompt to several models at once, where the
+     * first answer passing the validator wins and the other requests are
+     * cancelled.
+     * <p>
+     * Like {@link ModelChain}, the entrants, messages, parameters and
+     * validator are fixed when the race is built, so one race can be executed
+     * by many threads at once. The {@code with} methods return new races.
+     * Results are recorded in the {@link RaceStats} of the client that
+     * created the race.
+     *
+     * @since 1.1.0
+     */
+    public class ModelRace {
+        private static final Predicate<String> NON_BLANK = content -> content != null && !content.isBlank();
+
+        private final Map<String, String> data;
+        private final Map<String, Object> params;
+        private final LLMApiClient[] clients; // Parallel to models
+        private final String[] models;
+        private final Predicate<String> validator;
+
+        private ModelRace(Map<String, String> data, Map<String, Object> params, LLMApiClient[] clients,
+                String[] models, Predicate<String> validator) {
+            this.data = data;
+            this.params = params;
+            this.clients = clients;
+            this.models = models;
+            this.validator = validator;
+        }
+
+        /**
+         * Adds an entrant, possibly served by another provider's client.
+         *
+         * @param client The client serving the model
+         * @param model  The model
+         * @return A new race with the entrant added
+         * 
+         * @since 1.1.0
+         */
+        public ModelRace withEntrant(LLMApiClient client, String model) {
+            LLMApiClient[] extendedClients = Arrays.copyOf(clients, clients.length + 1);
+            extendedClients[clients.length] = Objects.requireNonNull(client, "Client must not be null");
+            String[] extendedModels = Arrays.copyOf(models, models.length + 1);
+            extendedModels[models.length] = model;
+            return new ModelRace(data, params, extendedClients, extendedModels, validator);
+        }
+
+        /**
+         * Sets the check an answer must pass to win. Defaults to non-blank
+         * content.
+         *
+         * @param validator The validator
+         * @return A new race with the validator
+         * 
+         * @since 1.1.0
+         */
+        public ModelRace withValidator(Predicate<String> validator) {
+            return new ModelRace(data, params, clients, models,
+                    Objects.requireNonNull(validator, "Validator must not be null"));
+        }
+
+        /**
+         * Runs the race, returning the first valid answer and cancelling the
+         * requests still in flight. Entrants their client's health monitor
+         * finds unhealthy sit out, unless all of them do.
+         *
+         * @return The winning content
+         * @throws Exception if no entrant produced a valid answer
+         * 
+         * @since 1.1.0
+         */
+        public String execute() throws Exception {
+            if (models.length == 0) {
+                throw new IllegalStateException("No entrants");
+            }
+            List<Integer> entrants = new ArrayList<>(models.length);
+            for (int i = 0; i < models.length; i++) {
+                if (!clients[i].isUnhealthy(models[i])) {
+                    entrants.add(i);
+                }
+            }
+            if (entrants.isEmpty()) {
+                for (int i = 0; i < models.length; i++) {
+                    entrants.add(i); // Nothing known to be healthy: race them all
+                }
+            }
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+            BlockingQueue<Finish> finishes = new LinkedBlockingQueue<>();
+            List<Future<?>> calls = new ArrayList<>(entrants.size());
+            long start = System.nanoTime();
+            for (int entrant : entrants) {
+                raceStats.recordEntry(keyOf(entrant));
+                calls.add(executor.submit(() -> {
+                    try {
+                        String content = clients[entrant].directCallLLM(models[entrant], data, params);
+                        finishes.add(new Finish(entrant, content, null, System.nanoTime() - start));
+                    } catch (Exception e) {
+                        finishes.add(new Finish(entrant, null, e, System.nanoTime() - start));
+                    }
+                }));
+            }
+            executor.shutdown();
+
+            StringBuilder errors = new StringBuilder();
+            Exception lastError = null;
+            try {
+                for (int i = 0; i < entrants.size(); i++) {
+                    Finish finish = finishes.take();
+                    String key = recordFinish(finish);
+                    if (finish.error == null && validator.test(finish.content)) {
+                        raceStats.recordWin(key);
+                        Debugger.log("Race won by " + key + " in " + finish.nanos / 1_000_000 + "ms");
+                        return finish.content;
+                    }
+                    String reason = finish.error != null ? finish.error.getMessage() : "invalid answer";
+                    errors.append("Model ").append(key).append(" failed: ").append(reason).append("\n");
+                    if (finish.error != null) {
+                        lastError = finish.error;
+                    }
+                }
+            } finally {
+                for (Future<?> call : calls) {
+                    call.cancel(true); // Interrupting a send aborts its HTTP exchange
+                }
+                Finish late;
+                while ((late = finishes.poll()) != null) {
+                    recordFinish(late); // Losers that answered before being cancelled
+                }
+            }
+            throw new Exception("All models failed. Errors:\n" + errors, lastError);
+        }
+
+        /**
+         * Records the latency of an entrant that answered, valid or not, so
+         * losers can be compared with winners.
+         */
+        private String recordFinish(Finish finish) {
+            String key = keyOf(finish.entrant);
+            if (finish.error == null) {
+                raceStats.recordFinish(key, Duration.ofNanos(finish.nanos));
+            }
+            return key;
+        }
+
+        private String keyOf(int entrant) {
+            return clients[entrant].getProvider().getProvider() + "/" + models[entrant];
+        }
+    }
+
+    private static final class Finish {
+        private final int entrant;
+        private final String content;
+        private final Exception error;
+        private final long nanos;
+
+        private Finish(int entrant, String content, Exception error, long nanos) {
+            this.entrant = entrant;
+            this.content = content;
+            this.error = error;
+            this.nanos = nanos;
+        }
     }
 
     /**
@@ -302,23 +1554,303 @@ public class LLMApiClient {
      * @since 1.0.1
      */
     public CompletableFuture<String> asyncCallLLM(String model, Map<String, String> data) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> directCallLLM(model, data));
+    }
+
+    public Provider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Lists the models the provider serves, from the {@code models} endpoint
+     * next to the chat completions endpoint. Being cheap and free, it also
+     * serves as a health probe that warms this client's connection.
+     *
+     * @param timeout The request timeout
+     * @return The model ids
+     * @throws LLMResponseException if the provider answers with an error
+     * @throws Exception            if the request fails
+     * 
+     * @since 1.1.0
+     */
+    public List<String> listModels(Duration timeout) throws Exception {
+        String url = provider.getUrl();
+        if (url.endsWith("/chat/completions")) {
+            url = url.substring(0, url.length() - "/chat/completions".length());
+        }
+        url = url.endsWith("/") ? url + "models" : url + "/models";
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", authorization)
+                .timeout(timeout)
+                .GET();
+        String acceptEncoding = compression.getAcceptEncodingHeader();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        HttpResponse<InputStream> response = httpClient.send(builder.build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        String body = readBody(response);
+        if (response.statusCode() >= 400) {
+            throw new LLMResponseException(response.statusCode(), body);
+        }
+        JsonArray data = JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("data");
+        List<String> models = new ArrayList<>();
+        if (data != null) {
+            for (JsonElement model : data) {
+                models.add(model.getAsJsonObject().get("id").getAsString());
+            }
+        }
+        return models;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Callable<T> call) {
+        Supplier<T> supplier = () -> {
             try {
-                return directCallLLM(model, data);
+                return call.call();
             } catch (Exception e) {
                 throw new CompletionException(e);
             }
-        });
+        };
+        return asyncExecutor != null
+                ? CompletableFuture.supplyAsync(supplier, asyncExecutor)
+                : CompletableFuture.supplyAsync(supplier);
+    }
+
+    /**
+     * Replaces the retry, coalescing and scheduling settings at once. Calls
+     * already running keep the settings they started with.
+     *
+     * @param config The settings
+     * 
+     * @since 1.1.0
+     */
+    public void setConfig(ClientConfig config) {
+        this.config.set(Objects.requireNonNull(config, "Config must not be null"));
+    }
+
+    public ClientConfig getConfig() {
+        return config.get();
+    }
+
+    /**
+     * Atomically replaces the settings with an update of the current ones, so
+     * concurrent updates are never lost.
+     *
+     * @param update Changes a builder holding the current settings
+     * @return The new settings
+     * 
+     * @since 1.1.0
+     */
+    public ClientConfig updateConfig(UnaryOperator<ClientConfig.Builder> update) {
+        return config.updateAndGet(current -> update.apply(current.toBuilder()).build());
     }
 
     public void setMaxRetries(int maxRetries) {
-        this.maxRetries = maxRetries;
+        updateConfig(builder -> builder.withMaxRetries(maxRetries));
     }
 
     public void setRetryDelay(long delay, java.util.concurrent.TimeUnit unit) {
-        this.retryDelayMillis = unit.toMillis(delay);
+        updateConfig(builder -> builder.withRetryDelay(Duration.ofMillis(unit.toMillis(delay))));
+    }
+
+    /**
+     * Enables single-flight coalescing: concurrent identical requests (same
+     * model, messages and parameters) share one upstream call and its result
+     * or error. Streaming callers attach to the in-progress stream. Nothing is
+     * kept after the call completes.
+     *
+     * @param coalesceRequests Whether to coalesce identical requests
+     * 
+     * @since 1.1.0
+     */
+    public void setRequestCoalescing(boolean coalesceRequests) {
+        updateConfig(builder -> builder.withRequestCoalescing(coalesceRequests));
     }
 
+    /**
+     * Sets the scheduler that queues calls made with {@link CallOptions} by
+     * priority and deadline.
+     *
+     * @param scheduler The scheduler, or null to run such calls directly
+     * 
+     * @since 1.1.0
+     */
+    public void setScheduler(RequestScheduler scheduler) {
+        updateConfig(builder -> builder.withScheduler(scheduler));
+    }
+
+    /**
+     * Sets the recorder capturing every non-streaming exchange with the
+     * provider.
+     *
+     * @param recorder The recorder, or null to stop recording
+     * 
+     * @since 1.1.0
+     */
+    public void setRecorder(TrafficRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sets the replayer answering non-streaming requests from recorded
+     * traffic instead of the provider.
+     *
+     * @param replayer The replayer, or null to call the provider
+     * 
+     * @since 1.1.0
+     */
+    public void setReplayer(TrafficReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    /**
+     * Sets how request and response bodies are compressed.
+     *
+     * @param compression The compression policy
+     * 
+     * @since 1.1.0
+     */
+    public void setCompression(CompressionPolicy compression) {
+        this.compression = Objects.requireNonNull(compression, "Compression policy must not be null");
+    }
+
+    /**
+     * Sets the ledger recording the token usage and cost of every call and
+     * enforcing tenant budgets.
+     *
+     * @param ledger The ledger, or null to disable accounting
+     * 
+     * @since 1.1.0
+     */
+    public void setLedger(UsageLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Sets whether requests built from message maps keep a stable prefix: the
+     * system message first and parameters in sorted key order, so calls sharing
+     * a system prompt serialize to the same leading bytes.
+     *
+     * @param stablePrefixOrdering Whether to use stable ordering
+     * 
+     * @since 1.1.0
+     */
+    public void setStablePrefixOrdering(boolean stablePrefixOrdering) {
+        this.stablePrefixOrdering = stablePrefixOrdering;
+    }
+
+    /**
+     * Sets the adaptive limiter bounding this client's in-flight requests. Share
+     * one limiter between all clients of the same provider.
+     *
+     * @param limiter The limiter, or null for no limit
+     * 
+     * @since 1.1.0
+     */
+    public void setConcurrencyLimiter(AdaptiveLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public AdaptiveLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Sets the pre-send stage fitting conversations into the context limit
+     * of the model, as registered with {@link Provider#withContextLimit}.
+     *
+     * @param compactor The compactor, or null to send messages unchanged
+     * 
+     * @since 1.1.0
+     */
+    public void setContextCompaction(ContextCompactor compactor) {
+        this.compactor = compactor;
+    }
+
+    /**
+     * Sets the interceptors around the requests of this client. They see the
+     * requests built from messages; streams and pre-serialized bodies (prompt
+     * prefixes, prepared requests) bypass them.
+     *
+     * @param interceptors The compiled chain, or {@link InterceptorChain#empty()}
+     * 
+     * @since 1.1.0
+     */
+    public void setInterceptors(InterceptorChain interceptors) {
+        this.interceptors = Objects.requireNonNull(interceptors, "Interceptors must not be null");
+    }
+
+    public InterceptorChain getInterceptors() {
+        return interceptors;
+    }
+
+    /**
+     * Sets the codec of request and response bodies built from messages,
+     * including streamed events. Both codecs produce identical bodies; the
+     * {@link ChatCodec#direct() direct codec} avoids reflection and
+     * intermediate strings.
+     *
+     * @param codec The codec, {@link ChatCodec#gson()} by default
+     * 
+     * @since 1.1.0
+     */
+    public void setCodec(ChatCodec codec) {
+        this.codec = Objects.requireNonNull(codec, "Codec must not be null");
+    }
+
+    public ChatCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Sets the health monitor consulted by model chains and races: models
+     * found unhealthy by its probes are tried last in a chain and left out of
+     * a race, unless no entrant is healthy.
+     *
+     * @param health The monitor, or null to route without health information
+     * 
+     * @since 1.1.0
+     */
+    public void setHealthMonitor(HealthMonitor health) {
+        this.health = health;
+    }
+
+    public HealthMonitor getHealthMonitor() {
+        return health;
+    }
+
+    private boolean isUnhealthy(String model) {
+        HealthMonitor health = this.health;
+        return health != null && model != null && !health.isHealthy(provider.getProvider(), model);
+    }
+
+    /**
+     * Orders models for a fallback chain, moving the unhealthy ones to the end
+     * while keeping the order within each group. The given array is returned
+     * as is when there is nothing to move.
+     */
+    private String[] route(String[] models) {
+        if (health == null) {
+            return models;
+        }
+        int first = 0;
+        while (first < models.length && !isUnhealthy(models[first])) {
+            first++;
+        }
+        if (first == models.length) {
+            return models;
+        }
+        List<String> routed = new ArrayList<>(Arrays.asList(models).subList(0, first));
+        List<String> unhealthy = new ArrayList<>(List.of(models[first]));
+        for (int i = first + 1; i < models.length; i++) {
+            (isUnhealthy(models[i]) ? unhealthy : routed).add(models[i]);
+        }
+        routed.addAll(unhealthy);
+        return routed.toArray(new String[0]);
+    }
+
+
     private boolean shouldRetry(Exception e) {
         if (e instanceof LLMResponseException) {
             int statusCode = ((LLMResponseException) e).getStatusCode();
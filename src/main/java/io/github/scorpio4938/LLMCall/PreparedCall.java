@@ -0,0 +1,164 @@
+package io.github.scorpio4938.LLMCall;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.service.utils.JsonStrings;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * An immutable, pre-serialized call template.
+ * <p>
+ * The model, system prompt and parameters are encoded into JSON fragments
+ * once, so each call only escapes the user message and concatenates. The
+ * resulting body is identical to what Gson produces for the equivalent
+ * request with parameters in sorted key order.
+ *
+ * <pre>
+ * PreparedCall classify = PreparedCall.builder(client, "deepseek-chat")
+ *         .withSystemPrompt("Classify the sentiment.")
+ *         .withParameter("max_tokens", 5)
+ *         .build();
+ * String label = classify.call("I love it");
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public final class PreparedCall {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final String USER_MESSAGE_START = "{\"role\":\"user\",\"content\":";
+
+    private final LLMApiClient client;
+    private final String head;
+    private final String tail;
+
+    private PreparedCall(Builder builder) {
+        this.client = builder.client;
+
+        StringBuilder json = new StringBuilder("{\"model\":");
+        JsonStrings.quote(client.getProvider().getModel(builder.model), json).append(",\"messages\":[");
+        if (builder.systemPrompt != null) {
+            json.append("{\"role\":\"system\",\"content\":");
+            JsonStrings.quote(builder.systemPrompt, json).append("},");
+        }
+        this.head = json.append(USER_MESSAGE_START).toString();
+        this.tail = "}],\"parameters\":" + GSON.toJson(builder.parameters) + "}";
+    }
+
+    /**
+     * Starts building a call template.
+     *
+     * @param client The client sending the calls
+     * @param model  The model to use
+     * @return The builder
+     * 
+     * @since 1.1.0
+     */
+    public static Builder builder(LLMApiClient client, String model) {
+        return new Builder(client, model);
+    }
+
+    /**
+     * Encodes the request body for a user message.
+     *
+     * @param userMessage The user message
+     * @return The JSON request body
+     * 
+     * @since 1.1.0
+     */
+    public String toRequestBody(String userMessage) {
+        StringBuilder body = new StringBuilder(head.length() + userMessage.length() + 16 + tail.length());
+        body.append(head);
+        JsonStrings.quote(userMessage, body);
+        return body.append(tail).toString();
+    }
+
+    /**
+     * Sends the call for a user message.
+     *
+     * @param userMessage The user message
+     * @return The parsed response
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse send(String userMessage) throws Exception {
+        return client.sendPreparedRequest(toRequestBody(userMessage));
+    }
+
+    /**
+     * Sends the call for a user message with a deadline and tenant.
+     *
+     * @param userMessage The user message
+     * @param options     The deadline and tenant of the call
+     * @return The parsed response
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse send(String userMessage, CallOptions options) throws Exception {
+        return client.sendPreparedRequest(toRequestBody(userMessage), options);
+    }
+
+    /**
+     * Sends the call for a user message and returns the answer.
+     *
+     * @param userMessage The user message
+     * @return The content of the first message in the response
+     * @throws Exception if there is an error while sending the request
+     * 
+     * @since 1.1.0
+     */
+    public String call(String userMessage) throws Exception {
+        return send(userMessage).getFirstMessageContent();
+    }
+
+    /**
+     * Builder for {@link PreparedCall}.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Builder {
+        private final LLMApiClient client;
+        private final String model;
+        private final Map<String, Object> parameters = new TreeMap<>();
+        private String systemPrompt;
+
+        private Builder(LLMApiClient client, String model) {
+            this.client = Objects.requireNonNull(client, "Client must not be null");
+            this.model = Objects.requireNonNull(model, "Model must not be null");
+        }
+
+        public Builder withSystemPrompt(String systemPrompt) {
+            this.systemPrompt = systemPrompt;
+            return this;
+        }
+
+        public Builder withParameter(String name, Object value) {
+            parameters.put(name, value);
+            return this;
+        }
+
+        public Builder withParameters(Map<String, Object> parameters) {
+            this.parameters.putAll(parameters);
+            return this;
+        }
+
+        /**
+         * Pre-serializes the template.
+         *
+         * @return The immutable call template
+         * @throws io.github.scorpio4938.LLMCall.providers.ModelNotSupportedException
+         *         if the provider does not offer the model
+         * 
+         * @since 1.1.0
+         */
+        public PreparedCall build() {
+            return new PreparedCall(this);
+        }
+    }
+}
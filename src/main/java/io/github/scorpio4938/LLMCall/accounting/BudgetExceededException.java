@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+public class BudgetExceededException extends RuntimeException {
+    public BudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+
+/**
+ * The price of a model, in USD per million tokens.
+ * 
+ * @since 1.1.0
+ */
+public final class ModelPrice {
+    private static final double NANOS_PER_USD = 1e9;
+
+    private final long inputNanosPerToken;
+    private final long cachedInputNanosPerToken;
+    private final long outputNanosPerToken;
+
+    /**
+     * Constructs a new price.
+     *
+     * @param inputPerMillion       USD per million uncached prompt tokens
+     * @param cachedInputPerMillion USD per million cached prompt tokens
+     * @param outputPerMillion      USD per million completion tokens
+     * 
+     * @since 1.1.0
+     */
+    public ModelPrice(double inputPerMillion, double cachedInputPerMillion, double outputPerMillion) {
+        this.inputNanosPerToken = toNanosPerToken(inputPerMillion);
+        this.cachedInputNanosPerToken = toNanosPerToken(cachedInputPerMillion);
+        this.outputNanosPerToken = toNanosPerToken(outputPerMillion);
+    }
+
+    /**
+     * Constructs a new price without a cached-input discount.
+     *
+     * @param inputPerMillion  USD per million prompt tokens
+     * @param outputPerMillion USD per million completion tokens
+     * 
+     * @since 1.1.0
+     */
+    public ModelPrice(double inputPerMillion, double outputPerMillion) {
+        this(inputPerMillion, inputPerMillion, outputPerMillion);
+    }
+
+    private static long toNanosPerToken(double perMillion) {
+        if (perMillion < 0) {
+            throw new IllegalArgumentException("Price must not be negative");
+        }
+        return Math.round(perMillion * NANOS_PER_USD / 1_000_000);
+    }
+
+    /**
+     * Computes the cost of a request.
+     *
+     * @param usage The reported usage
+     * @return The cost in billionths of a USD
+     * 
+     * @since 1.1.0
+     */
+    public long costNanos(LLMResponse.Usage usage) {
+        long cached = Math.min(usage.getCachedTokens(), usage.getPromptTokens());
+        return (usage.getPromptTokens() - cached) * inputNanosPerToken
+                + cached * cachedInputNanosPerToken
+                + usage.getCompletionTokens() * outputNanosPerToken;
+    }
+}
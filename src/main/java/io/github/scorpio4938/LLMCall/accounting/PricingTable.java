@@ -0,0 +1,45 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices per provider and model.
+ * 
+ * @since 1.1.0
+ */
+public class PricingTable {
+    private final Map<String, Map<String, ModelPrice>> prices = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the price of a model.
+     *
+     * @param provider The provider name, as returned by
+     *                 {@link io.github.scorpio4938.LLMCall.providers.Provider#getProvider()}
+     * @param model    The model name
+     * @param price    The price
+     * @return The updated PricingTable
+     * 
+     * @since 1.1.0
+     */
+    public PricingTable withPrice(String provider, String model, ModelPrice price) {
+        Objects.requireNonNull(price, "Price must not be null");
+        prices.computeIfAbsent(provider, key -> new ConcurrentHashMap<>()).put(model, price);
+        return this;
+    }
+
+    /**
+     * Gets the price of a model.
+     *
+     * @param provider The provider name
+     * @param model    The model name
+     * @return The price, or null if the model is not priced
+     * 
+     * @since 1.1.0
+     */
+    public ModelPrice priceOf(String provider, String model) {
+        Map<String, ModelPrice> models = prices.get(provider);
+        return models != null && model != null ? models.get(model) : null;
+    }
+}
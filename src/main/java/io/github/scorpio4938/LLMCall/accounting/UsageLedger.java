@@ -0,0 +1,219 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates token usage and cost by tenant, provider and model.
+ * <p>
+ * Counters are {@link LongAdder}s, so recording from many threads does not
+ * contend on a shared value; sums are only computed for snapshots and budget
+ * checks.
+ * 
+ * @since 1.1.0
+ */
+public class UsageLedger implements AutoCloseable {
+    /** The tenant used for calls that do not name one. */
+    public static final String DEFAULT_TENANT = "default";
+
+    private final PricingTable pricing;
+    private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> spendNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> budgetNanos = new ConcurrentHashMap<>();
+    private ScheduledExecutorService exporter;
+
+    public UsageLedger() {
+        this(new PricingTable());
+    }
+
+    /**
+     * Constructs a new ledger.
+     *
+     * @param pricing The prices used to compute costs
+     * 
+     * @since 1.1.0
+     */
+    public UsageLedger(PricingTable pricing) {
+        this.pricing = Objects.requireNonNull(pricing, "Pricing must not be null");
+    }
+
+    private static final class Key {
+        private final String tenant;
+        private final String provider;
+        private final String model;
+
+        private Key(String tenant, String provider, String model) {
+            this.tenant = tenant;
+            this.provider = provider;
+            this.model = model;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(provider, other.provider)
+                    && Objects.equals(model, other.model);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, provider, model);
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder cachedTokens = new LongAdder();
+        private final LongAdder costNanos = new LongAdder();
+    }
+
+    private static String tenantOf(String tenant) {
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    /**
+     * Sets the maximum spend of a tenant. Calls of the tenant are rejected once
+     * its recorded spend reaches the budget.
+     *
+     * @param tenant The tenant
+     * @param usd    The budget in USD
+     * @return The updated UsageLedger
+     * 
+     * @since 1.1.0
+     */
+    public UsageLedger withBudget(String tenant, double usd) {
+        budgetNanos.put(tenantOf(tenant), Math.round(usd * 1e9));
+        return this;
+    }
+
+    /**
+     * Records the usage of a call.
+     *
+     * @param tenant   The tenant, or null for the default tenant
+     * @param provider The provider name
+     * @param model    The model name
+     * @param usage    The reported usage
+     * 
+     * @since 1.1.0
+     */
+    public void record(String tenant, String provider, String model, LLMResponse.Usage usage) {
+        String tenantKey = tenantOf(tenant);
+        Counters entry = counters.computeIfAbsent(new Key(tenantKey, provider, model), key -> new Counters());
+        entry.calls.increment();
+        entry.promptTokens.add(usage.getPromptTokens());
+        entry.completionTokens.add(usage.getCompletionTokens());
+        entry.cachedTokens.add(usage.getCachedTokens());
+
+        ModelPrice price = pricing.priceOf(provider, model);
+        if (price != null) {
+            long cost = price.costNanos(usage);
+            entry.costNanos.add(cost);
+            spendNanos.computeIfAbsent(tenantKey, key -> new LongAdder()).add(cost);
+        }
+    }
+
+    /**
+     * Gets the recorded spend of a tenant.
+     *
+     * @param tenant The tenant, or null for the default tenant
+     * @return The spend in USD
+     * 
+     * @since 1.1.0
+     */
+    public double getSpend(String tenant) {
+        LongAdder spend = spendNanos.get(tenantOf(tenant));
+        return spend != null ? spend.sum() / 1e9 : 0;
+    }
+
+    /**
+     * Rejects a call if its tenant has exhausted its budget.
+     *
+     * @param tenant The tenant, or null for the default tenant
+     * @throws BudgetExceededException if the budget is exhausted
+     * 
+     * @since 1.1.0
+     */
+    public void checkBudget(String tenant) {
+        String tenantKey = tenantOf(tenant);
+        Long budget = budgetNanos.get(tenantKey);
+        if (budget == null) {
+            return;
+        }
+        LongAdder spend = spendNanos.get(tenantKey);
+        if (spend != null && spend.sum() >= budget) {
+            throw new BudgetExceededException("Tenant " + tenantKey + " exceeded its budget of $%.2f"
+                    .formatted(budget / 1e9));
+        }
+    }
+
+    /**
+     * Takes a snapshot of all counters.
+     *
+     * @return One snapshot per tenant, provider and model
+     * 
+     * @since 1.1.0
+     */
+    public List<UsageSnapshot> snapshot() {
+        List<UsageSnapshot> snapshots = new ArrayList<>(counters.size());
+        counters.forEach((key, entry) -> snapshots.add(new UsageSnapshot(key.tenant, key.provider, key.model,
+                entry.calls.sum(), entry.promptTokens.sum(), entry.completionTokens.sum(),
+                entry.cachedTokens.sum(), entry.costNanos.sum())));
+        return snapshots;
+    }
+
+    /**
+     * Periodically hands snapshots to an exporter on a background thread.
+     *
+     * @param period   The export interval
+     * @param consumer The exporter receiving each snapshot
+     * 
+     * @since 1.1.0
+     */
+    public synchronized void startExport(Duration period, Consumer<List<UsageSnapshot>> consumer) {
+        if (exporter != null) {
+            throw new IllegalStateException("Export already started");
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "llm-usage-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                consumer.accept(snapshot());
+            } catch (RuntimeException e) {
+                Debugger.log("ERROR", "Usage export failed: " + e.getMessage());
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic export.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public synchronized void close() {
+        if (exporter != null) {
+            exporter.shutdownNow();
+            exporter = null;
+        }
+    }
+}
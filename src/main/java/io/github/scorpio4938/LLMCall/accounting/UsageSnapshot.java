@@ -0,0 +1,86 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+/**
+ * The usage accumulated for one tenant, provider and model at a point in
+ * time.
+ * 
+ * @since 1.1.0
+ */
+public final class UsageSnapshot {
+    private final String tenant;
+    private final String provider;
+    private final String model;
+    private final long calls;
+    private final long promptTokens;
+    private final long completionTokens;
+    private final long cachedTokens;
+    private final long costNanos;
+
+    UsageSnapshot(String tenant, String provider, String model, long calls, long promptTokens,
+            long completionTokens, long cachedTokens, long costNanos) {
+        this.tenant = tenant;
+        this.provider = provider;
+        this.model = model;
+        this.calls = calls;
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+        this.cachedTokens = cachedTokens;
+        this.costNanos = costNanos;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public long getCachedTokens() {
+        return cachedTokens;
+    }
+
+    /**
+     * Gets the share of prompt tokens served from the provider's prefix cache.
+     *
+     * @return The cache hit rate between 0 and 1
+     * 
+     * @since 1.1.0
+     */
+    public double getCacheHitRate() {
+        return promptTokens > 0 ? (double) cachedTokens / promptTokens : 0;
+    }
+
+    /**
+     * Gets the accumulated cost.
+     *
+     * @return The cost in USD
+     * 
+     * @since 1.1.0
+     */
+    public double getCost() {
+        return costNanos / 1e9;
+    }
+
+    @Override
+    public String toString() {
+        return "%s/%s/%s: %d calls, %d prompt (%d cached) + %d completion tokens, $%.6f".formatted(
+                tenant, provider, model, calls, promptTokens, cachedTokens, completionTokens, getCost());
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.scorpio4938.LLMCall.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Client for OpenAI-style asynchronous batch endpoints: upload a JSONL file
+ * of requests, create a batch, poll it, and stream the results back.
+ * <p>
+ * Uploads stream from disk and results are parsed line by line from the
+ * response stream, so memory use does not depend on the number of requests.
+ * 
+ * @since 1.1.0
+ */
+public class BatchClient {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration UPLOAD_TIMEOUT = Duration.ofMinutes(30);
+    private static final String CHAT_COMPLETIONS_SUFFIX = "/chat/completions";
+
+    private final Provider provider;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+
+    private Duration initialPollDelay = Duration.ofSeconds(5);
+    private Duration maxPollDelay = Duration.ofMinutes(5);
+
+    /**
+     * Constructs a new BatchClient, deriving the API base URL from the
+     * provider's chat completions URL.
+     *
+     * @param provider The provider to use (must not be null)
+     * 
+     * @since 1.1.0
+     */
+    public BatchClient(Provider provider) {
+        this(provider, baseUrlOf(provider), HttpClient.newBuilder().connectTimeout(DEFAULT_TIMEOUT).build());
+    }
+
+    /**
+     * Constructs a new BatchClient with an explicit API base URL.
+     *
+     * @param provider   The provider to use (must not be null)
+     * @param baseUrl    The API base URL, e.g. {@code https://api.openai.com/v1}
+     * @param httpClient Custom HttpClient instance (must not be null)
+     * 
+     * @since 1.1.0
+     */
+    public BatchClient(Provider provider, String baseUrl, HttpClient httpClient) {
+        this.provider = Objects.requireNonNull(provider, "Provider must not be null");
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = Objects.requireNonNull(httpClient, "HttpClient must not be null");
+    }
+
+    private static String baseUrlOf(Provider provider) {
+        String url = provider.getUrl();
+        return url.endsWith(CHAT_COMPLETIONS_SUFFIX) ? url.substring(0, url.length() - CHAT_COMPLETIONS_SUFFIX.length())
+                : url;
+    }
+
+    /**
+     * Sets the polling backoff: the delay starts at the initial value and
+     * doubles up to the maximum.
+     *
+     * @param initialDelay The first polling delay
+     * @param maxDelay     The maximum polling delay
+     * @return The updated BatchClient
+     * 
+     * @since 1.1.0
+     */
+    public BatchClient withPollBackoff(Duration initialDelay, Duration maxDelay) {
+        this.initialPollDelay = initialDelay;
+        this.maxPollDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Uploads a batch input file, streaming it from disk.
+     *
+     * @param jsonl The batch input file
+     * @return The id of the uploaded file
+     * @throws Exception if the upload fails
+     * 
+     * @since 1.1.0
+     */
+    public String uploadFile(Path jsonl) throws Exception {
+        String boundary = "----LLMCall" + UUID.randomUUID().toString().replace("-", "");
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"purpose\"\r\n\r\nbatch\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + jsonl.getFileName() + "\"\r\n"
+                + "Content-Type: application/jsonl\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        HttpRequest request = newRequest("/files")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(UPLOAD_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofString(head),
+                        HttpRequest.BodyPublishers.ofFile(jsonl),
+                        HttpRequest.BodyPublishers.ofString(tail)))
+                .build();
+        Debugger.log("Uploading batch file: " + jsonl);
+        return GSON.fromJson(send(request), FileObject.class).id;
+    }
+
+    /**
+     * Creates a batch job from an uploaded input file.
+     *
+     * @param inputFileId The id of the uploaded input file
+     * @return The created job
+     * @throws Exception if the request fails
+     * 
+     * @since 1.1.0
+     */
+    public BatchJob createBatch(String inputFileId) throws Exception {
+        String body = GSON.toJson(Map.of(
+                "input_file_id", inputFileId,
+                "endpoint", BatchFileWriter.CHAT_COMPLETIONS_ENDPOINT,
+                "completion_window", "24h"));
+        HttpRequest request = newRequest("/batches")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return GSON.fromJson(send(request), BatchJob.class);
+    }
+
+    /**
+     * Gets the current state of a batch job.
+     *
+     * @param batchId The id of the job
+     * @return The job
+     * @throws Exception if the request fails
+     * 
+     * @since 1.1.0
+     */
+    public BatchJob getBatch(String batchId) throws Exception {
+        return GSON.fromJson(send(newRequest("/batches/" + batchId).GET().build()), BatchJob.class);
+    }
+
+    /**
+     * Polls a batch job with exponential backoff until it reaches a final
+     * status.
+     *
+     * @param batchId The id of the job
+     * @param timeout The maximum time to wait
+     * @return The job in its final status
+     * @throws TimeoutException if the job does not finish in time
+     * @throws Exception        if polling fails
+     * 
+     * @since 1.1.0
+     */
+    public BatchJob awaitCompletion(String batchId, Duration timeout) throws Exception {
+        Instant deadline = Instant.now().plus(timeout);
+        Duration delay = initialPollDelay;
+        while (true) {
+            BatchJob job = getBatch(batchId);
+            if (job.isTerminal()) {
+                return job;
+            }
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            if (remaining.isNegative() || remaining.isZero()) {
+                throw new TimeoutException("Batch " + batchId + " still " + job.getStatus() + " after " + timeout);
+            }
+            Debugger.log("Batch %s is %s, polling again in %dms".formatted(batchId, job.getStatus(), delay.toMillis()));
+            Thread.sleep(Math.min(delay.toMillis(), remaining.toMillis()));
+            delay = delay.multipliedBy(2).compareTo(maxPollDelay) > 0 ? maxPollDelay : delay.multipliedBy(2);
+        }
+    }
+
+    /**
+     * Streams a result file, parsing it line by line and handing each result to
+     * the handler.
+     *
+     * @param fileId  The id of the output (or error) file
+     * @param handler Consumer receiving each result, matched by custom id
+     * @return The number of results read
+     * @throws Exception if the download fails
+     * 
+     * @since 1.1.0
+     */
+    public long downloadResults(String fileId, Consumer<BatchResult> handler) throws Exception {
+        HttpRequest request = newRequest("/files/" + fileId + "/content").GET().build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() >= 400) {
+                throw new LLMResponseException(response.statusCode(),
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return readResults(body, handler);
+        }
+    }
+
+    /**
+     * Runs a whole batch: uploads the file, creates the job, waits for it and
+     * streams the results of the output and error files to the handler.
+     *
+     * @param jsonl   The batch input file
+     * @param timeout The maximum time to wait for the job
+     * @param handler Consumer receiving each result
+     * @return The job in its final status
+     * @throws Exception if any step fails
+     * 
+     * @since 1.1.0
+     */
+    public BatchJob run(Path jsonl, Duration timeout, Consumer<BatchResult> handler) throws Exception {
+        BatchJob job = createBatch(uploadFile(jsonl));
+        job = awaitCompletion(job.getId(), timeout);
+        if (job.getOutputFileId() != null) {
+            downloadResults(job.getOutputFileId(), handler);
+        }
+        if (job.getErrorFileId() != null) {
+            downloadResults(job.getErrorFileId(), handler);
+        }
+        return job;
+    }
+
+    static long readResults(InputStream body, Consumer<BatchResult> handler) throws IOException {
+        long count = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            ResultLine result = GSON.fromJson(line, ResultLine.class);
+            int statusCode = result.response != null ? result.response.statusCode : 0;
+            LLMResponse response = result.response != null ? result.response.body : null;
+            String error = result.error != null && !result.error.isJsonNull() ? result.error.toString() : null;
+            handler.accept(new BatchResult(result.customId, statusCode, response, error));
+            count++;
+        }
+        return count;
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + provider.getKey())
+                .timeout(DEFAULT_TIMEOUT);
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new LLMResponseException(response);
+        }
+        return response.body();
+    }
+
+    private static class FileObject {
+        @SerializedName("id")
+        private String id;
+    }
+
+    private static class ResultLine {
+        @SerializedName("custom_id")
+        private String customId;
+        @SerializedName("response")
+        private Response response;
+        @SerializedName("error")
+        private JsonElement error;
+
+        private static class Response {
+            @SerializedName("status_code")
+            private int statusCode;
+            @SerializedName("body")
+            private LLMResponse body;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.scorpio4938.LLMCall.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams requests into a batch input file (one JSON request per line).
+ * <p>
+ * Each request is written as soon as it is added, so files with millions of
+ * lines are staged without holding the requests in memory.
+ * 
+ * @since 1.1.0
+ */
+public class BatchFileWriter implements Closeable {
+    private static final Gson GSON = new GsonBuilder().create();
+    static final String CHAT_COMPLETIONS_ENDPOINT = "/v1/chat/completions";
+
+    private final Path path;
+    private final Writer writer;
+    private long lines = 0;
+
+    /**
+     * Creates (or truncates) the batch file.
+     *
+     * @param path The file to write
+     * @throws IOException if the file cannot be opened
+     * 
+     * @since 1.1.0
+     */
+    public BatchFileWriter(Path path) throws IOException {
+        this.path = path;
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8),
+                1 << 16);
+    }
+
+    /**
+     * Adds a request.
+     *
+     * @param customId The id used to match the result to the request
+     * @param request  The request
+     * @throws IOException if writing fails
+     * 
+     * @since 1.1.0
+     */
+    public void add(String customId, LLMRequest request) throws IOException {
+        writer.write("{\"custom_id\":");
+        writer.write(GSON.toJson(customId));
+        writer.write(",\"method\":\"POST\",\"url\":\"" + CHAT_COMPLETIONS_ENDPOINT + "\",\"body\":");
+        GSON.toJson(request, writer);
+        writer.write("}\n");
+        lines++;
+    }
+
+    /**
+     * Adds a request built from a model, messages and parameters.
+     *
+     * @param customId The id used to match the result to the request
+     * @param model    The model to use
+     * @param messages The conversation
+     * @param params   Additional parameters for the LLM call
+     * @throws IOException if writing fails
+     * 
+     * @since 1.1.0
+     */
+    public void add(String customId, String model, List<LLMRequest.Message> messages, Map<String, Object> params)
+            throws IOException {
+        LLMRequest request = new LLMRequest(model, messages);
+        request.addParameters(params);
+        add(customId, request);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.scorpio4938.LLMCall.batch;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Set;
+
+/**
+ * Represents the state of a provider batch job.
+ * 
+ * @since 1.1.0
+ */
+public class BatchJob {
+    private static final Set<String> TERMINAL_STATUSES = Set.of("completed", "failed", "expired", "cancelled");
+
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("input_file_id")
+    private String inputFileId;
+
+    @SerializedName("output_file_id")
+    private String outputFileId;
+
+    @SerializedName("error_file_id")
+    private String errorFileId;
+
+    @SerializedName("request_counts")
+    private RequestCounts requestCounts;
+
+    /**
+     * Represents the request counters of a batch job.
+     * 
+     * @since 1.1.0
+     */
+    public static class RequestCounts {
+        @SerializedName("total")
+        private long total;
+        @SerializedName("completed")
+        private long completed;
+        @SerializedName("failed")
+        private long failed;
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+    }
+
+    /**
+     * Checks whether the job reached a final status.
+     *
+     * @return true if the job is completed, failed, expired or cancelled
+     * 
+     * @since 1.1.0
+     */
+    public boolean isTerminal() {
+        return status != null && TERMINAL_STATUSES.contains(status);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getInputFileId() {
+        return inputFileId;
+    }
+
+    public String getOutputFileId() {
+        return outputFileId;
+    }
+
+    public String getErrorFileId() {
+        return errorFileId;
+    }
+
+    public RequestCounts getRequestCounts() {
+        return requestCounts;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.scorpio4938.LLMCall.batch;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+
+/**
+ * The result of one request of a batch job.
+ * 
+ * @since 1.1.0
+ */
+public final class BatchResult {
+    private final String customId;
+    private final int statusCode;
+    private final LLMResponse response;
+    private final String error;
+
+    BatchResult(String customId, int statusCode, LLMResponse response, String error) {
+        this.customId = customId;
+        this.statusCode = statusCode;
+        this.response = response;
+        this.error = error;
+    }
+
+    public String getCustomId() {
+        return customId;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public LLMResponse getResponse() {
+        return response;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null && statusCode < 400 && response != null;
+    }
+}
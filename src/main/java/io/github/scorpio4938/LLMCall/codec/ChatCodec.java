@@ -0,0 +1,75 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+
+/**
+ * Encodes chat completion requests and decodes their responses.
+ * <p>
+ * The {@link #gson() Gson codec} maps the message classes by reflection and
+ * is the default. The {@link #direct() direct codec} is specialized for the
+ * OpenAI chat schema: it writes requests straight into UTF-8 bytes and reads
+ * responses in a single pass, picking only the fields the client uses. Both
+ * produce the same bytes and decode the same values.
+ * 
+ * @since 1.1.0
+ */
+public interface ChatCodec {
+
+    /**
+     * Gets the reflective codec based on Gson.
+     *
+     * @return The codec
+     * 
+     * @since 1.1.0
+     */
+    static ChatCodec gson() {
+        return GsonChatCodec.INSTANCE;
+    }
+
+    /**
+     * Gets the codec specialized for the OpenAI chat schema.
+     *
+     * @return The codec
+     * 
+     * @since 1.1.0
+     */
+    static ChatCodec direct() {
+        return DirectChatCodec.INSTANCE;
+    }
+
+    /**
+     * Encodes a request body.
+     *
+     * @param request The request
+     * @return The JSON body in UTF-8
+     * 
+     * @since 1.1.0
+     */
+    byte[] encodeRequest(LLMRequest request);
+
+    /**
+     * Decodes a response body.
+     *
+     * @param body The JSON body
+     * @return The response, or null for an empty body
+     * @throws com.google.gson.JsonSyntaxException if the body is not valid JSON
+     *                                             of the expected shape
+     * 
+     * @since 1.1.0
+     */
+    LLMResponse decodeResponse(String body);
+
+    /**
+     * Decodes the content added by one server-sent event of a streamed
+     * response.
+     *
+     * @param payload The JSON data of the event
+     * @return The content of the first choice's delta, or null if there is none
+     * @throws com.google.gson.JsonSyntaxException if the payload is not valid
+     *                                             JSON of the expected shape
+     * 
+     * @since 1.1.0
+     */
+    String decodeDeltaContent(String payload);
+}
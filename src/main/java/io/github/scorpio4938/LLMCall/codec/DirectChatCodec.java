@@ -0,0 +1,457 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The codec specialized for the OpenAI chat schema.
+ * <p>
+ * Requests are written field by field in the order Gson uses for
+ * {@link LLMRequest}, omitting nulls the same way. Parameter values of
+ * common types (strings, booleans, integers, finite floating point numbers,
+ * maps and collections of these) are written directly; any other value is
+ * delegated to Gson, so the output stays byte-identical. Responses are read
+ * in one pass, skipping every field the message classes do not hold.
+ * 
+ * @since 1.1.0
+ */
+final class DirectChatCodec implements ChatCodec {
+    static final DirectChatCodec INSTANCE = new DirectChatCodec();
+
+    private DirectChatCodec() {
+    }
+
+    @Override
+    public byte[] encodeRequest(LLMRequest request) {
+        JsonOutput out = new JsonOutput(1024);
+        out.writeByte('{');
+        boolean first = true;
+        if (request.getModel() != null) {
+            out.writeAscii("\"model\":");
+            out.writeQuoted(request.getModel());
+            first = false;
+        }
+        if (request.getMessages() != null) {
+            out.writeAscii(first ? "\"messages\":[" : ",\"messages\":[");
+            boolean firstMessage = true;
+            for (LLMRequest.Message message : request.getMessages()) {
+                if (!firstMessage) {
+                    out.writeByte(',');
+                }
+                writeMessage(message, out);
+                firstMessage = false;
+            }
+            out.writeByte(']');
+            first = false;
+        }
+        out.writeAscii(first ? "\"parameters\":" : ",\"parameters\":");
+        writeValue(request.getParameters(), out);
+        if (request.getTools() != null) {
+            out.writeAscii(",\"tools\":[");
+            boolean firstTool = true;
+            for (LLMRequest.Tool tool : request.getTools()) {
+                out.writeAscii(firstTool ? "" : ",");
+                writeTool(tool, out);
+                firstTool = false;
+            }
+            out.writeByte(']');
+        }
+        if (request.isStream()) {
+            out.writeAscii(",\"stream\":true");
+        }
+        if (request.getResponseFormat() != null) {
+            out.writeAscii(",\"response_format\":");
+            writeValue(request.getResponseFormat(), out);
+        }
+        out.writeByte('}');
+        return out.toByteArray();
+    }
+
+    private static void writeMessage(LLMRequest.Message message, JsonOutput out) {
+        if (message == null) {
+            out.writeAscii("null");
+            return;
+        }
+        String separator = "{";
+        if (message.getRole() != null) {
+            out.writeAscii("{\"role\":");
+            out.writeQuoted(message.getRole());
+            separator = ",";
+        }
+        if (message.getContent() != null) {
+            out.writeAscii(separator);
+            out.writeAscii("\"content\":");
+            out.writeQuoted(message.getContent());
+            separator = ",";
+        }
+        if (message.getToolCalls() != null) {
+            out.writeAscii(separator);
+            out.writeAscii("\"tool_calls\":[");
+            boolean first = true;
+            for (ToolCall call : message.getToolCalls()) {
+                out.writeAscii(first ? "" : ",");
+                writeToolCall(call, out);
+                first = false;
+            }
+            out.writeByte(']');
+            separator = ",";
+        }
+        if (message.getToolCallId() != null) {
+            out.writeAscii(separator);
+            out.writeAscii("\"tool_call_id\":");
+            out.writeQuoted(message.getToolCallId());
+            separator = ",";
+        }
+        out.writeAscii(separator.equals("{") ? "{}" : "}");
+    }
+
+    private static void writeToolCall(ToolCall call, JsonOutput out) {
+        if (call == null) {
+            out.writeAscii("null");
+            return;
+        }
+        String separator = "{";
+        if (call.getId() != null) {
+            out.writeAscii("{\"id\":");
+            out.writeQuoted(call.getId());
+            separator = ",";
+        }
+        if (call.getType() != null) {
+            out.writeAscii(separator);
+            out.writeAscii("\"type\":");
+            out.writeQuoted(call.getType());
+            separator = ",";
+        }
+        ToolCall.Function function = call.getFunction();
+        if (function != null) {
+            out.writeAscii(separator);
+            out.writeAscii("\"function\":");
+            String inner = "{";
+            if (function.getName() != null) {
+                out.writeAscii("{\"name\":");
+                out.writeQuoted(function.getName());
+                inner = ",";
+            }
+            if (function.getArguments() != null) {
+                out.writeAscii(inner);
+                out.writeAscii("\"arguments\":");
+                out.writeQuoted(function.getArguments());
+                inner = ",";
+            }
+            out.writeAscii(inner.equals("{") ? "{}" : "}");
+            separator = ",";
+        }
+        out.writeAscii(separator.equals("{") ? "{}" : "}");
+    }
+
+    private static void writeTool(LLMRequest.Tool tool, JsonOutput out) {
+        if (tool == null) {
+            out.writeAscii("null");
+            return;
+        }
+        out.writeAscii("{\"type\":");
+        out.writeQuoted(tool.getType());
+        LLMRequest.Tool.Function function = tool.getFunction();
+        if (function != null) {
+            out.writeAscii(",\"function\":");
+            String separator = "{";
+            if (function.getName() != null) {
+                out.writeAscii("{\"name\":");
+                out.writeQuoted(function.getName());
+                separator = ",";
+            }
+            if (function.getDescription() != null) {
+                out.writeAscii(separator);
+                out.writeAscii("\"description\":");
+                out.writeQuoted(function.getDescription());
+                separator = ",";
+            }
+            if (function.getParameters() != null) {
+                out.writeAscii(separator);
+                out.writeAscii("\"parameters\":");
+                writeValue(function.getParameters(), out);
+                separator = ",";
+            }
+            out.writeAscii(separator.equals("{") ? "{}" : "}");
+        }
+        out.writeByte('}');
+    }
+
+    /**
+     * Writes a value of a {@code Map<String, Object>}, as Gson does for its
+     * runtime type.
+     */
+    private static void writeValue(Object value, JsonOutput out) {
+        if (value == null) {
+            out.writeAscii("null");
+        } else if (value instanceof String) {
+            out.writeQuoted((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeAscii(value.toString());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            out.writeAscii(value.toString());
+        } else if ((value instanceof Double || value instanceof Float)
+                && Double.isFinite(((Number) value).doubleValue())) {
+            out.writeAscii(value.toString());
+        } else if (value instanceof Map) {
+            out.writeByte('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getValue() == null) {
+                    continue; // Gson omits null properties
+                }
+                if (!first) {
+                    out.writeByte(',');
+                }
+                out.writeQuoted(String.valueOf(entry.getKey()));
+                out.writeByte(':');
+                writeValue(entry.getValue(), out);
+                first = false;
+            }
+            out.writeByte('}');
+        } else if (value instanceof Collection) {
+            out.writeByte('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) {
+                    out.writeByte(',');
+                }
+                writeValue(element, out);
+                first = false;
+            }
+            out.writeByte(']');
+        } else {
+            out.writeRaw(GsonChatCodec.GSON.toJson(value));
+        }
+    }
+
+    @Override
+    public LLMResponse decodeResponse(String body) {
+        JsonScanner scanner = new JsonScanner(body);
+        if (scanner.isAtEnd() || !scanner.beginObject()) {
+            return null;
+        }
+        String id = null;
+        String model = null;
+        LLMResponse.Choice[] choices = null;
+        LLMResponse.Usage usage = null;
+        for (String name; (name = scanner.nextName()) != null;) {
+            switch (name) {
+                case "id":
+                    id = scanner.readString();
+                    break;
+                case "model":
+                    model = scanner.readString();
+                    break;
+                case "choices":
+                    choices = readChoices(scanner);
+                    break;
+                case "usage":
+                    usage = readUsage(scanner);
+                    break;
+                default:
+                    scanner.skipValue();
+            }
+        }
+        return new LLMResponse(id, model, choices, usage);
+    }
+
+    private static LLMResponse.Choice[] readChoices(JsonScanner scanner) {
+        if (!scanner.beginArray()) {
+            return null;
+        }
+        List<LLMResponse.Choice> choices = new ArrayList<>(1);
+        while (scanner.nextElement()) {
+            if (!scanner.beginObject()) {
+                choices.add(null);
+                continue;
+            }
+            LLMResponse.Choice.Message message = null;
+            String finishReason = null;
+            for (String name; (name = scanner.nextName()) != null;) {
+                if (name.equals("message")) {
+                    message = readMessage(scanner);
+                } else if (name.equals("finish_reason")) {
+                    finishReason = scanner.readString();
+                } else {
+                    scanner.skipValue();
+                }
+            }
+            choices.add(new LLMResponse.Choice(message, finishReason));
+        }
+        return choices.toArray(new LLMResponse.Choice[0]);
+    }
+
+    private static LLMResponse.Choice.Message readMessage(JsonScanner scanner) {
+        if (!scanner.beginObject()) {
+            return null;
+        }
+        String role = null;
+        String content = null;
+        List<ToolCall> toolCalls = null;
+        for (String name; (name = scanner.nextName()) != null;) {
+            switch (name) {
+                case "role":
+                    role = scanner.readString();
+                    break;
+                case "content":
+                    content = scanner.readString();
+                    break;
+                case "tool_calls":
+                    toolCalls = readToolCalls(scanner);
+                    break;
+                default:
+                    scanner.skipValue();
+            }
+        }
+        return new LLMResponse.Choice.Message(role, content, toolCalls);
+    }
+
+    private static List<ToolCall> readToolCalls(JsonScanner scanner) {
+        if (!scanner.beginArray()) {
+            return null;
+        }
+        List<ToolCall> calls = new ArrayList<>();
+        while (scanner.nextElement()) {
+            if (!scanner.beginObject()) {
+                calls.add(null);
+                continue;
+            }
+            String id = null;
+            String type = null;
+            ToolCall.Function function = null;
+            for (String name; (name = scanner.nextName()) != null;) {
+                switch (name) {
+                    case "id":
+                        id = scanner.readString();
+                        break;
+                    case "type":
+                        type = scanner.readString();
+                        break;
+                    case "function":
+                        function = readFunction(scanner);
+                        break;
+                    default:
+                        scanner.skipValue();
+                }
+            }
+            calls.add(new ToolCall(id, type, function));
+        }
+        return calls;
+    }
+
+    private static ToolCall.Function readFunction(JsonScanner scanner) {
+        if (!scanner.beginObject()) {
+            return null;
+        }
+        String name = null;
+        String arguments = null;
+        for (String field; (field = scanner.nextName()) != null;) {
+            if (field.equals("name")) {
+                name = scanner.readString();
+            } else if (field.equals("arguments")) {
+                arguments = scanner.readString();
+            } else {
+                scanner.skipValue();
+            }
+        }
+        return new ToolCall.Function(name, arguments);
+    }
+
+    private static LLMResponse.Usage readUsage(JsonScanner scanner) {
+        if (!scanner.beginObject()) {
+            return null;
+        }
+        long promptTokens = 0;
+        long completionTokens = 0;
+        long totalTokens = 0;
+        Long detailsCachedTokens = null;
+        Long cacheHitTokens = null;
+        for (String name; (name = scanner.nextName()) != null;) {
+            switch (name) {
+                case "prompt_tokens":
+                    promptTokens = orZero(scanner.readLong());
+                    break;
+                case "completion_tokens":
+                    completionTokens = orZero(scanner.readLong());
+                    break;
+                case "total_tokens":
+                    totalTokens = orZero(scanner.readLong());
+                    break;
+                case "prompt_tokens_details":
+                    detailsCachedTokens = null;
+                    if (scanner.beginObject()) {
+                        detailsCachedTokens = 0L;
+                        for (String field; (field = scanner.nextName()) != null;) {
+                            if (field.equals("cached_tokens")) {
+                                detailsCachedTokens = orZero(scanner.readLong());
+                            } else {
+                                scanner.skipValue();
+                            }
+                        }
+                    }
+                    break;
+                case "prompt_cache_hit_tokens":
+                    cacheHitTokens = scanner.readLong();
+                    break;
+                default:
+                    scanner.skipValue();
+            }
+        }
+        long cachedTokens = detailsCachedTokens != null ? detailsCachedTokens
+                : cacheHitTokens != null ? cacheHitTokens : 0;
+        return new LLMResponse.Usage(promptTokens, completionTokens, totalTokens, cachedTokens);
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    @Override
+    public String decodeDeltaContent(String payload) {
+        JsonScanner scanner = new JsonScanner(payload);
+        if (scanner.isAtEnd() || !scanner.beginObject()) {
+            throw new NullPointerException("Empty stream chunk"); // Gson's chunk would be null too
+        }
+        String content = null;
+        for (String name; (name = scanner.nextName()) != null;) {
+            if (!name.equals("choices")) {
+                scanner.skipValue();
+                continue;
+            }
+            content = null;
+            if (!scanner.beginArray()) {
+                continue;
+            }
+            boolean first = true;
+            while (scanner.nextElement()) {
+                if (first && scanner.beginObject()) {
+                    for (String field; (field = scanner.nextName()) != null;) {
+                        if (field.equals("delta") && scanner.beginObject()) {
+                            for (String delta; (delta = scanner.nextName()) != null;) {
+                                if (delta.equals("content")) {
+                                    content = scanner.readString();
+                                } else {
+                                    scanner.skipValue();
+                                }
+                            }
+                        } else if (!field.equals("delta")) {
+                            scanner.skipValue();
+                        }
+                    }
+                } else if (!first) {
+                    scanner.skipValue();
+                }
+                first = false;
+            }
+        }
+        return content;
+    }
+}
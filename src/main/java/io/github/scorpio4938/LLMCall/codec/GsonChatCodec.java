@@ -0,0 +1,38 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.messages.LLMStreamChunk;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The reflective codec, with the library's default Gson settings.
+ * 
+ * @since 1.1.0
+ */
+final class GsonChatCodec implements ChatCodec {
+    static final GsonChatCodec INSTANCE = new GsonChatCodec();
+    static final Gson GSON = new GsonBuilder().create();
+
+    private GsonChatCodec() {
+    }
+
+    @Override
+    public byte[] encodeRequest(LLMRequest request) {
+        return GSON.toJson(request).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public LLMResponse decodeResponse(String body) {
+        return GSON.fromJson(body, LLMResponse.class);
+    }
+
+    @Override
+    public String decodeDeltaContent(String payload) {
+        return GSON.fromJson(payload, LLMStreamChunk.class).getFirstDeltaContent();
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import io.github.scorpio4938.LLMCall.service.utils.JsonStrings;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable UTF-8 byte buffer with a JSON string escaper matching the
+ * library's Gson instances, as defined by {@link JsonStrings}.
+ * <p>
+ * Unpaired surrogates are written as {@code ?}, like
+ * {@code String.getBytes(UTF_8)} does for Gson's output.
+ * 
+ * @since 1.1.0
+ */
+final class JsonOutput {
+    private static final byte[][] ESCAPES = new byte[128][];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            String replacement = JsonStrings.replacement(c);
+            if (replacement != null) {
+                ESCAPES[c] = replacement.getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    private byte[] buffer;
+    private int count;
+
+    JsonOutput(int capacity) {
+        this.buffer = new byte[Math.max(64, capacity)];
+    }
+
+    void writeByte(char c) {
+        ensure(1);
+        buffer[count++] = (byte) c;
+    }
+
+    /**
+     * Writes a fragment known to be ASCII, such as a quoted field name.
+     */
+    void writeAscii(String ascii) {
+        int length = ascii.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    /**
+     * Writes already encoded JSON text.
+     */
+    void writeRaw(String json) {
+        write(json, false);
+    }
+
+    void writeQuoted(String value) {
+        writeByte('"');
+        write(value, true);
+        writeByte('"');
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    private void write(String value, boolean escape) {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte[] replacement = escape ? ESCAPES[c] : null;
+                if (replacement == null) {
+                    buffer[count++] = (byte) c; // Reserved by the last ensure
+                    continue;
+                }
+                ensure(replacement.length + length - i);
+                System.arraycopy(replacement, 0, buffer, count, replacement.length);
+                count += replacement.length;
+                continue;
+            }
+            ensure(6 + length - i);
+            if (c < 0x800) {
+                buffer[count++] = (byte) (0xc0 | c >> 6);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[count++] = (byte) (0xf0 | codePoint >> 18);
+                buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                buffer[count++] = '?';
+            } else if (escape && (c == '\u2028' || c == '\u2029')) {
+                writeAscii(JsonStrings.replacement(c));
+            } else {
+                buffer[count++] = (byte) (0xe0 | c >> 12);
+                buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+    }
+
+    private void ensure(int extra) {
+        if (count + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + extra));
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * A minimal pull scanner over a JSON text, reading values in one pass and
+ * skipping the ones it is not asked for.
+ * <p>
+ * Scalars are coerced the way Gson's default adapters coerce them into
+ * {@code String} and {@code long} fields.
+ * 
+ * @since 1.1.0
+ */
+final class JsonScanner {
+    private final String json;
+    private int position;
+
+    JsonScanner(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Tells whether only whitespace is left.
+     */
+    boolean isAtEnd() {
+        skipWhitespace();
+        return position == json.length();
+    }
+
+    /**
+     * Consumes a {@code null} literal if one comes next.
+     */
+    boolean nextIsNull() {
+        skipWhitespace();
+        if (json.startsWith("null", position)) {
+            position += 4;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Enters an object.
+     *
+     * @return False if the value is null
+     */
+    boolean beginObject() {
+        if (nextIsNull()) {
+            return false;
+        }
+        expect('{');
+        return true;
+    }
+
+    /**
+     * Reads the next property name of the current object.
+     *
+     * @return The name, or null once the object is closed
+     */
+    String nextName() {
+        skipWhitespace();
+        char c = peek();
+        if (c == '}') {
+            position++;
+            return null;
+        }
+        if (c == ',') {
+            position++;
+            skipWhitespace();
+        }
+        String name = readQuoted();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Enters an array.
+     *
+     * @return False if the value is null
+     */
+    boolean beginArray() {
+        if (nextIsNull()) {
+            return false;
+        }
+        expect('[');
+        return true;
+    }
+
+    /**
+     * Moves to the next element of the current array.
+     *
+     * @return False once the array is closed
+     */
+    boolean nextElement() {
+        skipWhitespace();
+        char c = peek();
+        if (c == ']') {
+            position++;
+            return false;
+        }
+        if (c == ',') {
+            position++;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a value as Gson reads it into a {@code String} field: strings as
+     * is, numbers and booleans as their literal text.
+     */
+    String readString() {
+        if (nextIsNull()) {
+            return null;
+        }
+        char c = peek();
+        if (c == '"') {
+            return readQuoted();
+        }
+        if (c == '{' || c == '[') {
+            throw syntaxError("Expected a string");
+        }
+        return readLiteral();
+    }
+
+    /**
+     * Reads a value as Gson reads it into a {@code long} field.
+     *
+     * @return The value, or null for a JSON null
+     */
+    Long readLong() {
+        if (nextIsNull()) {
+            return null;
+        }
+        String text = peek() == '"' ? readQuoted() : readLiteral();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            try {
+                double value = Double.parseDouble(text);
+                if ((long) value == value) {
+                    return (long) value;
+                }
+            } catch (NumberFormatException ignored) {
+                // Reported below
+            }
+            throw syntaxError("Expected a long but was " + text);
+        }
+    }
+
+    /**
+     * Skips a value of any type.
+     */
+    void skipValue() {
+        skipWhitespace();
+        char c = peek();
+        if (c == '"') {
+            readQuoted();
+        } else if (c == '{') {
+            position++;
+            while (nextName() != null) {
+                skipValue();
+            }
+        } else if (c == '[') {
+            position++;
+            while (nextElement()) {
+                skipValue();
+            }
+        } else {
+            readLiteral();
+        }
+    }
+
+    private String readQuoted() {
+        expect('"');
+        int start = position;
+        int length = json.length();
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                return json.substring(start, position++);
+            }
+            if (c == '\\') {
+                return readEscaped(start);
+            }
+            position++;
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readEscaped(int start) {
+        StringBuilder value = new StringBuilder(position - start + 16).append(json, start, position);
+        int length = json.length();
+        while (position < length) {
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position == length) {
+                break;
+            }
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (position + 4 > length) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw syntaxError("Malformed escape sequence");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped); // Quote, backslash, slash and lenient escapes
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readLiteral() {
+        skipWhitespace();
+        int start = position;
+        int length = json.length();
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) {
+                break;
+            }
+            position++;
+        }
+        if (start == position) {
+            throw syntaxError("Expected a value");
+        }
+        return json.substring(start, position);
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (peek() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    private char peek() {
+        if (position >= json.length()) {
+            throw syntaxError("End of input");
+        }
+        return json.charAt(position);
+    }
+
+    private void skipWhitespace() {
+        int length = json.length();
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private JsonSyntaxException syntaxError(String message) {
+        return new JsonSyntaxException(message + " at position " + position);
+    }
+}
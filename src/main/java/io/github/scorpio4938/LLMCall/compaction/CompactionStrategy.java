@@ -0,0 +1,96 @@
+package io.github.scorpio4938.LLMCall.compaction;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Shrinks a conversation that does not fit a model's context window.
+ * <p>
+ * Strategies keep the leading system messages and the newest message; what
+ * happens to the turns in between is up to the strategy.
+ * 
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface CompactionStrategy {
+
+    /**
+     * Compacts the messages of a request.
+     *
+     * @param messages The messages, which do not fit the budget
+     * @param budget   The number of prompt tokens available
+     * @param tokens   Estimates the tokens of a message
+     * @return The messages to send
+     * 
+     * @since 1.1.0
+     */
+    List<LLMRequest.Message> compact(List<LLMRequest.Message> messages, int budget,
+            ToIntFunction<LLMRequest.Message> tokens);
+
+    /**
+     * Drops the oldest turns until the rest fits.
+     *
+     * @return The strategy
+     * 
+     * @since 1.1.0
+     */
+    static CompactionStrategy dropOldest() {
+        return headAndTail(0);
+    }
+
+    /**
+     * Keeps the first turns after the system messages, which usually state the
+     * task, and as many of the newest turns as fit; the turns in between are
+     * dropped. Falls back to dropping the oldest turns when the head alone
+     * does not fit.
+     *
+     * @param headMessages The number of messages to keep after the system
+     *                     messages
+     * @return The strategy
+     * 
+     * @since 1.1.0
+     */
+    static CompactionStrategy headAndTail(int headMessages) {
+        if (headMessages < 0) {
+            throw new IllegalArgumentException("Head messages must not be negative");
+        }
+        return (messages, budget, tokens) -> {
+            int system = ContextCompactor.systemPrefix(messages);
+            int head = Math.min(system + headMessages, messages.size() - 1);
+            int used = 0;
+            for (int i = 0; i < head; i++) {
+                used += tokens.applyAsInt(messages.get(i));
+            }
+            if (head > system && used + tokens.applyAsInt(messages.get(messages.size() - 1)) > budget) {
+                head = system; // The head does not fit, keep only the system messages
+                used = 0;
+                for (int i = 0; i < head; i++) {
+                    used += tokens.applyAsInt(messages.get(i));
+                }
+            }
+            int tail = ContextCompactor.fitTail(messages, head, budget - used, tokens);
+            List<LLMRequest.Message> compacted = new ArrayList<>(messages.subList(0, head));
+            compacted.addAll(messages.subList(tail, messages.size()));
+            return compacted;
+        };
+    }
+
+    /**
+     * Replaces older turns with a summary written by a (cheaper) model.
+     * Summaries are produced in the background and cached; until one is ready,
+     * the oldest turns are dropped.
+     *
+     * @param client The client of the summarizing model
+     * @param model  The summarizing model
+     * @return The strategy
+     * 
+     * @since 1.1.0
+     */
+    static SummarizingStrategy summarize(LLMApiClient client, String model) {
+        return new SummarizingStrategy(client, model);
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.scorpio4938.LLMCall.compaction;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+import io.github.scorpio4938.LLMCall.service.utils.TokenEstimator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * The pre-send stage fitting a conversation into the model's context window.
+ * <p>
+ * The prompt size is estimated against the context limit registered with
+ * {@link io.github.scorpio4938.LLMCall.providers.Provider#withContextLimit},
+ * minus the tokens reserved for the answer ({@code max_tokens} when the
+ * call sets it). Conversations over budget are compacted by the strategy; if
+ * even the compacted messages do not fit, the call fails before it is sent.
+ *
+ * <pre>
+ * client.setContextCompaction(new ContextCompactor(CompactionStrategy.dropOldest()));
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public class ContextCompactor {
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private final CompactionStrategy strategy;
+    private int outputReserve = 1024;
+    private ToIntFunction<CharSequence> estimator = TokenEstimator::estimate;
+
+    public ContextCompactor(CompactionStrategy strategy) {
+        this.strategy = Objects.requireNonNull(strategy, "Strategy must not be null");
+    }
+
+    /**
+     * Sets the tokens reserved for the answer when the call does not set
+     * {@code max_tokens}. Defaults to 1024.
+     *
+     * @param outputReserve The reserved tokens
+     * @return This compactor
+     * 
+     * @since 1.1.0
+     */
+    public ContextCompactor withOutputReserve(int outputReserve) {
+        if (outputReserve < 0) {
+            throw new IllegalArgumentException("Output reserve must not be negative");
+        }
+        this.outputReserve = outputReserve;
+        return this;
+    }
+
+    /**
+     * Sets the token estimator, e.g. a real tokenizer for the model family.
+     * Defaults to {@link TokenEstimator#estimate}.
+     *
+     * @param estimator Counts the tokens of a text
+     * @return This compactor
+     * 
+     * @since 1.1.0
+     */
+    public ContextCompactor withTokenEstimator(ToIntFunction<CharSequence> estimator) {
+        this.estimator = Objects.requireNonNull(estimator, "Estimator must not be null");
+        return this;
+    }
+
+    /**
+     * Fits the messages of a request into a context window.
+     *
+     * @param contextLimit The context window in tokens, or 0 if unknown
+     * @param messages     The messages
+     * @param params       The call parameters
+     * @return The messages unchanged if they fit, otherwise the compacted ones
+     * @throws ContextLimitExceededException if the messages cannot be made to
+     *                                       fit
+     * 
+     * @since 1.1.0
+     */
+    public List<LLMRequest.Message> compact(int contextLimit, List<LLMRequest.Message> messages,
+            Map<String, Object> params) {
+        if (contextLimit <= 0 || messages.isEmpty()) {
+            return messages;
+        }
+        Object maxTokens = params != null ? params.get("max_tokens") : null;
+        int budget = contextLimit - (maxTokens instanceof Number ? ((Number) maxTokens).intValue() : outputReserve);
+        int size = estimateTokens(messages);
+        if (size <= budget) {
+            return messages;
+        }
+
+        List<LLMRequest.Message> compacted = budget > 0 ? strategy.compact(messages, budget, this::messageTokens)
+                : messages;
+        int compactedSize = estimateTokens(compacted);
+        if (compactedSize > budget) {
+            throw new ContextLimitExceededException("Prompt of about " + compactedSize
+                    + " tokens does not fit the context budget of " + budget + " tokens");
+        }
+        Debugger.log("Compacted " + messages.size() + " messages (~" + size + " tokens) to " + compacted.size()
+                + " messages (~" + compactedSize + " tokens)");
+        return compacted;
+    }
+
+    /**
+     * Estimates the prompt tokens of messages.
+     *
+     * @param messages The messages
+     * @return The estimated token count
+     * 
+     * @since 1.1.0
+     */
+    public int estimateTokens(List<LLMRequest.Message> messages) {
+        int tokens = 0;
+        for (LLMRequest.Message message : messages) {
+            tokens += messageTokens(message);
+        }
+        return tokens;
+    }
+
+    private int messageTokens(LLMRequest.Message message) {
+        int tokens = MESSAGE_OVERHEAD_TOKENS + estimator.applyAsInt(message.getContent() != null
+                ? message.getContent() : "");
+        if (message.getToolCalls() != null) {
+            for (ToolCall call : message.getToolCalls()) {
+                tokens += MESSAGE_OVERHEAD_TOKENS + estimator.applyAsInt(call.getFunction().getName())
+                        + estimator.applyAsInt(call.getFunction().getArguments());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Counts the system messages at the start of a conversation, leaving out
+     * the last message.
+     *
+     * @param messages The messages
+     * @return The number of leading system messages
+     * 
+     * @since 1.1.0
+     */
+    static int systemPrefix(List<LLMRequest.Message> messages) {
+        int count = 0;
+        while (count < messages.size() - 1 && "system".equals(messages.get(count).getRole())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the oldest message from which on the rest of the conversation fits
+     * a budget. The last message is always kept, and tool results are never
+     * kept without the assistant message requesting them.
+     *
+     * @param messages The messages
+     * @param from     The first message that may be kept
+     * @param budget   The number of tokens available
+     * @param tokens   Estimates the tokens of a message
+     * @return The index of the first kept message
+     * 
+     * @since 1.1.0
+     */
+    static int fitTail(List<LLMRequest.Message> messages, int from, int budget,
+            ToIntFunction<LLMRequest.Message> tokens) {
+        int start = messages.size() - 1;
+        int used = tokens.applyAsInt(messages.get(start));
+        while (start > from) {
+            int next = tokens.applyAsInt(messages.get(start - 1));
+            if (used + next > budget) {
+                break;
+            }
+            used += next;
+            start--;
+        }
+        while (start < messages.size() - 1 && "tool".equals(messages.get(start).getRole())) {
+            start++;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.compaction;
+
+public class ContextLimitExceededException extends RuntimeException {
+    public ContextLimitExceededException(String message) {
+        super(message);
+    }
+}
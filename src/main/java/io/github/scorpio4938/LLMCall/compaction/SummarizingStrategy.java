@@ -0,0 +1,252 @@
+package io.github.scorpio4938.LLMCall.compaction;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.providers.ModelNotSupportedException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToIntFunction;
+
+/**
+ * Replaces the older turns of a conversation with a summary.
+ * <p>
+ * Summaries are cached by the exact turns they cover. When a conversation
+ * overflows, the longest cached summary of its older turns is inserted
+ * after the system messages, followed by as many recent turns as fit. Turns
+ * that still have to go are summarized in the background, building on the
+ * previous summary, so the next call can use them; until a summary is
+ * ready the oldest turns are simply dropped and calls are never delayed.
+ * <p>
+ * Each summarization call has to fit the summary model's own context window.
+ * Turns that do not fit one call are summarized in steps, each step building
+ * on the summary of the step before.
+ * 
+ * @since 1.1.0
+ */
+public class SummarizingStrategy implements CompactionStrategy {
+    private static final String INSTRUCTION = "Summarize the conversation below in a few sentences for the assistant "
+            + "that continues it. Keep names, facts, decisions and open questions.";
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation: ";
+
+    private final LLMApiClient client;
+    private final String model;
+    private int maxSummaryTokens = 256;
+    private int cacheSize = 1024;
+    private final Map<String, CompletableFuture<String>> summaries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    public SummarizingStrategy(LLMApiClient client, String model) {
+        this.client = Objects.requireNonNull(client, "Client must not be null");
+        this.model = Objects.requireNonNull(model, "Model must not be null");
+    }
+
+    /**
+     * Sets the length limit of a summary. Defaults to 256 tokens.
+     *
+     * @param maxSummaryTokens The {@code max_tokens} of summarization calls
+     * @return This strategy
+     * 
+     * @since 1.1.0
+     */
+    public SummarizingStrategy withMaxSummaryTokens(int maxSummaryTokens) {
+        if (maxSummaryTokens <= 0) {
+            throw new IllegalArgumentException("Max summary tokens must be positive");
+        }
+        this.maxSummaryTokens = maxSummaryTokens;
+        return this;
+    }
+
+    /**
+     * Sets how many summaries are cached. Defaults to 1024.
+     *
+     * @param cacheSize The number of cached summaries
+     * @return This strategy
+     * 
+     * @since 1.1.0
+     */
+    public SummarizingStrategy withCacheSize(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    @Override
+    public List<LLMRequest.Message> compact(List<LLMRequest.Message> messages, int budget,
+            ToIntFunction<LLMRequest.Message> tokens) {
+        int head = ContextCompactor.systemPrefix(messages);
+        int last = messages.size() - 1;
+        String[] keys = prefixKeys(messages, head, last);
+
+        int covered = head;
+        String summary = null;
+        synchronized (summaries) {
+            for (int end = last; end > head; end--) {
+                CompletableFuture<String> cached = summaries.get(keys[end]);
+                if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+                    covered = end;
+                    summary = cached.join();
+                    break;
+                }
+            }
+        }
+
+        List<LLMRequest.Message> compacted = new ArrayList<>(messages.subList(0, head));
+        if (summary != null) {
+            compacted.add(LLMRequest.createMessage("system", SUMMARY_PREFIX + summary));
+        }
+        int used = 0;
+        for (LLMRequest.Message message : compacted) {
+            used += tokens.applyAsInt(message);
+        }
+        int tail = ContextCompactor.fitTail(messages, covered, budget - used, tokens);
+        if (tail > covered) {
+            summarizeInBackground(keys, new ArrayList<>(messages.subList(0, tail)), covered, summary, tokens);
+        }
+        compacted.addAll(messages.subList(tail, messages.size()));
+        return compacted;
+    }
+
+    /**
+     * Starts summarizing turns unless a summary of them is cached or on its
+     * way. As many turns as fit the summary model's context window are
+     * summarized at once; the rest follow in further steps.
+     *
+     * @param keys     The cache keys of the turns, indexed by their end
+     * @param messages The messages up to the last turn to summarize
+     * @param from     The index of the first turn to summarize
+     * @param previous The summary of the turns before them, or null
+     * @param tokens   Estimates the tokens of a message
+     * 
+     * @since 1.1.0
+     */
+    private void summarizeInBackground(String[] keys, List<LLMRequest.Message> messages, int from, String previous,
+            ToIntFunction<LLMRequest.Message> tokens) {
+        StringBuilder transcript = new StringBuilder();
+        if (previous != null) {
+            transcript.append("Summary so far: ").append(previous).append("\n\n");
+        }
+        int budget = summaryBudget() - tokens.applyAsInt(LLMRequest.createMessage("system", INSTRUCTION))
+                - tokens.applyAsInt(LLMRequest.createMessage("user", transcript.toString()));
+        if (budget <= 0) {
+            Debugger.log("No room to summarize with " + model);
+            return;
+        }
+
+        int end = from;
+        int used = 0;
+        while (end < messages.size()) {
+            LLMRequest.Message turn = messages.get(end);
+            String line = turn.getContent() != null ? turn.getRole() + ": " + turn.getContent() + "\n" : "";
+            int cost = line.isEmpty() ? 0 : tokens.applyAsInt(LLMRequest.createMessage("user", line));
+            if (used + cost > budget) {
+                if (end == from) {
+                    // A single turn larger than the window: keep its beginning
+                    transcript.append(line, 0, (int) ((long) line.length() * (budget - used) / cost)).append('\n');
+                    end++;
+                }
+                break;
+            }
+            transcript.append(line);
+            used += cost;
+            end++;
+        }
+
+        String key = keys[end];
+        CompletableFuture<String> summary;
+        synchronized (summaries) {
+            if (summaries.containsKey(key)) {
+                return;
+            }
+            summary = new CompletableFuture<>();
+            summaries.put(key, summary);
+        }
+        int next = end;
+        Debugger.log("Summarizing " + (end - from) + " turns with " + model);
+        client.asyncCallLLM(model, Map.of("system", INSTRUCTION, "user", transcript.toString()),
+                Map.of("max_tokens", maxSummaryTokens), CallOptions.defaults())
+                .whenComplete((content, error) -> {
+                    if (error != null || content == null || content.isBlank()) {
+                        synchronized (summaries) {
+                            summaries.remove(key, summary); // Retried on a later overflow
+                        }
+                        summary.completeExceptionally(error != null ? error
+                                : new IllegalStateException("Empty summary"));
+                    } else {
+                        summary.complete(content.trim());
+                        if (next < messages.size()) {
+                            summarizeInBackground(keys, messages, next, content.trim(), tokens);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Gets the prompt tokens a summarization call may use.
+     *
+     * @return The summary model's context window minus the summary length,
+     *         or {@link Integer#MAX_VALUE} if the window is unknown
+     * 
+     * @since 1.1.0
+     */
+    private int summaryBudget() {
+        Provider provider = client.getProvider();
+        int contextLimit;
+        try {
+            contextLimit = provider.getContextLimit(provider.getModel(model));
+        } catch (ModelNotSupportedException e) {
+            contextLimit = 0; // The call itself reports the unknown model
+        }
+        return contextLimit > 0 ? contextLimit - maxSummaryTokens : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Computes a cache key for every prefix of the turns after the system
+     * messages: {@code keys[end]} identifies the turns {@code [head, end)}.
+     *
+     * @param messages The messages
+     * @param head     The number of leading system messages
+     * @param last     The index of the last message
+     * @return The keys, indexed by the end of the prefix
+     * 
+     * @since 1.1.0
+     */
+    private static String[] prefixKeys(List<LLMRequest.Message> messages, int head, int last) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        HexFormat hex = HexFormat.of();
+        String[] keys = new String[last + 1];
+        byte[] chain = new byte[0];
+        for (int end = head + 1; end <= last; end++) {
+            LLMRequest.Message message = messages.get(end - 1);
+            digest.update(chain);
+            digest.update(String.valueOf(message.getRole()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(message.getContent()).getBytes(StandardCharsets.UTF_8));
+            chain = digest.digest();
+            keys[end] = hex.formatHex(chain);
+        }
+        return keys;
+    }
+}
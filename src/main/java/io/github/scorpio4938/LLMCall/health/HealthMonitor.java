@@ -0,0 +1,419 @@
+package io.github.scorpio4938.LLMCall.health;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.providers.ProviderNotSupportedException;
+import io.github.scorpio4938.LLMCall.providers.Providers;
+import io.github.scorpio4938.LLMCall.service.concurrent.VirtualThreads;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes providers at startup and periodically afterwards, so the first real
+ * request does not pay for DNS, connection and TLS setup or model loading, and
+ * so routing knows which models are down.
+ * <p>
+ * Each round lists the models of every provider, which is free, and marks the
+ * models the provider does not list as unhealthy. Required models are probed
+ * with a one-token completion instead, which loads them (e.g. into an Ollama
+ * server) and makes them <em>warm</em>. The monitor is ready once every
+ * required model is warm.
+ * <p>
+ * Probes go through the monitored clients, warming their connection pools.
+ * The monitor attaches itself to them, so their model chains and races route
+ * around unhealthy models.
+ *
+ * <pre>
+ * HealthMonitor health = new HealthMonitor(new Providers())
+ *         .withRequiredModels("OLLAMA", "qwen2.5:0.5b")
+ *         .start();
+ * health.awaitReady(Duration.ofMinutes(1));
+ * String answer = health.getClient("OLLAMA").directCallLLM("qwen2.5:0.5b", data);
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public class HealthMonitor implements AutoCloseable {
+    private static final Map<String, String> PING = Map.of("user", "ping");
+    private static final Map<String, Object> ONE_TOKEN = Map.of("max_tokens", 1);
+
+    private final Map<String, LLMApiClient> clients = new LinkedHashMap<>();
+    private final Map<String, Set<String>> requiredModels = new ConcurrentHashMap<>();
+    private final Map<String, ModelHealth> health = new ConcurrentHashMap<>();
+    private final Object readiness = new Object();
+    private volatile Duration interval = Duration.ofSeconds(30);
+    private volatile Duration probeTimeout = Duration.ofSeconds(10);
+    private ScheduledExecutorService timer;
+    private int rounds; // Guarded by readiness
+
+    /**
+     * Monitors every provider with a new client each.
+     *
+     * @param providers The providers
+     * 
+     * @since 1.1.0
+     */
+    public HealthMonitor(Providers providers) {
+        this(clientsOf(providers.getProviders()));
+    }
+
+    /**
+     * Monitors the providers of existing clients, one client per provider.
+     *
+     * @param clients The clients
+     * 
+     * @since 1.1.0
+     */
+    public HealthMonitor(List<LLMApiClient> clients) {
+        for (LLMApiClient client : clients) {
+            Provider provider = client.getProvider();
+            if (this.clients.putIfAbsent(provider.getProvider(), client) != null) {
+                throw new IllegalArgumentException("Provider monitored twice: " + provider.getProvider());
+            }
+            for (String model : provider.getModels()) {
+                health.put(keyOf(provider.getProvider(), model), ModelHealth.unknown(provider.getProvider(), model));
+            }
+            client.setHealthMonitor(this);
+        }
+    }
+
+    private static List<LLMApiClient> clientsOf(List<Provider> providers) {
+        List<LLMApiClient> clients = new ArrayList<>(providers.size());
+        for (Provider provider : providers) {
+            clients.add(new LLMApiClient(provider));
+        }
+        return clients;
+    }
+
+    /**
+     * Sets the time between the end of a round of probes and the start of the
+     * next. Defaults to 30 seconds.
+     *
+     * @param interval The interval
+     * @return This monitor
+     * 
+     * @since 1.1.0
+     */
+    public HealthMonitor withInterval(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * Sets how long a probe may take, retries included. Defaults to 10
+     * seconds; loading a large local model may need more.
+     *
+     * @param probeTimeout The timeout
+     * @return This monitor
+     * 
+     * @since 1.1.0
+     */
+    public HealthMonitor withProbeTimeout(Duration probeTimeout) {
+        if (probeTimeout.isNegative() || probeTimeout.isZero()) {
+            throw new IllegalArgumentException("Probe timeout must be positive");
+        }
+        this.probeTimeout = probeTimeout;
+        return this;
+    }
+
+    /**
+     * Marks models as required: they are probed with a one-token completion,
+     * which costs a token but loads them, and readiness waits for them.
+     *
+     * @param provider The provider name
+     * @param models   The models
+     * @return This monitor
+     * @throws ProviderNotSupportedException if the provider is not monitored
+     * 
+     * @since 1.1.0
+     */
+    public HealthMonitor withRequiredModels(String provider, String... models) {
+        LLMApiClient client = getClient(provider);
+        Set<String> required = requiredModels.computeIfAbsent(provider, name -> ConcurrentHashMap.newKeySet());
+        for (String model : models) {
+            required.add(client.getProvider().getModel(model));
+        }
+        return this;
+    }
+
+    /**
+     * Gets the monitored client of a provider, whose connections the probes
+     * keep warm.
+     *
+     * @param provider The provider name
+     * @return The client
+     * @throws ProviderNotSupportedException if the provider is not monitored
+     * 
+     * @since 1.1.0
+     */
+    public LLMApiClient getClient(String provider) {
+        LLMApiClient client = clients.get(provider);
+        if (client == null) {
+            throw new ProviderNotSupportedException(provider);
+        }
+        return client;
+    }
+
+    /**
+     * Runs a first round of probes at once and then one every interval, on a
+     * daemon thread.
+     *
+     * @return This monitor
+     * 
+     * @since 1.1.0
+     */
+    public synchronized HealthMonitor start() {
+        if (timer != null) {
+            throw new IllegalStateException("Monitor already started");
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "llm-health-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::probeAllQuietly, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+        timer = executor;
+        return this;
+    }
+
+    private void probeAllQuietly() {
+        try {
+            probeAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Closing
+        } catch (RuntimeException e) {
+            Debugger.log("Health probes failed: " + e.getMessage()); // Keeps the schedule alive
+        }
+    }
+
+    /**
+     * Runs one round of probes, all providers in parallel, and waits for it.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * 
+     * @since 1.1.0
+     */
+    public void probeAll() throws InterruptedException {
+        List<Callable<Void>> probes = new ArrayList<>();
+        for (LLMApiClient client : clients.values()) {
+            String provider = client.getProvider().getProvider();
+            Set<String> required = requiredModels.getOrDefault(provider, Set.of());
+            List<String> listed = new ArrayList<>();
+            for (String model : client.getProvider().getModels()) {
+                if (required.contains(model)) {
+                    probes.add(() -> probeCompletion(client, model));
+                } else {
+                    listed.add(model);
+                }
+            }
+            if (!listed.isEmpty()) {
+                probes.add(() -> probeModels(client, listed));
+            }
+        }
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        try {
+            executor.invokeAll(probes);
+        } finally {
+            executor.shutdownNow();
+        }
+        synchronized (readiness) {
+            rounds++;
+            readiness.notifyAll();
+        }
+    }
+
+    private Void probeCompletion(LLMApiClient client, String model) {
+        String provider = client.getProvider().getProvider();
+        long start = System.nanoTime();
+        try {
+            client.directCallLLM(model, PING, ONE_TOKEN, CallOptions.defaults().withTimeout(probeTimeout));
+            succeeded(provider, model, true, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failed(provider, model, describe(e), start);
+        }
+        return null;
+    }
+
+    private Void probeModels(LLMApiClient client, List<String> models) {
+        String provider = client.getProvider().getProvider();
+        long start = System.nanoTime();
+        Set<String> listed;
+        String error = null;
+        try {
+            listed = new HashSet<>(client.listModels(probeTimeout));
+        } catch (LLMResponseException e) {
+            int status = e.getStatusCode();
+            listed = Set.of(); // Reachable, but without a model list
+            if (status != 404 && status != 405) {
+                error = describe(e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            listed = Set.of();
+            error = describe(e);
+        }
+        for (String model : models) {
+            if (error != null) {
+                failed(provider, model, error, start);
+            } else if (!listed.isEmpty() && !listed.contains(model)) {
+                failed(provider, model, "Not listed by the provider", start);
+            } else {
+                succeeded(provider, model, false, start);
+            }
+        }
+        return null;
+    }
+
+    private void succeeded(String provider, String model, boolean warmed, long start) {
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        health.compute(keyOf(provider, model), (key, current) -> current.succeeded(warmed, latency));
+    }
+
+    private void failed(String provider, String model, String error, long start) {
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        ModelHealth updated = health.compute(keyOf(provider, model), (key, current) -> current.failed(error,
+                latency));
+        if (updated.getConsecutiveFailures() == 1) {
+            Debugger.log("Model " + provider + "/" + model + " is unhealthy: " + error);
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Tells whether a model may be routed to: it is not known to be down.
+     * Models that are not monitored or not probed yet count as healthy.
+     *
+     * @param provider The provider name
+     * @param model    The model
+     * @return False only if the latest probe of the model failed
+     * 
+     * @since 1.1.0
+     */
+    public boolean isHealthy(String provider, String model) {
+        ModelHealth state = health.get(keyOf(provider, model));
+        return state == null || state.getStatus() != HealthStatus.UNHEALTHY;
+    }
+
+    /**
+     * Gets the health of a model.
+     *
+     * @param provider The provider name
+     * @param model    The model
+     * @return The health, or null if the model is not monitored
+     * 
+     * @since 1.1.0
+     */
+    public ModelHealth getHealth(String provider, String model) {
+        return health.get(keyOf(provider, model));
+    }
+
+    /**
+     * Gets the health of every monitored model.
+     *
+     * @return The health of each model, by provider in monitoring order
+     * 
+     * @since 1.1.0
+     */
+    public List<ModelHealth> getHealth() {
+        List<ModelHealth> states = new ArrayList<>(health.size());
+        for (LLMApiClient client : clients.values()) {
+            for (String model : client.getProvider().getModels()) {
+                states.add(health.get(keyOf(client.getProvider().getProvider(), model)));
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Tells whether every required model is warm. Without required models,
+     * the monitor is ready after its first round of probes.
+     *
+     * @return Whether the monitor is ready
+     * 
+     * @since 1.1.0
+     */
+    public boolean isReady() {
+        synchronized (readiness) {
+            if (rounds == 0) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : requiredModels.entrySet()) {
+            for (String model : entry.getValue()) {
+                ModelHealth state = health.get(keyOf(entry.getKey(), model));
+                if (state == null || !state.isWarm()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits until the monitor is ready, re-checking after each round of
+     * probes.
+     *
+     * @param timeout The longest time to wait
+     * @return Whether the monitor became ready in time
+     * @throws InterruptedException if interrupted while waiting
+     * 
+     * @since 1.1.0
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        Instant deadline = Instant.now().plus(timeout);
+        synchronized (readiness) {
+            while (!isReady()) {
+                long remaining = Duration.between(Instant.now(), deadline).toMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                readiness.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops the periodic probes, interrupting a round in progress. The
+     * clients stay usable and keep the last known health.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    private static String keyOf(String provider, String model) {
+        return provider + "/" + Objects.requireNonNull(model, "Model must not be null");
+    }
+}
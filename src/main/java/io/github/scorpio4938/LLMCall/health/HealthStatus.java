@@ -0,0 +1,15 @@
+package io.github.scorpio4938.LLMCall.health;
+
+/**
+ * The health of a model as judged by its latest probe.
+ * 
+ * @since 1.1.0
+ */
+public enum HealthStatus {
+    /** Not probed yet. */
+    UNKNOWN,
+    /** The latest probe succeeded. */
+    HEALTHY,
+    /** The latest probe failed, or the provider does not list the model. */
+    UNHEALTHY
+}
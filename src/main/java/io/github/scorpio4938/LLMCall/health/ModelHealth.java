@@ -0,0 +1,113 @@
+package io.github.scorpio4938.LLMCall.health;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The health of one model of a provider, as of its latest probe.
+ * 
+ * @since 1.1.0
+ */
+public final class ModelHealth {
+    private final String provider;
+    private final String model;
+    private final HealthStatus status;
+    private final boolean warm;
+    private final Instant probedAt;
+    private final Duration latency;
+    private final int consecutiveFailures;
+    private final String lastError;
+
+    ModelHealth(String provider, String model, HealthStatus status, boolean warm, Instant probedAt,
+            Duration latency, int consecutiveFailures, String lastError) {
+        this.provider = provider;
+        this.model = model;
+        this.status = status;
+        this.warm = warm;
+        this.probedAt = probedAt;
+        this.latency = latency;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastError = lastError;
+    }
+
+    static ModelHealth unknown(String provider, String model) {
+        return new ModelHealth(provider, model, HealthStatus.UNKNOWN, false, null, null, 0, null);
+    }
+
+    ModelHealth succeeded(boolean warmed, Duration latency) {
+        return new ModelHealth(provider, model, HealthStatus.HEALTHY, warm || warmed, Instant.now(), latency, 0,
+                null);
+    }
+
+    ModelHealth failed(String error, Duration latency) {
+        return new ModelHealth(provider, model, HealthStatus.UNHEALTHY, false, Instant.now(), latency,
+                consecutiveFailures + 1, error);
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Tells whether a completion probe has succeeded since the model last
+     * failed, so the model is loaded and the connection is open.
+     *
+     * @return Whether the model is warm
+     * 
+     * @since 1.1.0
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Gets the time of the latest probe.
+     *
+     * @return The time, or null if never probed
+     * 
+     * @since 1.1.0
+     */
+    public Instant getProbedAt() {
+        return probedAt;
+    }
+
+    /**
+     * Gets how long the latest probe took.
+     *
+     * @return The latency, or null if never probed
+     * 
+     * @since 1.1.0
+     */
+    public Duration getLatency() {
+        return latency;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Gets why the latest probe failed.
+     *
+     * @return The error message, or null if it succeeded
+     * 
+     * @since 1.1.0
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String toString() {
+        return provider + "/" + model + ": " + status + (warm ? " (warm)" : "")
+                + (lastError != null ? " - " + lastError : "");
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.scorpio4938.LLMCall.interceptor;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking stage of an {@link InterceptorChain}, for work that is
+ * itself asynchronous, such as a remote cache lookup or waiting for a rate
+ * limiter permit without holding a thread.
+ * <p>
+ * Like {@link Interceptor}, a stage can modify the request, transform the
+ * response or short-circuit the call by completing without proceeding.
+ * 
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface AsyncInterceptor {
+
+    /**
+     * The rest of the chain, ending with the HTTP exchange.
+     * 
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    interface Chain {
+        /**
+         * Passes the request to the next stage.
+         *
+         * @param request The request to send
+         * @return The response body, completed exceptionally if a later stage or
+         *         the exchange fails
+         */
+        CompletableFuture<String> proceed(LLMRequest request);
+    }
+
+    /**
+     * Handles a call.
+     *
+     * @param request The request
+     * @param chain   The rest of the chain
+     * @return The response body
+     * 
+     * @since 1.1.0
+     */
+    CompletableFuture<String> intercept(LLMRequest request, Chain chain);
+}
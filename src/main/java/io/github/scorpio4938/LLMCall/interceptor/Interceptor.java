@@ -0,0 +1,58 @@
+package io.github.scorpio4938.LLMCall.interceptor;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+/**
+ * A blocking stage of an {@link InterceptorChain}, around the sending of a
+ * request.
+ * <p>
+ * A stage can inspect or modify the request before calling
+ * {@link Chain#proceed}, inspect or rewrite the response body it returns,
+ * retry it, or short-circuit the call by returning a body without
+ * proceeding, e.g. from a cache.
+ *
+ * <pre>
+ * Interceptor timing = (request, chain) -&gt; {
+ *     long start = System.nanoTime();
+ *     try {
+ *         return chain.proceed(request);
+ *     } finally {
+ *         metrics.record(request.getModel(), System.nanoTime() - start);
+ *     }
+ * };
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface Interceptor {
+
+    /**
+     * The rest of the chain, ending with the HTTP exchange.
+     * 
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    interface Chain {
+        /**
+         * Passes the request to the next stage.
+         *
+         * @param request The request to send
+         * @return The response body
+         * @throws Exception if a later stage or the exchange fails
+         */
+        String proceed(LLMRequest request) throws Exception;
+    }
+
+    /**
+     * Handles a call.
+     *
+     * @param request The request
+     * @param chain   The rest of the chain
+     * @return The response body
+     * @throws Exception if the call fails
+     * 
+     * @since 1.1.0
+     */
+    String intercept(LLMRequest request, Chain chain) throws Exception;
+}
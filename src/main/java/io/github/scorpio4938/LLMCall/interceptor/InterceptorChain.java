@@ -0,0 +1,200 @@
+package io.github.scorpio4938.LLMCall.interceptor;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An immutable, ordered list of interceptors around the requests of a
+ * client, compiled into fixed arrays when built.
+ * <p>
+ * The first interceptor added is the outermost: it sees the request first
+ * and the response last. Each interceptor is compiled into both a blocking
+ * and a non-blocking form, so blocking and asynchronous stages can be mixed
+ * in one chain: in a blocking call an asynchronous stage is awaited, and in
+ * an asynchronous call a blocking stage runs on the thread completing the
+ * previous stage and waits there for the rest of the chain.
+ * <p>
+ * A client with the {@link #empty() empty} chain skips it entirely, so
+ * interception costs nothing until it is used.
+ *
+ * <pre>
+ * client.setInterceptors(InterceptorChain.builder()
+ *         .add(redaction)
+ *         .addAsync(cache)
+ *         .add(metrics)
+ *         .build());
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public final class InterceptorChain {
+    private static final InterceptorChain EMPTY = new InterceptorChain(new Interceptor[0], new AsyncInterceptor[0]);
+
+    private final Interceptor[] interceptors;
+    private final AsyncInterceptor[] asyncInterceptors;
+
+    private InterceptorChain(Interceptor[] interceptors, AsyncInterceptor[] asyncInterceptors) {
+        this.interceptors = interceptors;
+        this.asyncInterceptors = asyncInterceptors;
+    }
+
+    public static InterceptorChain empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEmpty() {
+        return interceptors.length == 0;
+    }
+
+    public int size() {
+        return interceptors.length;
+    }
+
+    /**
+     * Runs a blocking call through the chain.
+     *
+     * @param request  The request
+     * @param terminal The exchange at the end of the chain
+     * @return The response body
+     * @throws Exception if a stage or the exchange fails
+     * 
+     * @since 1.1.0
+     */
+    public String execute(LLMRequest request, Interceptor.Chain terminal) throws Exception {
+        return proceed(0, request, terminal);
+    }
+
+    /**
+     * Runs an asynchronous call through the chain.
+     *
+     * @param request  The request
+     * @param terminal The exchange at the end of the chain
+     * @return The response body
+     * 
+     * @since 1.1.0
+     */
+    public CompletableFuture<String> executeAsync(LLMRequest request, AsyncInterceptor.Chain terminal) {
+        return proceedAsync(0, request, terminal);
+    }
+
+    private String proceed(int index, LLMRequest request, Interceptor.Chain terminal) throws Exception {
+        if (index == interceptors.length) {
+            return terminal.proceed(request);
+        }
+        return interceptors[index].intercept(request, next -> proceed(index + 1, next, terminal));
+    }
+
+    private CompletableFuture<String> proceedAsync(int index, LLMRequest request, AsyncInterceptor.Chain terminal) {
+        try {
+            if (index == asyncInterceptors.length) {
+                return terminal.proceed(request);
+            }
+            return asyncInterceptors[index].intercept(request, next -> proceedAsync(index + 1, next, terminal));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e); // A stage that throws instead of failing its future
+        }
+    }
+
+    /**
+     * Runs a blocking interceptor as an asynchronous stage.
+     */
+    private static AsyncInterceptor toAsync(Interceptor interceptor) {
+        return (request, chain) -> {
+            try {
+                return CompletableFuture.completedFuture(
+                        interceptor.intercept(request, next -> await(chain.proceed(next))));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+    }
+
+    /**
+     * Runs an asynchronous interceptor as a blocking stage.
+     */
+    private static Interceptor toBlocking(AsyncInterceptor interceptor) {
+        return (request, chain) -> await(interceptor.intercept(request, next -> {
+            try {
+                return CompletableFuture.completedFuture(chain.proceed(next));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    private static String await(CompletableFuture<String> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Builder for {@link InterceptorChain}.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Builder {
+        private final List<Interceptor> interceptors = new ArrayList<>();
+        private final List<AsyncInterceptor> asyncInterceptors = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a blocking interceptor, inside the ones added before.
+         *
+         * @param interceptor The interceptor
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder add(Interceptor interceptor) {
+            Objects.requireNonNull(interceptor, "Interceptor must not be null");
+            interceptors.add(interceptor);
+            asyncInterceptors.add(toAsync(interceptor));
+            return this;
+        }
+
+        /**
+         * Appends an asynchronous interceptor, inside the ones added before.
+         *
+         * @param interceptor The interceptor
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder addAsync(AsyncInterceptor interceptor) {
+            Objects.requireNonNull(interceptor, "Interceptor must not be null");
+            interceptors.add(toBlocking(interceptor));
+            asyncInterceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Compiles the chain.
+         *
+         * @return The immutable chain
+         * 
+         * @since 1.1.0
+         */
+        public InterceptorChain build() {
+            if (interceptors.isEmpty()) {
+                return EMPTY;
+            }
+            return new InterceptorChain(interceptors.toArray(new Interceptor[0]),
+                    asyncInterceptors.toArray(new AsyncInterceptor[0]));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.scorpio4938.LLMCall.mapreduce;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Summarizes (or otherwise condenses) texts larger than any context window:
+ * the text is split into overlapping chunks, each chunk is mapped by a call,
+ * and the answers are reduced in a tree of calls until one remains.
+ * <p>
+ * Input is streamed: chunks are read only as map calls finish, so at most
+ * the in-flight chunks and the pending answers are in memory. Map calls go
+ * through {@link LLMApiClient#asyncCallLLM(String, Map, Map, CallOptions)},
+ * so they respect the client's scheduler and concurrency limiter. Each reduce
+ * call starts as soon as its group of answers is complete, in parallel with
+ * the map calls and the other reduce calls, and answers are always combined
+ * in the order of the text.
+ *
+ * <pre>
+ * String summary = new MapReduce(client, "deepseek-chat")
+ *         .withChunkTokens(8000)
+ *         .run(Path.of("corpus.txt"));
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public class MapReduce {
+    private final LLMApiClient client;
+    private final String model;
+    private String mapPrompt = "Summarize the following part of a longer text. Keep names, figures and conclusions.";
+    private String reducePrompt = "Combine the following summaries of consecutive parts of a text into one "
+            + "summary. Keep names, figures and conclusions.";
+    private Map<String, Object> params = Map.of("max_tokens", 512);
+    private int chunkTokens = 4000;
+    private int overlapTokens = 200;
+    private int fanIn = 6;
+    private int maxInFlight = 16;
+
+    public MapReduce(LLMApiClient client, String model) {
+        this.client = Objects.requireNonNull(client, "Client must not be null");
+        this.model = Objects.requireNonNull(model, "Model must not be null");
+    }
+
+    /**
+     * Sets the system prompt of the map calls, which get one chunk each as
+     * user message.
+     *
+     * @param mapPrompt The prompt
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withMapPrompt(String mapPrompt) {
+        this.mapPrompt = Objects.requireNonNull(mapPrompt, "Prompt must not be null");
+        return this;
+    }
+
+    /**
+     * Sets the system prompt of the reduce calls, which get a group of answers
+     * separated by blank lines as user message.
+     *
+     * @param reducePrompt The prompt
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withReducePrompt(String reducePrompt) {
+        this.reducePrompt = Objects.requireNonNull(reducePrompt, "Prompt must not be null");
+        return this;
+    }
+
+    /**
+     * Sets the parameters of all calls. Defaults to {@code max_tokens} 512; a
+     * group of answers must fit the context window with its prompt.
+     *
+     * @param params The parameters
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withParameters(Map<String, Object> params) {
+        this.params = Objects.requireNonNull(params, "Params must not be null");
+        return this;
+    }
+
+    /**
+     * Sets the chunk size. Defaults to 4000 tokens with 200 tokens of overlap.
+     *
+     * @param chunkTokens   The token budget of each chunk
+     * @param overlapTokens The budget of the text repeated from the previous
+     *                      chunk
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withChunkTokens(int chunkTokens, int overlapTokens) {
+        new TextChunker(Reader.nullReader(), chunkTokens, overlapTokens); // Validates
+        this.chunkTokens = chunkTokens;
+        this.overlapTokens = overlapTokens;
+        return this;
+    }
+
+    public MapReduce withChunkTokens(int chunkTokens) {
+        return withChunkTokens(chunkTokens, Math.min(overlapTokens, chunkTokens / 2 - 1));
+    }
+
+    /**
+     * Sets how many answers each reduce call combines. Defaults to 6.
+     *
+     * @param fanIn The number of answers per reduce call, at least 2
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withFanIn(int fanIn) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+        this.fanIn = fanIn;
+        return this;
+    }
+
+    /**
+     * Sets how many map calls may be pending at once, which bounds how far
+     * the input is read ahead. The client's own limits still apply. Defaults
+     * to 16.
+     *
+     * @param maxInFlight The number of pending map calls
+     * @return This job
+     * 
+     * @since 1.1.0
+     */
+    public MapReduce withMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Runs the job over a file, read through a memory-mapped window.
+     *
+     * @param file The UTF-8 text file
+     * @return The final answer, or an empty string for an empty file
+     * @throws Exception if reading or a call fails
+     * 
+     * @since 1.1.0
+     */
+    public String run(Path file) throws Exception {
+        return run(file, StandardCharsets.UTF_8);
+    }
+
+    public String run(Path file, Charset charset) throws Exception {
+        try (Reader reader = new MappedFileReader(file, charset)) {
+            return run(reader);
+        }
+    }
+
+    /**
+     * Runs the job over streamed text. The reader is not closed.
+     *
+     * @param text The text
+     * @return The final answer, or an empty string for empty text
+     * @throws Exception if reading or a call fails
+     * 
+     * @since 1.1.0
+     */
+    public String run(Reader text) throws Exception {
+        TextChunker chunks = new TextChunker(text, chunkTokens, overlapTokens);
+        Semaphore slots = new Semaphore(maxInFlight);
+        CompletableFuture<String> failure = new CompletableFuture<>(); // Stops reading after a failed call
+        List<List<CompletableFuture<String>>> levels = new ArrayList<>();
+        try {
+            while (!failure.isDone() && chunks.hasNext()) {
+                String chunk = chunks.next();
+                slots.acquire();
+                CompletableFuture<String> answer = call(mapPrompt, chunk);
+                answer.whenComplete((result, error) -> slots.release());
+                add(levels, 0, answer, failure);
+            }
+
+            // Pending answers of higher levels cover earlier text
+            List<CompletableFuture<String>> rest = new ArrayList<>();
+            for (int level = levels.size() - 1; level >= 0; level--) {
+                rest.addAll(levels.get(level));
+            }
+            while (rest.size() > 1) {
+                List<CompletableFuture<String>> next = new ArrayList<>();
+                for (int from = 0; from < rest.size(); from += fanIn) {
+                    List<CompletableFuture<String>> group = rest.subList(from, Math.min(rest.size(), from + fanIn));
+                    next.add(group.size() == 1 ? group.get(0) : reduce(new ArrayList<>(group)));
+                }
+                rest = next;
+            }
+            CompletableFuture<String> result = rest.isEmpty() ? CompletableFuture.completedFuture("") : rest.get(0);
+            CompletableFuture.anyOf(result, failure).join();
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Adds an answer to a level of the tree, reducing the level into the next
+     * one when a group is complete.
+     */
+    private void add(List<List<CompletableFuture<String>>> levels, int level, CompletableFuture<String> answer,
+            CompletableFuture<String> failure) {
+        answer.whenComplete((result, error) -> {
+            if (error != null) {
+                failure.completeExceptionally(error);
+            }
+        });
+        if (levels.size() == level) {
+            levels.add(new ArrayList<>());
+        }
+        List<CompletableFuture<String>> pending = levels.get(level);
+        pending.add(answer);
+        if (pending.size() == fanIn) {
+            CompletableFuture<String> combined = reduce(new ArrayList<>(pending));
+            pending.clear();
+            add(levels, level + 1, combined, failure);
+        }
+    }
+
+    private CompletableFuture<String> reduce(List<CompletableFuture<String>> group) {
+        return CompletableFuture.allOf(group.toArray(CompletableFuture<?>[]::new)).thenCompose(done -> {
+            StringBuilder answers = new StringBuilder();
+            for (CompletableFuture<String> answer : group) {
+                if (answers.length() > 0) {
+                    answers.append("\n\n");
+                }
+                answers.append(answer.join().strip());
+            }
+            return call(reducePrompt, answers.toString());
+        });
+    }
+
+    private CompletableFuture<String> call(String prompt, String text) {
+        return client.asyncCallLLM(model, Map.of("system", prompt, "user", text), params, CallOptions.defaults());
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.scorpio4938.LLMCall.mapreduce;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader decoding a file through a sliding memory-mapped window, so files
+ * of any size are read without copying them onto the heap.
+ * <p>
+ * Each window maps up to 64 MiB; a character split across two windows is
+ * decoded once the next window is mapped. Malformed input is replaced.
+ * 
+ * @since 1.1.0
+ */
+public class MappedFileReader extends Reader {
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final CharsetDecoder decoder;
+    private final CharBuffer chars = CharBuffer.allocate(8192).flip();
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+
+    /**
+     * Opens a file for reading.
+     *
+     * @param path    The file
+     * @param charset The encoding of the file
+     * @throws IOException if the file cannot be opened
+     * 
+     * @since 1.1.0
+     */
+    public MappedFileReader(Path path, Charset charset) throws IOException {
+        this(path, charset, WINDOW_SIZE);
+    }
+
+    MappedFileReader(Path path, Charset charset, long windowSize) throws IOException {
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        map(0);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (window == null) {
+            throw new IOException("Reader closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        int read = Math.min(length, chars.remaining());
+        chars.get(buffer, offset, read);
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Decodes the next characters, mapping the next window when the current
+     * one is used up.
+     */
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (true) {
+            boolean last = windowStart + window.limit() == size;
+            decoder.decode(window, chars, last);
+            if (chars.position() > 0) {
+                break;
+            }
+            if (!last) {
+                map(windowStart + window.position()); // Carries a split character over
+            } else {
+                if (!flushed) {
+                    flushed = true;
+                    decoder.flush(chars);
+                }
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+}
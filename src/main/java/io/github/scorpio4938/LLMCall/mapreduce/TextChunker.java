@@ -0,0 +1,186 @@
+package io.github.scorpio4938.LLMCall.mapreduce;
+
+import io.github.scorpio4938.LLMCall.service.utils.TokenEstimator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Splits streamed text into chunks of a token budget, as estimated by
+ * {@link TokenEstimator}, each repeating the end of the previous chunk.
+ * <p>
+ * Only the current chunk is held in memory. Chunks end at the last
+ * paragraph, line, sentence or word break in their second half, and are cut
+ * mid-word only when there is none.
+ * 
+ * @since 1.1.0
+ */
+public class TextChunker implements Iterator<String> {
+    private static final String[] BREAKS = { "\n\n", "\n", ". ", " " };
+
+    private final Reader reader;
+    private final int maxTokens;
+    private final int overlapTokens;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder chunk = new StringBuilder();
+    private int bufferPosition;
+    private int bufferLimit;
+    private int ascii;
+    private int other;
+    private int fresh; // Characters not yet part of an emitted chunk
+    private boolean exhausted;
+    private String next;
+
+    /**
+     * Creates a chunker.
+     *
+     * @param reader        The text
+     * @param maxTokens     The budget of each chunk
+     * @param overlapTokens The budget of the text repeated from the previous
+     *                      chunk, below half of the chunk budget
+     * 
+     * @since 1.1.0
+     */
+    public TextChunker(Reader reader, int maxTokens, int overlapTokens) {
+        if (maxTokens <= 1) {
+            throw new IllegalArgumentException("Chunk budget must be above one token");
+        }
+        if (overlapTokens < 0 || overlapTokens >= maxTokens / 2) {
+            throw new IllegalArgumentException("Overlap must be below half of the chunk budget");
+        }
+        this.reader = Objects.requireNonNull(reader, "Reader must not be null");
+        this.maxTokens = maxTokens;
+        this.overlapTokens = overlapTokens;
+    }
+
+    /**
+     * Reads ahead to the end of the next chunk.
+     *
+     * @return Whether there is another chunk
+     * @throws UncheckedIOException if reading fails
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String chunk = next;
+        next = null;
+        return chunk;
+    }
+
+    private String readChunk() throws IOException {
+        while (!exhausted) {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = reader.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+                if (bufferLimit < 0) {
+                    exhausted = true;
+                    bufferLimit = 0;
+                    break;
+                }
+            }
+            char c = buffer[bufferPosition];
+            int nextAscii = ascii + (c < 0x80 ? 1 : 0);
+            int nextOther = other + (c >= 0x80 && !Character.isLowSurrogate(c) ? 1 : 0);
+            if ((nextAscii + 3) / 4 + nextOther > maxTokens) {
+                return emit(cut());
+            }
+            chunk.append(c);
+            ascii = nextAscii;
+            other = nextOther;
+            fresh++;
+            bufferPosition++;
+        }
+        if (fresh == 0) {
+            return null;
+        }
+        return emit(chunk.length());
+    }
+
+    /**
+     * Finds where a full chunk should end, after at least one character that
+     * no previous chunk contained.
+     */
+    private int cut() {
+        int min = Math.max(chunk.length() / 2, chunk.length() - fresh + 1);
+        for (String separator : BREAKS) {
+            int index = chunk.lastIndexOf(separator);
+            if (index + separator.length() >= min) {
+                return index + separator.length();
+            }
+        }
+        return chunk.length(); // Never splits a surrogate pair: low surrogates cost no token
+    }
+
+    /**
+     * Returns the text up to the end index and keeps the overlap and the rest
+     * for the next chunk.
+     */
+    private String emit(int end) {
+        String text = chunk.substring(0, end);
+        int start = overlapStart(end);
+        chunk.delete(0, start);
+        fresh = chunk.length() - (end - start);
+        ascii = 0;
+        other = 0;
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (!Character.isLowSurrogate(c)) {
+                other++;
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Finds the start of the overlap repeated before the end index, at a word
+     * boundary when possible.
+     */
+    private int overlapStart(int end) {
+        int start = end;
+        int overlapAscii = 0;
+        int overlapOther = 0;
+        while (start > 0) {
+            char c = chunk.charAt(start - 1);
+            int nextAscii = overlapAscii + (c < 0x80 ? 1 : 0);
+            int nextOther = overlapOther + (c >= 0x80 && !Character.isLowSurrogate(c) ? 1 : 0);
+            if ((nextAscii + 3) / 4 + nextOther > overlapTokens) {
+                break;
+            }
+            overlapAscii = nextAscii;
+            overlapOther = nextOther;
+            start--;
+        }
+        if (start < end && Character.isLowSurrogate(chunk.charAt(start))) {
+            start++;
+        }
+        if (start == 0 || Character.isWhitespace(chunk.charAt(start - 1))) {
+            return start;
+        }
+        for (int i = start; i < end - 1; i++) {
+            if (Character.isWhitespace(chunk.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+}
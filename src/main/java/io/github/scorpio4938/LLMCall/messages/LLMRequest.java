@@ -1,20 +1,44 @@
 package io.github.scorpio4938.LLMCall.messages;
 
+import com.google.gson.annotations.SerializedName;
+
 // import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class LLMRequest {
     private final String model;
     private final List<Message> messages;
     private final Map<String, Object> parameters;
+    @SerializedName("tools")
+    private List<Tool> tools;
+    @SerializedName("stream")
+    private Boolean stream;
+    @SerializedName("response_format")
+    private Map<String, Object> responseFormat;
 
     public LLMRequest(String model, List<Message> messages) {
+        this(model, messages, false);
+    }
+
+    /**
+     * Constructs a new request.
+     *
+     * @param model            The model to use
+     * @param messages         The messages
+     * @param sortedParameters Whether to serialize the parameters in sorted key
+     *                         order, so equal parameters always produce the same
+     *                         bytes
+     * 
+     * @since 1.1.0
+     */
+    public LLMRequest(String model, List<Message> messages, boolean sortedParameters) {
         this.model = model;
         this.messages = messages;
-        this.parameters = new HashMap<>();
+        this.parameters = sortedParameters ? new TreeMap<>() : new HashMap<>();
     }
 
     /**
@@ -30,6 +54,39 @@ public class LLMRequest {
         }
     }
 
+    /**
+     * Sets the tools the model may call.
+     *
+     * @param tools The tool definitions, or null to send none
+     * 
+     * @since 1.1.0
+     */
+    public void setTools(List<Tool> tools) {
+        this.tools = tools;
+    }
+
+    /**
+     * Requests a streamed (server-sent events) response.
+     *
+     * @param stream Whether to stream the response
+     * 
+     * @since 1.1.0
+     */
+    public void setStream(boolean stream) {
+        this.stream = stream ? Boolean.TRUE : null;
+    }
+
+    /**
+     * Sets the response format, e.g. a JSON schema for structured output.
+     *
+     * @param responseFormat The response format, or null to send none
+     * 
+     * @since 1.1.0
+     */
+    public void setResponseFormat(Map<String, Object> responseFormat) {
+        this.responseFormat = responseFormat;
+    }
+
     /**
      * Creates a new message.
      *
@@ -42,6 +99,31 @@ public class LLMRequest {
         return new Message(role, content);
     }
 
+    /**
+     * Creates an assistant message that echoes the tool calls requested by the
+     * model.
+     *
+     * @param content   The content of the message (may be null)
+     * @param toolCalls The tool calls requested by the model
+     * 
+     * @since 1.1.0
+     */
+    public static Message createToolCallMessage(String content, List<ToolCall> toolCalls) {
+        return new Message("assistant", content, toolCalls, null);
+    }
+
+    /**
+     * Creates a tool result message answering a tool call.
+     *
+     * @param toolCallId The id of the tool call being answered
+     * @param content    The result of the tool
+     * 
+     * @since 1.1.0
+     */
+    public static Message createToolResultMessage(String toolCallId, String content) {
+        return new Message("tool", content, null, toolCallId);
+    }
+
     public String getModel() {
         return model;
     }
@@ -54,13 +136,35 @@ public class LLMRequest {
         return parameters;
     }
 
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    public boolean isStream() {
+        return stream != null && stream;
+    }
+
+    public Map<String, Object> getResponseFormat() {
+        return responseFormat;
+    }
+
     public static class Message {
         private final String role;
         private final String content;
+        @SerializedName("tool_calls")
+        private final List<ToolCall> toolCalls;
+        @SerializedName("tool_call_id")
+        private final String toolCallId;
 
         public Message(String role, String content) {
+            this(role, content, null, null);
+        }
+
+        public Message(String role, String content, List<ToolCall> toolCalls, String toolCallId) {
             this.role = role;
             this.content = content;
+            this.toolCalls = toolCalls;
+            this.toolCallId = toolCallId;
         }
 
         public String getRole() {
@@ -71,6 +175,60 @@ public class LLMRequest {
             return content;
         }
 
+        public List<ToolCall> getToolCalls() {
+            return toolCalls;
+        }
+
+        public String getToolCallId() {
+            return toolCallId;
+        }
+
         // Getters and setters if needed
     }
+
+    /**
+     * Represents a tool definition offered to the model.
+     * 
+     * @since 1.1.0
+     */
+    public static class Tool {
+        private final String type = "function";
+        private final Function function;
+
+        public Tool(String name, String description, Map<String, Object> parameters) {
+            this.function = new Function(name, description, parameters);
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        public static class Function {
+            private final String name;
+            private final String description;
+            private final Map<String, Object> parameters;
+
+            public Function(String name, String description, Map<String, Object> parameters) {
+                this.name = name;
+                this.description = description;
+                this.parameters = parameters;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getDescription() {
+                return description;
+            }
+
+            public Map<String, Object> getParameters() {
+                return parameters;
+            }
+        }
+    }
 }
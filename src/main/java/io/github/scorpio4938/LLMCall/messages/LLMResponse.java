@@ -2,6 +2,8 @@ package io.github.scorpio4938.LLMCall.messages;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.List;
+
 /**
  * Represents a response from an LLM.
  * 
@@ -11,9 +13,117 @@ public class LLMResponse {
     @SerializedName("id")
     private String id;
 
+    @SerializedName("model")
+    private String model;
+
     @SerializedName("choices")
     private Choice[] choices;
 
+    @SerializedName("usage")
+    private Usage usage;
+
+    public LLMResponse() {
+    }
+
+    /**
+     * Constructs a decoded response.
+     *
+     * @param id      The response id
+     * @param model   The model that answered
+     * @param choices The choices
+     * @param usage   The token usage, or null if not reported
+     * 
+     * @since 1.1.0
+     */
+    public LLMResponse(String id, String model, Choice[] choices, Usage usage) {
+        this.id = id;
+        this.model = model;
+        this.choices = choices;
+        this.usage = usage;
+    }
+
+    /**
+     * Represents the token usage reported for a request.
+     * 
+     * @since 1.1.0
+     */
+    public static class Usage {
+        @SerializedName("prompt_tokens")
+        private long promptTokens;
+        @SerializedName("completion_tokens")
+        private long completionTokens;
+        @SerializedName("total_tokens")
+        private long totalTokens;
+        @SerializedName("prompt_tokens_details")
+        private PromptTokensDetails promptTokensDetails;
+        @SerializedName("prompt_cache_hit_tokens")
+        private Long promptCacheHitTokens;
+
+        /**
+         * Represents the breakdown of prompt tokens.
+         * 
+         * @since 1.1.0
+         */
+        public static class PromptTokensDetails {
+            @SerializedName("cached_tokens")
+            private long cachedTokens;
+
+            public long getCachedTokens() {
+                return cachedTokens;
+            }
+        }
+
+        public Usage(long promptTokens, long completionTokens, long cachedTokens) {
+            this.promptTokens = promptTokens;
+            this.completionTokens = completionTokens;
+            this.totalTokens = promptTokens + completionTokens;
+            this.promptCacheHitTokens = cachedTokens;
+        }
+
+        /**
+         * Constructs a usage with the total as reported by the provider.
+         *
+         * @param promptTokens     The prompt tokens
+         * @param completionTokens The completion tokens
+         * @param totalTokens      The total tokens
+         * @param cachedTokens     The prompt tokens served from the cache
+         * 
+         * @since 1.1.0
+         */
+        public Usage(long promptTokens, long completionTokens, long totalTokens, long cachedTokens) {
+            this(promptTokens, completionTokens, cachedTokens);
+            this.totalTokens = totalTokens;
+        }
+
+        public long getPromptTokens() {
+            return promptTokens;
+        }
+
+        public long getCompletionTokens() {
+            return completionTokens;
+        }
+
+        public long getTotalTokens() {
+            return totalTokens;
+        }
+
+        /**
+         * Gets the number of prompt tokens served from the provider's prefix
+         * cache, as reported in OpenAI's {@code prompt_tokens_details} or
+         * DeepSeek's {@code prompt_cache_hit_tokens}.
+         *
+         * @return The cached prompt tokens, or 0 if not reported
+         * 
+         * @since 1.1.0
+         */
+        public long getCachedTokens() {
+            if (promptTokensDetails != null) {
+                return promptTokensDetails.getCachedTokens();
+            }
+            return promptCacheHitTokens != null ? promptCacheHitTokens : 0;
+        }
+    }
+
     /**
      * Represents a choice from an LLM.
      * 
@@ -23,6 +133,17 @@ public class LLMResponse {
         @SerializedName("message")
         private Message message;
 
+        @SerializedName("finish_reason")
+        private String finishReason;
+
+        public Choice() {
+        }
+
+        public Choice(Message message, String finishReason) {
+            this.message = message;
+            this.finishReason = finishReason;
+        }
+
         /**
          * Represents a message from an LLM.
          * 
@@ -34,16 +155,73 @@ public class LLMResponse {
             private String role;
             @SerializedName("content")
             private String content;
+            @SerializedName("tool_calls")
+            private List<ToolCall> toolCalls;
+
+            public Message() {
+            }
+
+            public Message(String role, String content, List<ToolCall> toolCalls) {
+                this.role = role;
+                this.content = content;
+                this.toolCalls = toolCalls;
+            }
+
+            public String getRole() {
+                return role;
+            }
 
             public String getContent() {
                 return content;
             }
+
+            public List<ToolCall> getToolCalls() {
+                return toolCalls;
+            }
         }
 
         public Message getMessage() {
             return message;
         }
 
+        public String getFinishReason() {
+            return finishReason;
+        }
+
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public Choice[] getChoices() {
+        return choices;
+    }
+
+    /**
+     * Gets the token usage reported for the request.
+     *
+     * @return The usage, or null if the provider did not report it
+     * 
+     * @since 1.1.0
+     */
+    public Usage getUsage() {
+        return usage;
+    }
+
+    /**
+     * Gets the first message in the response.
+     *
+     * @return The first message in the response, or null if there is none
+     * 
+     * @since 1.1.0
+     */
+    public Choice.Message getFirstMessage() {
+        return choices != null && choices.length > 0 ? choices[0].getMessage() : null;
     }
 
     /**
@@ -54,8 +232,19 @@ public class LLMResponse {
      * @since 1.0.0
      */
     public String getFirstMessageContent() {
-        return choices != null && choices.length > 0 && choices[0].getMessage() != null
-                ? choices[0].getMessage().getContent()
-                : null;
+        Choice.Message message = getFirstMessage();
+        return message != null ? message.getContent() : null;
+    }
+
+    /**
+     * Gets the tool calls requested in the first message of the response.
+     *
+     * @return The requested tool calls, or an empty list if there are none
+     * 
+     * @since 1.1.0
+     */
+    public List<ToolCall> getFirstToolCalls() {
+        Choice.Message message = getFirstMessage();
+        return message != null && message.getToolCalls() != null ? message.getToolCalls() : List.of();
     }
 }
@@ -19,6 +19,12 @@ public class LLMResponseException extends RuntimeException {
         this.responseBody = response.body();
     }
 
+    public LLMResponseException(int statusCode, String responseBody) {
+        super("LLM Request Failed with status code: " + statusCode);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
     public LLMResponseException(int statusCode) {
         super("LLM Request Failed with status code: " + statusCode);
         this.statusCode = statusCode;
@@ -0,0 +1,74 @@
+package io.github.scorpio4938.LLMCall.messages;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Represents one server-sent event of a streamed LLM response.
+ * 
+ * @since 1.1.0
+ */
+public class LLMStreamChunk {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("choices")
+    private Choice[] choices;
+
+    /**
+     * Represents a streamed choice.
+     * 
+     * @since 1.1.0
+     */
+    public static class Choice {
+        @SerializedName("delta")
+        private Delta delta;
+
+        @SerializedName("finish_reason")
+        private String finishReason;
+
+        /**
+         * Represents the content added by a chunk.
+         * 
+         * @since 1.1.0
+         */
+        public static class Delta {
+            @SerializedName("role")
+            private String role;
+            @SerializedName("content")
+            private String content;
+
+            public String getRole() {
+                return role;
+            }
+
+            public String getContent() {
+                return content;
+            }
+        }
+
+        public Delta getDelta() {
+            return delta;
+        }
+
+        public String getFinishReason() {
+            return finishReason;
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the content added to the first choice by this chunk.
+     *
+     * @return The added content, or null if the chunk carries none
+     * 
+     * @since 1.1.0
+     */
+    public String getFirstDeltaContent() {
+        return choices != null && choices.length > 0 && choices[0].getDelta() != null
+                ? choices[0].getDelta().getContent()
+                : null;
+    }
+}
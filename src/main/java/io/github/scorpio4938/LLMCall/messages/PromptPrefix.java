@@ -0,0 +1,121 @@
+package io.github.scorpio4938.LLMCall.messages;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * An immutable prompt prefix shared across calls, such as a system prompt,
+ * tool definitions and few-shot examples.
+ * <p>
+ * The prefix is serialized once and every request built from it starts with
+ * exactly the same bytes: the model, the tools, then the prefix messages,
+ * followed by the per-call messages and the parameters in sorted key order.
+ * This keeps the shared part of the prompt eligible for provider-side prefix
+ * (KV) caching.
+ * 
+ * @since 1.1.0
+ */
+public final class PromptPrefix {
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final List<LLMRequest.Message> messages;
+    private final List<LLMRequest.Tool> tools;
+    private final String serialized;
+
+    private PromptPrefix(List<LLMRequest.Message> messages, List<LLMRequest.Tool> tools) {
+        this.messages = Collections.unmodifiableList(messages);
+        this.tools = tools;
+
+        StringBuilder json = new StringBuilder();
+        if (!tools.isEmpty()) {
+            json.append(",\"tools\":").append(GSON.toJson(tools));
+        }
+        json.append(",\"messages\":[");
+        for (int i = 0; i < messages.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(GSON.toJson(messages.get(i)));
+        }
+        this.serialized = json.toString();
+    }
+
+    /**
+     * Creates a prefix starting with the given system prompt.
+     *
+     * @param systemPrompt The system prompt
+     * @return The prefix
+     * 
+     * @since 1.1.0
+     */
+    public static PromptPrefix of(String systemPrompt) {
+        Objects.requireNonNull(systemPrompt, "System prompt must not be null");
+        return new PromptPrefix(List.of(LLMRequest.createMessage("system", systemPrompt)), List.of());
+    }
+
+    /**
+     * Returns a copy with a few-shot example appended.
+     *
+     * @param user      The example user message
+     * @param assistant The example assistant answer
+     * @return The updated prefix
+     * 
+     * @since 1.1.0
+     */
+    public PromptPrefix withExample(String user, String assistant) {
+        List<LLMRequest.Message> extended = new ArrayList<>(messages);
+        extended.add(LLMRequest.createMessage("user", user));
+        extended.add(LLMRequest.createMessage("assistant", assistant));
+        return new PromptPrefix(extended, tools);
+    }
+
+    /**
+     * Returns a copy offering the given tools.
+     *
+     * @param tools The tool definitions
+     * @return The updated prefix
+     * 
+     * @since 1.1.0
+     */
+    public PromptPrefix withTools(List<LLMRequest.Tool> tools) {
+        return new PromptPrefix(new ArrayList<>(messages), List.copyOf(tools));
+    }
+
+    /**
+     * Serializes a request starting with this prefix.
+     *
+     * @param model    The provider's model name
+     * @param messages The per-call messages following the prefix
+     * @param params   The parameters, serialized in sorted key order
+     * @return The JSON request body
+     * 
+     * @since 1.1.0
+     */
+    public String toRequestBody(String model, List<LLMRequest.Message> messages, Map<String, Object> params) {
+        StringBuilder body = new StringBuilder(serialized.length() + 256)
+                .append("{\"model\":").append(GSON.toJson(model))
+                .append(serialized);
+        for (LLMRequest.Message message : messages) {
+            body.append(',').append(GSON.toJson(message));
+        }
+        return body.append("],\"parameters\":")
+                .append(GSON.toJson(params != null ? new TreeMap<>(params) : Map.of()))
+                .append('}')
+                .toString();
+    }
+
+    public List<LLMRequest.Message> getMessages() {
+        return messages;
+    }
+
+    public List<LLMRequest.Tool> getTools() {
+        return tools;
+    }
+}
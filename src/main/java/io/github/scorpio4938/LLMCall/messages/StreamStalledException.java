@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.messages;
+
+public class StreamStalledException extends RuntimeException {
+    public StreamStalledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.scorpio4938.LLMCall.messages;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Represents a tool (function) call requested by an LLM.
+ * 
+ * @since 1.1.0
+ */
+public class ToolCall {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("type")
+    private String type = "function";
+
+    @SerializedName("function")
+    private Function function;
+
+    public ToolCall(String id, String name, String arguments) {
+        this.id = id;
+        this.function = new Function(name, arguments);
+    }
+
+    public ToolCall(String id, String type, Function function) {
+        this.id = id;
+        this.type = type;
+        this.function = function;
+    }
+
+    /**
+     * Represents the function part of a tool call.
+     * 
+     * @since 1.1.0
+     */
+    public static class Function {
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("arguments")
+        private String arguments;
+
+        public Function(String name, String arguments) {
+            this.name = name;
+            this.arguments = arguments;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getArguments() {
+            return arguments;
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.scorpio4938.LLMCall.providers;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Interface class for llm providers.
@@ -11,6 +13,7 @@ public class Provider {
     private String url;
     private String key;
     private List<String> models;
+    private final Map<String, Integer> contextLimits = new ConcurrentHashMap<>();
 
     public Provider(String provider, String url, String key, List<String> models) {
         this.provider = provider;
@@ -44,4 +47,35 @@ public class Provider {
         }
         throw new ModelNotSupportedException(modelName);
     }
+
+    /**
+     * Sets the context window of a model, in tokens.
+     *
+     * @param modelName The model
+     * @param tokens    The maximum number of prompt and completion tokens
+     * @return This provider
+     * @throws ModelNotSupportedException if the provider does not offer the
+     *                                    model
+     * 
+     * @since 1.1.0
+     */
+    public Provider withContextLimit(String modelName, int tokens) {
+        if (tokens <= 0) {
+            throw new IllegalArgumentException("Context limit must be positive");
+        }
+        contextLimits.put(getModel(modelName), tokens);
+        return this;
+    }
+
+    /**
+     * Gets the context window of a model.
+     *
+     * @param modelName The model
+     * @return The context window in tokens, or 0 if unknown
+     * 
+     * @since 1.1.0
+     */
+    public int getContextLimit(String modelName) {
+        return contextLimits.getOrDefault(modelName, 0);
+    }
 }
@@ -27,6 +27,15 @@ public class Providers {
         this.addProviderWithV1("OLLAMA", "http://localhost:11434", null,
                 List.of("deepseek-r1:1.5b", "qwen2.5:0.5b", "qwen2.5-coder:3b", "llama3.2:3b"));
 
+        // Context windows in tokens, used by context compaction
+        this.getProvider("DEEPSEEK").withContextLimit("deepseek-chat", 65536)
+                .withContextLimit("deepseek-coder", 65536);
+        this.getProvider("MOONSHOT").withContextLimit("moonshot-v1-8k", 8192)
+                .withContextLimit("moonshot-v1-32k", 32768)
+                .withContextLimit("moonshot-v1-128k", 131072);
+        this.getProvider("OPENROUTER").withContextLimit("google/gemini-exp-1206:free", 2097152)
+                .withContextLimit("google/gemini-2.0-flash-exp:free", 1048576)
+                .withContextLimit("meta-llama/llama-3.2-1b-instruct:free", 131072);
     }
 
     /**
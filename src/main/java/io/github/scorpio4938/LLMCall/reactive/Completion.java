@@ -0,0 +1,48 @@
+package io.github.scorpio4938.LLMCall.reactive;
+
+import java.util.Map;
+
+/**
+ * The outcome of one prompt in a reactive pipeline: either the generated
+ * content or the error of that element.
+ * 
+ * @since 1.1.0
+ */
+public final class Completion {
+    private final long index;
+    private final Map<String, String> prompt;
+    private final String content;
+    private final Throwable error;
+
+    Completion(long index, Map<String, String> prompt, String content, Throwable error) {
+        this.index = index;
+        this.prompt = prompt;
+        this.content = content;
+        this.error = error;
+    }
+
+    /**
+     * Gets the position of the prompt in the upstream sequence.
+     *
+     * @return The zero-based index of the prompt
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public Map<String, String> getPrompt() {
+        return prompt;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,256 @@
+package io.github.scorpio4938.LLMCall.reactive;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive adapter connecting a {@link Flow.Publisher} of prompts to an
+ * {@link LLMApiClient} and publishing the completions.
+ * <p>
+ * At most {@code prefetch} prompts are requested from upstream and not yet
+ * delivered downstream at any time, so backpressure follows downstream demand
+ * and the number of calls in flight stays bounded. Failed calls are delivered
+ * as failed {@link Completion}s; only an upstream error terminates the stream
+ * with {@code onError}.
+ * 
+ * @since 1.1.0
+ */
+public class LLMPublisher {
+    private static final int DEFAULT_PREFETCH = 16;
+
+    private final LLMApiClient client;
+    private final String model;
+    private final Map<String, Object> params;
+
+    private int prefetch = DEFAULT_PREFETCH;
+    private boolean ordered = true;
+    private CallOptions options = CallOptions.defaults();
+
+    /**
+     * Constructs a new adapter.
+     *
+     * @param client The client used for the calls (must not be null)
+     * @param model  The model to use
+     * @param params Additional parameters for the LLM calls
+     * 
+     * @since 1.1.0
+     */
+    public LLMPublisher(LLMApiClient client, String model, Map<String, Object> params) {
+        this.client = Objects.requireNonNull(client, "Client must not be null");
+        this.model = model;
+        this.params = params;
+    }
+
+    /**
+     * Sets the maximum number of prompts in flight or buffered.
+     *
+     * @param prefetch The prefetch bound (must be positive)
+     * @return The updated LLMPublisher
+     * 
+     * @since 1.1.0
+     */
+    public LLMPublisher withPrefetch(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Prefetch must be positive");
+        }
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Sets whether completions are published in prompt order (the default) or
+     * as soon as they are ready.
+     *
+     * @param ordered Whether to keep prompt order
+     * @return The updated LLMPublisher
+     * 
+     * @since 1.1.0
+     */
+    public LLMPublisher withOrdering(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Sets the options (priority, deadline) of every call.
+     *
+     * @param options The call options
+     * @return The updated LLMPublisher
+     * 
+     * @since 1.1.0
+     */
+    public LLMPublisher withOptions(CallOptions options) {
+        this.options = Objects.requireNonNull(options, "Options must not be null");
+        return this;
+    }
+
+    /**
+     * Connects a publisher of prompts. Each subscription to the returned
+     * publisher subscribes to the prompts once.
+     *
+     * @param prompts The publisher of prompts (message maps)
+     * @return The publisher of completions
+     * 
+     * @since 1.1.0
+     */
+    public Flow.Publisher<Completion> completions(Flow.Publisher<Map<String, String>> prompts) {
+        Objects.requireNonNull(prompts, "Prompts must not be null");
+        return subscriber -> prompts.subscribe(new Pipeline(Objects.requireNonNull(subscriber), prefetch, ordered));
+    }
+
+    private static class Slot {
+        private volatile Completion completion;
+    }
+
+    private class Pipeline implements Flow.Subscriber<Map<String, String>>, Flow.Subscription {
+        private final Flow.Subscriber<? super Completion> downstream;
+        private final int prefetch;
+        private final boolean ordered;
+
+        private final Queue<Slot> slots = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Flow.Subscription upstream;
+        private long nextIndex = 0;
+        private volatile boolean upstreamDone = false;
+        private volatile Throwable upstreamError;
+        private volatile boolean cancelled = false;
+        private boolean terminated = false;
+
+        Pipeline(Flow.Subscriber<? super Completion> downstream, int prefetch, boolean ordered) {
+            this.downstream = downstream;
+            this.prefetch = prefetch;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            upstream.request(prefetch);
+        }
+
+        @Override
+        public void onNext(Map<String, String> prompt) {
+            if (cancelled) {
+                return;
+            }
+            long index = nextIndex++;
+            Slot slot = new Slot();
+            pending.incrementAndGet();
+            if (ordered) {
+                slots.add(slot);
+            }
+
+            client.asyncCallLLM(model, prompt, params, options).whenComplete((content, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                slot.completion = new Completion(index, prompt, error == null ? content : null, cause);
+                if (!ordered) {
+                    slots.add(slot);
+                }
+                drain();
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            upstreamError = throwable;
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Rule 3.9: stop the upstream and signal the error downstream
+                upstream.cancel();
+                upstreamError = new IllegalArgumentException("Non-positive request: " + n);
+                upstreamDone = true;
+                slots.clear();
+                pending.set(0);
+            } else {
+                requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (upstream != null) {
+                upstream.cancel();
+            }
+        }
+
+        /**
+         * Emits ready completions while there is demand. Serialized through the
+         * work-in-progress counter so downstream signals never overlap.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (terminated || cancelled) {
+                    return;
+                }
+                long demand = requested.get();
+                long emitted = 0;
+                while (emitted != demand) {
+                    Slot head = slots.peek();
+                    if (head == null || head.completion == null) {
+                        break; // Ordered mode waits for the oldest prompt
+                    }
+                    slots.poll();
+                    pending.decrementAndGet();
+                    downstream.onNext(head.completion);
+                    emitted++;
+                    if (cancelled) {
+                        return;
+                    }
+                    if (!upstreamDone) {
+                        upstream.request(1); // Replenish the prefetch window
+                    }
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+
+                if (upstreamDone && pending.get() == 0) {
+                    terminated = true;
+                    if (upstreamError != null) {
+                        downstream.onError(upstreamError);
+                    } else {
+                        downstream.onComplete();
+                    }
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
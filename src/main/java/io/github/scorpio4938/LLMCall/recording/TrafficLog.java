@@ -0,0 +1,155 @@
+package io.github.scorpio4938.LLMCall.recording;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compressed binary traffic log format.
+ * <p>
+ * A gzip stream holding a magic number and version, followed by records
+ * (each preceded by a {@code 1} marker) of fixed-width timing fields and
+ * length-prefixed UTF-8 strings, and a {@code 0} end marker.
+ * 
+ * @since 1.1.0
+ */
+public final class TrafficLog {
+    private static final int MAGIC = 0x4C4C4D52; // "LLMR"
+    private static final int VERSION = 1;
+
+    private TrafficLog() {
+    }
+
+    /**
+     * Writes records to a log file.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+
+        public Writer(Path path) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(path), 1 << 16), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        public void write(TrafficRecord record) throws IOException {
+            out.writeByte(1);
+            out.writeLong(record.getTimestampMillis());
+            out.writeLong(record.getLatencyNanos());
+            out.writeInt(record.getStatusCode());
+            writeString(record.getRequestBody());
+            writeString(record.getResponseBody());
+            out.writeInt(record.getHeaders().size());
+            for (Map.Entry<String, String> header : record.getHeaders().entrySet()) {
+                writeString(header.getKey());
+                writeString(header.getValue());
+            }
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(0);
+            out.close();
+        }
+    }
+
+    /**
+     * Reads records from a log file, one at a time.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private boolean ended = false;
+
+        public Reader(Path path) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(path), 1 << 16), 1 << 16));
+            if (in.readInt() != MAGIC) {
+                in.close();
+                throw new IOException("Not a traffic log: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("Unsupported traffic log version: " + version);
+            }
+        }
+
+        /**
+         * Reads the next record.
+         *
+         * @return The next record, or null at the end of the log
+         * @throws IOException if reading fails
+         */
+        public TrafficRecord next() throws IOException {
+            if (ended) {
+                return null;
+            }
+            int marker;
+            try {
+                marker = in.readByte();
+            } catch (EOFException e) {
+                marker = 0; // Log of a recorder that was not closed
+            }
+            if (marker == 0) {
+                ended = true;
+                return null;
+            }
+            long timestamp = in.readLong();
+            long latency = in.readLong();
+            int status = in.readInt();
+            String request = readString();
+            String response = readString();
+            int headerCount = in.readInt();
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(readString(), readString());
+            }
+            return new TrafficRecord(timestamp, latency, status, request, response, headers);
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
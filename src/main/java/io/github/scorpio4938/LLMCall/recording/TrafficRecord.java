@@ -0,0 +1,63 @@
+package io.github.scorpio4938.LLMCall.recording;
+
+import java.util.Map;
+
+/**
+ * One recorded request/response exchange.
+ * 
+ * @since 1.1.0
+ */
+public final class TrafficRecord {
+    private final long timestampMillis;
+    private final long latencyNanos;
+    private final int statusCode;
+    private final String requestBody;
+    private final String responseBody;
+    private final Map<String, String> headers;
+
+    /**
+     * Constructs a new record.
+     *
+     * @param timestampMillis When the request was sent (epoch millis)
+     * @param latencyNanos    The time until the response was received
+     * @param statusCode      The HTTP status code
+     * @param requestBody     The request body
+     * @param responseBody    The response body
+     * @param headers         The response headers (first value of each)
+     * 
+     * @since 1.1.0
+     */
+    public TrafficRecord(long timestampMillis, long latencyNanos, int statusCode, String requestBody,
+            String responseBody, Map<String, String> headers) {
+        this.timestampMillis = timestampMillis;
+        this.latencyNanos = latencyNanos;
+        this.statusCode = statusCode;
+        this.requestBody = requestBody;
+        this.responseBody = responseBody;
+        this.headers = headers != null ? Map.copyOf(headers) : Map.of();
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
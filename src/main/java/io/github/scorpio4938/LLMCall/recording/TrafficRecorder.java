@@ -0,0 +1,111 @@
+package io.github.scorpio4938.LLMCall.recording;
+
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronously records traffic into a {@link TrafficLog}.
+ * <p>
+ * Recording never blocks the caller: records go into a bounded queue drained
+ * by a background thread, and are dropped (and counted) when the queue is
+ * full.
+ * 
+ * @since 1.1.0
+ */
+public class TrafficRecorder implements Closeable {
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final BlockingQueue<TrafficRecord> queue;
+    private final TrafficLog.Writer writer;
+    private final Thread drainer;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed = false;
+
+    public TrafficRecorder(Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new recorder writing to the given file.
+     *
+     * @param path     The log file to create
+     * @param capacity The maximum number of records waiting to be written
+     * @throws IOException if the file cannot be created
+     * 
+     * @since 1.1.0
+     */
+    public TrafficRecorder(Path path, int capacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new TrafficLog.Writer(path);
+        this.drainer = new Thread(this::drain, "llm-traffic-recorder");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Queues a record without blocking.
+     *
+     * @param record The record
+     * @return false if the record was dropped because the queue is full
+     * 
+     * @since 1.1.0
+     */
+    public boolean record(TrafficRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                TrafficRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    writer.flush();
+                    continue;
+                }
+                writer.write(record);
+                recorded.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            closed = true;
+            Debugger.log("ERROR", "Traffic recording stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the queued records and closes the log.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.scorpio4938.LLMCall.recording;
+
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds recorded responses back instead of calling the provider.
+ * <p>
+ * Requests are matched by body; identical requests cycle through their
+ * recorded responses. Unmatched requests get the recorded responses in
+ * sequence unless the replayer is strict. Each response is delayed by its
+ * recorded latency multiplied by the time scale (0 replays as fast as
+ * possible).
+ * 
+ * @since 1.1.0
+ */
+public class TrafficReplayer {
+    private final List<TrafficRecord> records;
+    private final Map<String, List<TrafficRecord>> byRequest = new HashMap<>();
+    private final Map<String, AtomicLong> cursors = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private double timeScale = 1.0;
+    private boolean strict = false;
+
+    /**
+     * Constructs a replayer over the given records.
+     *
+     * @param records The recorded traffic (must not be empty)
+     * 
+     * @since 1.1.0
+     */
+    public TrafficReplayer(List<TrafficRecord> records) {
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("Records must not be empty");
+        }
+        this.records = List.copyOf(records);
+        for (TrafficRecord record : this.records) {
+            byRequest.computeIfAbsent(record.getRequestBody(), key -> new ArrayList<>()).add(record);
+            cursors.computeIfAbsent(record.getRequestBody(), key -> new AtomicLong());
+        }
+    }
+
+    /**
+     * Loads a replayer from a traffic log.
+     *
+     * @param path The log file
+     * @return The replayer
+     * @throws IOException if the log cannot be read
+     * 
+     * @since 1.1.0
+     */
+    public static TrafficReplayer load(Path path) throws IOException {
+        List<TrafficRecord> records = new ArrayList<>();
+        try (TrafficLog.Reader reader = new TrafficLog.Reader(path)) {
+            TrafficRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return new TrafficReplayer(records);
+    }
+
+    /**
+     * Sets the factor applied to recorded latencies.
+     *
+     * @param timeScale 1 for original timing, 0 for no delay
+     * @return The updated TrafficReplayer
+     * 
+     * @since 1.1.0
+     */
+    public TrafficReplayer withTimeScale(double timeScale) {
+        if (timeScale < 0) {
+            throw new IllegalArgumentException("Time scale must not be negative");
+        }
+        this.timeScale = timeScale;
+        return this;
+    }
+
+    /**
+     * Sets whether unmatched requests fail instead of getting the next
+     * recorded response.
+     *
+     * @param strict Whether to require an exact request match
+     * @return The updated TrafficReplayer
+     * 
+     * @since 1.1.0
+     */
+    public TrafficReplayer withStrictMatching(boolean strict) {
+        this.strict = strict;
+        return this;
+    }
+
+    /**
+     * Replays the response recorded for a request.
+     *
+     * @param requestBody The request body
+     * @return The recorded response body
+     * @throws LLMResponseException  if the recorded status is an error
+     * @throws IllegalStateException if strict and the request was not recorded
+     * @throws InterruptedException  if interrupted while waiting
+     * 
+     * @since 1.1.0
+     */
+    public String replay(String requestBody) throws InterruptedException {
+        TrafficRecord record = select(requestBody);
+        long delayNanos = (long) (record.getLatencyNanos() * timeScale);
+        if (delayNanos > 0) {
+            Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+        }
+        if (record.getStatusCode() >= 400) {
+            throw new LLMResponseException(record.getStatusCode(), record.getResponseBody());
+        }
+        return record.getResponseBody();
+    }
+
+    private TrafficRecord select(String requestBody) {
+        List<TrafficRecord> matches = byRequest.get(requestBody);
+        if (matches != null) {
+            long index = cursors.get(requestBody).getAndIncrement();
+            return matches.get((int) (index % matches.size()));
+        }
+        if (strict) {
+            throw new IllegalStateException("No recorded response for request");
+        }
+        return records.get((int) (sequence.getAndIncrement() % records.size()));
+    }
+
+    public int size() {
+        return records.size();
+    }
+}
@@ -0,0 +1,274 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit for one provider.
+ * <p>
+ * The limit follows an additive-increase / multiplicative-decrease (AIMD)
+ * rule: each successful call raises the limit by one while the limit is
+ * actually being used, and an overload signal (429, 5xx or timeout) multiplies
+ * it by the backoff ratio. The decrease is applied at most once per round
+ * trip: calls that started before the last decrease, such as a burst of
+ * concurrent 429s, do not decrease it again.
+ * <p>
+ * The round-trip time of an LLM call grows with the length of its answer, so
+ * by default it is not an overload signal. Workloads with answers of similar
+ * length can opt in with {@link #withLatencyTolerance(double)}, which treats
+ * calls taking much longer than the lowest recently observed RTT as queueing
+ * at the provider. The lowest RTT is re-measured every sampling period so the
+ * baseline follows the provider.
+ * <p>
+ * Waiting callers park on a lock condition rather than a monitor, so waiting
+ * virtual threads do not pin their carrier threads.
+ * 
+ * @since 1.1.0
+ */
+public class AdaptiveLimiter {
+    private static final int RTT_PERIOD = 256;
+
+    /**
+     * The outcome of a call, as seen by the limiter.
+     * 
+     * @since 1.1.0
+     */
+    public enum Outcome {
+        /** The call succeeded; its RTT is sampled. */
+        SUCCESS,
+        /** The provider signalled overload (429, 5xx or timeout). */
+        DROPPED,
+        /** The call failed for an unrelated reason and is not sampled. */
+        IGNORED
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private double backoffRatio = 0.9;
+    private double latencyTolerance = 0; // 0: the RTT is not an overload signal
+
+    private double limit;
+    private int inFlight = 0;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long periodMinRttNanos = Long.MAX_VALUE;
+    private int periodSamples = 0;
+    private long lastBackoffNanos;
+    private boolean backedOff = false;
+
+    public AdaptiveLimiter() {
+        this(10, 1, 1000);
+    }
+
+    /**
+     * Constructs a new limiter.
+     *
+     * @param initialLimit The starting limit
+     * @param minLimit     The lowest limit
+     * @param maxLimit     The highest limit
+     * 
+     * @since 1.1.0
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Sets the factor applied to the limit on an overload signal.
+     *
+     * @param backoffRatio The factor, between 0 and 1 exclusive
+     * @return The updated AdaptiveLimiter
+     * 
+     * @since 1.1.0
+     */
+    public AdaptiveLimiter withBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        lock.lock();
+        try {
+            this.backoffRatio = backoffRatio;
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Sets how many times the lowest observed RTT a call may take before it is
+     * treated as a sign of queueing at the provider. Off by default, as the
+     * RTT of a call also grows with the length of its answer.
+     *
+     * @param latencyTolerance The tolerance, at least 1
+     * @return The updated AdaptiveLimiter
+     * 
+     * @since 1.1.0
+     */
+    public AdaptiveLimiter withLatencyTolerance(double latencyTolerance) {
+        if (latencyTolerance < 1) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1");
+        }
+        lock.lock();
+        try {
+            this.latencyTolerance = latencyTolerance;
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Waits until a call may start and claims a slot.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * 
+     * @since 1.1.0
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                released.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a call may start and claims a slot, giving up at the call's
+     * deadline.
+     *
+     * @param deadline The deadline of the call, or null to wait without bound
+     * @throws InterruptedException      if interrupted while waiting
+     * @throws DeadlineExceededException if no slot frees up before the
+     *                                   deadline
+     * 
+     * @since 1.1.0
+     */
+    public void acquire(Instant deadline) throws InterruptedException {
+        if (deadline == null) {
+            acquire();
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    throw new DeadlineExceededException("Deadline exceeded waiting for a concurrency slot");
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot and adjusts the limit from the call's outcome.
+     *
+     * @param rtt     The round-trip time of the call
+     * @param outcome The outcome of the call
+     * 
+     * @since 1.1.0
+     */
+    public void release(Duration rtt, Outcome outcome) {
+        release(rtt.toNanos(), outcome);
+    }
+
+    /**
+     * Releases a slot and adjusts the limit from the call's outcome.
+     *
+     * @param rttNanos The round-trip time of the call in nanoseconds
+     * @param outcome  The outcome of the call
+     * 
+     * @since 1.1.0
+     */
+    public void release(long rttNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            int used = inFlight;
+            inFlight--;
+
+            if (outcome == Outcome.SUCCESS) {
+                sampleRtt(rttNanos);
+                if (latencyTolerance > 0 && rttNanos > minRttNanos * latencyTolerance) {
+                    outcome = Outcome.DROPPED; // Queueing delay: treat like an explicit overload signal
+                } else if (used * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            long now = System.nanoTime();
+            if (outcome == Outcome.DROPPED && (!backedOff || now - rttNanos - lastBackoffNanos >= 0)) {
+                limit = Math.max(minLimit, limit * backoffRatio); // Once per round trip
+                lastBackoffNanos = now;
+                backedOff = true;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sampleRtt(long rttNanos) {
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        periodMinRttNanos = Math.min(periodMinRttNanos, rttNanos);
+        if (++periodSamples >= RTT_PERIOD) {
+            minRttNanos = periodMinRttNanos;
+            periodMinRttNanos = Long.MAX_VALUE;
+            periodSamples = 0;
+        }
+    }
+
+    /**
+     * Gets the current concurrency limit.
+     *
+     * @return The number of calls allowed in flight
+     * 
+     * @since 1.1.0
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the lowest recently observed round-trip time.
+     *
+     * @return The baseline RTT, or null before the first successful call
+     * 
+     * @since 1.1.0
+     */
+    public Duration getMinRtt() {
+        lock.lock();
+        try {
+            return minRttNanos == Long.MAX_VALUE ? null : Duration.ofNanos(minRttNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
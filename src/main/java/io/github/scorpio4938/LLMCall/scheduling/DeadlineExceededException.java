@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
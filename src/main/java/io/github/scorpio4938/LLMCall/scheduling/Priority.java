@@ -0,0 +1,15 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+/**
+ * Priority classes of LLM calls, highest first.
+ * 
+ * @since 1.1.0
+ */
+public enum Priority {
+    /** Calls a user is waiting on. */
+    INTERACTIVE,
+    /** Default priority. */
+    NORMAL,
+    /** Background and batch work. */
+    BATCH
+}
@@ -0,0 +1,210 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+import io.github.scorpio4938.LLMCall.service.metrics.LatencyTracker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs LLM calls on a fixed number of workers, serving higher priorities
+ * first and earlier deadlines first within a priority.
+ * <p>
+ * Calls whose deadline cannot be met, judging by the estimated queue wait and
+ * the p50 latency observed for their provider, fail fast with a
+ * {@link DeadlineExceededException} instead of occupying a worker.
+ * 
+ * @since 1.1.0
+ */
+public class RequestScheduler implements AutoCloseable {
+    private static final Comparator<Task<?>> ORDER = Comparator
+            .<Task<?>, Integer>comparing(task -> task.options.getPriority().ordinal())
+            .thenComparing(task -> task.options.getDeadline(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(task -> task.sequence);
+
+    private final int maxConcurrent;
+    private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>(64, ORDER);
+    private final AtomicInteger[] queuedByPriority = new AtomicInteger[Priority.values().length];
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread[] workers;
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a new scheduler and starts its workers.
+     *
+     * @param maxConcurrent The maximum number of calls running at once
+     * 
+     * @since 1.1.0
+     */
+    public RequestScheduler(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        for (int i = 0; i < queuedByPriority.length; i++) {
+            queuedByPriority[i] = new AtomicInteger();
+        }
+        this.workers = new Thread[maxConcurrent];
+        for (int i = 0; i < maxConcurrent; i++) {
+            workers[i] = new Thread(this::work, "llm-scheduler-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Submits a call.
+     *
+     * @param providerKey The provider the call goes to, used for latency
+     *                    estimates
+     * @param options     The priority and deadline of the call
+     * @param call        The call to run
+     * @return A future completed with the result of the call
+     * 
+     * @since 1.1.0
+     */
+    public <T> CompletableFuture<T> submit(String providerKey, CallOptions options, Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Scheduler is closed"));
+            return future;
+        }
+
+        Instant deadline = options.getDeadline();
+        if (deadline != null) {
+            Duration estimate = estimatedCompletion(providerKey, options.getPriority());
+            if (Instant.now().plus(estimate).isAfter(deadline)) {
+                future.completeExceptionally(new DeadlineExceededException(
+                        "Deadline cannot be met: estimated completion in " + estimate.toMillis() + "ms"));
+                return future;
+            }
+        }
+
+        queuedByPriority[options.getPriority().ordinal()].incrementAndGet();
+        queue.add(new Task<>(providerKey, options, call, future, sequence.getAndIncrement()));
+        return future;
+    }
+
+    /**
+     * Estimates the time until a call of the given priority would complete:
+     * the wait behind queued calls of the same or higher priority plus the p50
+     * latency of the provider.
+     *
+     * @param providerKey The provider the call goes to
+     * @param priority    The priority of the call
+     * @return The estimated time to completion
+     * 
+     * @since 1.1.0
+     */
+    public Duration estimatedCompletion(String providerKey, Priority priority) {
+        int ahead = 0;
+        for (int i = 0; i <= priority.ordinal(); i++) {
+            ahead += queuedByPriority[i].get();
+        }
+        Duration p50 = latencyOf(providerKey).median();
+        return p50.plus(p50.multipliedBy(ahead).dividedBy(maxConcurrent));
+    }
+
+    /**
+     * Gets the latency tracker of a provider.
+     *
+     * @param providerKey The provider
+     * @return The latency tracker
+     * 
+     * @since 1.1.0
+     */
+    public LatencyTracker latencyOf(String providerKey) {
+        return latencies.computeIfAbsent(providerKey, key -> new LatencyTracker());
+    }
+
+    /**
+     * Gets the number of calls waiting for a worker.
+     *
+     * @return The queue length
+     * 
+     * @since 1.1.0
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the workers and fails all queued calls.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        Task<?> task;
+        while ((task = queue.poll()) != null) {
+            task.future.completeExceptionally(new IllegalStateException("Scheduler is closed"));
+        }
+    }
+
+    private void work() {
+        while (!closed) {
+            Task<?> task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            queuedByPriority[task.options.getPriority().ordinal()].decrementAndGet();
+            run(task);
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        if (task.future.isDone()) {
+            return; // Cancelled while queued
+        }
+
+        Instant deadline = task.options.getDeadline();
+        Duration p50 = latencyOf(task.providerKey).median();
+        if (deadline != null && Instant.now().plus(p50).isAfter(deadline)) {
+            Debugger.log("Dropping %s call: deadline cannot be met".formatted(task.options.getPriority()));
+            task.future.completeExceptionally(new DeadlineExceededException(
+                    "Deadline cannot be met after queueing: p50 latency is " + p50.toMillis() + "ms"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = task.call.call();
+            latencyOf(task.providerKey).record(Duration.ofNanos(System.nanoTime() - start));
+            task.future.complete(result);
+        } catch (Throwable e) {
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    private static class Task<T> {
+        private final String providerKey;
+        private final CallOptions options;
+        private final Callable<T> call;
+        private final CompletableFuture<T> future;
+        private final long sequence;
+
+        Task(String providerKey, CallOptions options, Callable<T> call, CompletableFuture<T> future, long sequence) {
+            this.providerKey = providerKey;
+            this.options = options;
+            this.call = call;
+            this.future = future;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.scorpio4938.LLMCall.service.compression;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable settings deciding how request and response bodies are
+ * compressed.
+ * <p>
+ * By default gzip and deflate responses are accepted and requests are sent
+ * uncompressed, since not every provider accepts encoded request bodies.
+ * 
+ * @since 1.1.0
+ */
+public final class CompressionPolicy {
+    private static final int DEFAULT_THRESHOLD = 16 * 1024;
+    private static final CompressionPolicy DEFAULTS = new CompressionPolicy(
+            new ContentEncoding[] { ContentEncoding.GZIP, ContentEncoding.DEFLATE },
+            ContentEncoding.IDENTITY, DEFAULT_THRESHOLD);
+    private static final CompressionPolicy NONE = new CompressionPolicy(
+            new ContentEncoding[0], ContentEncoding.IDENTITY, DEFAULT_THRESHOLD);
+
+    private final ContentEncoding[] acceptedEncodings;
+    private final String acceptEncodingHeader;
+    private final ContentEncoding requestEncoding;
+    private final int threshold;
+
+    private CompressionPolicy(ContentEncoding[] acceptedEncodings, ContentEncoding requestEncoding, int threshold) {
+        this.acceptedEncodings = acceptedEncodings;
+        this.acceptEncodingHeader = acceptedEncodings.length == 0 ? null
+                : Arrays.stream(acceptedEncodings).map(ContentEncoding::token).collect(Collectors.joining(", "));
+        this.requestEncoding = requestEncoding;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the default policy: accept gzip and deflate responses, send
+     * requests uncompressed.
+     *
+     * @return The default policy
+     * 
+     * @since 1.1.0
+     */
+    public static CompressionPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Gets a policy that neither advertises nor applies any compression.
+     *
+     * @return The policy
+     * 
+     * @since 1.1.0
+     */
+    public static CompressionPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a copy accepting the given response encodings, in order of
+     * preference.
+     *
+     * @param encodings The accepted encodings
+     * @return The updated policy
+     * 
+     * @since 1.1.0
+     */
+    public CompressionPolicy withAcceptedEncodings(ContentEncoding... encodings) {
+        ContentEncoding[] accepted = Arrays.stream(encodings)
+                .filter(encoding -> encoding != ContentEncoding.IDENTITY)
+                .distinct()
+                .toArray(ContentEncoding[]::new);
+        return new CompressionPolicy(accepted, requestEncoding, threshold);
+    }
+
+    /**
+     * Returns a copy compressing request bodies with the given encoding.
+     *
+     * @param encoding The request encoding, or {@link ContentEncoding#IDENTITY}
+     *                 to send requests uncompressed
+     * @return The updated policy
+     * 
+     * @since 1.1.0
+     */
+    public CompressionPolicy withRequestEncoding(ContentEncoding encoding) {
+        return new CompressionPolicy(acceptedEncodings,
+                Objects.requireNonNull(encoding, "Encoding must not be null"), threshold);
+    }
+
+    /**
+     * Returns a copy that only compresses request bodies of at least the given
+     * size.
+     *
+     * @param bytes The minimum body size in bytes
+     * @return The updated policy
+     * 
+     * @since 1.1.0
+     */
+    public CompressionPolicy withThreshold(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        return new CompressionPolicy(acceptedEncodings, requestEncoding, bytes);
+    }
+
+    /**
+     * Checks whether a request body of the given size should be compressed.
+     *
+     * @param bodyLength The body size in bytes
+     * @return true if the body should be encoded
+     * 
+     * @since 1.1.0
+     */
+    public boolean shouldCompress(int bodyLength) {
+        return requestEncoding != ContentEncoding.IDENTITY && bodyLength >= threshold;
+    }
+
+    /**
+     * Gets the {@code Accept-Encoding} header value.
+     *
+     * @return The header value, or null if no encoding is accepted
+     * 
+     * @since 1.1.0
+     */
+    public String getAcceptEncodingHeader() {
+        return acceptEncodingHeader;
+    }
+
+    public ContentEncoding getRequestEncoding() {
+        return requestEncoding;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.scorpio4938.LLMCall.service.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content codings supported for request and response bodies.
+ * 
+ * @since 1.1.0
+ */
+public enum ContentEncoding {
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    /** The zlib format, as specified for the HTTP {@code deflate} coding. */
+    DEFLATE("deflate");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Gets the token used in {@code Content-Encoding} and
+     * {@code Accept-Encoding} headers.
+     *
+     * @return The coding token
+     * 
+     * @since 1.1.0
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Compresses a body.
+     *
+     * @param body The uncompressed body
+     * @return The encoded body
+     * @throws IOException if encoding fails
+     * 
+     * @since 1.1.0
+     */
+    public byte[] encode(byte[] body) throws IOException {
+        if (this == IDENTITY) {
+            return body;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (OutputStream out = this == GZIP
+                ? new GZIPOutputStream(buffer, BUFFER_SIZE)
+                : new DeflaterOutputStream(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Wraps a body stream so it is decompressed as it is read.
+     *
+     * @param body The encoded body
+     * @return The decoded body
+     * @throws IOException if the stream header cannot be read
+     * 
+     * @since 1.1.0
+     */
+    public InputStream decode(InputStream body) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(body, BUFFER_SIZE);
+            case DEFLATE:
+                return new InflaterInputStream(body);
+            default:
+                return body;
+        }
+    }
+
+    /**
+     * Finds the coding named by a {@code Content-Encoding} header value.
+     *
+     * @param header The header value, or null if absent
+     * @return The matching coding
+     * @throws IOException if the coding is not supported
+     * 
+     * @since 1.1.0
+     */
+    public static ContentEncoding fromHeader(String header) throws IOException {
+        if (header == null || header.isBlank()) {
+            return IDENTITY;
+        }
+        String token = header.trim().toLowerCase(Locale.ROOT);
+        for (ContentEncoding encoding : values()) {
+            if (encoding.token.equals(token)) {
+                return encoding;
+            }
+        }
+        if (token.equals("x-gzip")) {
+            return GZIP;
+        }
+        throw new IOException("Unsupported Content-Encoding: " + header);
+    }
+}
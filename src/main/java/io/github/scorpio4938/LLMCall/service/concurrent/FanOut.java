@@ -0,0 +1,197 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Structured fan-out of blocking calls: forked tasks never outlive the scope.
+ * <p>
+ * Every task runs on its own (virtual, where supported) thread. The first
+ * failure cancels the remaining tasks, and closing the scope cancels whatever
+ * is still running and waits for it to stop. The scope waits on a lock
+ * condition rather than a monitor, so a virtual thread joining it does not pin
+ * its carrier thread.
+ *
+ * <pre>
+ * try (FanOut&lt;String&gt; scope = new FanOut&lt;&gt;()) {
+ *     scope.fork(() -&gt; client.directCallLLM("model-a", data));
+ *     scope.fork(() -&gt; client.directCallLLM("model-b", data));
+ *     List&lt;String&gt; answers = scope.join();
+ * }
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public class FanOut<T> implements AutoCloseable {
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stopped = lock.newCondition();
+    private final List<Future<T>> tasks = new ArrayList<>();
+    private int running = 0;
+    private volatile Throwable firstFailure;
+
+    /**
+     * Opens a scope running each task on a new thread-per-task executor.
+     * 
+     * @since 1.1.0
+     */
+    public FanOut() {
+        this(VirtualThreads.newThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Opens a scope running tasks on the given executor, which is left open
+     * when the scope closes.
+     *
+     * @param executor The executor to use
+     * 
+     * @since 1.1.0
+     */
+    public FanOut(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private FanOut(ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Forks a task in this scope.
+     *
+     * @param task The task to run
+     * @return The future of the task
+     * 
+     * @since 1.1.0
+     */
+    public Future<T> fork(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task) {
+            @Override
+            protected void setException(Throwable t) {
+                super.setException(t);
+                onFailure(t);
+            }
+        };
+        lock.lock();
+        try {
+            tasks.add(future);
+            if (firstFailure != null) {
+                future.cancel(true);
+                return future;
+            }
+            running++;
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.run();
+                    } finally {
+                        finished();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running--;
+                throw e;
+            }
+            return future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for all forked tasks and returns their results in fork order.
+     *
+     * @return The results of the tasks
+     * @throws ExecutionException   with the first failure, after the other
+     *                              tasks have been cancelled
+     * @throws InterruptedException if interrupted while waiting
+     * 
+     * @since 1.1.0
+     */
+    public List<T> join() throws ExecutionException, InterruptedException {
+        List<Future<T>> snapshot = snapshot();
+        List<T> results = new ArrayList<>(snapshot.size());
+        for (Future<T> task : snapshot) {
+            try {
+                results.add(task.get());
+            } catch (CancellationException e) {
+                if (firstFailure != null) {
+                    throw new ExecutionException(firstFailure);
+                }
+                throw e;
+            } catch (ExecutionException e) {
+                throw new ExecutionException(firstFailure != null ? firstFailure : e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Cancels unfinished tasks and waits until they have stopped.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+        lock.lock();
+        try {
+            while (running > 0) {
+                stopped.awaitUninterruptibly(); // Keep waiting: tasks must not outlive the scope
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finished() {
+        lock.lock();
+        try {
+            running--;
+            stopped.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(Throwable t) {
+        lock.lock();
+        try {
+            if (firstFailure != null) {
+                return;
+            }
+            firstFailure = t;
+        } finally {
+            lock.unlock();
+        }
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (Future<T> task : snapshot()) {
+            task.cancel(true);
+        }
+    }
+
+    private List<Future<T>> snapshot() {
+        lock.lock();
+        try {
+            return new ArrayList<>(tasks);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import io.github.scorpio4938.LLMCall.scheduling.DeadlineExceededException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces concurrent calls sharing the same key into a single execution.
+ * <p>
+ * The first caller runs the call; callers arriving while it is in flight wait
+ * for it and share its result or error. Nothing is retained once the call
+ * completes, so this is not a cache.
+ * <p>
+ * Some failures belong to the caller that ran the call rather than to the
+ * call itself, such as an interrupt of that caller's thread. They are not
+ * shared: the waiting callers start over and one of them runs the call again.
+ * <p>
+ * A waiting caller with a deadline stops waiting when it passes, leaving the
+ * shared call running for the others.
+ * 
+ * @since 1.1.0
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Predicate<Throwable> leaderLocal;
+
+    /**
+     * Creates a single-flight group that treats only interrupts as specific
+     * to the running caller.
+     * 
+     * @since 1.1.0
+     */
+    public SingleFlight() {
+        this(e -> false);
+    }
+
+    /**
+     * Creates a single-flight group with additional caller-specific failures.
+     *
+     * @param leaderLocal Tells whether a failure is specific to the caller
+     *                    that ran the call, e.g. its own deadline passing;
+     *                    interrupts always are
+     * 
+     * @since 1.1.0
+     */
+    public SingleFlight(Predicate<Throwable> leaderLocal) {
+        Objects.requireNonNull(leaderLocal, "Predicate must not be null");
+        this.leaderLocal = e -> e instanceof InterruptedException || leaderLocal.test(e);
+    }
+
+    /**
+     * Runs the call, or joins the in-flight call with the same key.
+     *
+     * @param key  The key identifying equivalent calls
+     * @param call The call to run if none is in flight
+     * @return The shared result
+     * @throws Exception the error of the shared call
+     * 
+     * @since 1.1.0
+     */
+    public V execute(K key, Callable<V> call) throws Exception {
+        return execute(key, null, call);
+    }
+
+    /**
+     * Runs the call, or joins the in-flight call with the same key until the
+     * caller's deadline.
+     *
+     * @param key      The key identifying equivalent calls
+     * @param deadline The deadline of the caller, or null to wait without
+     *                 bound
+     * @param call     The call to run if none is in flight
+     * @return The shared result
+     * @throws DeadlineExceededException if the deadline passes while waiting
+     *                                   for the in-flight call
+     * @throws Exception                 the error of the shared call
+     * 
+     * @since 1.1.0
+     */
+    public V execute(K key, Instant deadline, Callable<V> call) throws Exception {
+        while (true) {
+            CompletableFuture<V> started = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, started);
+            if (existing == null) {
+                return lead(key, started, call);
+            }
+            try {
+                if (deadline == null) {
+                    return existing.get();
+                }
+                long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+                return existing.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Stop waiting without cancelling the call the others share
+                throw new DeadlineExceededException("Deadline exceeded waiting for a coalesced call");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Abandoned) {
+                    continue; // The leader failed for its own reasons: start over
+                }
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> started, Callable<V> call) throws Exception {
+        try {
+            V result = call.call();
+            inFlight.remove(key, started);
+            started.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, started);
+            started.completeExceptionally(leaderLocal.test(e) ? new Abandoned() : e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of calls currently in flight.
+     *
+     * @return The number of in-flight keys
+     * 
+     * @since 1.1.0
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Tells waiting callers that the leader failed for reasons of its own.
+     */
+    private static final class Abandoned extends Exception {
+        Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes a stream when no progress is reported within a timeout.
+ * <p>
+ * Progress is a single volatile write, so it can be reported for every token.
+ * The check runs on a shared daemon timer and reschedules itself for the
+ * remaining time instead of polling.
+ * 
+ * @since 1.1.0
+ */
+public class StallWatchdog implements AutoCloseable {
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private final long timeoutNanos;
+    private final Closeable target;
+    private volatile long lastProgress;
+    private volatile boolean stalled = false;
+    private volatile boolean closed = false;
+    private volatile ScheduledFuture<?> check;
+
+    /**
+     * Starts watching a stream.
+     *
+     * @param timeout The longest allowed gap between progress reports
+     * @param target  The stream to close on a stall
+     * 
+     * @since 1.1.0
+     */
+    public StallWatchdog(Duration timeout, Closeable target) {
+        this.timeoutNanos = timeout.toNanos();
+        this.target = target;
+        this.lastProgress = System.nanoTime();
+        schedule(timeoutNanos);
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "llm-stall-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private void schedule(long delayNanos) {
+        check = TIMER.schedule(this::check, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void check() {
+        if (closed) {
+            return;
+        }
+        long idle = System.nanoTime() - lastProgress;
+        if (idle < timeoutNanos) {
+            schedule(timeoutNanos - idle);
+            return;
+        }
+        stalled = true;
+        try {
+            target.close();
+        } catch (IOException ignored) {
+            // The reader observes the closed stream either way
+        }
+    }
+
+    /**
+     * Reports progress, restarting the timeout.
+     * 
+     * @since 1.1.0
+     */
+    public void progress() {
+        lastProgress = System.nanoTime();
+    }
+
+    /**
+     * Checks whether the stream was closed because it stalled.
+     *
+     * @return true if the timeout elapsed without progress
+     * 
+     * @since 1.1.0
+     */
+    public boolean isStalled() {
+        return stalled;
+    }
+
+    /**
+     * Stops watching the stream.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledFuture<?> pending = check;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+    }
+}
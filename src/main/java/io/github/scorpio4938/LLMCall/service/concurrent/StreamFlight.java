@@ -0,0 +1,225 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces concurrent streaming calls sharing the same key into a single
+ * upstream stream.
+ * <p>
+ * Callers attaching to an in-progress stream first receive the deltas
+ * produced so far, then the live ones. Each follower consumes on its own
+ * thread, so a slow consumer never holds up the upstream stream. Nothing is
+ * retained once the stream completes.
+ * <p>
+ * Failures of the caller running the stream rather than of the stream itself,
+ * such as an interrupt of that caller or an exception thrown by its own
+ * consumer, are not shared: the attached callers start over, and one of them
+ * runs the stream again. A caller that already received part of the abandoned
+ * stream is only handed the output of the new stream past that point.
+ * Followers park on a lock condition, so waiting virtual threads do not pin
+ * their carrier threads.
+ * 
+ * @since 1.1.0
+ */
+public class StreamFlight<K> {
+    private final Map<K, Shared> inFlight = new ConcurrentHashMap<>();
+    private final Predicate<Throwable> leaderLocal;
+
+    /**
+     * A streaming call producing deltas.
+     * 
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    public interface StreamCall {
+        /**
+         * Runs the stream.
+         *
+         * @param onDelta Consumer receiving each delta
+         * @return The full streamed content
+         * @throws Exception if the stream fails
+         */
+        String stream(Consumer<String> onDelta) throws Exception;
+    }
+
+    /**
+     * Creates a stream-flight group that treats only interrupts and failures
+     * of the running caller's consumer as specific to that caller.
+     * 
+     * @since 1.1.0
+     */
+    public StreamFlight() {
+        this(e -> false);
+    }
+
+    /**
+     * Creates a stream-flight group with additional caller-specific failures.
+     *
+     * @param leaderLocal Tells whether a failure is specific to the caller
+     *                    running the stream, e.g. its own stall timeout
+     *                    expiring; interrupts and failures of its consumer
+     *                    always are
+     * 
+     * @since 1.1.0
+     */
+    public StreamFlight(Predicate<Throwable> leaderLocal) {
+        Objects.requireNonNull(leaderLocal, "Predicate must not be null");
+        this.leaderLocal = e -> e instanceof InterruptedException || leaderLocal.test(e);
+    }
+
+    /**
+     * Runs the stream, or attaches to the in-flight stream with the same key.
+     *
+     * @param key     The key identifying equivalent streams
+     * @param onDelta Consumer receiving each delta
+     * @param call    The stream to run if none is in flight
+     * @return The full streamed content
+     * @throws Exception the error of the shared stream
+     * 
+     * @since 1.1.0
+     */
+    public String execute(K key, Consumer<String> onDelta, StreamCall call) throws Exception {
+        Skipping consumer = new Skipping(onDelta);
+        while (true) {
+            Shared started = new Shared();
+            Shared existing = inFlight.putIfAbsent(key, started);
+            if (existing == null) {
+                return lead(key, started, consumer, call);
+            }
+            try {
+                return existing.follow(consumer);
+            } catch (Abandoned e) {
+                consumer.restart(); // The leader failed for its own reasons: start over
+            }
+        }
+    }
+
+    private String lead(K key, Shared started, Skipping onDelta, StreamCall call) throws Exception {
+        AtomicBoolean consumerFailed = new AtomicBoolean();
+        try {
+            String result = call.stream(delta -> {
+                started.publish(delta);
+                try {
+                    onDelta.accept(delta);
+                } catch (RuntimeException | Error e) {
+                    consumerFailed.set(true);
+                    throw e;
+                }
+            });
+            inFlight.remove(key, started);
+            started.finish(result, null);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, started);
+            boolean local = consumerFailed.get() || Thread.currentThread().isInterrupted() || leaderLocal.test(e);
+            started.finish(null, local ? new Abandoned() : e);
+            throw e;
+        }
+    }
+
+    private static class Shared {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final List<String> deltas = new ArrayList<>();
+        private boolean done = false;
+        private String result;
+        private Throwable error;
+
+        void publish(String delta) {
+            lock.lock();
+            try {
+                deltas.add(delta);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void finish(String result, Throwable error) {
+            lock.lock();
+            try {
+                this.result = result;
+                this.error = error;
+                this.done = true;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String follow(Consumer<String> onDelta) throws Exception {
+            int next = 0;
+            while (true) {
+                List<String> pending;
+                lock.lockInterruptibly();
+                try {
+                    while (next == deltas.size() && !done) {
+                        changed.await();
+                    }
+                    pending = next < deltas.size() ? new ArrayList<>(deltas.subList(next, deltas.size())) : List.of();
+                    next = deltas.size();
+                    if (pending.isEmpty()) {
+                        if (error instanceof Exception) {
+                            throw (Exception) error;
+                        }
+                        if (error != null) {
+                            throw (Error) error;
+                        }
+                        return result;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                for (String delta : pending) {
+                    onDelta.accept(delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands a caller's consumer only the output past what it has received,
+     * so a restarted stream does not repeat the deltas of an abandoned one.
+     */
+    private static final class Skipping implements Consumer<String> {
+        private final Consumer<String> onDelta;
+        private int received = 0;
+        private int skip = 0;
+
+        Skipping(Consumer<String> onDelta) {
+            this.onDelta = onDelta;
+        }
+
+        void restart() {
+            skip = Math.max(skip, received);
+            received = 0;
+        }
+
+        @Override
+        public void accept(String delta) {
+            int start = Math.min(delta.length(), Math.max(0, skip - received));
+            received += delta.length();
+            if (start < delta.length()) {
+                onDelta.accept(start == 0 ? delta : delta.substring(start));
+            }
+        }
+    }
+
+    /**
+     * Tells attached callers that the leader failed for reasons of its own.
+     */
+    private static final class Abandoned extends Exception {
+        Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for thread-per-task executors.
+ * <p>
+ * This is the Java 17 variant, which falls back to a cached pool of daemon
+ * platform threads. The multi-release JAR ships a Java 21 variant under
+ * {@code META-INF/versions/21} that uses virtual threads.
+ * 
+ * @since 1.1.0
+ */
+public class VirtualThreads {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * Checks whether executors from this factory run on virtual threads.
+     *
+     * @return true on Java 21 and later
+     * 
+     * @since 1.1.0
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an executor starting a new thread for each task.
+     *
+     * @return The executor
+     * 
+     * @since 1.1.0
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "llm-worker-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -11,13 +11,26 @@ import java.time.format.DateTimeFormatter;
  * @since 1.0.0
  */
 public class Debugger {
-    private static final boolean ENABLED = true; // Set to false to disable debugging logs
+    private static final boolean ENABLED = true; // Set to false to disable debugging logs by default
+    private static volatile boolean enabled = ENABLED;
 
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final boolean ENABLED_TIME = true; // Set to false to disable debugging time
 
     public static boolean getEnable() {
-        return ENABLED;
+        return enabled;
+    }
+
+    /**
+     * Turns debugging logs on or off at runtime, e.g. to keep per-request logs
+     * out of a load test's output.
+     *
+     * @param enable Whether to print debugging logs
+     * 
+     * @since 1.1.0
+     */
+    public static void setEnable(boolean enable) {
+        enabled = enable;
     }
 
     /**
@@ -40,13 +53,13 @@ public class Debugger {
      * @param message The debug message to log.
      */
     public static void log(String logType, String message) {
-        if (ENABLED) {
+        if (enabled) {
             System.out.println(formatTimestamp() + " [" + logType.toUpperCase() + "] " + message);
         }
     }
 
     public static void log(String logType, Object message) {
-        if (ENABLED) {
+        if (enabled) {
             System.out.println(formatTimestamp() + " [" + logType.toUpperCase() + "] " + message);
         }
     }
@@ -58,7 +71,7 @@ public class Debugger {
      * @apiNote Need some overridden .toString function of the object
      */
     public static void inspect(Object object) {
-        if (ENABLED) {
+        if (enabled) {
             String description = (object == null) ? "null" : object.toString();
             System.out.println(formatTimestamp() + " [INSPECT] " + description);
         }
@@ -72,7 +85,7 @@ public class Debugger {
      * @apiNote Need some overridden .toString function of the object
      */
     public static void inspect(String label, Object object) {
-        if (ENABLED) {
+        if (enabled) {
             String description = (object == null) ? "null" : object.toString();
             System.out.println(formatTimestamp() + " [INSPECT] " + label + ": " + description);
         }
@@ -84,7 +97,7 @@ public class Debugger {
      * @param exception The exception to log.
      */
     public static void logException(Exception exception) {
-        if (ENABLED) {
+        if (enabled) {
             StringWriter sw = new StringWriter();
             PrintWriter pw = new PrintWriter(sw);
             exception.printStackTrace(pw);
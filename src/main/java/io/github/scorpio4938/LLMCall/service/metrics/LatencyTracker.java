@@ -0,0 +1,92 @@
+package io.github.scorpio4938.LLMCall.service.metrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Tracks the most recent latencies of an operation in a fixed-size window and
+ * answers percentile queries over it.
+ * 
+ * @since 1.1.0
+ */
+public class LatencyTracker {
+    private static final int DEFAULT_WINDOW = 128;
+
+    private final long[] samples;
+    private int count = 0;
+    private int next = 0;
+
+    public LatencyTracker() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructs a new tracker.
+     *
+     * @param window The number of recent samples kept
+     * 
+     * @since 1.1.0
+     */
+    public LatencyTracker(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.samples = new long[window];
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latency The observed latency
+     * 
+     * @since 1.1.0
+     */
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency at that percentile, or zero if nothing was recorded
+     * 
+     * @since 1.1.0
+     */
+    public Duration percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return Duration.ZERO;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+
+    /**
+     * Gets the median of the recorded latencies.
+     *
+     * @return The p50 latency, or zero if nothing was recorded
+     * 
+     * @since 1.1.0
+     */
+    public Duration median() {
+        return percentile(50);
+    }
+
+    /**
+     * Gets the number of samples currently in the window.
+     *
+     * @return The sample count
+     * 
+     * @since 1.1.0
+     */
+    public synchronized int size() {
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.scorpio4938.LLMCall.service.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Win rates and latencies of the entrants of model races, keyed by
+ * {@code provider/model}.
+ * 
+ * @since 1.1.0
+ */
+public class RaceStats {
+    private final Map<String, Entrant> entrants = new ConcurrentHashMap<>();
+
+    private static final class Entrant {
+        private final LongAdder races = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+        private final LatencyTracker latency = new LatencyTracker();
+    }
+
+    private Entrant entrant(String key) {
+        return entrants.computeIfAbsent(key, k -> new Entrant());
+    }
+
+    /**
+     * Records that an entrant took part in a race.
+     *
+     * @param key The entrant key
+     * 
+     * @since 1.1.0
+     */
+    public void recordEntry(String key) {
+        entrant(key).races.increment();
+    }
+
+    /**
+     * Records the latency of an entrant's answer, whether or not it was valid
+     * and won.
+     *
+     * @param key     The entrant key
+     * @param latency The time until the answer arrived
+     * 
+     * @since 1.1.0
+     */
+    public void recordFinish(String key, Duration latency) {
+        entrant(key).latency.record(latency);
+    }
+
+    /**
+     * Records a win.
+     *
+     * @param key The entrant key
+     * 
+     * @since 1.1.0
+     */
+    public void recordWin(String key) {
+        entrant(key).wins.increment();
+    }
+
+    public Set<String> getEntrants() {
+        return entrants.keySet();
+    }
+
+    /**
+     * Gets the share of races an entrant won.
+     *
+     * @param key The entrant key
+     * @return The win rate between 0 and 1
+     * 
+     * @since 1.1.0
+     */
+    public double winRate(String key) {
+        Entrant entrant = entrants.get(key);
+        if (entrant == null || entrant.races.sum() == 0) {
+            return 0;
+        }
+        return (double) entrant.wins.sum() / entrant.races.sum();
+    }
+
+    public long wins(String key) {
+        Entrant entrant = entrants.get(key);
+        return entrant != null ? entrant.wins.sum() : 0;
+    }
+
+    /**
+     * Gets the latencies of an entrant's answers.
+     *
+     * @param key The entrant key
+     * @return The tracker, or null if the entrant never raced
+     * 
+     * @since 1.1.0
+     */
+    public LatencyTracker latency(String key) {
+        Entrant entrant = entrants.get(key);
+        return entrant != null ? entrant.latency : null;
+    }
+}
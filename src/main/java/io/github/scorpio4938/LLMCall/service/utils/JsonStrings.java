@@ -0,0 +1,80 @@
+package io.github.scorpio4938.LLMCall.service.utils;
+
+/**
+ * Writes JSON string literals exactly as the library's Gson instances do
+ * (HTML-safe escaping), without going through a {@code JsonWriter}.
+ * 
+ * @since 1.1.0
+ */
+public class JsonStrings {
+    private static final String[] REPLACEMENTS = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            REPLACEMENTS[c] = String.format("\\u%04x", c);
+        }
+        REPLACEMENTS['"'] = "\\\"";
+        REPLACEMENTS['\\'] = "\\\\";
+        REPLACEMENTS['\t'] = "\\t";
+        REPLACEMENTS['\b'] = "\\b";
+        REPLACEMENTS['\n'] = "\\n";
+        REPLACEMENTS['\r'] = "\\r";
+        REPLACEMENTS['\f'] = "\\f";
+        REPLACEMENTS['<'] = "\\u003c";
+        REPLACEMENTS['>'] = "\\u003e";
+        REPLACEMENTS['&'] = "\\u0026";
+        REPLACEMENTS['='] = "\\u003d";
+        REPLACEMENTS['\''] = "\\u0027";
+    }
+
+    /**
+     * Gets the escape sequence Gson writes for a character.
+     *
+     * @param c The character
+     * @return The escape sequence, or null if the character is written as is
+     * 
+     * @since 1.1.0
+     */
+    public static String replacement(char c) {
+        if (c < 128) {
+            return REPLACEMENTS[c];
+        }
+        if (c == '\u2028') {
+            return "\\u2028";
+        }
+        if (c == '\u2029') {
+            return "\\u2029";
+        }
+        return null;
+    }
+
+    /**
+     * Appends a value as a quoted JSON string.
+     *
+     * @param value The value (must not be null)
+     * @param out   The buffer to append to
+     * @return The buffer
+     * 
+     * @since 1.1.0
+     */
+    public static StringBuilder quote(String value, StringBuilder out) {
+        out.append('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = replacement(value.charAt(i));
+            if (replacement == null) {
+                continue;
+            }
+            if (last < i) {
+                out.append(value, last, i);
+            }
+            out.append(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            out.append(value, last, length);
+        }
+        return out.append('"');
+    }
+}
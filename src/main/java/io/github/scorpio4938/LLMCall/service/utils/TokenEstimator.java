@@ -0,0 +1,38 @@
+package io.github.scorpio4938.LLMCall.service.utils;
+
+/**
+ * Estimates token counts without a tokenizer.
+ * <p>
+ * ASCII text is counted at four characters per token, every other
+ * character as a token of its own. This overestimates most languages
+ * slightly, which is the safe side for fitting a context window.
+ * 
+ * @since 1.1.0
+ */
+public class TokenEstimator {
+
+    /**
+     * Estimates the number of tokens in a text.
+     *
+     * @param text The text, may be null
+     * @return The estimated token count
+     * 
+     * @since 1.1.0
+     */
+    public static int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (!Character.isLowSurrogate(c)) {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+}
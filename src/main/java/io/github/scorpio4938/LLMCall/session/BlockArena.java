@@ -0,0 +1,191 @@
+package io.github.scorpio4938.LLMCall.session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A buddy allocator handing out power-of-two blocks from fixed-size
+ * segments, which are either direct buffers or regions of a memory-mapped
+ * file.
+ * <p>
+ * Free blocks are chained through their own first bytes, so the allocator
+ * keeps no per-block objects on the heap. A block handle packs the segment
+ * index into the upper and the offset into the lower 32 bits. Not thread
+ * safe; the owning store serializes access.
+ * 
+ * @since 1.1.0
+ */
+final class BlockArena {
+    static final int MIN_SHIFT = 6;
+    static final long NONE = -1;
+
+    /**
+     * Creates the buffer backing a segment.
+     * 
+     * @since 1.1.0
+     */
+    interface SegmentFactory {
+        ByteBuffer create(int index, int size) throws IOException;
+    }
+
+    private final int segmentShift;
+    private final long maxBytes;
+    private final SegmentFactory factory;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final List<BitSet> freeBlocks = new ArrayList<>();
+    private final long[] heads;
+    private long usedBytes;
+
+    /**
+     * Creates an arena.
+     *
+     * @param segmentShift The log2 of the segment size
+     * @param maxBytes     The maximum number of bytes in all segments
+     * @param factory      The factory creating segment buffers
+     * 
+     * @since 1.1.0
+     */
+    BlockArena(int segmentShift, long maxBytes, SegmentFactory factory) {
+        if (segmentShift < MIN_SHIFT || segmentShift > 30) {
+            throw new IllegalArgumentException("Segment size must be between 64 bytes and 1 GiB");
+        }
+        this.segmentShift = segmentShift;
+        this.maxBytes = maxBytes;
+        this.factory = factory;
+        this.heads = new long[segmentShift - MIN_SHIFT + 1];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Returns the smallest block shift holding the given number of bytes.
+     *
+     * @param size The number of bytes
+     * @return The log2 of the block size
+     * 
+     * @since 1.1.0
+     */
+    static int shiftFor(int size) {
+        return Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * Allocates a block, splitting a larger free block or adding a segment
+     * when needed.
+     *
+     * @param shift The log2 of the block size
+     * @return The block handle, or {@link #NONE} if the arena is full
+     * 
+     * @since 1.1.0
+     */
+    long allocate(int shift) {
+        int wanted = shift - MIN_SHIFT;
+        int level = wanted;
+        while (level < heads.length && heads[level] == NONE) {
+            level++;
+        }
+        if (level == heads.length) {
+            if (!grow()) {
+                return NONE;
+            }
+            level = heads.length - 1;
+        }
+        long block = heads[level];
+        unlink(block, level);
+        while (level > wanted) {
+            level--;
+            push(block + (1L << (level + MIN_SHIFT)), level); // Upper half becomes free
+        }
+        usedBytes += 1L << shift;
+        return block;
+    }
+
+    /**
+     * Frees a block, merging it with its free buddies.
+     *
+     * @param block The block handle
+     * @param shift The log2 of the block size
+     * 
+     * @since 1.1.0
+     */
+    void free(long block, int shift) {
+        usedBytes -= 1L << shift;
+        int level = shift - MIN_SHIFT;
+        while (level < heads.length - 1) {
+            long buddy = block ^ (1L << (level + MIN_SHIFT));
+            if (!isFree(buddy, level)) {
+                break;
+            }
+            unlink(buddy, level);
+            block = Math.min(block, buddy);
+            level++;
+        }
+        push(block, level);
+    }
+
+    ByteBuffer segment(long block) {
+        return segments.get((int) (block >>> 32));
+    }
+
+    static int offset(long block) {
+        return (int) block;
+    }
+
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private boolean grow() {
+        if ((long) (segments.size() + 1) << segmentShift > maxBytes) {
+            return false;
+        }
+        try {
+            segments.add(factory.create(segments.size(), 1 << segmentShift));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        freeBlocks.add(new BitSet());
+        push((long) (segments.size() - 1) << 32, heads.length - 1);
+        return true;
+    }
+
+    private int bitIndex(long block, int level) {
+        int depth = heads.length - 1 - level;
+        return (1 << depth) - 1 + (offset(block) >>> (level + MIN_SHIFT));
+    }
+
+    private boolean isFree(long block, int level) {
+        return freeBlocks.get((int) (block >>> 32)).get(bitIndex(block, level));
+    }
+
+    private void push(long block, int level) {
+        freeBlocks.get((int) (block >>> 32)).set(bitIndex(block, level));
+        long head = heads[level];
+        ByteBuffer buffer = segment(block);
+        buffer.putLong(offset(block), head);
+        buffer.putLong(offset(block) + 8, NONE);
+        if (head != NONE) {
+            segment(head).putLong(offset(head) + 8, block);
+        }
+        heads[level] = block;
+    }
+
+    private void unlink(long block, int level) {
+        freeBlocks.get((int) (block >>> 32)).clear(bitIndex(block, level));
+        ByteBuffer buffer = segment(block);
+        long next = buffer.getLong(offset(block));
+        long previous = buffer.getLong(offset(block) + 8);
+        if (previous == NONE) {
+            heads[level] = next;
+        } else {
+            segment(previous).putLong(offset(previous), next);
+        }
+        if (next != NONE) {
+            segment(next).putLong(offset(next) + 8, previous);
+        }
+    }
+}
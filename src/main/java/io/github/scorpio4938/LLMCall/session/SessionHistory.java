@@ -0,0 +1,159 @@
+package io.github.scorpio4938.LLMCall.session;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only view of a session's messages, decoded on access from a copy of
+ * the session record.
+ * <p>
+ * A record is a sequence of messages, each made of four length-prefixed
+ * UTF-8 fields: role, content, tool call id and the JSON of the tool calls.
+ * A length of -1 marks an absent field.
+ * 
+ * @since 1.1.0
+ */
+final class SessionHistory extends AbstractList<LLMRequest.Message> implements RandomAccess {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final Type TOOL_CALLS = new TypeToken<List<ToolCall>>() {
+    }.getType();
+    private static final byte[] SYSTEM = "system".getBytes(StandardCharsets.UTF_8);
+
+    private final ByteBuffer record;
+    private final int[] offsets;
+    private final LLMRequest.Message[] pending;
+
+    SessionHistory(byte[] record, int count, LLMRequest.Message[] pending) {
+        this.record = ByteBuffer.wrap(record);
+        this.offsets = index(this.record, record.length, count);
+        this.pending = pending;
+    }
+
+    @Override
+    public LLMRequest.Message get(int index) {
+        if (index >= offsets.length) {
+            return pending[index - offsets.length];
+        }
+        int position = offsets[index];
+        String role = readString(record, position);
+        position = skip(record, position);
+        String content = readString(record, position);
+        position = skip(record, position);
+        String toolCallId = readString(record, position);
+        position = skip(record, position);
+        String toolCalls = readString(record, position);
+        return new LLMRequest.Message(role, content,
+                toolCalls == null ? null : GSON.fromJson(toolCalls, TOOL_CALLS), toolCallId);
+    }
+
+    @Override
+    public int size() {
+        return offsets.length + pending.length;
+    }
+
+    /**
+     * Encodes messages into a record fragment.
+     *
+     * @param messages The messages to encode
+     * @return The encoded messages
+     * 
+     * @since 1.1.0
+     */
+    static byte[] encode(LLMRequest.Message[] messages) {
+        byte[][] fields = new byte[messages.length * 4][];
+        int size = 0;
+        for (int i = 0; i < messages.length; i++) {
+            LLMRequest.Message message = messages[i];
+            fields[i * 4] = bytes(message.getRole());
+            fields[i * 4 + 1] = bytes(message.getContent());
+            fields[i * 4 + 2] = bytes(message.getToolCallId());
+            fields[i * 4 + 3] = message.getToolCalls() == null ? null : bytes(GSON.toJson(message.getToolCalls()));
+        }
+        for (byte[] field : fields) {
+            size += 4 + (field == null ? 0 : field.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length).put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Finds the start of each message in a record.
+     *
+     * @param record The record
+     * @param length The length of the record
+     * @param count  The number of messages, or -1 if unknown
+     * @return The offset of each message
+     * 
+     * @since 1.1.0
+     */
+    static int[] index(ByteBuffer record, int length, int count) {
+        int[] offsets = new int[count < 0 ? 8 : count];
+        int found = 0;
+        for (int position = 0; position < length; found++) {
+            if (found == offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.max(8, found * 2));
+            }
+            offsets[found] = position;
+            for (int field = 0; field < 4; field++) {
+                position = skip(record, position);
+            }
+        }
+        return found == offsets.length ? offsets : Arrays.copyOf(offsets, found);
+    }
+
+    /**
+     * Tells whether the message at the given offset has the system role.
+     *
+     * @param record   The record
+     * @param position The offset of the message
+     * @return Whether the message is a system message
+     * 
+     * @since 1.1.0
+     */
+    static boolean isSystem(ByteBuffer record, int position) {
+        if (record.getInt(position) != SYSTEM.length) {
+            return false;
+        }
+        for (int i = 0; i < SYSTEM.length; i++) {
+            if (record.get(position + 4 + i) != SYSTEM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int skip(ByteBuffer record, int position) {
+        return position + 4 + Math.max(0, record.getInt(position));
+    }
+
+    private static String readString(ByteBuffer record, int position) {
+        int length = record.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        return new String(record.array(), record.arrayOffset() + position + 4, length, StandardCharsets.UTF_8);
+    }
+}
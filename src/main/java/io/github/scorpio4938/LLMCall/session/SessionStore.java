@@ -0,0 +1,466 @@
+package io.github.scorpio4938.LLMCall.session;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps the message history of many conversations outside the Java heap.
+ * <p>
+ * Each session is one record of length-prefixed UTF-8 messages in a
+ * direct buffer, so a million conversations cost the garbage collector a
+ * small index entry each rather than a graph of message objects. When the
+ * memory limit is reached, the least recently used sessions are spilled to
+ * a memory-mapped file and moved back on their next access. Histories are
+ * only decoded into {@link LLMRequest.Message} objects while a request body
+ * is being serialized.
+ * <p>
+ * The spill file is scratch space, truncated when the store is built; it
+ * is not a durable log. Sessions longer than the session limit drop their
+ * oldest messages, keeping a leading system message.
+ *
+ * <pre>
+ * SessionStore sessions = SessionStore.builder()
+ *         .withMaxMemory(256L &lt;&lt; 20)
+ *         .withSpillFile(Path.of("sessions.spill"))
+ *         .build();
+ * String answer = client.sessionCallLLM("deepseek-chat", sessions, conversationId, "Hi", params);
+ * </pre>
+ * 
+ * @since 1.1.0
+ */
+public final class SessionStore implements AutoCloseable {
+    private static final int MEMORY_SEGMENT_SHIFT = 23; // 8 MiB
+    private static final int SPILL_SEGMENT_SHIFT = 26; // 64 MiB
+
+    private final BlockArena memory;
+    private final BlockArena spill;
+    private final FileChannel spillChannel;
+    private final int maxSessionBytes;
+    private final LinkedHashMap<String, Slot> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Slot> spilled = new LinkedHashMap<>();
+    private long spillCount;
+    private long droppedCount;
+    private boolean closed;
+
+    private SessionStore(Builder builder) throws IOException {
+        int memoryShift = segmentShift(builder.maxMemoryBytes, MEMORY_SEGMENT_SHIFT);
+        this.memory = new BlockArena(memoryShift, builder.maxMemoryBytes,
+                (index, size) -> ByteBuffer.allocateDirect(size));
+        int sessionLimit = Math.min(builder.maxSessionBytes, 1 << memoryShift);
+        if (builder.maxSpillBytes > 0) {
+            int spillShift = segmentShift(builder.maxSpillBytes, SPILL_SEGMENT_SHIFT);
+            FileChannel channel = builder.spillFile == null
+                    ? FileChannel.open(Files.createTempFile("llm-sessions", ".spill"), READ, WRITE, DELETE_ON_CLOSE)
+                    : FileChannel.open(builder.spillFile, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+            this.spillChannel = channel;
+            this.spill = new BlockArena(spillShift, builder.maxSpillBytes,
+                    (index, size) -> channel.map(FileChannel.MapMode.READ_WRITE, (long) index * size, size));
+            sessionLimit = Math.min(sessionLimit, 1 << spillShift);
+        } else {
+            this.spillChannel = null;
+            this.spill = null;
+        }
+        this.maxSessionBytes = sessionLimit;
+    }
+
+    /**
+     * Starts building a session store.
+     *
+     * @return The builder
+     * 
+     * @since 1.1.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Appends messages to a session, creating it if needed.
+     *
+     * @param sessionId The conversation id
+     * @param messages  The messages to append
+     * @throws IllegalArgumentException if the messages alone exceed the
+     *                                  session limit
+     * 
+     * @since 1.1.0
+     */
+    public synchronized void append(String sessionId, LLMRequest.Message... messages) {
+        Objects.requireNonNull(sessionId, "Session id must not be null");
+        ensureOpen();
+        if (messages.length == 0) {
+            return;
+        }
+        byte[] encoded = SessionHistory.encode(messages);
+        if (encoded.length > maxSessionBytes) {
+            throw new IllegalArgumentException("Messages exceed the session limit of " + maxSessionBytes + " bytes");
+        }
+
+        Slot slot = touch(sessionId);
+        if (slot != null && slot.length + encoded.length <= 1 << slot.shift
+                && slot.length + encoded.length <= maxSessionBytes) {
+            memory.segment(slot.block).put(BlockArena.offset(slot.block) + slot.length, encoded); // Fits in place
+            slot.length += encoded.length;
+            slot.count += messages.length;
+            return;
+        }
+
+        byte[] record = encoded;
+        int count = messages.length;
+        if (slot != null) {
+            record = new byte[slot.length + encoded.length];
+            memory.segment(slot.block).get(BlockArena.offset(slot.block), record, 0, slot.length);
+            System.arraycopy(encoded, 0, record, slot.length, encoded.length);
+            count += slot.count;
+            resident.remove(sessionId);
+            memory.free(slot.block, slot.shift);
+        } else {
+            slot = new Slot();
+        }
+        if (record.length > maxSessionBytes) {
+            record = fit(record, record.length - encoded.length);
+            count = SessionHistory.index(ByteBuffer.wrap(record), record.length, -1).length;
+        }
+
+        slot.shift = BlockArena.shiftFor(record.length);
+        slot.block = allocateResident(slot.shift);
+        slot.length = record.length;
+        slot.count = count;
+        memory.segment(slot.block).put(BlockArena.offset(slot.block), record);
+        resident.put(sessionId, slot);
+    }
+
+    /**
+     * Returns the history of a session followed by pending messages that are
+     * not stored yet. The messages are decoded lazily on access.
+     *
+     * @param sessionId The conversation id
+     * @param pending   The messages following the history
+     * @return The messages, empty apart from the pending ones for an unknown
+     *         session
+     * 
+     * @since 1.1.0
+     */
+    public List<LLMRequest.Message> history(String sessionId, LLMRequest.Message... pending) {
+        Objects.requireNonNull(sessionId, "Session id must not be null");
+        byte[] record;
+        int count;
+        synchronized (this) {
+            ensureOpen();
+            Slot slot = touch(sessionId);
+            if (slot == null) {
+                record = new byte[0];
+                count = 0;
+            } else {
+                record = new byte[slot.length];
+                memory.segment(slot.block).get(BlockArena.offset(slot.block), record);
+                count = slot.count;
+            }
+        }
+        return new SessionHistory(record, count, pending);
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param sessionId The conversation id
+     * @return Whether the session existed
+     * 
+     * @since 1.1.0
+     */
+    public synchronized boolean remove(String sessionId) {
+        ensureOpen();
+        Slot slot = resident.remove(sessionId);
+        if (slot != null) {
+            memory.free(slot.block, slot.shift);
+            return true;
+        }
+        slot = spilled.remove(sessionId);
+        if (slot != null) {
+            spill.free(slot.block, slot.shift);
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean contains(String sessionId) {
+        return resident.containsKey(sessionId) || spilled.containsKey(sessionId);
+    }
+
+    public synchronized int getSessionCount() {
+        return resident.size() + spilled.size();
+    }
+
+    public synchronized int getSpilledSessionCount() {
+        return spilled.size();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memory.getUsedBytes();
+    }
+
+    public synchronized long getSpillBytes() {
+        return spill == null ? 0 : spill.getUsedBytes();
+    }
+
+    public synchronized long getSpillCount() {
+        return spillCount;
+    }
+
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public int getMaxSessionBytes() {
+        return maxSessionBytes;
+    }
+
+    /**
+     * Releases the spill file. Buffers are freed once they are no longer
+     * reachable.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        resident.clear();
+        spilled.clear();
+        if (spillChannel != null) {
+            spillChannel.close();
+        }
+    }
+
+    /**
+     * Looks up a session as the most recently used one, moving it back into
+     * memory if it was spilled.
+     *
+     * @param sessionId The conversation id
+     * @return The resident slot, or null for an unknown session
+     * 
+     * @since 1.1.0
+     */
+    private Slot touch(String sessionId) {
+        Slot slot = resident.get(sessionId);
+        if (slot != null || spill == null) {
+            return slot;
+        }
+        slot = spilled.remove(sessionId);
+        if (slot != null) {
+            long block = allocateResident(slot.shift);
+            memory.segment(block).put(BlockArena.offset(block), spill.segment(slot.block),
+                    BlockArena.offset(slot.block), slot.length);
+            spill.free(slot.block, slot.shift);
+            slot.block = block;
+            resident.put(sessionId, slot);
+        }
+        return slot;
+    }
+
+    private long allocateResident(int shift) {
+        long block;
+        while ((block = memory.allocate(shift)) == BlockArena.NONE) {
+            if (resident.isEmpty()) {
+                throw new IllegalStateException("Session does not fit in memory");
+            }
+            spillEldest();
+        }
+        return block;
+    }
+
+    private void spillEldest() {
+        Iterator<Map.Entry<String, Slot>> iterator = resident.entrySet().iterator();
+        Map.Entry<String, Slot> eldest = iterator.next();
+        iterator.remove();
+        Slot slot = eldest.getValue();
+        if (spill == null) {
+            memory.free(slot.block, slot.shift);
+            droppedCount++;
+            return;
+        }
+        long block;
+        while ((block = spill.allocate(slot.shift)) == BlockArena.NONE) {
+            if (spilled.isEmpty()) {
+                throw new IllegalStateException("Spill file is full");
+            }
+            dropEldestSpilled();
+        }
+        spill.segment(block).put(BlockArena.offset(block), memory.segment(slot.block),
+                BlockArena.offset(slot.block), slot.length);
+        memory.free(slot.block, slot.shift);
+        slot.block = block;
+        spilled.put(eldest.getKey(), slot);
+        spillCount++;
+    }
+
+    private void dropEldestSpilled() {
+        Iterator<Slot> iterator = spilled.values().iterator();
+        Slot slot = iterator.next();
+        iterator.remove();
+        spill.free(slot.block, slot.shift);
+        droppedCount++;
+    }
+
+    /**
+     * Drops the oldest messages of a record until it fits the session limit,
+     * keeping a leading system message while it leaves room for the newly
+     * appended messages.
+     *
+     * @param record   The record
+     * @param newStart The offset of the newly appended messages
+     * @return The trimmed record
+     * 
+     * @since 1.1.0
+     */
+    private byte[] fit(byte[] record, int newStart) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int[] offsets = SessionHistory.index(buffer, record.length, -1);
+        int first = SessionHistory.isSystem(buffer, 0) && offsets.length > 1 ? 1 : 0;
+        int headEnd = first == 1 ? offsets[1] : 0;
+        if (headEnd + record.length - newStart > maxSessionBytes) {
+            first = 0;
+            headEnd = 0;
+        }
+        int from = first;
+        while (headEnd + record.length - offsets[from] > maxSessionBytes) {
+            from++;
+        }
+        byte[] trimmed = new byte[headEnd + record.length - offsets[from]];
+        System.arraycopy(record, 0, trimmed, 0, headEnd);
+        System.arraycopy(record, offsets[from], trimmed, headEnd, record.length - offsets[from]);
+        return trimmed;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Session store is closed");
+        }
+    }
+
+    private static int segmentShift(long maxBytes, int preferred) {
+        return Math.min(preferred, 63 - Long.numberOfLeadingZeros(maxBytes));
+    }
+
+    /**
+     * Where a session's record lives: a block in the memory arena while the
+     * session is resident, a block in the spill arena once it is spilled.
+     * 
+     * @since 1.1.0
+     */
+    private static final class Slot {
+        private long block;
+        private int shift;
+        private int length;
+        private int count;
+    }
+
+    /**
+     * Builder for {@link SessionStore}.
+     * 
+     * @since 1.1.0
+     */
+    public static final class Builder {
+        private long maxMemoryBytes = 64L << 20;
+        private long maxSpillBytes = Long.MAX_VALUE;
+        private int maxSessionBytes = 256 << 10;
+        private Path spillFile;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the off-heap memory limit. Defaults to 64 MiB.
+         *
+         * @param maxMemoryBytes The maximum number of bytes held in direct
+         *                       buffers
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withMaxMemory(long maxMemoryBytes) {
+            if (maxMemoryBytes < 1 << BlockArena.MIN_SHIFT) {
+                throw new IllegalArgumentException("Memory limit must be at least 64 bytes");
+            }
+            this.maxMemoryBytes = maxMemoryBytes;
+            return this;
+        }
+
+        /**
+         * Sets the spill file limit. Once it is reached, the sessions spilled
+         * longest ago are dropped. Defaults to unlimited; zero disables
+         * spilling, so sessions are dropped as soon as they leave memory.
+         *
+         * @param maxSpillBytes The maximum size of the spill file
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withMaxSpill(long maxSpillBytes) {
+            if (maxSpillBytes != 0 && maxSpillBytes < 1 << BlockArena.MIN_SHIFT) {
+                throw new IllegalArgumentException("Spill limit must be zero or at least 64 bytes");
+            }
+            this.maxSpillBytes = maxSpillBytes;
+            return this;
+        }
+
+        /**
+         * Sets the size limit of a single session's record. Defaults to 256
+         * KiB, capped by the memory limit.
+         *
+         * @param maxSessionBytes The maximum encoded size of a session
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withMaxSessionBytes(int maxSessionBytes) {
+            if (maxSessionBytes <= 0) {
+                throw new IllegalArgumentException("Session limit must be positive");
+            }
+            this.maxSessionBytes = maxSessionBytes;
+            return this;
+        }
+
+        /**
+         * Sets the spill file. Defaults to a temporary file deleted on close.
+         *
+         * @param spillFile The spill file, truncated on build
+         * @return This builder
+         * 
+         * @since 1.1.0
+         */
+        public Builder withSpillFile(Path spillFile) {
+            this.spillFile = Objects.requireNonNull(spillFile, "Spill file must not be null");
+            return this;
+        }
+
+        /**
+         * Creates the store.
+         *
+         * @return The session store
+         * @throws IOException if the spill file cannot be opened
+         * 
+         * @since 1.1.0
+         */
+        public SessionStore build() throws IOException {
+            return new SessionStore(this);
+        }
+    }
+}
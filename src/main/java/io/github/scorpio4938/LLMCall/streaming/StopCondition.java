@@ -0,0 +1,153 @@
+package io.github.scorpio4938.LLMCall.streaming;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A client-side condition ending a streamed generation early.
+ * <p>
+ * Conditions are reusable; each stream gets its own {@link Check} so stateful
+ * detectors (such as balanced JSON) scan every character only once. When a
+ * check fires, the content is cut at the reported position and the HTTP
+ * stream is closed, which makes the provider stop generating.
+ * 
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface StopCondition {
+
+    /**
+     * The per-stream state of a condition.
+     * 
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    interface Check {
+        /**
+         * Checks the content after a delta was appended.
+         *
+         * @param content The content streamed so far
+         * @param from    The index where the newest delta starts
+         * @return The length to keep if the stream should stop, or -1 to go on
+         */
+        int stopAt(CharSequence content, int from);
+    }
+
+    /**
+     * Creates the check for a new stream.
+     *
+     * @return The check
+     * 
+     * @since 1.1.0
+     */
+    Check newCheck();
+
+    /**
+     * Combines this condition with another: the stream stops at whichever fires
+     * first.
+     *
+     * @param other The other condition
+     * @return The combined condition
+     * 
+     * @since 1.1.0
+     */
+    default StopCondition or(StopCondition other) {
+        Objects.requireNonNull(other, "Condition must not be null");
+        return () -> {
+            Check first = newCheck();
+            Check second = other.newCheck();
+            return (content, from) -> {
+                int a = first.stopAt(content, from);
+                int b = second.stopAt(content, from);
+                return a < 0 ? b : b < 0 ? a : Math.min(a, b);
+            };
+        };
+    }
+
+    /**
+     * Stops after the first match of a pattern, keeping the content up to the
+     * end of the match.
+     *
+     * @param pattern The pattern
+     * @return The condition
+     * 
+     * @since 1.1.0
+     */
+    static StopCondition regex(Pattern pattern) {
+        Objects.requireNonNull(pattern, "Pattern must not be null");
+        return () -> (content, from) -> {
+            Matcher matcher = pattern.matcher(content);
+            return matcher.find() ? matcher.end() : -1;
+        };
+    }
+
+    /**
+     * Stops once the content reaches a length, keeping exactly that many chars.
+     *
+     * @param maxChars The maximum content length
+     * @return The condition
+     * 
+     * @since 1.1.0
+     */
+    static StopCondition maxChars(int maxChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("Max chars must be positive");
+        }
+        return () -> (content, from) -> content.length() >= maxChars ? maxChars : -1;
+    }
+
+    /**
+     * Stops once the content holds a complete JSON object or array, keeping the
+     * content up to its closing bracket. Text before the opening bracket is
+     * kept as is.
+     *
+     * @return The condition
+     * 
+     * @since 1.1.0
+     */
+    static StopCondition balancedJson() {
+        return () -> new Check() {
+            private int depth = 0;
+            private boolean inString = false;
+            private boolean escaped = false;
+
+            @Override
+            public int stopAt(CharSequence content, int from) {
+                for (int i = from; i < content.length(); i++) {
+                    char c = content.charAt(i);
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (c == '\\') {
+                            escaped = true;
+                        } else if (c == '"') {
+                            inString = false;
+                        }
+                    } else if (c == '"' && depth > 0) {
+                        inString = true;
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if ((c == '}' || c == ']') && depth > 0 && --depth == 0) {
+                        return i + 1;
+                    }
+                }
+                return -1;
+            }
+        };
+    }
+
+    /**
+     * Stops once a predicate accepts the content streamed so far.
+     *
+     * @param predicate The predicate
+     * @return The condition
+     * 
+     * @since 1.1.0
+     */
+    static StopCondition when(Predicate<String> predicate) {
+        Objects.requireNonNull(predicate, "Predicate must not be null");
+        return () -> (content, from) -> predicate.test(content.toString()) ? content.length() : -1;
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.scorpio4938.LLMCall.structured;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a JSON document incrementally while it is being streamed.
+ * <p>
+ * Text before the first {@code '{'} or {@code '['} is ignored. Every element of
+ * the top-level array, or of an array that is a direct property of the
+ * top-level object, is handed to the element consumer as soon as it is
+ * complete, so callers can start working before the document ends.
+ * 
+ * @since 1.1.0
+ */
+public class IncrementalJsonDecoder {
+    private final Consumer<String> onElement;
+    private final StringBuilder text = new StringBuilder();
+
+    private char[] containers = new char[16];
+    private boolean[] watched = new boolean[16];
+    private int depth = 0;
+
+    private int start = -1;
+    private int scanned = 0;
+    private int elementStart = -1;
+    private boolean inString = false;
+    private boolean escaped = false;
+    private boolean complete = false;
+
+    /**
+     * Constructs a new decoder.
+     *
+     * @param onElement Consumer receiving the JSON text of each completed
+     *                  array element
+     * 
+     * @since 1.1.0
+     */
+    public IncrementalJsonDecoder(Consumer<String> onElement) {
+        this.onElement = onElement;
+    }
+
+    /**
+     * Feeds the next chunk of the document.
+     *
+     * @param chunk The chunk to decode
+     * 
+     * @since 1.1.0
+     */
+    public void feed(CharSequence chunk) {
+        if (complete) {
+            return;
+        }
+        text.append(chunk);
+        for (int i = scanned; i < text.length() && !complete; i++) {
+            scan(text.charAt(i), i);
+        }
+        scanned = text.length();
+    }
+
+    private void scan(char c, int i) {
+        if (start < 0) {
+            if (c == '{' || c == '[') {
+                start = i;
+                push(c);
+            }
+            return;
+        }
+
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+
+        switch (c) {
+            case '{':
+            case '[':
+                markElementStart(i);
+                push(c);
+                break;
+            case '}':
+            case ']':
+                boolean closedWatched = watched[depth - 1];
+                depth--;
+                if (closedWatched) {
+                    emit(i); // Pending scalar element before ']'
+                } else if (depth > 0 && watched[depth - 1] && elementStart >= 0) {
+                    emit(i + 1); // Container element just closed
+                }
+                complete = depth == 0;
+                break;
+            case ',':
+                if (watched[depth - 1]) {
+                    emit(i);
+                }
+                break;
+            case '"':
+                markElementStart(i);
+                inString = true;
+                break;
+            default:
+                if (!Character.isWhitespace(c) && c != ':') {
+                    markElementStart(i);
+                }
+        }
+    }
+
+    private void markElementStart(int i) {
+        if (watched[depth - 1] && elementStart < 0) {
+            elementStart = i;
+        }
+    }
+
+    private void emit(int end) {
+        if (elementStart >= 0) {
+            String element = text.substring(elementStart, end).trim();
+            elementStart = -1;
+            if (!element.isEmpty()) {
+                onElement.accept(element);
+            }
+        }
+    }
+
+    private void push(char container) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+            watched = Arrays.copyOf(watched, depth * 2);
+        }
+        containers[depth] = container;
+        // Arrays at the top level, or directly inside the top-level object
+        watched[depth] = container == '[' && (depth == 0 || (depth == 1 && containers[0] == '{'));
+        depth++;
+    }
+
+    /**
+     * Checks whether the top-level value has been closed.
+     *
+     * @return true if the document is complete
+     * 
+     * @since 1.1.0
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Gets the JSON document decoded so far, without any leading text.
+     *
+     * @return The document text
+     * 
+     * @since 1.1.0
+     */
+    public String getDocument() {
+        return start < 0 ? "" : text.substring(start);
+    }
+}
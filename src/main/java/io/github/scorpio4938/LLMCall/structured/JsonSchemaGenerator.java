@@ -0,0 +1,191 @@
+package io.github.scorpio4938.LLMCall.structured;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates JSON schemas (and {@code response_format} blocks) from Java
+ * classes, following the field names Gson uses to decode them.
+ * <p>
+ * Schemas are generated once per class and cached.
+ * 
+ * @since 1.1.0
+ */
+public class JsonSchemaGenerator {
+    private static final Map<Class<?>, Map<String, Object>> RESPONSE_FORMATS = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the {@code response_format} block requesting JSON output matching
+     * the schema of the given class.
+     *
+     * @param type The class to describe
+     * @return The response format (cached, must not be modified)
+     * 
+     * @since 1.1.0
+     */
+    public static Map<String, Object> responseFormat(Class<?> type) {
+        return RESPONSE_FORMATS.computeIfAbsent(type, JsonSchemaGenerator::createResponseFormat);
+    }
+
+    /**
+     * Generates the JSON schema of the given class.
+     *
+     * @param type The class to describe
+     * @return The JSON schema as nested maps
+     * 
+     * @since 1.1.0
+     */
+    public static Map<String, Object> schemaOf(Class<?> type) {
+        return new Context().schemaOf(type);
+    }
+
+    private static Map<String, Object> createResponseFormat(Class<?> type) {
+        Context context = new Context();
+        Map<String, Object> schema = context.schemaOf(type);
+
+        Map<String, Object> jsonSchema = new LinkedHashMap<>();
+        jsonSchema.put("name", type.getSimpleName().isEmpty() ? "response" : type.getSimpleName());
+        jsonSchema.put("schema", schema);
+        // Strict mode requires closed objects, which free-form maps are not
+        jsonSchema.put("strict", context.strict);
+
+        Map<String, Object> responseFormat = new LinkedHashMap<>();
+        responseFormat.put("type", "json_schema");
+        responseFormat.put("json_schema", jsonSchema);
+        return Map.copyOf(responseFormat);
+    }
+
+    private static class Context {
+        private final Set<Class<?>> inProgress = new HashSet<>();
+        private boolean strict = true;
+
+        Map<String, Object> schemaOf(Type type) {
+            Map<String, Object> schema = new LinkedHashMap<>();
+            Class<?> raw = rawType(type);
+
+            if (raw == String.class || raw == char.class || raw == Character.class) {
+                schema.put("type", "string");
+            } else if (raw == boolean.class || raw == Boolean.class) {
+                schema.put("type", "boolean");
+            } else if (raw == int.class || raw == long.class || raw == short.class || raw == byte.class
+                    || raw == Integer.class || raw == Long.class || raw == Short.class || raw == Byte.class
+                    || raw == BigInteger.class) {
+                schema.put("type", "integer");
+            } else if (raw == double.class || raw == float.class || raw == Double.class || raw == Float.class
+                    || raw == BigDecimal.class) {
+                schema.put("type", "number");
+            } else if (raw.isEnum()) {
+                List<String> values = new ArrayList<>();
+                for (Object constant : raw.getEnumConstants()) {
+                    values.add(enumName((Enum<?>) constant));
+                }
+                schema.put("type", "string");
+                schema.put("enum", values);
+            } else if (raw.isArray()) {
+                Type component = type instanceof GenericArrayType
+                        ? ((GenericArrayType) type).getGenericComponentType()
+                        : raw.getComponentType();
+                schema.put("type", "array");
+                schema.put("items", schemaOf(component));
+            } else if (Collection.class.isAssignableFrom(raw)) {
+                schema.put("type", "array");
+                schema.put("items", schemaOf(typeArgument(type, 0)));
+            } else if (Map.class.isAssignableFrom(raw)) {
+                strict = false;
+                schema.put("type", "object");
+                schema.put("additionalProperties", schemaOf(typeArgument(type, 1)));
+            } else if (raw == Object.class || !inProgress.add(raw)) {
+                // Unknown or recursive type: accept any object
+                strict = false;
+                schema.put("type", "object");
+            } else {
+                Map<String, Object> properties = new LinkedHashMap<>();
+                if (raw.isRecord()) {
+                    for (RecordComponent component : raw.getRecordComponents()) {
+                        properties.put(fieldName(raw, component.getName()), schemaOf(component.getGenericType()));
+                    }
+                } else {
+                    for (Class<?> c = raw; c != null && c != Object.class; c = c.getSuperclass()) {
+                        for (Field field : c.getDeclaredFields()) {
+                            int modifiers = field.getModifiers();
+                            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                                continue;
+                            }
+                            properties.put(fieldName(field), schemaOf(field.getGenericType()));
+                        }
+                    }
+                }
+                inProgress.remove(raw);
+
+                schema.put("type", "object");
+                schema.put("properties", properties);
+                schema.put("required", new ArrayList<>(properties.keySet()));
+                schema.put("additionalProperties", false);
+            }
+            return schema;
+        }
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            return rawType(((GenericArrayType) type).getGenericComponentType()).arrayType();
+        } else if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class; // Type variables
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static String fieldName(Class<?> recordType, String componentName) {
+        try {
+            return fieldName(recordType.getDeclaredField(componentName));
+        } catch (NoSuchFieldException e) {
+            return componentName;
+        }
+    }
+
+    private static String fieldName(Field field) {
+        SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        return serializedName != null ? serializedName.value() : field.getName();
+    }
+
+    private static String enumName(Enum<?> constant) {
+        try {
+            SerializedName serializedName = constant.getDeclaringClass().getField(constant.name())
+                    .getAnnotation(SerializedName.class);
+            return serializedName != null ? serializedName.value() : constant.name();
+        } catch (NoSuchFieldException e) {
+            return constant.name();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.scorpio4938.LLMCall.tenancy;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Providers;
+import io.github.scorpio4938.LLMCall.service.concurrent.VirtualThreads;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Serves many tenants from one transport and provider registry.
+ * <p>
+ * All tenants share a single {@link HttpClient} (and its connection pool) and
+ * one {@link LLMApiClient} per provider, while each tenant gets its own
+ * {@link TenantClient} with an isolated bulkhead, queue and rate quota.
+ * 
+ * @since 1.1.0
+ */
+public class MultiTenantClient implements AutoCloseable {
+    private final Providers providers;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Map<String, LLMApiClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, TenantClient> tenants = new ConcurrentHashMap<>();
+    private Consumer<LLMApiClient> clientConfigurer = client -> {
+    };
+
+    public MultiTenantClient(Providers providers) {
+        this(providers, HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build());
+    }
+
+    /**
+     * Constructs a new multi-tenant client.
+     *
+     * @param providers  The provider registry
+     * @param httpClient The transport shared by all tenants
+     * 
+     * @since 1.1.0
+     */
+    public MultiTenantClient(Providers providers, HttpClient httpClient) {
+        this.providers = Objects.requireNonNull(providers, "Providers must not be null");
+        this.httpClient = Objects.requireNonNull(httpClient, "HTTP client must not be null");
+        this.executor = VirtualThreads.newThreadPerTaskExecutor();
+    }
+
+    /**
+     * Sets a callback applied to each shared per-provider client when it is
+     * created, e.g. to install a ledger or limiter.
+     *
+     * @param clientConfigurer The callback
+     * @return The updated MultiTenantClient
+     * 
+     * @since 1.1.0
+     */
+    public MultiTenantClient withClientConfigurer(Consumer<LLMApiClient> clientConfigurer) {
+        this.clientConfigurer = Objects.requireNonNull(clientConfigurer, "Configurer must not be null");
+        return this;
+    }
+
+    /**
+     * Registers a tenant with its quota.
+     *
+     * @param name  The tenant name
+     * @param quota The tenant's limits
+     * @return The tenant's client
+     * @throws IllegalStateException if the tenant is already registered
+     * 
+     * @since 1.1.0
+     */
+    public TenantClient registerTenant(String name, TenantQuota quota) {
+        Objects.requireNonNull(name, "Tenant must not be null");
+        TenantClient tenant = new TenantClient(name, quota, this, executor);
+        if (tenants.putIfAbsent(name, tenant) != null) {
+            throw new IllegalStateException("Tenant already registered: " + name);
+        }
+        return tenant;
+    }
+
+    /**
+     * Gets a registered tenant's client.
+     *
+     * @param name The tenant name
+     * @return The tenant's client
+     * @throws IllegalArgumentException if the tenant is not registered
+     * 
+     * @since 1.1.0
+     */
+    public TenantClient tenant(String name) {
+        TenantClient tenant = tenants.get(name);
+        if (tenant == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + name);
+        }
+        return tenant;
+    }
+
+    public Collection<TenantClient> getTenants() {
+        return Collections.unmodifiableCollection(tenants.values());
+    }
+
+    LLMApiClient clientFor(String provider) {
+        return clients.computeIfAbsent(provider, name -> {
+            LLMApiClient client = new LLMApiClient(providers.getProvider(name), httpClient);
+            clientConfigurer.accept(client);
+            return client;
+        });
+    }
+
+    /**
+     * Stops the worker threads. Queued calls fail with a
+     * {@link TenantRejectedException} and running calls are interrupted.
+     * 
+     * @since 1.1.0
+     */
+    @Override
+    public void close() {
+        for (TenantClient tenant : tenants.values()) {
+            tenant.close();
+        }
+        executor.shutdownNow();
+    }
+}
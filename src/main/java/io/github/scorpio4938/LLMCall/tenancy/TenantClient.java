@@ -0,0 +1,281 @@
+package io.github.scorpio4938.LLMCall.tenancy;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.service.metrics.LatencyTracker;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One tenant's view of a {@link MultiTenantClient}.
+ * <p>
+ * Calls first take a token from the tenant's rate quota, then either enter the
+ * tenant's bulkhead or wait in its bounded queue. Calls over the rate or
+ * beyond the queue are rejected with a {@link TenantRejectedException}, so a
+ * busy tenant can never hold capacity belonging to another.
+ * 
+ * @since 1.1.0
+ */
+public class TenantClient {
+    private final String name;
+    private final TenantQuota quota;
+    private final MultiTenantClient owner;
+    private final Executor executor;
+
+    private final Queue<Call> queue = new ArrayDeque<>();
+    private int inFlight = 0;
+    private boolean closed = false;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyTracker latency = new LatencyTracker();
+
+    TenantClient(String name, TenantQuota quota, MultiTenantClient owner, Executor executor) {
+        this.name = name;
+        this.quota = quota;
+        this.owner = owner;
+        this.executor = executor;
+        this.tokens = capacity();
+    }
+
+    /**
+     * Calls the LLM asynchronously within this tenant's quota.
+     *
+     * @param provider The provider name
+     * @param model    The model to use
+     * @param data     The message data
+     * @param params   Additional parameters for the LLM call
+     * @param options  The call options; the tenant is set to this tenant
+     * @return A future completing with the content of the first message, or
+     *         exceptionally with a {@link TenantRejectedException}
+     * 
+     * @since 1.1.0
+     */
+    public CompletableFuture<String> submit(String provider, String model, Map<String, String> data,
+            Map<String, Object> params, CallOptions options) {
+        Call call = new Call(provider, model, data, params, options.withTenant(name));
+        submitted.increment();
+
+        String rejection = admit(call);
+        if (rejection != null) {
+            rejected.increment();
+            call.result.completeExceptionally(new TenantRejectedException("Tenant " + name + " " + rejection));
+        }
+        return call.result;
+    }
+
+    public CompletableFuture<String> submit(String provider, String model, Map<String, String> data,
+            Map<String, Object> params) {
+        return submit(provider, model, data, params, CallOptions.defaults());
+    }
+
+    /**
+     * Calls the LLM within this tenant's quota and waits for the answer.
+     *
+     * @param provider The provider name
+     * @param model    The model to use
+     * @param data     The message data
+     * @param params   Additional parameters for the LLM call
+     * @return The content of the first message in the response
+     * @throws Exception if the call fails or is rejected
+     * 
+     * @since 1.1.0
+     */
+    public String call(String provider, String model, Map<String, String> data, Map<String, Object> params)
+            throws Exception {
+        try {
+            return submit(provider, model, data, params).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private synchronized String admit(Call call) {
+        if (closed) {
+            return "is closed";
+        }
+        if (quota.getRequestsPerSecond() > 0) {
+            refill();
+            if (tokens < 1) {
+                return "exceeded its rate of " + quota.getRequestsPerSecond() + " requests/s";
+            }
+            tokens--;
+        }
+        if (inFlight < quota.getMaxConcurrent()) {
+            inFlight++;
+            if (!dispatch(call)) {
+                release();
+            }
+            return null;
+        }
+        if (queue.size() < quota.getMaxQueued()) {
+            queue.add(call);
+            return null;
+        }
+        return "exceeded its queue of " + quota.getMaxQueued() + " calls";
+    }
+
+    /**
+     * Adds the tokens earned since the last refill. The bucket holds at least
+     * one token, so rates below one request per second still admit calls.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity(), tokens + (now - lastRefill) * quota.getRequestsPerSecond() / 1e9);
+        lastRefill = now;
+    }
+
+    private double capacity() {
+        return Math.max(1, quota.getRequestsPerSecond());
+    }
+
+    /**
+     * Starts a call holding a slot.
+     *
+     * @return false if the executor rejected the call, which then failed and
+     *         still holds its slot
+     */
+    private boolean dispatch(Call call) {
+        try {
+            executor.execute(() -> run(call));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            call.result.completeExceptionally(new TenantRejectedException("Tenant " + name + " is closed"));
+            return false;
+        }
+    }
+
+    /**
+     * Hands a freed slot to the next queued call that starts, or frees it.
+     */
+    private void release() {
+        while (true) {
+            Call next;
+            synchronized (this) {
+                next = queue.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            if (dispatch(next)) {
+                return;
+            }
+        }
+    }
+
+    private void run(Call call) {
+        long start = System.nanoTime();
+        String content = null;
+        Throwable error = null;
+        try {
+            content = owner.clientFor(call.provider).directCallLLM(call.model, call.data, call.params, call.options);
+            completed.increment();
+        } catch (Throwable e) {
+            error = e;
+            failed.increment();
+        }
+        latency.record(Duration.ofNanos(System.nanoTime() - start));
+
+        // Free the slot before completing, so callers observe up-to-date metrics
+        release();
+
+        if (error != null) {
+            call.result.completeExceptionally(error);
+        } else {
+            call.result.complete(content);
+        }
+    }
+
+    /**
+     * Rejects new calls and fails the queued ones with a
+     * {@link TenantRejectedException}. Running calls are left to the owner.
+     */
+    void close() {
+        List<Call> abandoned;
+        synchronized (this) {
+            closed = true;
+            abandoned = new ArrayList<>(queue);
+            queue.clear();
+        }
+        for (Call call : abandoned) {
+            rejected.increment();
+            call.result.completeExceptionally(new TenantRejectedException("Tenant " + name + " is closed"));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TenantQuota getQuota() {
+        return quota;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the median latency of this tenant's recent calls.
+     *
+     * @return The median latency, or zero before the first call
+     * 
+     * @since 1.1.0
+     */
+    public Duration getMedianLatency() {
+        return latency.median();
+    }
+
+    private static final class Call {
+        private final String provider;
+        private final String model;
+        private final Map<String, String> data;
+        private final Map<String, Object> params;
+        private final CallOptions options;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private Call(String provider, String model, Map<String, String> data, Map<String, Object> params,
+                CallOptions options) {
+            this.provider = provider;
+            this.model = model;
+            this.data = data;
+            this.params = params;
+            this.options = options;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.scorpio4938.LLMCall.tenancy;
+
+/**
+ * Immutable limits isolating one tenant from the others.
+ * 
+ * @since 1.1.0
+ */
+public final class TenantQuota {
+    private static final TenantQuota DEFAULTS = new TenantQuota(8, 64, 0);
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final double requestsPerSecond;
+
+    private TenantQuota(int maxConcurrent, int maxQueued, double requestsPerSecond) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Gets the default quota: 8 concurrent calls, 64 queued calls and no rate
+     * limit.
+     *
+     * @return The default quota
+     * 
+     * @since 1.1.0
+     */
+    public static TenantQuota defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a copy with the given bulkhead size.
+     *
+     * @param maxConcurrent The maximum number of calls in flight
+     * @return The updated quota
+     * 
+     * @since 1.1.0
+     */
+    public TenantQuota withMaxConcurrent(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent must be positive");
+        }
+        return new TenantQuota(maxConcurrent, maxQueued, requestsPerSecond);
+    }
+
+    /**
+     * Returns a copy with the given queue capacity.
+     *
+     * @param maxQueued The maximum number of calls waiting for the bulkhead
+     * @return The updated quota
+     * 
+     * @since 1.1.0
+     */
+    public TenantQuota withMaxQueued(int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Max queued must not be negative");
+        }
+        return new TenantQuota(maxConcurrent, maxQueued, requestsPerSecond);
+    }
+
+    /**
+     * Returns a copy with the given rate limit. Up to one second's worth of
+     * requests, and at least one request, may be submitted in a burst.
+     *
+     * @param requestsPerSecond The sustained request rate, or 0 for no limit
+     * @return The updated quota
+     * 
+     * @since 1.1.0
+     */
+    public TenantQuota withRequestsPerSecond(double requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        return new TenantQuota(maxConcurrent, maxQueued, requestsPerSecond);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.tenancy;
+
+public class TenantRejectedException extends RuntimeException {
+    public TenantRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.scorpio4938.LLMCall.tools;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A tool the model may call during a {@link ToolExecutor} loop.
+ * 
+ * @since 1.1.0
+ */
+public class Tool {
+    private final String name;
+    private final String description;
+    private final Map<String, Object> parameters;
+    private final ToolHandler handler;
+
+    private Duration timeout;
+    private boolean cacheable = false;
+
+    /**
+     * Constructs a new tool.
+     *
+     * @param name        The name the model uses to call the tool
+     * @param description What the tool does
+     * @param parameters  JSON schema of the tool arguments
+     * @param handler     The handler invoked for each call
+     * 
+     * @since 1.1.0
+     */
+    public Tool(String name, String description, Map<String, Object> parameters, ToolHandler handler) {
+        this.name = Objects.requireNonNull(name, "Name must not be null");
+        this.description = description;
+        this.parameters = parameters != null ? parameters : Map.of("type", "object", "properties", Map.of());
+        this.handler = Objects.requireNonNull(handler, "Handler must not be null");
+    }
+
+    /**
+     * Sets the timeout of a single call of this tool, overriding the executor
+     * default.
+     *
+     * @param timeout The timeout
+     * @return The updated Tool
+     * 
+     * @since 1.1.0
+     */
+    public Tool withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Marks the tool as cacheable: calls with identical arguments share one
+     * result while it stays in the bounded cache of the executor (see
+     * {@link ToolExecutor#withCacheSize(int)}).
+     *
+     * @param cacheable Whether results may be cached
+     * @return The updated Tool
+     * 
+     * @since 1.1.0
+     */
+    public Tool withCaching(boolean cacheable) {
+        this.cacheable = cacheable;
+        return this;
+    }
+
+    /**
+     * Gets the definition sent to the model.
+     *
+     * @return The tool definition
+     * 
+     * @since 1.1.0
+     */
+    public LLMRequest.Tool toDefinition() {
+        return new LLMRequest.Tool(name, description, parameters);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public ToolHandler getHandler() {
+        return handler;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.scorpio4938.LLMCall.tools;
+
+public class ToolExecutionException extends RuntimeException {
+    public ToolExecutionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,309 @@
+package io.github.scorpio4938.LLMCall.tools;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs multi-step tool (function) calling loops against an
+ * {@link LLMApiClient}.
+ * <p>
+ * Tool calls requested in the same turn are dispatched in parallel on the
+ * configured executor. The conversation is serialized incrementally: every
+ * message is turned into JSON once, so each step only encodes the new turn.
+ * <p>
+ * A handler that outlives its timeout is cancelled and its thread
+ * interrupted, so handlers that block should respond to interruption; a
+ * handler that ignores it keeps its executor thread until it returns.
+ * 
+ * @since 1.1.0
+ */
+public class ToolExecutor {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final Duration DEFAULT_TOOL_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_MAX_STEPS = 8;
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private final LLMApiClient client;
+    private final Map<String, Tool> tools = new LinkedHashMap<>();
+
+    private Executor executor = ForkJoinPool.commonPool();
+    private Duration defaultTimeout = DEFAULT_TOOL_TIMEOUT;
+    private int maxSteps = DEFAULT_MAX_STEPS;
+    private int cacheSize = 256;
+    private final Map<String, CompletableFuture<String>> resultCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Constructs a new ToolExecutor on top of the given client.
+     *
+     * @param client The client used to call the model (must not be null)
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor(LLMApiClient client) {
+        this.client = Objects.requireNonNull(client, "Client must not be null");
+    }
+
+    /**
+     * Registers tools the model may call.
+     *
+     * @param tools The tools to register
+     * @return The updated ToolExecutor
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor register(Tool... tools) {
+        for (Tool tool : tools) {
+            this.tools.put(tool.getName(), tool);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the executor that runs tool handlers.
+     *
+     * @param executor The executor to use
+     * @return The updated ToolExecutor
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor withExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "Executor must not be null");
+        return this;
+    }
+
+    /**
+     * Sets the timeout applied to tools without their own timeout.
+     *
+     * @param timeout The timeout
+     * @return The updated ToolExecutor
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor withDefaultTimeout(Duration timeout) {
+        this.defaultTimeout = Objects.requireNonNull(timeout, "Timeout must not be null");
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of model round trips of a single run.
+     *
+     * @param maxSteps The maximum number of steps
+     * @return The updated ToolExecutor
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor withMaxSteps(int maxSteps) {
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    /**
+     * Sets how many results of cacheable tools are kept, least recently used
+     * first out. Defaults to 256.
+     *
+     * @param cacheSize The number of cached results
+     * @return The updated ToolExecutor
+     * 
+     * @since 1.1.0
+     */
+    public ToolExecutor withCacheSize(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        synchronized (resultCache) {
+            this.cacheSize = cacheSize;
+            Iterator<String> eldest = resultCache.keySet().iterator();
+            while (resultCache.size() > cacheSize) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Runs the tool loop until the model answers without calling a tool.
+     *
+     * @param model    The model to use
+     * @param messages The initial conversation
+     * @param params   Additional parameters for the LLM call
+     * @return The content of the final message
+     * @throws Exception              if a model call fails
+     * @throws ToolExecutionException if the model keeps calling tools after
+     *                                the maximum number of steps
+     * 
+     * @since 1.1.0
+     */
+    public String run(String model, List<LLMRequest.Message> messages, Map<String, Object> params)
+            throws Exception {
+        String head = "{\"model\":" + GSON.toJson(client.getProvider().getModel(model)) + ",\"messages\":[";
+        String tail = "],\"parameters\":" + GSON.toJson(params != null ? params : Map.of())
+                + (tools.isEmpty() ? "" : ",\"tools\":" + GSON.toJson(definitions())) + "}";
+
+        StringBuilder serializedMessages = new StringBuilder();
+        appendMessages(serializedMessages, messages);
+
+        for (int step = 1; step <= maxSteps; step++) {
+            LLMResponse response = client.sendPreparedRequest(head + serializedMessages + tail);
+            List<ToolCall> toolCalls = response.getFirstToolCalls();
+            if (toolCalls.isEmpty()) {
+                return response.getFirstMessageContent();
+            }
+
+            Debugger.log("Step %d: model requested %d tool call(s)".formatted(step, toolCalls.size()));
+            List<LLMRequest.Message> turn = new ArrayList<>(toolCalls.size() + 1);
+            turn.add(LLMRequest.createToolCallMessage(response.getFirstMessageContent(), toolCalls));
+            turn.addAll(dispatch(toolCalls));
+            appendMessages(serializedMessages, turn);
+        }
+        throw new ToolExecutionException("Model still calling tools after " + maxSteps + " steps");
+    }
+
+    /**
+     * Runs all tool calls of one turn in parallel and collects their results in
+     * request order. Failures and timeouts are reported back to the model as the
+     * tool result so it can recover.
+     */
+    private List<LLMRequest.Message> dispatch(List<ToolCall> toolCalls) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(toolCalls.size());
+        for (ToolCall toolCall : toolCalls) {
+            futures.add(invoke(toolCall).exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                Debugger.log("Tool call " + toolCall.getId() + " failed: " + cause);
+                return cause instanceof TimeoutException
+                        ? "Error: tool timed out"
+                        : "Error: " + cause.getMessage();
+            }));
+        }
+
+        List<LLMRequest.Message> results = new ArrayList<>(toolCalls.size());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            results.add(LLMRequest.createToolResultMessage(toolCalls.get(i).getId(), futures.get(i).join()));
+        }
+        return results;
+    }
+
+    private CompletableFuture<String> invoke(ToolCall toolCall) {
+        String name = toolCall.getFunction() != null ? toolCall.getFunction().getName() : null;
+        Tool tool = name != null ? tools.get(name) : null;
+        if (tool == null) {
+            return CompletableFuture.failedFuture(new ToolExecutionException("Unknown tool: " + name));
+        }
+
+        String arguments = toolCall.getFunction().getArguments();
+        if (!tool.isCacheable()) {
+            return execute(tool, arguments);
+        }
+
+        String key = name + '\u0000' + arguments;
+        CompletableFuture<String> started = new CompletableFuture<>();
+        synchronized (resultCache) {
+            CompletableFuture<String> cached = resultCache.putIfAbsent(key, started);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        execute(tool, arguments).whenComplete((result, error) -> {
+            if (error != null) {
+                synchronized (resultCache) {
+                    resultCache.remove(key, started); // Do not cache failures
+                }
+                started.completeExceptionally(error);
+            } else {
+                started.complete(result);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * Runs a handler on the executor and cancels it, interrupting its thread,
+     * once the timeout elapses.
+     */
+    private CompletableFuture<String> execute(Tool tool, String arguments) {
+        Duration timeout = tool.getTimeout() != null ? tool.getTimeout() : defaultTimeout;
+        CompletableFuture<String> result = new CompletableFuture<>();
+        FutureTask<String> task = new FutureTask<>(() -> tool.getHandler().call(arguments)) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    result.completeExceptionally(new TimeoutException("Tool " + tool.getName() + " timed out"));
+                    return;
+                }
+                try {
+                    result.complete(get());
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    result.completeExceptionally(e); // Unreachable: the task is done
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        ScheduledFuture<?> timer = TIMER.schedule(() -> task.cancel(true), timeout.toNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((value, error) -> timer.cancel(false));
+        return result;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "llm-tool-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private List<LLMRequest.Tool> definitions() {
+        List<LLMRequest.Tool> definitions = new ArrayList<>(tools.size());
+        for (Tool tool : tools.values()) {
+            definitions.add(tool.toDefinition());
+        }
+        return definitions;
+    }
+
+    private static void appendMessages(StringBuilder serializedMessages, List<LLMRequest.Message> messages) {
+        for (LLMRequest.Message message : messages) {
+            if (serializedMessages.length() > 0) {
+                serializedMessages.append(',');
+            }
+            serializedMessages.append(GSON.toJson(message));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.scorpio4938.LLMCall.tools;
+
+/**
+ * Handler invoked when the model calls a tool.
+ * 
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface ToolHandler {
+    /**
+     * Runs the tool.
+     *
+     * @param arguments The arguments chosen by the model, as a JSON string
+     * @return The result handed back to the model
+     * @throws Exception if the tool fails
+     */
+    String call(String arguments) throws Exception;
+}
@@ -0,0 +1,37 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for thread-per-task executors.
+ * <p>
+ * This is the Java 21 variant, loaded from {@code META-INF/versions/21} of the
+ * multi-release JAR, which runs every task on its own virtual thread.
+ * 
+ * @since 1.1.0
+ */
+public class VirtualThreads {
+
+    /**
+     * Checks whether executors from this factory run on virtual threads.
+     *
+     * @return true on Java 21 and later
+     * 
+     * @since 1.1.0
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     *
+     * @return The executor
+     * 
+     * @since 1.1.0
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("llm-worker-", 1).factory());
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.scorpio4938.LLMCall;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Swaps client settings and shares model chains across threads, against a
+ * local stub.
+ */
+class ClientConfigTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicInteger flakyRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            int status = 200;
+            if (request.contains("\"model\":\"bad-model\"")) {
+                status = 404;
+            } else if (request.contains("\"model\":\"flaky-model\"")) {
+                flakyRequests.incrementAndGet();
+                status = 503;
+            }
+            byte[] bytes = "{\"choices\": [{\"message\": {\"content\": \"ok\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("good-model", "bad-model", "flaky-model")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testSnapshotsAreSwappedAtomically() throws Exception {
+        ClientConfig defaults = client.getConfig();
+        assertSame(ClientConfig.defaults(), defaults);
+        assertEquals(3, defaults.getMaxRetries());
+        assertEquals(Duration.ofSeconds(1), defaults.getRetryDelay());
+
+        client.setMaxRetries(1);
+        client.setRetryDelay(5, TimeUnit.MILLISECONDS);
+        client.setRequestCoalescing(true);
+        ClientConfig updated = client.getConfig();
+        assertEquals(1, updated.getMaxRetries());
+        assertEquals(Duration.ofMillis(5), updated.getRetryDelay());
+        assertTrue(updated.isRequestCoalescing());
+        assertEquals(3, defaults.getMaxRetries()); // Snapshots never change
+
+        client.setConfig(ClientConfig.builder().withMaxRetries(0).build());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> updates = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                updates.add(executor.submit(() -> client.updateConfig(
+                        builder -> builder.withMaxRetries(builder.build().getMaxRetries() + 1))));
+            }
+            for (Future<?> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(200, client.getConfig().getMaxRetries()); // No update lost
+
+        assertThrows(IllegalArgumentException.class, () -> client.setMaxRetries(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ClientConfig.builder().withRetryDelay(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> client.setConfig(null));
+        assertEquals(200, client.getConfig().getMaxRetries());
+    }
+
+    @Test
+    void testCallsUseTheCurrentSnapshot() {
+        client.setConfig(ClientConfig.builder().withMaxRetries(2).withRetryDelay(Duration.ZERO).build());
+        assertThrows(Exception.class, () -> client.directCallLLM("flaky-model", Map.of("user", "hi")));
+        assertEquals(3, flakyRequests.get());
+
+        client.updateConfig(builder -> builder.withMaxRetries(0));
+        assertThrows(Exception.class, () -> client.directCallLLM("flaky-model", Map.of("user", "hi")));
+        assertEquals(4, flakyRequests.get());
+    }
+
+    @Test
+    void testModelChainIsAnImmutableReusablePlan() throws Exception {
+        client.setConfig(ClientConfig.builder().withMaxRetries(0).build());
+        Map<String, String> data = Map.of("user", "hi");
+        LLMApiClient.ModelChain primary = client.callLLM("bad-model", data);
+        LLMApiClient.ModelChain chain = primary.withFallback("good-model");
+
+        assertNotSame(primary, chain);
+        assertEquals(List.of("bad-model"), primary.getModels());
+        assertEquals(List.of("bad-model", "good-model"), chain.getModels());
+        assertEquals(List.of("bad-model", "good-model", "flaky-model"), chain.withFallback("flaky-model").getModels());
+        assertEquals(List.of("bad-model", "good-model"), chain.getModels());
+        assertThrows(Exception.class, primary::execute);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(chain::execute));
+            }
+            for (Future<String> result : results) {
+                assertEquals("ok", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("ok", client.callLLM("bad-model", data).withFallback("good-model").execute());
+    }
+}
@@ -3,8 +3,11 @@ package io.github.scorpio4938.LLMCall;
 import com.sun.net.httpserver.HttpServer;
 
 import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.compaction.ContextCompactor;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
 import io.github.scorpio4938.LLMCall.providers.Provider;
 import io.github.scorpio4938.LLMCall.providers.Providers;
+import io.github.scorpio4938.LLMCall.scheduling.DeadlineExceededException;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import java.io.OutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.time.Duration;
 import java.net.http.HttpClient;
@@ -32,6 +37,7 @@ public class LLMApiClientTest {
     private LLMApiClient client;
     private final AtomicInteger retryCounter = new AtomicInteger(0);
     private final AtomicInteger alwaysFailCounter = new AtomicInteger(0);
+    private final AtomicInteger slowCounter = new AtomicInteger(0);
 
     @BeforeEach
     public void setUp() throws IOException {
@@ -45,7 +51,34 @@ public class LLMApiClientTest {
             String response;
             int statusCode = 200;
 
-            if (requestBody.contains("\"model\":\"retry-model\"")) {
+            if (requestBody.contains("\"stream\":true") && requestBody.contains("\"model\":\"stall-model\"")) {
+                // Send one delta, then stall without closing the stream
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write("data: {\"choices\": [{\"delta\": {\"content\": \"Once upon\"}}]}\n\n".getBytes());
+                    os.flush();
+                    Thread.sleep(600);
+                } catch (IOException | InterruptedException e) {
+                    // The client gave up on the stalled stream
+                }
+                exchange.close();
+                return;
+            } else if (requestBody.contains("\"stream\":true")
+                    && requestBody.contains("{\"role\":\"assistant\",\"content\":\"Once upon\"}")) {
+                // Continue from the assistant prefix
+                response = "data: {\"choices\": [{\"delta\": {\"content\": \" a time\"}}]}\n\ndata: [DONE]\n\n";
+            } else if (requestBody.contains("\"stream\":true")) {
+                // Server-sent events, splitting the JSON answer across chunks
+                StringBuilder events = new StringBuilder();
+                for (String delta : new String[] { "{\\\"items\\\": [{\\\"name\\\": \\\"a\\\"}",
+                        ", {\\\"name\\\"", ": \\\"b\\\"}]}" }) {
+                    events.append("data: {\"choices\": [{\"delta\": {\"content\": \"").append(delta)
+                            .append("\"}}]}\n\n");
+                }
+                response = events.append("data: [DONE]\n\n").toString();
+            } else if (requestBody.contains("\"response_format\"")) {
+                response = "{\"choices\": [{\"message\": {\"content\": \"{\\\"items\\\": [{\\\"name\\\": \\\"a\\\"}]}\"}}]}";
+            } else if (requestBody.contains("\"model\":\"retry-model\"")) {
                 int attempt = retryCounter.getAndIncrement();
                 statusCode = attempt < 2 ? 500 : 200;
                 response = attempt < 2 ? "{\"error\": \"Internal server error\"}"
@@ -54,6 +87,14 @@ public class LLMApiClientTest {
                 alwaysFailCounter.incrementAndGet();
                 statusCode = 500;
                 response = "{\"error\": \"Internal server error\"}";
+            } else if (requestBody.contains("\"model\":\"slow-model\"")) {
+                slowCounter.incrementAndGet();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response = "{\"choices\": [{\"message\": {\"content\": \"Slow hello!\"}}]}";
             } else if (requestBody.contains("\"model\":\"bad-model\"")) {
                 statusCode = 500;
                 response = "{\"error\": \"Internal server error\"}";
@@ -77,6 +118,8 @@ public class LLMApiClientTest {
                 // Remove the slash prefix for test models
                 if (model.startsWith("retry-model") ||
                         model.startsWith("always-fail-model") ||
+                        model.startsWith("slow-model") ||
+                        model.startsWith("stall-model") ||
                         model.startsWith("bad-model")) {
                     return model;
                 }
@@ -93,7 +136,7 @@ public class LLMApiClientTest {
     // Simple test provider
     private static class TestProvider extends Provider {
         TestProvider(String url) {
-            super("test-provider", url, "test-key", java.util.List.of("test-model"));
+            super("test-provider", url, "test-key", List.of("test-model"));
         }
 
         @Override
@@ -208,6 +251,104 @@ public class LLMApiClientTest {
         assertEquals("Hello!", result);
     }
 
+    record Item(String name) {
+    }
+
+    record Inventory(List<Item> items) {
+    }
+
+    @Test
+    public void testStructuredCall() throws Exception {
+        Map<String, String> data = Map.of("role", "user", "content", "List items");
+        Inventory inventory = client.callLLM("test-model", data, Inventory.class);
+
+        assertEquals(1, inventory.items().size());
+        assertEquals("a", inventory.items().get(0).name());
+    }
+
+    @Test
+    public void testStreamingStructuredCall() throws Exception {
+        Map<String, String> data = Map.of("role", "user", "content", "List items");
+        List<String> streamed = new ArrayList<>();
+        Inventory inventory = client.streamCallLLM("test-model", data, Map.of("max_tokens", 50),
+                Inventory.class, Item.class, item -> streamed.add(item.name()));
+
+        assertEquals(List.of("a", "b"), streamed);
+        assertEquals(2, inventory.items().size());
+    }
+
+    @Test
+    public void testIdenticalConcurrentCallsAreCoalesced() throws Exception {
+        client.setRequestCoalescing(true);
+        Map<String, String> data = Map.of("role", "user", "content", "Hi");
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.directCallLLM("slow-model", data, Map.of("max_tokens", 50, "temperature", 0.0));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("Slow hello!", future.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(slowCounter.get() < futures.size(), "Concurrent identical calls should share upstream requests");
+    }
+
+    @Test
+    public void testDeadlineBoundsRequestTimeout() {
+        client.setRetryDelay(10, TimeUnit.MILLISECONDS);
+        Map<String, String> data = Map.of("role", "user", "content", "Hi");
+        CallOptions options = CallOptions.defaults().withTimeout(Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+                () -> client.directCallLLM("slow-model", data, Map.of("max_tokens", 50), options));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000,
+                "Should give up at the deadline, not after the default timeout");
+    }
+
+    @Test
+    public void testStreamingChainContinuesAfterStall() throws Exception {
+        Map<String, String> data = Map.of("user", "Tell me a story");
+        List<String> deltas = new ArrayList<>();
+
+        long start = System.nanoTime();
+        String result = client.callLLM("stall-model", data)
+                .withFallback("test-model")
+                .withStallTimeout(Duration.ofMillis(150))
+                .stream(deltas::add);
+
+        assertEquals("Once upon a time", result);
+        assertEquals(List.of("Once upon", " a time"), deltas);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+    }
+
+    @Test
+    public void testStreamingChainCompactsTheAssistantPrefix() throws Exception {
+        List<LLMRequest.Message> compacted = new ArrayList<>();
+        client.getProvider().withContextLimit("test-model", 200);
+        client.setContextCompaction(new ContextCompactor((messages, budget, tokens) -> {
+            compacted.addAll(messages);
+            return List.copyOf(messages.subList(1, messages.size())); // Drops the system prompt, immutably
+        }));
+        Map<String, String> data = Map.of("system", "x".repeat(800), "user", "Tell me a story");
+
+        String result = client.callLLM("stall-model", data)
+                .withFallback("test-model")
+                .withStallTimeout(Duration.ofMillis(150))
+                .stream(delta -> {
+                });
+
+        assertEquals("Once upon a time", result);
+        assertEquals("assistant", compacted.get(compacted.size() - 1).getRole()); // The prefix counts too
+        assertEquals("Once upon", compacted.get(compacted.size() - 1).getContent());
+    }
+
     @Test
     public void testRetrySuccessAfterTwoFailures() throws Exception {
         client.setMaxRetries(3);
@@ -0,0 +1,136 @@
+package io.github.scorpio4938.LLMCall;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.metrics.RaceStats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races models served with different latencies by a local stub.
+ */
+class ModelRaceTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String content;
+            long delay;
+            if (request.contains("\"model\":\"empty\"")) {
+                content = "";
+                delay = 10;
+            } else if (request.contains("\"model\":\"fast\"")) {
+                content = "{\\\"answer\\\": 42}";
+                delay = 100;
+            } else {
+                slowRequests.incrementAndGet();
+                content = "{\\\"answer\\\": 41}";
+                delay = 800;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = ("{\"choices\": [{\"message\": {\"content\": \"" + content + "\"}}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(bytes);
+                }
+            } catch (IOException e) {
+                // The client cancelled the request
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("empty", "fast", "slow")));
+        client.setRetryDelay(50, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testFirstValidAnswerWinsAndLosersAreCancelled() throws Exception {
+        long start = System.nanoTime();
+        String result = client.raceLLM(Map.of("user", "Answer?"), "slow", "empty", "fast")
+                .withValidator(content -> content != null && content.startsWith("{"))
+                .execute();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("{\"answer\": 42}", result);
+        assertTrue(elapsed < 700, "Race waited for the slow model: " + elapsed + "ms");
+
+        RaceStats stats = client.getRaceStats();
+        assertEquals(1.0, stats.winRate("test-provider/fast"));
+        assertEquals(0.0, stats.winRate("test-provider/empty"));
+        assertEquals(0, stats.wins("test-provider/slow"));
+        assertEquals(1, stats.latency("test-provider/fast").size());
+        assertEquals(1, stats.latency("test-provider/empty").size()); // Losers that answered are timed too
+        assertEquals(0, stats.latency("test-provider/slow").size());
+
+        // The cancelled slow request must not be retried
+        Thread.sleep(1000);
+        assertEquals(1, slowRequests.get());
+    }
+
+    @Test
+    void testRaceIsAnImmutableSharedPlan() throws Exception {
+        LLMApiClient.ModelRace empty = client.raceLLM(Map.of("user", "Answer?"), "empty");
+        LLMApiClient.ModelRace race = empty.withEntrant(client, "fast");
+        LLMApiClient.ModelRace strict = race.withValidator(content -> content.startsWith("{"));
+
+        assertNotSame(empty, race);
+        assertNotSame(race, strict);
+        assertThrows(Exception.class, empty::execute); // Unchanged by withEntrant
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(strict::execute));
+            }
+            for (Future<String> result : results) {
+                assertEquals("{\"answer\": 42}", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testRaceFailsWhenNoAnswerIsValid() {
+        Exception error = assertThrows(Exception.class,
+                () -> client.raceLLM(Map.of("user", "Answer?"), "empty").execute());
+        assertTrue(error.getMessage().contains("invalid answer"));
+    }
+}
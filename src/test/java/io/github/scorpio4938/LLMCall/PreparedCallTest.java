@@ -0,0 +1,75 @@
+package io.github.scorpio4938.LLMCall;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreparedCallTest {
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final Provider PROVIDER = new Provider("test-provider", "http://localhost:1/", "test-key",
+            List.of("test-model"));
+
+    @Test
+    void testBodyMatchesGsonSerialization() {
+        LLMApiClient client = new LLMApiClient(PROVIDER);
+        Map<String, Object> params = Map.of("temperature", 0.7, "max_tokens", 50, "stop", List.of("\n"));
+        PreparedCall call = PreparedCall.builder(client, "test-model")
+                .withSystemPrompt("Answer in <b>HTML</b> & keep it 'short'")
+                .withParameters(params)
+                .build();
+
+        for (String message : new String[] { "Hi", "Quote \" backslash \\ tab \t newline \n",
+                "Control \u0001\u001f, separators \u2028\u2029, emoji \uD83D\uDE00, a=b", "" }) {
+            LLMRequest request = new LLMRequest("test-model", List.of(
+                    LLMRequest.createMessage("system", "Answer in <b>HTML</b> & keep it 'short'"),
+                    LLMRequest.createMessage("user", message)), true);
+            request.addParameters(params);
+            assertEquals(GSON.toJson(request), call.toRequestBody(message));
+        }
+    }
+
+    @Test
+    void testCallSendsPreparedBody() throws Exception {
+        AtomicReference<String> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] bytes = "{\"choices\": [{\"message\": {\"content\": \"positive\"}}]}".getBytes();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            LLMApiClient client = new LLMApiClient(new Provider("test-provider",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "test-key", List.of("test-model")));
+            PreparedCall classify = PreparedCall.builder(client, "test-model")
+                    .withSystemPrompt("Classify the sentiment.")
+                    .withParameter("max_tokens", 5)
+                    .build();
+
+            assertEquals("positive", classify.call("I love it"));
+            assertEquals("{\"model\":\"test-model\",\"messages\":[{\"role\":\"system\",\"content\":"
+                    + "\"Classify the sentiment.\"},{\"role\":\"user\",\"content\":\"I love it\"}],"
+                    + "\"parameters\":{\"max_tokens\":5}}", received.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
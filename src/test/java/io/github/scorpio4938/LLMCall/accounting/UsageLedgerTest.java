@@ -0,0 +1,187 @@
+package io.github.scorpio4938.LLMCall.accounting;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks cost computation, concurrent aggregation and budget enforcement.
+ */
+class UsageLedgerTest {
+    private final PricingTable pricing = new PricingTable()
+            .withPrice("openai", "gpt-4o-mini", new ModelPrice(0.15, 0.075, 0.60));
+
+    @Test
+    void testCostAppliesCachedInputDiscount() {
+        UsageLedger ledger = new UsageLedger(pricing);
+        ledger.record("team-a", "openai", "gpt-4o-mini", new LLMResponse.Usage(1_000_000, 1_000_000, 400_000));
+
+        UsageSnapshot snapshot = ledger.snapshot().get(0);
+        assertEquals(1, snapshot.getCalls());
+        assertEquals(400_000, snapshot.getCachedTokens());
+        assertEquals(0.4, snapshot.getCacheHitRate(), 1e-9);
+        // 600k * 0.15 + 400k * 0.075 + 1M * 0.60 per million
+        assertEquals(0.09 + 0.03 + 0.60, snapshot.getCost(), 1e-9);
+        assertEquals(snapshot.getCost(), ledger.getSpend("team-a"), 1e-9);
+    }
+
+    @Test
+    void testConcurrentRecordingIsExact() throws Exception {
+        UsageLedger ledger = new UsageLedger(pricing);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ledger.record(null, "openai", "gpt-4o-mini", new LLMResponse.Usage(10, 5, 0));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        UsageSnapshot snapshot = ledger.snapshot().get(0);
+        assertEquals(UsageLedger.DEFAULT_TENANT, snapshot.getTenant());
+        assertEquals(threads * perThread, snapshot.getCalls());
+        assertEquals(threads * perThread * 10L, snapshot.getPromptTokens());
+        assertEquals(threads * perThread * 5L, snapshot.getCompletionTokens());
+    }
+
+    @Test
+    void testPeriodicExport() throws Exception {
+        AtomicReference<List<UsageSnapshot>> exported = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (UsageLedger ledger = new UsageLedger(pricing)) {
+            ledger.record("team-a", "openai", "gpt-4o-mini", new LLMResponse.Usage(1, 1, 0));
+            ledger.startExport(Duration.ofMillis(20), snapshots -> {
+                exported.set(snapshots);
+                latch.countDown();
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals("team-a", exported.get().get(0).getTenant());
+    }
+
+    @Test
+    void testClientRecordsUsageAndEnforcesBudget() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] bytes = ("{\"id\": \"r1\", \"model\": \"gpt-4o-mini\", \"choices\": [{\"message\": "
+                    + "{\"role\": \"assistant\", \"content\": \"Hi\"}}], \"usage\": {\"prompt_tokens\": 1000, "
+                    + "\"completion_tokens\": 500, \"total_tokens\": 1500, "
+                    + "\"prompt_tokens_details\": {\"cached_tokens\": 200}}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            Provider provider = new Provider("openai", "http://localhost:" + server.getAddress().getPort() + "/",
+                    "test-key", List.of("gpt-4o-mini"));
+            LLMApiClient client = new LLMApiClient(provider);
+            // One call costs 800 * 0.15 + 200 * 0.075 + 500 * 0.60 = 435 millionths of a USD
+            UsageLedger ledger = new UsageLedger(pricing).withBudget("team-b", 0.0008);
+            client.setLedger(ledger);
+
+            CallOptions teamB = CallOptions.defaults().withTenant("team-b");
+            Map<String, String> data = Map.of("user", "Hello");
+            assertEquals("Hi", client.directCallLLM("gpt-4o-mini", data, Map.of(), teamB));
+            assertEquals("Hi", client.directCallLLM("gpt-4o-mini", data, Map.of(), teamB));
+            assertThrows(BudgetExceededException.class,
+                    () -> client.directCallLLM("gpt-4o-mini", data, Map.of(), teamB));
+            assertEquals("Hi", client.directCallLLM("gpt-4o-mini", data, Map.of()));
+
+            assertEquals(0.00087, ledger.getSpend("team-b"), 1e-12);
+            assertEquals(2, ledger.snapshot().size());
+
+            // Typed, streamed and prepared calls are budgeted per tenant too
+            assertThrows(BudgetExceededException.class,
+                    () -> client.callLLM("gpt-4o-mini", data, Map.of(), teamB, Map.class));
+            assertThrows(BudgetExceededException.class,
+                    () -> client.streamCallLLM("gpt-4o-mini", data, Map.of(), teamB, delta -> {
+                    }));
+            assertThrows(BudgetExceededException.class, () -> client.sendPreparedRequest("{}", teamB));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testCoalescedCallIsBilledOnce() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            upstreamCalls.incrementAndGet();
+            try {
+                Thread.sleep(200); // Let the identical calls join
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // No "model" field: usage is recorded under a null model
+            byte[] bytes = ("{\"choices\": [{\"message\": {\"content\": \"Hi\"}}], \"usage\": "
+                    + "{\"prompt_tokens\": 10, \"completion_tokens\": 5}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            LLMApiClient client = new LLMApiClient(new Provider("openai",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "test-key", List.of("gpt-4o-mini")));
+            UsageLedger ledger = new UsageLedger(pricing);
+            client.setLedger(ledger);
+            client.setRequestCoalescing(true);
+
+            List<Future<LLMResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(pool.submit(() -> client.sendPreparedRequest("{\"model\":\"gpt-4o-mini\"}")));
+            }
+            for (Future<LLMResponse> call : calls) {
+                assertEquals("Hi", call.get(5, TimeUnit.SECONDS).getFirstMessageContent());
+            }
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(1, ledger.snapshot().get(0).getCalls());
+
+            client.sendPreparedRequest("{\"model\":\"gpt-4o-mini\"}"); // The null-model key is found again
+            assertEquals(1, ledger.snapshot().size());
+            assertNull(ledger.snapshot().get(0).getModel());
+            assertEquals(2, ledger.snapshot().get(0).getCalls());
+        } finally {
+            pool.shutdownNow();
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.scorpio4938.LLMCall.batch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the batch flow against a local stand-in for the files and batches
+ * endpoints.
+ */
+class BatchClientTest {
+    private static final int RESULT_LINES = 100_000;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private BatchClient client;
+    private final AtomicLong uploadedLines = new AtomicLong();
+    private final AtomicInteger polls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/v1/files", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (exchange.getRequestMethod().equals("POST")) {
+                // Count the JSONL lines of the multipart body without buffering it
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith("{\"custom_id\":")) {
+                            uploadedLines.incrementAndGet();
+                        }
+                    }
+                }
+                respond(exchange, "{\"id\": \"file-in\", \"purpose\": \"batch\"}");
+            } else if (path.equals("/v1/files/file-out/content")) {
+                // Stream a large result file line by line
+                exchange.sendResponseHeaders(200, 0);
+                try (Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                    for (int i = 0; i < RESULT_LINES; i++) {
+                        writer.write("{\"id\": \"r" + i + "\", \"custom_id\": \"req-" + i + "\", \"response\": "
+                                + "{\"status_code\": 200, \"body\": {\"choices\": [{\"message\": "
+                                + "{\"content\": \"answer " + i + "\"}}]}}, \"error\": null}\n");
+                    }
+                }
+            } else if (path.equals("/v1/files/file-err/content")) {
+                respond(exchange, "{\"id\": \"e0\", \"custom_id\": \"req-bad\", \"response\": null, "
+                        + "\"error\": {\"code\": \"invalid_request\", \"message\": \"bad\"}}\n");
+            }
+        });
+        server.createContext("/v1/batches", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, "{\"id\": \"batch-1\", \"status\": \"validating\", \"input_file_id\": \"file-in\"}");
+            } else {
+                boolean done = polls.incrementAndGet() >= 3;
+                respond(exchange, done
+                        ? "{\"id\": \"batch-1\", \"status\": \"completed\", \"output_file_id\": \"file-out\", "
+                                + "\"error_file_id\": \"file-err\", \"request_counts\": {\"total\": 3, \"completed\": 2, \"failed\": 1}}"
+                        : "{\"id\": \"batch-1\", \"status\": \"in_progress\"}");
+            }
+        });
+        server.start();
+
+        Provider provider = new Provider("test-provider",
+                "http://localhost:" + server.getAddress().getPort() + "/v1/chat/completions", "test-key",
+                List.of("test-model"));
+        client = new BatchClient(provider).withPollBackoff(Duration.ofMillis(10), Duration.ofMillis(40));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    void testWriterStreamsOneRequestPerLine() throws Exception {
+        Path file = tempDir.resolve("batch.jsonl");
+        try (BatchFileWriter writer = new BatchFileWriter(file)) {
+            writer.add("req-0", "test-model", List.of(LLMRequest.createMessage("user", "Hi")), Map.of("max_tokens", 5));
+            writer.add("req-1", "test-model", List.of(LLMRequest.createMessage("user", "Line\nbreak")), null);
+            assertEquals(2, writer.getLines());
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"custom_id\":\"req-0\",\"method\":\"POST\",\"url\":\"/v1/chat/completions\""));
+        assertTrue(lines.get(1).contains("Line\\nbreak"));
+    }
+
+    @Test
+    void testRunUploadsPollsAndStreamsResults() throws Exception {
+        Path file = tempDir.resolve("batch.jsonl");
+        try (BatchFileWriter writer = new BatchFileWriter(file)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.add("req-" + i, "test-model", List.of(LLMRequest.createMessage("user", "Q" + i)), null);
+            }
+        }
+
+        AtomicLong successes = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        BatchJob job = client.run(file, Duration.ofSeconds(10), result -> {
+            if (result.isSuccess()) {
+                assertEquals("answer " + result.getCustomId().substring(4), result.getResponse().getFirstMessageContent());
+                successes.incrementAndGet();
+            } else {
+                assertEquals("req-bad", result.getCustomId());
+                failures.incrementAndGet();
+            }
+        });
+
+        assertEquals("completed", job.getStatus());
+        assertEquals(1000, uploadedLines.get());
+        assertEquals(3, polls.get());
+        assertEquals(RESULT_LINES, successes.get());
+        assertEquals(1, failures.get());
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.scorpio4938.LLMCall.benchmark;
+
+import io.github.scorpio4938.LLMCall.codec.ChatCodec;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Compares the Gson codec with the direct codec on a typical chat request
+ * (system prompt, a few turns, common parameters) and its response. Reports
+ * time and bytes allocated per operation. Arguments: {@code [iterations]}.
+ */
+public class ChatCodecBenchmark {
+    private static final String SYSTEM = "You are a helpful assistant that classifies support tickets. Answer with "
+            + "one of \"billing\", \"bug\", \"feature\" or \"other\" & nothing else.";
+    private static final String RESPONSE = "{\"id\":\"chatcmpl-123\",\"object\":\"chat.completion\",\"created\":"
+            + "1700000000,\"model\":\"bench-model\",\"system_fingerprint\":\"fp_44709d6fcb\",\"choices\":[{\"index\""
+            + ":0,\"message\":{\"role\":\"assistant\",\"content\":\"The ticket describes a double charge on the "
+            + "last invoice, so it belongs to \\\"billing\\\".\\nConfidence: high.\"},\"logprobs\":null,"
+            + "\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":412,\"completion_tokens\":23,"
+            + "\"total_tokens\":435,\"prompt_tokens_details\":{\"cached_tokens\":384,\"audio_tokens\":0},"
+            + "\"completion_tokens_details\":{\"reasoning_tokens\":0,\"audio_tokens\":0}}}";
+    private static final String DELTA = "{\"id\":\"chatcmpl-123\",\"object\":\"chat.completion.chunk\",\"created\":"
+            + "1700000000,\"model\":\"bench-model\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\" billing\"},"
+            + "\"logprobs\":null,\"finish_reason\":null}]}";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Map<String, Object> params = Map.of("max_tokens", 100, "temperature", 0.2, "stop", List.of("\n\n"));
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            for (ChatCodec codec : List.of(ChatCodec.gson(), ChatCodec.direct())) {
+                String name = codec == ChatCodec.gson() ? "gson  " : "direct";
+                measure(name + " encode", iterations, i -> {
+                    LLMRequest request = new LLMRequest("bench-model", List.of(
+                            LLMRequest.createMessage("system", SYSTEM),
+                            LLMRequest.createMessage("user", "My card was charged twice for order #" + i),
+                            LLMRequest.createMessage("assistant", "Sorry to hear that! Which invoice?"),
+                            LLMRequest.createMessage("user", "Invoice " + i + " from last week \u2014 thanks.")));
+                    request.addParameters(params);
+                    return codec.encodeRequest(request).length;
+                });
+                measure(name + " decode", iterations, i -> {
+                    LLMResponse response = codec.decodeResponse(RESPONSE);
+                    return response.getFirstMessageContent().length() + response.getUsage().getCachedTokens();
+                });
+                measure(name + " delta ", iterations, i -> codec.decodeDeltaContent(DELTA).length());
+            }
+        }
+    }
+
+    private static void measure(String name, int iterations, IntToLongFunction operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += operation.applyAsLong(i);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%s: %6.0f ns/op, %6d bytes/op (checksum %d)%n", name, (double) nanos / iterations,
+                bytes / iterations, checksum);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.scorpio4938.LLMCall.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.PreparedCall;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.utils.MapSorter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the per-call cost of building a request body the way
+ * {@code directCallLLM} does (sorted message map, fresh {@link LLMRequest},
+ * Gson) against a {@link PreparedCall} template. Reports time and bytes
+ * allocated per body. Arguments: {@code [iterations]}.
+ */
+public class PreparedCallBenchmark {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final String SYSTEM = "You are a helpful assistant that classifies support tickets.";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Provider provider = new Provider("bench", "http://localhost:1/", "key", List.of("bench-model"));
+        LLMApiClient client = new LLMApiClient(provider);
+        Map<String, Object> params = Map.of("max_tokens", 100, "temperature", 0.2);
+        PreparedCall prepared = PreparedCall.builder(client, "bench-model")
+                .withSystemPrompt(SYSTEM)
+                .withParameters(params)
+                .build();
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            measure("gson    ", iterations, i -> {
+                Map<String, String> data = Map.of("system", SYSTEM, "user", "Ticket number " + i);
+                List<LLMRequest.Message> messages = new ArrayList<>();
+                for (Map.Entry<String, String> entry : MapSorter.sortByKeys(data).entrySet()) {
+                    messages.add(LLMRequest.createMessage(entry.getKey(), entry.getValue()));
+                }
+                LLMRequest request = new LLMRequest(provider.getModel("bench-model"), messages);
+                request.addParameters(params);
+                return GSON.toJson(request);
+            });
+            measure("prepared", iterations, i -> prepared.toRequestBody("Ticket number " + i));
+        }
+    }
+
+    private interface BodyBuilder {
+        String build(int i);
+    }
+
+    private static void measure(String name, int iterations, BodyBuilder builder) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += builder.build(i).length();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%s: %6.0f ns/body, %6d bytes/body (checksum %d)%n", name, (double) nanos / iterations,
+                bytes / iterations, checksum);
+    }
+}
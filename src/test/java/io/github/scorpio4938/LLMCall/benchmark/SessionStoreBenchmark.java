@@ -0,0 +1,92 @@
+package io.github.scorpio4938.LLMCall.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.session.SessionStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Keeps the same conversations once as {@link LLMRequest.Message} lists on
+ * the heap and once in a {@link SessionStore}, then reports retained heap,
+ * GC time while filling, and the cost of serializing a random session's
+ * history. Arguments: {@code [sessions] [maxMemoryMiB]}.
+ */
+public class SessionStoreBenchmark {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final int TURNS = 2;
+    private static final int LOOKUPS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long maxMemory = (args.length > 1 ? Long.parseLong(args[1]) : 128) << 20;
+
+        Map<String, List<LLMRequest.Message>> heap = new HashMap<>();
+        measure("heap ", sessions, (id, message) -> heap.computeIfAbsent(id, key -> new ArrayList<>()).add(message),
+                heap::get);
+        heap.clear();
+
+        try (SessionStore store = SessionStore.builder().withMaxMemory(maxMemory).build()) {
+            measure("store", sessions, store::append, store::history);
+            System.out.printf("store: %d MiB off-heap, %d MiB spilled, %d sessions spilled%n",
+                    store.getMemoryBytes() >> 20, store.getSpillBytes() >> 20, store.getSpilledSessionCount());
+        }
+    }
+
+    private interface Appender {
+        void append(String sessionId, LLMRequest.Message message);
+    }
+
+    private interface Reader {
+        List<LLMRequest.Message> history(String sessionId);
+    }
+
+    private static void measure(String name, int sessions, Appender appender, Reader reader) {
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            appender.append("conversation-" + i, LLMRequest.createMessage("system",
+                    "You are the support assistant for account " + i + ". Answer politely."));
+        }
+        for (int turn = 0; turn < TURNS; turn++) {
+            for (int i = 0; i < sessions; i++) {
+                String id = "conversation-" + i;
+                appender.append(id, LLMRequest.createMessage("user", "Turn " + turn + ": where is order " + i + "?"));
+                appender.append(id, LLMRequest.createMessage("assistant",
+                        "Order " + i + " left the warehouse on day " + turn + " and arrives soon."));
+            }
+        }
+        long fillMillis = (System.nanoTime() - start) / 1_000_000;
+        long gcMillis = gcMillis() - gcBefore;
+        System.gc();
+        long retained = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        Random random = new Random(42);
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            checksum += GSON.toJson(reader.history("conversation-" + random.nextInt(sessions))).length();
+        }
+        long lookupNanos = (System.nanoTime() - start) / LOOKUPS;
+
+        System.out.printf("%s: filled %d sessions in %d ms (%d ms GC), %d MiB heap retained, "
+                + "%d ns/history serialized (checksum %d)%n", name, sessions, fillMillis, gcMillis,
+                retained >> 20, lookupNanos, checksum);
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
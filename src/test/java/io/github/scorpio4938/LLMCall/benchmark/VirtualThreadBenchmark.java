@@ -0,0 +1,110 @@
+package io.github.scorpio4938.LLMCall.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.concurrent.FanOut;
+import io.github.scorpio4938.LLMCall.service.concurrent.VirtualThreads;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares throughput and memory of {@code asyncCallLLM} on the default
+ * client against blocking {@code directCallLLM} calls fanned out on a
+ * virtual-thread client, against a local stub with fixed latency.
+ * <p>
+ * Run with the packaged (multi-release) JAR on Java 21 to measure virtual
+ * threads; on Java 17 the virtual-thread client falls back to platform
+ * threads. Arguments: {@code [calls] [latencyMillis]}.
+ */
+public class VirtualThreadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int latencyMillis = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 4096);
+        server.setExecutor(Executors.newCachedThreadPool());
+        byte[] response = "{\"choices\": [{\"message\": {\"content\": \"ok\"}}]}".getBytes();
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        Provider provider = new Provider("stub", "http://localhost:" + server.getAddress().getPort() + "/", "key",
+                List.of("stub-model"));
+        Map<String, String> data = Map.of("role", "user", "content", "Hi");
+
+        boolean debug = Debugger.getEnable();
+        Debugger.setEnable(false); // Silence debug logging
+        try {
+            System.out.printf("calls=%d latency=%dms virtualThreads=%s%n", calls, latencyMillis,
+                    VirtualThreads.isSupported());
+
+            LLMApiClient asyncClient = new LLMApiClient(provider);
+            System.out.println(measure("asyncCallLLM (common pool)", () -> {
+                List<CompletableFuture<String>> futures = new ArrayList<>(calls);
+                for (int i = 0; i < calls; i++) {
+                    futures.add(asyncClient.asyncCallLLM("stub-model", data));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.MINUTES);
+            }, calls));
+
+            LLMApiClient virtualClient = LLMApiClient.withVirtualThreads(provider);
+            System.out.println(measure("directCallLLM (thread per call)", () -> {
+                try (FanOut<String> scope = new FanOut<>()) {
+                    for (int i = 0; i < calls; i++) {
+                        scope.fork(() -> virtualClient.directCallLLM("stub-model", data));
+                    }
+                    scope.join();
+                }
+            }, calls));
+        } finally {
+            Debugger.setEnable(debug);
+            server.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private static String measure(String name, Run run, int calls) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        return String.format("%-34s %8.0f calls/s  %6d ms  peak platform threads %5d  heap delta %6d KB",
+                name, calls / (elapsed / 1e9), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                threads.getPeakThreadCount(), (heapAfter - heapBefore) / 1024);
+    }
+}
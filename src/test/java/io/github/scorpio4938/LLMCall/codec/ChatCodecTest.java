@@ -0,0 +1,292 @@
+package io.github.scorpio4938.LLMCall.codec;
+
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponse;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the direct codec produces the same bytes and decodes the same
+ * values as the Gson codec, over randomly generated messages.
+ */
+class ChatCodecTest {
+    private static final String SPECIAL = "\"\\/<>&='\u0000\u0001\u001f\u007f\b\f\n\r\t\u2028\u2029\u00e9\u4e2d";
+
+    private final ChatCodec gson = ChatCodec.gson();
+    private final ChatCodec direct = ChatCodec.direct();
+
+    @Test
+    void testRequestBytesMatchGson() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            LLMRequest request = randomRequest(random);
+            byte[] expected = gson.encodeRequest(request);
+            byte[] actual = direct.encodeRequest(request);
+            assertTrue(Arrays.equals(expected, actual), () -> "Bodies differ:\n"
+                    + new String(expected, StandardCharsets.UTF_8) + "\n" + new String(actual, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testUnsupportedParameterValuesDelegateToGson() {
+        LLMRequest request = new LLMRequest("m", List.of(LLMRequest.createMessage("user", "hi")));
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("big", new BigDecimal("1.50"));
+        params.put("array", new int[] { 1, 2 });
+        params.put("float", 0.1f);
+        request.addParameters(params);
+        assertArrayEquals(gson.encodeRequest(request), direct.encodeRequest(request));
+
+        request.addParameters(Map.of("nan", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> gson.encodeRequest(request));
+        assertThrows(IllegalArgumentException.class, () -> direct.encodeRequest(request));
+    }
+
+    @Test
+    void testResponsesDecodeLikeGson() {
+        List<String> bodies = new ArrayList<>(List.of(
+                "{\"id\":\"r1\",\"model\":\"m\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\","
+                        + "\"content\":\"a\\\"b\\\\c\\n\\u00e9\\ud83d\\ude00\\/\"},\"finish_reason\":\"stop\","
+                        + "\"logprobs\":null}],\"usage\":{\"prompt_tokens\":10,\"completion_tokens\":\"5\","
+                        + "\"total_tokens\":15.0,\"prompt_tokens_details\":{\"cached_tokens\":4,\"audio\":0}}}",
+                " {\"choices\":[{\"message\":{\"content\":42,\"tool_calls\":[{\"id\":\"c1\",\"type\":\"function\","
+                        + "\"function\":{\"name\":\"f\",\"arguments\":\"{\\\"x\\\":1}\"}},{\"id\":\"c2\"}]}},null],"
+                        + "\"usage\":{\"prompt_tokens\":7,\"prompt_cache_hit_tokens\":3}} ",
+                "{\"extra\":{\"nested\":[1,[2,{\"a\":\"}\"}],true,null,-1.5e3]},\"choices\":[],"
+                        + "\"usage\":{\"prompt_tokens_details\":null,\"prompt_cache_hit_tokens\":null}}",
+                "{\"choices\":null,\"usage\":null,\"model\":true}",
+                "{\"choices\" : [ { \"message\" : { \"content\" : \"\" } } ] , \"id\" : \"x\" }",
+                "{}"));
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            bodies.add(new String(gson.encodeRequest(randomRequest(random)), StandardCharsets.UTF_8)
+                    .replace("\"messages\":[", "\"choices\":[{\"message\":{\"content\":\"x\"}},")
+                    .replace("\"parameters\":", "\"usage\":{\"total_tokens\":" + i + "},\"other\":"));
+            String content = randomString(random);
+            bodies.add("{\"id\":" + quote(content) + ",\"choices\":[{\"message\":{\"content\":" + quote(content)
+                    + "}}]}");
+        }
+        for (String body : bodies) {
+            assertEquals(describe(gson.decodeResponse(body)), describe(direct.decodeResponse(body)), body);
+        }
+        assertNull(direct.decodeResponse(""));
+        assertNull(direct.decodeResponse(" null "));
+        assertThrows(JsonSyntaxException.class, () -> direct.decodeResponse("{\"choices\":[{]}"));
+        assertThrows(JsonSyntaxException.class, () -> direct.decodeResponse("{\"id\":\"open"));
+        assertThrows(JsonSyntaxException.class, () -> direct.decodeResponse("{\"id\":{}}"));
+    }
+
+    @Test
+    void testDeltasDecodeLikeGson() {
+        List<String> payloads = List.of(
+                "{\"id\":\"1\",\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"He\\u006c\"}}]}",
+                "{\"choices\":[{\"delta\":{}},{\"delta\":{\"content\":\"second\"}}]}",
+                "{\"choices\":[{\"delta\":null,\"finish_reason\":\"stop\"}]}",
+                "{\"choices\":[],\"usage\":{\"total_tokens\":3}}",
+                "{\"choices\":null}",
+                "{\"choices\":[{\"delta\":{\"content\":\"\\n\\t\"}}],\"choices\":[{\"delta\":{\"content\":\"b\"}}]}");
+        for (String payload : payloads) {
+            assertEquals(gson.decodeDeltaContent(payload), direct.decodeDeltaContent(payload), payload);
+        }
+    }
+
+    @Test
+    void testClientUsesSelectedCodec() throws Exception {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            bodies.add(body);
+            boolean stream = body.contains("\"stream\":true");
+            byte[] bytes = (stream
+                    ? "data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n"
+                            + "data: {\"choices\":[{\"delta\":{\"content\":\"lo\"}}]}\n\ndata: [DONE]\n\n"
+                    : "{\"choices\":[{\"message\":{\"content\":\"Hello\"}}],\"usage\":{\"total_tokens\":3}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", stream ? "text/event-stream" : "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            LLMApiClient client = new LLMApiClient(new Provider("test-provider",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "test-key", List.of("test-model")));
+            assertSame(ChatCodec.gson(), client.getCodec());
+            Map<String, String> data = Map.of("user", "Say <hello> \u2028");
+            Map<String, Object> params = Map.of("max_tokens", 5);
+            assertEquals("Hello", client.directCallLLM("test-model", data, params));
+            assertEquals("Hello", client.streamCallLLM("test-model", data, params, delta -> {
+            }));
+
+            client.setCodec(ChatCodec.direct());
+            assertEquals("Hello", client.directCallLLM("test-model", data, params));
+            StringBuilder deltas = new StringBuilder();
+            assertEquals("Hello", client.streamCallLLM("test-model", data, params, deltas::append));
+            assertEquals("Hello", deltas.toString());
+
+            assertEquals(bodies.get(0), bodies.get(2));
+            assertEquals(bodies.get(1), bodies.get(3));
+            assertThrows(NullPointerException.class, () -> client.setCodec(null));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static LLMRequest randomRequest(Random random) {
+        List<LLMRequest.Message> messages = new ArrayList<>();
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    messages.add(LLMRequest.createToolCallMessage(random.nextBoolean() ? null : randomString(random),
+                            List.of(new ToolCall(randomString(random), randomString(random), randomString(random)),
+                                    new ToolCall(null, "function", (ToolCall.Function) null))));
+                    break;
+                case 1:
+                    messages.add(LLMRequest.createToolResultMessage(randomString(random), randomString(random)));
+                    break;
+                case 2:
+                    messages.add(new LLMRequest.Message(null, null));
+                    break;
+                default:
+                    messages.add(LLMRequest.createMessage(randomString(random), randomString(random)));
+            }
+        }
+        LLMRequest request = new LLMRequest(random.nextInt(10) == 0 ? null : randomString(random), messages,
+                random.nextBoolean());
+        request.addParameters(randomMap(random, 0));
+        if (random.nextInt(3) == 0) {
+            request.setTools(List.of(new LLMRequest.Tool(randomString(random), randomString(random),
+                    randomMap(random, 1)), new LLMRequest.Tool("empty", null, null)));
+        }
+        request.setStream(random.nextBoolean());
+        if (random.nextInt(3) == 0) {
+            request.setResponseFormat(randomMap(random, 1));
+        }
+        return request;
+    }
+
+    private static Map<String, Object> randomMap(Random random, int depth) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = random.nextInt(5); i > 0; i--) {
+            map.put(randomString(random), randomValue(random, depth));
+        }
+        return map;
+    }
+
+    private static Object randomValue(Random random, int depth) {
+        switch (random.nextInt(depth < 3 ? 10 : 8)) {
+            case 0:
+                return random.nextInt();
+            case 1:
+                return random.nextLong();
+            case 2:
+                return random.nextBoolean() ? random.nextDouble() : (random.nextDouble() - 0.5) * Math.pow(10,
+                        random.nextInt(40) - 20);
+            case 3:
+                return random.nextBoolean();
+            case 4:
+                return null;
+            case 5:
+                return (double) random.nextInt(100);
+            case 6:
+            case 7:
+                return randomString(random);
+            case 8:
+                return randomMap(random, depth + 1);
+            default:
+                List<Object> list = new ArrayList<>();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    list.add(randomValue(random, depth + 1));
+                }
+                return list;
+        }
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder value = new StringBuilder();
+        for (int i = random.nextInt(12); i > 0; i--) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    value.append(SPECIAL.charAt(random.nextInt(SPECIAL.length())));
+                    break;
+                case 1:
+                    value.appendCodePoint(0x1f600 + random.nextInt(80)); // Emoji, a surrogate pair
+                    break;
+                case 2:
+                    value.append((char) (0xd800 + random.nextInt(0x800))); // Likely unpaired surrogate
+                    break;
+                case 3:
+                    value.append((char) random.nextInt(0x10000));
+                    break;
+                default:
+                    value.append((char) (0x20 + random.nextInt(0x5f)));
+            }
+        }
+        return value.toString();
+    }
+
+    private static String quote(String value) {
+        return new String(ChatCodec.gson().encodeRequest(new LLMRequest(value, null)), StandardCharsets.UTF_8)
+                .replaceFirst("^\\{\"model\":", "").replaceFirst(",\"parameters\":\\{}}$", "");
+    }
+
+    private static String describe(LLMResponse response) {
+        if (response == null) {
+            return "null";
+        }
+        StringBuilder description = new StringBuilder(response.getId() + "|" + response.getModel());
+        LLMResponse.Usage usage = response.getUsage();
+        if (usage != null) {
+            description.append("|usage ").append(usage.getPromptTokens()).append(',')
+                    .append(usage.getCompletionTokens()).append(',').append(usage.getTotalTokens()).append(',')
+                    .append(usage.getCachedTokens());
+        }
+        LLMResponse.Choice[] choices = response.getChoices();
+        description.append("|choices ").append(choices == null ? "null" : String.valueOf(choices.length));
+        for (LLMResponse.Choice choice : choices == null ? new LLMResponse.Choice[0] : choices) {
+            if (choice == null) {
+                description.append("|null choice");
+                continue;
+            }
+            description.append('|').append(choice.getFinishReason());
+            LLMResponse.Choice.Message message = choice.getMessage();
+            if (message != null) {
+                description.append('|').append(message.getRole()).append('|').append(message.getContent());
+                if (message.getToolCalls() != null) {
+                    for (ToolCall call : message.getToolCalls()) {
+                        description.append("|call ").append(call.getId()).append(',').append(call.getType());
+                        if (call.getFunction() != null) {
+                            description.append(',').append(call.getFunction().getName()).append(',')
+                                    .append(call.getFunction().getArguments());
+                        }
+                    }
+                }
+            }
+        }
+        return description.toString();
+    }
+}
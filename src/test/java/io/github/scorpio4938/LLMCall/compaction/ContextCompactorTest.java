@@ -0,0 +1,223 @@
+package io.github.scorpio4938.LLMCall.compaction;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.providers.Providers;
+import io.github.scorpio4938.LLMCall.session.SessionStore;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextCompactorTest {
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static List<LLMRequest.Message> conversation(int turns) {
+        List<LLMRequest.Message> messages = new ArrayList<>();
+        messages.add(LLMRequest.createMessage("system", "You are a support assistant."));
+        for (int i = 0; i < turns; i++) {
+            messages.add(LLMRequest.createMessage("user", "Question " + i + ": " + "x".repeat(60)));
+            messages.add(LLMRequest.createMessage("assistant", "Answer " + i + ": " + "y".repeat(60)));
+        }
+        messages.add(LLMRequest.createMessage("user", "Latest question"));
+        return messages;
+    }
+
+    @Test
+    void testDropOldestAndHeadAndTail() {
+        ContextCompactor compactor = new ContextCompactor(CompactionStrategy.dropOldest());
+        List<LLMRequest.Message> messages = conversation(10);
+        Map<String, Object> params = Map.of("max_tokens", 100);
+
+        assertSame(messages, compactor.compact(0, messages, params)); // Unknown limit
+        assertSame(messages, compactor.compact(10_000, messages, params));
+
+        List<LLMRequest.Message> dropped = compactor.compact(200, messages, params);
+        assertTrue(compactor.estimateTokens(dropped) <= 100);
+        assertEquals("system", dropped.get(0).getRole());
+        assertEquals("Latest question", dropped.get(dropped.size() - 1).getContent());
+        assertEquals(messages.subList(messages.size() - dropped.size() + 1, messages.size()),
+                dropped.subList(1, dropped.size()));
+
+        List<LLMRequest.Message> kept = new ContextCompactor(CompactionStrategy.headAndTail(1))
+                .compact(200, messages, params);
+        assertSame(messages.get(1), kept.get(1)); // The first question states the task
+        assertEquals("Latest question", kept.get(kept.size() - 1).getContent());
+        assertTrue(kept.size() < dropped.size() + 1);
+
+        assertThrows(ContextLimitExceededException.class, () -> compactor.compact(110, messages, params));
+    }
+
+    @Test
+    void testToolResultsAreNotOrphaned() {
+        List<LLMRequest.Message> messages = new ArrayList<>(conversation(3));
+        messages.add(LLMRequest.createToolCallMessage(null, List.of(new ToolCall("call_1", "lookup", "{}"))));
+        messages.add(LLMRequest.createToolResultMessage("call_1", "z".repeat(100)));
+        messages.add(LLMRequest.createMessage("user", "Thanks"));
+
+        List<LLMRequest.Message> compacted = new ContextCompactor(CompactionStrategy.dropOldest())
+                .compact(60, messages, Map.of("max_tokens", 10));
+        assertEquals(List.of("system", "user"), compacted.stream().map(LLMRequest.Message::getRole).toList());
+    }
+
+    @Test
+    void testSummariesAreCachedAndBuiltIncrementally() throws Exception {
+        List<String> transcripts = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            JsonObject request = GSON.fromJson(new String(exchange.getRequestBody().readAllBytes(),
+                    StandardCharsets.UTF_8), JsonObject.class);
+            transcripts.add(request.getAsJsonArray("messages").get(1).getAsJsonObject().get("content").getAsString());
+            byte[] bytes = ("{\"choices\": [{\"message\": {\"content\": \"Summary " + transcripts.size()
+                    + "\"}}]}").getBytes();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            LLMApiClient summarizer = new LLMApiClient(new Provider("cheap",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "key", List.of("small-model")));
+            ContextCompactor compactor = new ContextCompactor(CompactionStrategy.summarize(summarizer, "small-model"));
+            Map<String, Object> params = Map.of("max_tokens", 100);
+
+            List<LLMRequest.Message> messages = conversation(10);
+            List<LLMRequest.Message> first = compactor.compact(250, messages, params);
+            assertFalse(first.get(1).getContent().startsWith("Summary of the earlier conversation"));
+            awaitSummaries(transcripts, 1);
+            assertTrue(transcripts.get(0).contains("Question 0"));
+
+            List<LLMRequest.Message> second = compactor.compact(250, messages, params);
+            assertEquals("Summary of the earlier conversation: Summary 1", second.get(1).getContent());
+            assertEquals("system", second.get(0).getRole());
+            assertEquals(1, transcripts.size()); // Served from the cache
+
+            List<LLMRequest.Message> longer = conversation(14);
+            compactor.compact(250, longer, params);
+            awaitSummaries(transcripts, 2);
+            assertTrue(transcripts.get(1).startsWith("Summary so far: Summary 1"));
+            assertFalse(transcripts.get(1).contains("Question 0:"));
+            assertEquals("Summary of the earlier conversation: Summary 2",
+                    compactor.compact(250, longer, params).get(1).getContent());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testHistoriesLargerThanTheSummaryModelAreSummarizedInSteps() throws Exception {
+        List<String> transcripts = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            JsonObject request = GSON.fromJson(new String(exchange.getRequestBody().readAllBytes(),
+                    StandardCharsets.UTF_8), JsonObject.class);
+            transcripts.add(request.getAsJsonArray("messages").get(1).getAsJsonObject().get("content").getAsString());
+            byte[] bytes = ("{\"choices\": [{\"message\": {\"content\": \"Summary " + transcripts.size()
+                    + "\"}}]}").getBytes();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            LLMApiClient summarizer = new LLMApiClient(new Provider("cheap",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "key", List.of("small-model"))
+                    .withContextLimit("small-model", 400));
+            summarizer.setContextCompaction(new ContextCompactor(CompactionStrategy.dropOldest()));
+            ContextCompactor compactor = new ContextCompactor(CompactionStrategy.summarize(summarizer, "small-model")
+                    .withMaxSummaryTokens(100));
+            Map<String, Object> params = Map.of("max_tokens", 100);
+
+            List<LLMRequest.Message> messages = conversation(30);
+            assertTrue(compactor.estimateTokens(messages) > 400); // Larger than the summary model's window
+            compactor.compact(250, messages, params);
+            awaitQuiet(transcripts);
+
+            assertTrue(transcripts.size() > 1);
+            for (int i = 0; i < transcripts.size(); i++) {
+                assertTrue(compactor.estimateTokens(List.of(LLMRequest.createMessage("user", transcripts.get(i))))
+                        <= 300);
+                if (i > 0) {
+                    assertTrue(transcripts.get(i).startsWith("Summary so far: Summary " + i)); // Chained
+                }
+            }
+            List<LLMRequest.Message> compacted = compactor.compact(250, messages, params);
+            assertTrue(compacted.get(1).getContent().startsWith("Summary of the earlier conversation: Summary "));
+            assertFalse(compacted.get(1).getContent().endsWith("Summary 1"));
+            assertEquals("Latest question", compacted.get(compacted.size() - 1).getContent());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void awaitQuiet(List<String> transcripts) throws InterruptedException {
+        int seen = -1;
+        for (int i = 0; i < 100 && seen != transcripts.size(); i++) {
+            seen = transcripts.size();
+            Thread.sleep(200);
+        }
+    }
+
+    private static void awaitSummaries(List<String> transcripts, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && transcripts.size() < count; i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(50); // Let the summary future complete
+        assertEquals(count, transcripts.size());
+    }
+
+    @Test
+    void testClientCompactsBeforeSending() throws Exception {
+        assertEquals(65536, new Providers().getProvider("DEEPSEEK").getContextLimit("deepseek-chat"));
+
+        List<JsonObject> received = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            received.add(GSON.fromJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                    JsonObject.class));
+            byte[] bytes = "{\"choices\": [{\"message\": {\"content\": \"Sure\"}}]}".getBytes();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try (SessionStore sessions = SessionStore.builder().build()) {
+            Provider provider = new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                    "key", List.of("test-model")).withContextLimit("test-model", 300);
+            LLMApiClient client = new LLMApiClient(provider);
+            client.setContextCompaction(new ContextCompactor(CompactionStrategy.dropOldest()));
+            List<LLMRequest.Message> history = conversation(10);
+            sessions.append("chat", history.subList(0, history.size() - 1).toArray(new LLMRequest.Message[0]));
+
+            assertEquals("Sure", client.sessionCallLLM("test-model", sessions, "chat", "Latest question",
+                    Map.of("max_tokens", 100)));
+            int sent = received.get(0).getAsJsonArray("messages").size();
+            assertTrue(sent < history.size());
+            assertEquals(history.size() + 1, sessions.history("chat").size()); // The store keeps everything
+
+            assertThrows(ContextLimitExceededException.class, () -> client.sessionCallLLM("test-model", sessions,
+                    "chat", "z".repeat(2000), Map.of("max_tokens", 100)));
+            assertEquals(1, received.size()); // Rejected before sending
+        } finally {
+            server.stop(0);
+        }
+    }
+}
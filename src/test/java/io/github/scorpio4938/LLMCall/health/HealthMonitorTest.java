@@ -0,0 +1,143 @@
+package io.github.scorpio4938.LLMCall.health;
+
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Probes a local stub that lists two of its three models and fails the first
+ * completion of the cold model, as if it were still loading.
+ */
+class HealthMonitorTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final List<String> completions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger coldCompletions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            int status = 200;
+            String body;
+            if (exchange.getRequestMethod().equals("GET")) {
+                body = "{\"object\":\"list\",\"data\":[{\"id\":\"good-model\"},{\"id\":\"cold-model\"}]}";
+            } else {
+                String model = JsonParser.parseString(new String(exchange.getRequestBody().readAllBytes(),
+                        StandardCharsets.UTF_8)).getAsJsonObject().get("model").getAsString();
+                completions.add(model);
+                if (model.equals("bad-model")) {
+                    status = 404;
+                } else if (model.equals("cold-model") && coldCompletions.incrementAndGet() == 1) {
+                    status = 503;
+                }
+                body = "{\"choices\":[{\"message\":{\"content\":\"ok from " + model + "\"}}]}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort()
+                + "/", "test-key", List.of("good-model", "bad-model", "cold-model")));
+        client.setMaxRetries(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testProbesAndReadiness() throws Exception {
+        HealthMonitor health = new HealthMonitor(List.of(client)).withRequiredModels("test-provider", "cold-model");
+        assertSame(health, client.getHealthMonitor());
+        assertEquals(HealthStatus.UNKNOWN, health.getHealth("test-provider", "good-model").getStatus());
+        assertTrue(health.isHealthy("test-provider", "bad-model"));
+        assertFalse(health.isReady());
+
+        health.probeAll();
+        assertEquals(List.of("cold-model"), completions); // Only required models cost a completion
+        assertEquals(HealthStatus.HEALTHY, health.getHealth("test-provider", "good-model").getStatus());
+        assertFalse(health.getHealth("test-provider", "good-model").isWarm());
+        ModelHealth bad = health.getHealth("test-provider", "bad-model");
+        assertEquals(HealthStatus.UNHEALTHY, bad.getStatus());
+        assertEquals("Not listed by the provider", bad.getLastError());
+        ModelHealth cold = health.getHealth("test-provider", "cold-model");
+        assertEquals(HealthStatus.UNHEALTHY, cold.getStatus());
+        assertEquals(1, cold.getConsecutiveFailures());
+        assertFalse(health.isReady());
+        assertFalse(health.awaitReady(Duration.ofMillis(10)));
+
+        health.probeAll();
+        cold = health.getHealth("test-provider", "cold-model");
+        assertEquals(HealthStatus.HEALTHY, cold.getStatus());
+        assertTrue(cold.isWarm());
+        assertNotNull(cold.getLatency());
+        assertTrue(health.isReady());
+        assertEquals(3, health.getHealth().size());
+        assertThrows(RuntimeException.class, () -> health.withRequiredModels("other-provider", "good-model"));
+        assertThrows(RuntimeException.class, () -> health.withRequiredModels("test-provider", "missing-model"));
+    }
+
+    @Test
+    void testPeriodicProbesWarmUp() throws Exception {
+        try (HealthMonitor health = new HealthMonitor(List.of(client))
+                .withRequiredModels("test-provider", "cold-model")
+                .withInterval(Duration.ofMillis(20))
+                .start()) {
+            assertTrue(health.awaitReady(Duration.ofSeconds(10)));
+            assertTrue(health.getHealth("test-provider", "cold-model").isWarm());
+            assertThrows(IllegalStateException.class, health::start);
+        }
+    }
+
+    @Test
+    void testRoutingAvoidsUnhealthyModels() throws Exception {
+        Map<String, String> data = Map.of("user", "hi");
+        assertThrows(Exception.class, () -> client.callLLM("bad-model", data).execute());
+        assertEquals(List.of("bad-model"), completions);
+
+        HealthMonitor health = new HealthMonitor(List.of(client));
+        health.probeAll();
+        completions.clear();
+        assertEquals("ok from good-model", client.callLLM("bad-model", data).withFallback("good-model").execute());
+        assertEquals(List.of("good-model"), completions); // The unhealthy primary is tried last
+
+        completions.clear();
+        assertEquals("ok from good-model", client.raceLLM(data, "bad-model", "good-model").execute());
+        assertEquals(List.of("good-model"), completions);
+
+        completions.clear();
+        assertThrows(Exception.class, () -> client.raceLLM(data, "bad-model").execute());
+        assertEquals(List.of("bad-model"), completions); // No healthy entrant: all race
+
+        client.setHealthMonitor(null);
+        completions.clear();
+        client.callLLM("bad-model", data).withFallback("good-model").execute();
+        assertEquals(List.of("bad-model", "good-model"), completions);
+    }
+}
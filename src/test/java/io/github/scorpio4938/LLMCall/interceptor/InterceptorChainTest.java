@@ -0,0 +1,153 @@
+package io.github.scorpio4938.LLMCall.interceptor;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs interceptor chains against a local stub echoing the user message.
+ */
+class InterceptorChainTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            JsonObject request = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+            String user = request.getAsJsonArray("messages").get(0).getAsJsonObject().get("content").getAsString();
+            JsonObject message = new JsonObject();
+            message.addProperty("content", "echo: " + user);
+            byte[] bytes = ("{\"choices\": [{\"message\": " + message + "}]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(user.contains("fail") ? 400 : 200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("test-model")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testEmptyChain() throws Exception {
+        assertSame(InterceptorChain.empty(), InterceptorChain.builder().build());
+        assertSame(InterceptorChain.empty(), client.getInterceptors());
+        assertEquals("echo: hi", client.directCallLLM("test-model", Map.of("user", "hi")));
+    }
+
+    @Test
+    void testOrderRewriteAndShortCircuit() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        client.setInterceptors(InterceptorChain.builder()
+                .add((request, chain) -> {
+                    events.add("outer request");
+                    String body = chain.proceed(request);
+                    events.add("outer response");
+                    return body;
+                })
+                .add((request, chain) -> { // Cache keyed by the last message
+                    String key = request.getMessages().get(request.getMessages().size() - 1).getContent();
+                    String cached = cache.get(key);
+                    if (cached != null) {
+                        events.add("cache hit");
+                        return cached;
+                    }
+                    String body = chain.proceed(request);
+                    cache.put(key, body);
+                    return body;
+                })
+                .add((request, chain) -> { // Redaction
+                    events.add("redact");
+                    List<LLMRequest.Message> redacted = new ArrayList<>();
+                    for (LLMRequest.Message message : request.getMessages()) {
+                        redacted.add(LLMRequest.createMessage(message.getRole(),
+                                message.getContent().replaceAll("\\d{4}-\\d{4}", "****")));
+                    }
+                    LLMRequest next = new LLMRequest(request.getModel(), redacted);
+                    next.addParameters(request.getParameters());
+                    return chain.proceed(next);
+                })
+                .build());
+
+        assertEquals("echo: card ****", client.directCallLLM("test-model", Map.of("user", "card 1234-5678")));
+        assertEquals(List.of("outer request", "redact", "outer response"), events);
+
+        events.clear();
+        assertEquals("echo: card ****", client.directCallLLM("test-model", Map.of("user", "card 1234-5678")));
+        assertEquals(List.of("outer request", "cache hit", "outer response"), events);
+        assertEquals(1, requests.get());
+
+        LLMResponseException error = assertThrows(LLMResponseException.class,
+                () -> client.directCallLLM("test-model", Map.of("user", "fail")));
+        assertEquals(400, error.getStatusCode());
+    }
+
+    @Test
+    void testAsyncStagesInBothCallStyles() throws Exception {
+        AtomicInteger asyncCalls = new AtomicInteger();
+        client.setInterceptors(InterceptorChain.builder()
+                .addAsync((request, chain) -> {
+                    asyncCalls.incrementAndGet();
+                    if (request.getMessages().get(0).getContent().equals("blocked")) {
+                        return CompletableFuture.completedFuture("{\"choices\": [{\"message\": "
+                                + "{\"content\": \"refused\"}}]}");
+                    }
+                    return chain.proceed(request).thenApply(body -> body.replace("echo", "ECHO"));
+                })
+                .add((request, chain) -> chain.proceed(request).replace("ECHO", "wrong")) // Runs inside
+                .build());
+
+        assertEquals("ECHO: a", client.directCallLLM("test-model", Map.of("user", "a")));
+        assertEquals("ECHO: b", client.asyncCallLLM("test-model", Map.of("user", "b")).get());
+        assertEquals("ECHO: c", client.asyncCallLLM("test-model", Map.of("user", "c"), Map.of(),
+                CallOptions.defaults()).get());
+        assertEquals("refused", client.directCallLLM("test-model", Map.of("user", "blocked")));
+        assertEquals(4, asyncCalls.get());
+        assertEquals(3, requests.get());
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> client
+                .asyncCallLLM("test-model", Map.of("user", "fail"), Map.of(),
+                        CallOptions.defaults())
+                .get());
+        assertInstanceOf(LLMResponseException.class, error.getCause());
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, log-linear histogram of latencies with a relative error below
+ * 1%, in the spirit of HdrHistogram.
+ * <p>
+ * Values below 128 ns get a bucket each; above that every power of two is
+ * split into 64 buckets. Unlike
+ * {@link io.github.scorpio4938.LLMCall.service.metrics.LatencyTracker}, which
+ * keeps a window of recent samples, the histogram keeps every recorded value,
+ * so it is suited for load test reports.
+ * 
+ * @since 1.1.0
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param latency The observed latency
+     * 
+     * @since 1.1.0
+     */
+    public void record(Duration latency) {
+        recordNanos(latency.toNanos());
+    }
+
+    /**
+     * Records a latency, correcting for coordinated omission: when the value
+     * exceeds the expected interval between requests, the requests that a
+     * stalled load generator failed to send are recorded too, with linearly
+     * decreasing latencies.
+     *
+     * @param latency          The observed latency
+     * @param expectedInterval The expected interval between requests, or zero
+     *                         to record the value only
+     * 
+     * @since 1.1.0
+     */
+    public void record(Duration latency, Duration expectedInterval) {
+        long nanos = latency.toNanos();
+        long interval = expectedInterval.toNanos();
+        recordNanos(nanos);
+        if (interval <= 0) {
+            return;
+        }
+        for (long missing = nanos - interval; missing >= interval; missing -= interval) {
+            recordNanos(missing);
+        }
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency at that percentile, or zero if nothing was recorded
+     * 
+     * @since 1.1.0
+     */
+    public Duration percentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(highestValue(index), getMax().toNanos()));
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the recorded values grouped into buckets, skipping empty ones.
+     *
+     * @return Pairs of the bucket's highest value in nanoseconds and its count
+     * 
+     * @since 1.1.0
+     */
+    public long[][] buckets() {
+        int nonEmpty = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            snapshot[index] = counts.get(index);
+            if (snapshot[index] > 0) {
+                nonEmpty++;
+            }
+        }
+        long[][] buckets = new long[nonEmpty][];
+        int next = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            if (snapshot[index] > 0) {
+                buckets[next++] = new long[] { highestValue(index), snapshot[index] };
+            }
+        }
+        return buckets;
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(max.get());
+    }
+
+    public Duration getMean() {
+        long count = getCount();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(sum.sum() / count);
+    }
+
+    private void recordNanos(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(nanos));
+        total.increment();
+        sum.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long top = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,328 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.providers.Providers;
+import io.github.scorpio4938.LLMCall.service.concurrent.VirtualThreads;
+import io.github.scorpio4938.LLMCall.service.debug.Debugger;
+import io.github.scorpio4938.LLMCall.service.utils.TokenEstimator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives an {@link LLMApiClient} with an open- or closed-loop workload and
+ * reports latency, time to first token, token throughput and errors.
+ *
+ * <pre>
+ * LoadReport report = new LoadGenerator(client, "deepseek-chat")
+ *         .withPrompt("Summarize the plot of Hamlet.")
+ *         .run(LoadProfile.openLoop(5).withDuration(Duration.ofMinutes(1)));
+ * report.write(Path.of("reports/deepseek"));
+ * </pre>
+ *
+ * Lives in the test sources with the benchmarks, so it does not ship in the
+ * library; run it from the command line, see {@link #main(String[])}.
+ * 
+ * @since 1.1.0
+ */
+public class LoadGenerator {
+    private final LLMApiClient client;
+    private final String model;
+    private String prompt = "Write a short poem about the sea.";
+    private Map<String, Object> params = Map.of("max_tokens", 100);
+    private boolean streaming = true;
+
+    public LoadGenerator(LLMApiClient client, String model) {
+        this.client = Objects.requireNonNull(client, "Client must not be null");
+        this.model = Objects.requireNonNull(model, "Model must not be null");
+    }
+
+    public LoadGenerator withPrompt(String prompt) {
+        this.prompt = Objects.requireNonNull(prompt, "Prompt must not be null");
+        return this;
+    }
+
+    public LoadGenerator withParameters(Map<String, Object> params) {
+        this.params = Objects.requireNonNull(params, "Params must not be null");
+        return this;
+    }
+
+    /**
+     * Sets whether requests are streamed, which is needed to measure the time
+     * to first token. Defaults to true.
+     *
+     * @param streaming Whether to stream
+     * @return This generator
+     * 
+     * @since 1.1.0
+     */
+    public LoadGenerator withStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * Runs a workload and waits for all its requests to finish.
+     *
+     * @param profile The workload
+     * @return The report
+     * @throws InterruptedException if interrupted while running
+     * 
+     * @since 1.1.0
+     */
+    public LoadReport run(LoadProfile profile) throws InterruptedException {
+        Run run = new Run(profile);
+        if (profile.getMode() == LoadProfile.Mode.OPEN) {
+            run.openLoop();
+        } else {
+            run.closedLoop();
+        }
+        Duration elapsed = Duration.ofNanos(Math.max(0, run.lastCompletion.get() - run.measureFrom));
+        Map<String, Long> errors = new HashMap<>();
+        run.errors.forEach((key, count) -> errors.put(key, count.sum()));
+        return new LoadReport(client.getProvider().getProvider(), model, profile, streaming, elapsed, errors,
+                run.successes.sum(), run.outputTokens.sum(), Duration.ofNanos(run.decodeNanos.sum()), run.latency,
+                run.timeToFirstToken, run.serviceTime);
+    }
+
+    /**
+     * The state of one run.
+     * 
+     * @since 1.1.0
+     */
+    private final class Run {
+        private final LoadProfile profile;
+        private final long start = System.nanoTime();
+        private final long measureFrom;
+        private final long end;
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong lastCompletion = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstToken = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder outputTokens = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private Run(LoadProfile profile) {
+            this.profile = profile;
+            this.measureFrom = start + profile.getWarmup().toNanos();
+            this.end = measureFrom + profile.getDuration().toNanos();
+            this.lastCompletion.set(measureFrom);
+        }
+
+        /**
+         * Claims the next request, unless the run is over.
+         */
+        private boolean claim(long scheduled) {
+            long limit = profile.getMaxRequests() == 0 ? Long.MAX_VALUE : profile.getMaxRequests();
+            return scheduled < end && issued.incrementAndGet() <= limit;
+        }
+
+        /**
+         * Sends requests on a fixed schedule, whatever the response times, with
+         * a cap on requests in flight.
+         */
+        private void openLoop() throws InterruptedException {
+            double interval = 1e9 / profile.getRate();
+            Semaphore slots = new Semaphore(profile.getConcurrency());
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+            try {
+                for (long i = 0;; i++) {
+                    long scheduled = start + (long) (i * interval);
+                    if (!claim(scheduled)) {
+                        break;
+                    }
+                    parkUntil(scheduled);
+                    slots.acquire(); // A late slot still counts from the scheduled time
+                    executor.execute(() -> {
+                        try {
+                            send(scheduled);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+                slots.acquire(profile.getConcurrency());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * Runs workers that each send their next request once the previous one
+         * has finished, paced when the profile has a rate.
+         */
+        private void closedLoop() throws InterruptedException {
+            int workers = profile.getConcurrency();
+            long pace = profile.getRate() > 0 ? (long) (1e9 * workers / profile.getRate()) : 0;
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+            try {
+                for (int worker = 0; worker < workers; worker++) {
+                    long offset = pace * worker / workers;
+                    executor.execute(() -> {
+                        long scheduled = start + offset;
+                        while (claim(pace > 0 ? scheduled : System.nanoTime())) {
+                            if (pace > 0) {
+                                parkUntil(scheduled);
+                            } else {
+                                scheduled = System.nanoTime();
+                            }
+                            send(scheduled);
+                            scheduled += pace;
+                        }
+                    });
+                }
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void send(long scheduled) {
+            long sent = System.nanoTime();
+            long[] firstToken = new long[1];
+            String key = null;
+            String content = null;
+            try {
+                Map<String, String> data = Map.of("user", prompt);
+                content = streaming
+                        ? client.streamCallLLM(model, data, params, delta -> {
+                            if (firstToken[0] == 0) {
+                                firstToken[0] = System.nanoTime();
+                            }
+                        })
+                        : client.directCallLLM(model, data, params);
+            } catch (LLMResponseException e) {
+                key = String.valueOf(e.getStatusCode());
+            } catch (Exception e) {
+                key = e.getClass().getSimpleName();
+            }
+            long done = System.nanoTime();
+            if (scheduled < measureFrom) {
+                return; // Warm-up
+            }
+            lastCompletion.accumulateAndGet(done, Math::max);
+            if (key != null) {
+                errors.computeIfAbsent(key, k -> new LongAdder()).increment();
+                return;
+            }
+            successes.increment();
+            latency.record(Duration.ofNanos(done - scheduled));
+            serviceTime.record(Duration.ofNanos(done - sent));
+            int tokens = TokenEstimator.estimate(content);
+            outputTokens.add(tokens);
+            if (firstToken[0] != 0) {
+                timeToFirstToken.record(Duration.ofNanos(firstToken[0] - scheduled));
+                decodeNanos.add(done - firstToken[0]);
+            } else {
+                decodeNanos.add(done - sent);
+            }
+        }
+    }
+
+    private static void parkUntil(long nanoTime) {
+        for (long wait; (wait = nanoTime - System.nanoTime()) > 0;) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Runs a load test from the command line and writes the report.
+     * <p>
+     * Options: {@code --stub} or {@code --provider NAME} (one of
+     * {@link Providers}), {@code --model}, {@code --mode open|closed},
+     * {@code --rate} (requests per second), {@code --concurrency},
+     * {@code --duration} and {@code --warmup} (seconds), {@code --requests},
+     * {@code --prompt}, {@code --max-tokens}, {@code --stream true|false},
+     * {@code --retries} (default 0), {@code --report} (base path, default
+     * {@code load-report}) and {@code --verbose} to keep the client's debug
+     * logs. The stub is tuned with {@code --stub-ttft} and
+     * {@code --stub-token-interval} (milliseconds), {@code --stub-tokens} and
+     * {@code --stub-error-every}.
+     *
+     * <pre>
+     * java -cp target/classes:target/test-classes:... io.github.scorpio4938.LLMCall.loadtest.LoadGenerator --stub
+     * </pre>
+     *
+     * @param args The options
+     * @throws Exception if the run fails
+     * 
+     * @since 1.1.0
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            boolean flag = i + 1 == args.length || args[i + 1].startsWith("--");
+            options.put(args[i].substring(2), flag ? "true" : args[++i]);
+        }
+
+        StubServer stub = null;
+        Provider provider;
+        if (Boolean.parseBoolean(options.getOrDefault("stub", "false"))) {
+            stub = new StubServer()
+                    .withTimeToFirstToken(Duration.ofMillis(Long.parseLong(options.getOrDefault("stub-ttft", "50"))))
+                    .withTokens(Integer.parseInt(options.getOrDefault("stub-tokens", "20")),
+                            Duration.ofMillis(Long.parseLong(options.getOrDefault("stub-token-interval", "5"))))
+                    .withErrors(Integer.parseInt(options.getOrDefault("stub-error-every", "0")), 429);
+            provider = stub.getProvider();
+            options.putIfAbsent("model", StubServer.MODEL);
+        } else {
+            provider = new Providers().getProvider(options.getOrDefault("provider", "OLLAMA"));
+        }
+        String model = options.getOrDefault("model", provider.getModels().get(0));
+
+        LoadProfile profile = "closed".equals(options.getOrDefault("mode", "open"))
+                ? LoadProfile.closedLoop(Integer.parseInt(options.getOrDefault("concurrency", "8")))
+                        .withRate(Double.parseDouble(options.getOrDefault("rate", "0")))
+                : LoadProfile.openLoop(Double.parseDouble(options.getOrDefault("rate", "10")))
+                        .withConcurrency(Integer.parseInt(options.getOrDefault("concurrency", "1024")));
+        profile = profile.withDuration(Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))))
+                .withWarmup(Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "0"))))
+                .withMaxRequests(Long.parseLong(options.getOrDefault("requests", "0")));
+
+        LLMApiClient client = new LLMApiClient(provider);
+        client.setMaxRetries(Integer.parseInt(options.getOrDefault("retries", "0")));
+        LoadGenerator generator = new LoadGenerator(client, model)
+                .withStreaming(Boolean.parseBoolean(options.getOrDefault("stream", "true")))
+                .withParameters(Map.of("max_tokens", Integer.parseInt(options.getOrDefault("max-tokens", "100"))));
+        if (options.containsKey("prompt")) {
+            generator.withPrompt(options.get("prompt"));
+        }
+
+        boolean debug = Debugger.getEnable();
+        Debugger.setEnable(Boolean.parseBoolean(options.getOrDefault("verbose", "false")));
+        LoadReport report;
+        try {
+            System.out.println("Running " + profile.getMode().name().toLowerCase() + "-loop load test against "
+                    + provider.getProvider() + "/" + model);
+            report = generator.run(profile);
+        } finally {
+            Debugger.setEnable(debug);
+            if (stub != null) {
+                stub.close();
+            }
+        }
+        Path base = Path.of(options.getOrDefault("report", "load-report"));
+        report.write(base);
+        System.out.println(report);
+        System.out.println("Report written to " + base + ".json and " + base + ".html");
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testHistogramCorrectsCoordinatedOmission() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(Duration.ofMillis(10), Duration.ofMillis(10));
+        }
+        histogram.record(Duration.ofSeconds(1), Duration.ofMillis(10)); // One stall hides 99 requests
+
+        assertEquals(199, histogram.getCount());
+        assertEquals(1000, histogram.getMax().toMillis());
+        assertTrue(histogram.percentile(75).toMillis() > 400); // Uncorrected, p99 would be 10 ms
+        assertEquals(10, histogram.percentile(50).toMillis(), 1);
+
+        LatencyHistogram exact = new LatencyHistogram();
+        for (long nanos = 1; nanos < 1_000_000_000L; nanos = nanos * 3 + 7) {
+            exact.record(Duration.ofNanos(nanos));
+            assertEquals(nanos, exact.getMax().toNanos());
+            long bucket = exact.percentile(100).toNanos();
+            assertTrue(bucket >= nanos && bucket <= nanos * 1.02 + 1);
+        }
+    }
+
+    @Test
+    void testOpenLoopAgainstStub() throws Exception {
+        try (StubServer stub = new StubServer().withTimeToFirstToken(Duration.ofMillis(20))
+                .withTokens(5, Duration.ofMillis(2)).withErrors(5, 429)) {
+            LLMApiClient client = new LLMApiClient(stub.getProvider());
+            client.setMaxRetries(0);
+
+            LoadReport report = new LoadGenerator(client, StubServer.MODEL)
+                    .run(LoadProfile.openLoop(50).withDuration(Duration.ofSeconds(1)).withMaxRequests(20));
+
+            assertEquals(20, report.getRequests());
+            assertEquals(20, stub.getRequestCount());
+            assertEquals(4L, report.getErrors().get("429"));
+            assertEquals(16, report.getSuccesses());
+            assertTrue(report.isCoordinatedOmissionCorrected());
+            assertTrue(report.getTimeToFirstTokenMillis("p50") >= 20);
+            assertTrue(report.getLatencyMillis("p50") >= report.getTimeToFirstTokenMillis("p50"));
+            assertTrue(report.getOutputTokensPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void testClosedLoopAndReport(@TempDir Path dir) throws Exception {
+        try (StubServer stub = new StubServer().withTimeToFirstToken(Duration.ofMillis(10))
+                .withTokens(3, Duration.ofMillis(1))) {
+            LLMApiClient client = new LLMApiClient(stub.getProvider());
+
+            LoadReport report = new LoadGenerator(client, StubServer.MODEL).withStreaming(false)
+                    .run(LoadProfile.closedLoop(4).withDuration(Duration.ofSeconds(10)).withMaxRequests(12));
+
+            assertEquals(12, report.getRequests());
+            assertTrue(report.getErrors().isEmpty());
+            assertFalse(report.isCoordinatedOmissionCorrected());
+            assertTrue(Double.isNaN(report.getTimeToFirstTokenMillis("p50")));
+            assertTrue(report.getLatencyMillis("p99") >= 10);
+
+            report.write(dir.resolve("reports/stub"));
+            JsonObject json = JsonParser.parseString(Files.readString(dir.resolve("reports/stub.json")))
+                    .getAsJsonObject();
+            assertEquals("closed", json.get("mode").getAsString());
+            assertEquals(12, json.get("successes").getAsLong());
+            assertTrue(json.getAsJsonObject("latencyMillis").has("p99.9"));
+            String html = Files.readString(dir.resolve("reports/stub.html"));
+            assertTrue(html.contains("<svg"));
+            assertTrue(html.contains("STUB / stub-model"));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Immutable description of a load test workload.
+ * <p>
+ * An open-loop workload sends requests at a fixed arrival rate whatever the
+ * response times, like independent users do; latencies are measured from
+ * each request's scheduled time, so a stalling server cannot hide its
+ * queueing delay (coordinated omission). A closed-loop workload runs a fixed
+ * number of workers that each wait for their answer before sending the next
+ * request, optionally paced at a target rate.
+ * 
+ * @since 1.1.0
+ */
+public final class LoadProfile {
+
+    /**
+     * How requests are issued.
+     * 
+     * @since 1.1.0
+     */
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    private final Mode mode;
+    private final double rate;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final long maxRequests;
+
+    private LoadProfile(Mode mode, double rate, int concurrency, Duration duration, Duration warmup,
+            long maxRequests) {
+        this.mode = mode;
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.maxRequests = maxRequests;
+    }
+
+    /**
+     * Creates an open-loop workload running for 30 seconds with at most 1024
+     * requests in flight.
+     *
+     * @param requestsPerSecond The arrival rate
+     * @return The profile
+     * 
+     * @since 1.1.0
+     */
+    public static LoadProfile openLoop(double requestsPerSecond) {
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        return new LoadProfile(Mode.OPEN, requestsPerSecond, 1024, Duration.ofSeconds(30), Duration.ZERO, 0);
+    }
+
+    /**
+     * Creates an unpaced closed-loop workload running for 30 seconds.
+     *
+     * @param concurrency The number of workers
+     * @return The profile
+     * 
+     * @since 1.1.0
+     */
+    public static LoadProfile closedLoop(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        return new LoadProfile(Mode.CLOSED, 0, concurrency, Duration.ofSeconds(30), Duration.ZERO, 0);
+    }
+
+    /**
+     * Returns a copy with the given rate: the arrival rate of an open-loop
+     * workload, or the total pace of the workers of a closed-loop one (0 for
+     * unpaced).
+     *
+     * @param requestsPerSecond The rate
+     * @return The updated profile
+     * 
+     * @since 1.1.0
+     */
+    public LoadProfile withRate(double requestsPerSecond) {
+        if (requestsPerSecond < 0 || (mode == Mode.OPEN && requestsPerSecond == 0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        return new LoadProfile(mode, requestsPerSecond, concurrency, duration, warmup, maxRequests);
+    }
+
+    /**
+     * Returns a copy with the given concurrency: the number of workers of a
+     * closed-loop workload, or the cap on requests in flight of an open-loop
+     * one.
+     *
+     * @param concurrency The concurrency
+     * @return The updated profile
+     * 
+     * @since 1.1.0
+     */
+    public LoadProfile withConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        return new LoadProfile(mode, rate, concurrency, duration, warmup, maxRequests);
+    }
+
+    public LoadProfile withDuration(Duration duration) {
+        return new LoadProfile(mode, rate, concurrency, Objects.requireNonNull(duration, "Duration must not be null"),
+                warmup, maxRequests);
+    }
+
+    /**
+     * Returns a copy with a warm-up phase whose requests are not recorded.
+     *
+     * @param warmup The warm-up time, before the measured duration
+     * @return The updated profile
+     * 
+     * @since 1.1.0
+     */
+    public LoadProfile withWarmup(Duration warmup) {
+        return new LoadProfile(mode, rate, concurrency, duration, Objects.requireNonNull(warmup,
+                "Warmup must not be null"), maxRequests);
+    }
+
+    /**
+     * Returns a copy that stops after a number of requests, even if time is
+     * left.
+     *
+     * @param maxRequests The maximum number of requests, or 0 for no limit
+     * @return The updated profile
+     * 
+     * @since 1.1.0
+     */
+    public LoadProfile withMaxRequests(long maxRequests) {
+        return new LoadProfile(mode, rate, concurrency, duration, warmup, Math.max(0, maxRequests));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public long getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * Tells whether latencies are measured from scheduled send times, which
+     * corrects them for coordinated omission.
+     *
+     * @return Whether the workload follows a schedule
+     * 
+     * @since 1.1.0
+     */
+    public boolean isScheduled() {
+        return mode == Mode.OPEN || rate > 0;
+    }
+}
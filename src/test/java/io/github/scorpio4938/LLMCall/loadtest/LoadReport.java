@@ -0,0 +1,286 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The results of a load test run, written as JSON and as a self-contained
+ * HTML page.
+ * <p>
+ * Latencies are in milliseconds. With a scheduled workload they run from
+ * each request's scheduled send time and are corrected for coordinated
+ * omission; the service time runs from the actual send. Output tokens are
+ * estimated from the answers' text.
+ * 
+ * @since 1.1.0
+ */
+public class LoadReport {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double[] PERCENTILES = { 50, 75, 90, 95, 99, 99.9, 100 };
+
+    private final String provider;
+    private final String model;
+    private final String mode;
+    private final double rate;
+    private final int concurrency;
+    private final boolean streaming;
+    private final boolean coordinatedOmissionCorrected;
+    private final double durationSeconds;
+    private final long requests;
+    private final long successes;
+    private final Map<String, Long> errors;
+    private final double requestsPerSecond;
+    private final double outputTokensPerSecond;
+    private final double decodeTokensPerSecond;
+    private final Map<String, Double> latencyMillis;
+    private final Map<String, Double> timeToFirstTokenMillis;
+    private final Map<String, Double> serviceTimeMillis;
+    private final List<double[]> latencyBuckets = new ArrayList<>();
+
+    LoadReport(String provider, String model, LoadProfile profile, boolean streaming, Duration elapsed,
+            Map<String, Long> errors, long successes, long outputTokens, Duration decodeTime,
+            LatencyHistogram latency, LatencyHistogram timeToFirstToken, LatencyHistogram serviceTime) {
+        this.provider = provider;
+        this.model = model;
+        this.mode = profile.getMode().name().toLowerCase(Locale.ROOT);
+        this.rate = profile.getRate();
+        this.concurrency = profile.getConcurrency();
+        this.streaming = streaming;
+        this.coordinatedOmissionCorrected = profile.isScheduled();
+        this.durationSeconds = elapsed.toNanos() / 1e9;
+        this.errors = new TreeMap<>(errors);
+        this.successes = successes;
+        this.requests = successes + this.errors.values().stream().mapToLong(Long::longValue).sum();
+        this.requestsPerSecond = durationSeconds > 0 ? successes / durationSeconds : 0;
+        this.outputTokensPerSecond = durationSeconds > 0 ? outputTokens / durationSeconds : 0;
+        this.decodeTokensPerSecond = decodeTime.isZero() ? 0 : outputTokens / (decodeTime.toNanos() / 1e9);
+        this.latencyMillis = summarize(latency);
+        this.timeToFirstTokenMillis = streaming ? summarize(timeToFirstToken) : null;
+        this.serviceTimeMillis = summarize(serviceTime);
+        for (long[] bucket : latency.buckets()) {
+            latencyBuckets.add(new double[] { bucket[0] / 1e6, bucket[1] });
+        }
+    }
+
+    private static Map<String, Double> summarize(LatencyHistogram histogram) {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            summary.put(label(percentile), histogram.percentile(percentile).toNanos() / 1e6);
+        }
+        summary.put("mean", histogram.getMean().toNanos() / 1e6);
+        return summary;
+    }
+
+    private static String label(double percentile) {
+        if (percentile == 100) {
+            return "max";
+        }
+        return percentile == Math.rint(percentile) ? "p" + (int) percentile : "p" + percentile;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public double getOutputTokensPerSecond() {
+        return outputTokensPerSecond;
+    }
+
+    public boolean isCoordinatedOmissionCorrected() {
+        return coordinatedOmissionCorrected;
+    }
+
+    /**
+     * Gets a latency statistic.
+     *
+     * @param statistic A percentile such as {@code p99}, {@code max} or
+     *                  {@code mean}
+     * @return The latency in milliseconds
+     * 
+     * @since 1.1.0
+     */
+    public double getLatencyMillis(String statistic) {
+        return latencyMillis.getOrDefault(statistic, Double.NaN);
+    }
+
+    /**
+     * Gets a time to first token statistic.
+     *
+     * @param statistic A percentile such as {@code p99}, {@code max} or
+     *                  {@code mean}
+     * @return The time in milliseconds, or NaN without streaming
+     * 
+     * @since 1.1.0
+     */
+    public double getTimeToFirstTokenMillis(String statistic) {
+        return timeToFirstTokenMillis == null ? Double.NaN
+                : timeToFirstTokenMillis.getOrDefault(statistic, Double.NaN);
+    }
+
+    /**
+     * Serializes the report, including the non-empty latency buckets.
+     *
+     * @return The report as pretty-printed JSON
+     * 
+     * @since 1.1.0
+     */
+    public String toJson() {
+        return GSON.toJson(this);
+    }
+
+    /**
+     * Renders the report as a self-contained HTML page with summary tables and
+     * a percentile chart.
+     *
+     * @return The HTML page
+     * 
+     * @since 1.1.0
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load test: ")
+                .append(escape(provider)).append(" / ").append(escape(model)).append("</title>\n<style>")
+                .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:1.5em}")
+                .append("td,th{border:1px solid #ccc;padding:4px 10px;text-align:right}th{background:#eee}")
+                .append("</style></head><body>\n<h1>Load test: ").append(escape(provider)).append(" / ")
+                .append(escape(model)).append("</h1>\n<table>\n");
+        row(html, "Mode", mode + (coordinatedOmissionCorrected ? " (coordinated omission corrected)" : ""));
+        row(html, "Rate", rate > 0 ? format(rate) + " req/s" : "unpaced");
+        row(html, "Concurrency", String.valueOf(concurrency));
+        row(html, "Duration", format(durationSeconds) + " s");
+        row(html, "Requests", requests + " (" + successes + " ok)");
+        row(html, "Throughput", format(requestsPerSecond) + " req/s");
+        row(html, "Output tokens", format(outputTokensPerSecond) + " tokens/s overall, "
+                + format(decodeTokensPerSecond) + " tokens/s per stream");
+        html.append("</table>\n<h2>Latency (ms)</h2>\n<table>\n<tr><th></th>");
+        for (String statistic : latencyMillis.keySet()) {
+            html.append("<th>").append(statistic).append("</th>");
+        }
+        html.append("</tr>\n");
+        statisticsRow(html, "Latency", latencyMillis);
+        if (timeToFirstTokenMillis != null) {
+            statisticsRow(html, "Time to first token", timeToFirstTokenMillis);
+        }
+        statisticsRow(html, "Service time", serviceTimeMillis);
+        html.append("</table>\n");
+        chart(html);
+        html.append("<h2>Errors</h2>\n<table>\n<tr><th>Status</th><th>Count</th></tr>\n");
+        if (errors.isEmpty()) {
+            html.append("<tr><td colspan=\"2\">none</td></tr>\n");
+        }
+        for (Map.Entry<String, Long> error : errors.entrySet()) {
+            html.append("<tr><td>").append(escape(error.getKey())).append("</td><td>").append(error.getValue())
+                    .append("</td></tr>\n");
+        }
+        return html.append("</table>\n</body></html>\n").toString();
+    }
+
+    /**
+     * Writes the report next to a base path, as {@code base.json} and
+     * {@code base.html}.
+     *
+     * @param base The path without extension
+     * @throws IOException if a file cannot be written
+     * 
+     * @since 1.1.0
+     */
+    public void write(Path base) throws IOException {
+        Path parent = base.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(base.resolveSibling(base.getFileName() + ".json"), toJson(), StandardCharsets.UTF_8);
+        Files.writeString(base.resolveSibling(base.getFileName() + ".html"), toHtml(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%d requests (%d ok, errors %s) in %.1f s: %.1f req/s, %.1f tokens/s, latency p50 %.1f ms, "
+                        + "p99 %.1f ms, max %.1f ms%s",
+                requests, successes, errors, durationSeconds, requestsPerSecond, outputTokensPerSecond,
+                getLatencyMillis("p50"), getLatencyMillis("p99"), getLatencyMillis("max"),
+                timeToFirstTokenMillis != null ? String.format(Locale.ROOT, ", TTFT p50 %.1f ms",
+                        getTimeToFirstTokenMillis("p50")) : "");
+    }
+
+    private void chart(StringBuilder html) {
+        int width = 640;
+        int height = 240;
+        int margin = 40;
+        double top = Math.max(1e-3, Math.max(latencyMillis.get("max"), serviceTimeMillis.get("max")));
+        List<String> labels = new ArrayList<>(latencyMillis.keySet());
+        labels.remove("mean");
+        double step = (width - 2.0 * margin) / (labels.size() - 1);
+
+        html.append("<h2>Latency by percentile</h2>\n<svg width=\"").append(width).append("\" height=\"")
+                .append(height).append("\" xmlns=\"http://www.w3.org/2000/svg\">\n");
+        html.append("<line x1=\"").append(margin).append("\" y1=\"").append(height - margin).append("\" x2=\"")
+                .append(width - margin).append("\" y2=\"").append(height - margin).append("\" stroke=\"#999\"/>\n");
+        for (int i = 0; i < labels.size(); i++) {
+            html.append("<text x=\"").append(format(margin + i * step)).append("\" y=\"").append(height - margin + 16)
+                    .append("\" font-size=\"11\" text-anchor=\"middle\">").append(labels.get(i)).append("</text>\n");
+        }
+        html.append("<text x=\"4\" y=\"").append(margin - 10).append("\" font-size=\"11\">").append(format(top))
+                .append(" ms</text>\n");
+        polyline(html, latencyMillis, labels, "#c0392b", margin, step, height, top);
+        polyline(html, serviceTimeMillis, labels, "#2980b9", margin, step, height, top);
+        html.append("<text x=\"").append(width - margin).append("\" y=\"").append(margin - 10)
+                .append("\" font-size=\"11\" text-anchor=\"end\"><tspan fill=\"#c0392b\">latency</tspan> ")
+                .append("<tspan fill=\"#2980b9\">service time</tspan></text>\n</svg>\n");
+    }
+
+    private static void polyline(StringBuilder html, Map<String, Double> values, List<String> labels, String color,
+            int margin, double step, int height, double top) {
+        html.append("<polyline fill=\"none\" stroke=\"").append(color).append("\" stroke-width=\"2\" points=\"");
+        for (int i = 0; i < labels.size(); i++) {
+            double y = height - margin - values.get(labels.get(i)) / top * (height - 2 * margin);
+            html.append(format(margin + i * step)).append(',').append(format(y)).append(' ');
+        }
+        html.append("\"/>\n");
+    }
+
+    private static void row(StringBuilder html, String name, String value) {
+        html.append("<tr><th>").append(name).append("</th><td>").append(escape(value)).append("</td></tr>\n");
+    }
+
+    private static void statisticsRow(StringBuilder html, String name, Map<String, Double> values) {
+        html.append("<tr><th>").append(name).append("</th>");
+        for (double value : values.values()) {
+            html.append("<td>").append(format(value)).append("</td>");
+        }
+        html.append("</tr>\n");
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.scorpio4938.LLMCall.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local OpenAI-compatible endpoint with configurable latency, for load
+ * testing the client without a real provider.
+ * <p>
+ * Streamed requests get their first token after the time to first token
+ * and the following tokens at a fixed interval; other requests get the
+ * whole answer at once after the same total time. Every n-th request can be
+ * failed with a given status code.
+ * 
+ * @since 1.1.0
+ */
+public class StubServer implements AutoCloseable {
+    public static final String MODEL = "stub-model";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "llm-stub-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong requests = new AtomicLong();
+    private volatile Duration timeToFirstToken = Duration.ofMillis(50);
+    private volatile Duration tokenInterval = Duration.ofMillis(5);
+    private volatile int tokens = 20;
+    private volatile int errorEvery = 0;
+    private volatile int errorStatus = 429;
+
+    /**
+     * Starts a stub server on a free local port.
+     *
+     * @throws IOException if the server cannot be started
+     * 
+     * @since 1.1.0
+     */
+    public StubServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Starts a stub server.
+     *
+     * @param port The local port, or 0 for a free one
+     * @throws IOException if the server cannot be started
+     * 
+     * @since 1.1.0
+     */
+    public StubServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Sets the delay before the first token. Defaults to 50 ms.
+     *
+     * @param timeToFirstToken The delay
+     * @return This server
+     * 
+     * @since 1.1.0
+     */
+    public StubServer withTimeToFirstToken(Duration timeToFirstToken) {
+        this.timeToFirstToken = timeToFirstToken;
+        return this;
+    }
+
+    /**
+     * Sets the length of the answers. Defaults to 20 tokens, 5 ms apart.
+     *
+     * @param tokens        The number of tokens per answer
+     * @param tokenInterval The delay between tokens
+     * @return This server
+     * 
+     * @since 1.1.0
+     */
+    public StubServer withTokens(int tokens, Duration tokenInterval) {
+        if (tokens <= 0) {
+            throw new IllegalArgumentException("Tokens must be positive");
+        }
+        this.tokens = tokens;
+        this.tokenInterval = tokenInterval;
+        return this;
+    }
+
+    /**
+     * Fails every n-th request.
+     *
+     * @param errorEvery  The failure period, or 0 to never fail
+     * @param errorStatus The status code of the failures
+     * @return This server
+     * 
+     * @since 1.1.0
+     */
+    public StubServer withErrors(int errorEvery, int errorStatus) {
+        this.errorEvery = errorEvery;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    /**
+     * Gets a provider pointing at this server and offering {@link #MODEL}.
+     *
+     * @return The provider
+     * 
+     * @since 1.1.0
+     */
+    public Provider getProvider() {
+        return new Provider("STUB", "http://localhost:" + getPort() + "/v1/chat/completions", "stub-key",
+                List.of(MODEL));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            long number = requests.incrementAndGet();
+            int every = errorEvery;
+            if (every > 0 && number % every == 0) {
+                byte[] error = "{\"error\": {\"message\": \"Stubbed failure\"}}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(errorStatus, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+
+            int count = tokens;
+            long intervalMillis = tokenInterval.toMillis();
+            Thread.sleep(timeToFirstToken.toMillis());
+            if (body.contains("\"stream\":true")) {
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        Thread.sleep(intervalMillis);
+                    }
+                    out.write(("data: {\"choices\": [{\"delta\": {\"content\": \"tok" + i + " \"}}]}\n\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            Thread.sleep(intervalMillis * (count - 1));
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                content.append("tok").append(i).append(' ');
+            }
+            byte[] response = ("{\"model\": \"" + MODEL + "\", \"choices\": [{\"message\": {\"role\": \"assistant\", "
+                    + "\"content\": \"" + content + "\"}}], \"usage\": {\"prompt_tokens\": 10, "
+                    + "\"completion_tokens\": " + count + ", \"total_tokens\": " + (10 + count) + "}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.scorpio4938.LLMCall.mapreduce;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+import io.github.scorpio4938.LLMCall.service.utils.TokenEstimator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Maps and reduces numbered words through a local stub: a map call answers
+ * with the first and last word of its chunk, a reduce call joins its input.
+ */
+class MapReduceTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicInteger maps = new AtomicInteger();
+    private final AtomicInteger reduces = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            JsonArray messages = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    .getAsJsonObject().getAsJsonArray("messages");
+            String system = messages.get(0).getAsJsonObject().get("content").getAsString();
+            String user = messages.get(1).getAsJsonObject().get("content").getAsString();
+            String answer;
+            if (system.startsWith("Summarize")) {
+                maps.incrementAndGet();
+                String[] words = user.trim().split("\\s+");
+                answer = words[0] + "-" + words[words.length - 1];
+            } else {
+                reduces.incrementAndGet();
+                answer = user.replace("\n\n", " ");
+            }
+            try {
+                Thread.sleep(answer.contains("w13-") ? 100 : 5); // One slow chunk must not reorder the answer
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            JsonObject message = new JsonObject();
+            message.addProperty("content", answer);
+            byte[] bytes = ("{\"choices\": [{\"message\": " + message + "}]}").getBytes(StandardCharsets.UTF_8);
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(user.contains("w666 ") ? 400 : 200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("test-model")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static String words(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append('w').append(i).append(i % 10 == 9 ? ".\n" : " ");
+        }
+        return text.toString();
+    }
+
+    @Test
+    void testChunksRespectBudgetAndOverlap() {
+        String text = words(0, 2000);
+        List<String> chunks = new ArrayList<>();
+        new TextChunker(new StringReader(text), 100, 10).forEachRemaining(chunks::add);
+
+        int previousStart = -1;
+        int previousEnd = 0;
+        for (String chunk : chunks) {
+            assertTrue(TokenEstimator.estimate(chunk) <= 100);
+            int start = text.indexOf(chunk, previousStart + 1);
+            assertTrue(start > previousStart && start < previousEnd || start == 0);
+            assertTrue(previousEnd - start <= 40); // At most 10 tokens repeated
+            assertTrue(start == 0 || Character.isWhitespace(text.charAt(start - 1))); // Word boundaries
+            previousStart = start;
+            previousEnd = start + chunk.length();
+        }
+        assertEquals(text.length(), previousEnd);
+        assertTrue(chunks.get(0).endsWith(".\n")); // Ends at a line break
+
+        List<String> unbroken = new ArrayList<>();
+        new TextChunker(new StringReader("\ud83d\ude00".repeat(25)), 10, 0).forEachRemaining(unbroken::add);
+        assertEquals(List.of("\ud83d\ude00".repeat(10), "\ud83d\ude00".repeat(10), "\ud83d\ude00".repeat(5)), unbroken);
+        assertFalse(new TextChunker(new StringReader(""), 10, 2).hasNext());
+    }
+
+    @Test
+    void testMappedFileReaderAcrossWindows(@TempDir Path dir) throws IOException {
+        String text = ("caf\u00e9 \u65e5\u672c\u8a9e \ud83d\ude00 ").repeat(500);
+        Path file = dir.resolve("text.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        StringBuilder read = new StringBuilder();
+        try (MappedFileReader reader = new MappedFileReader(file, StandardCharsets.UTF_8, 7)) {
+            char[] buffer = new char[13];
+            for (int n; (n = reader.read(buffer)) >= 0;) {
+                read.append(buffer, 0, n);
+            }
+        }
+        assertEquals(text, read.toString());
+    }
+
+    @Test
+    void testTreeReduceKeepsTextOrder(@TempDir Path dir) throws Exception {
+        String text = words(0, 600);
+        List<String> expected = new ArrayList<>();
+        new TextChunker(new StringReader(text), 40, 4).forEachRemaining(chunk -> {
+            String[] words = chunk.trim().split("\\s+");
+            expected.add(words[0] + "-" + words[words.length - 1]);
+        });
+        Path file = dir.resolve("corpus.txt");
+        Files.writeString(file, text);
+
+        MapReduce job = new MapReduce(client, "test-model").withChunkTokens(40, 4).withFanIn(3).withMaxInFlight(4);
+        assertEquals(String.join(" ", expected), job.run(file));
+        assertEquals(expected.size(), maps.get());
+        assertEquals(expected.size() / 2, reduces.get()); // Each reduce removes fanIn - 1 answers
+        assertTrue(maxInFlight.get() > 1);
+
+        assertEquals("", job.run(new StringReader("")));
+        assertEquals("w1-w3", job.run(new StringReader("w1 w2 w3"))); // A single chunk needs no reduce
+    }
+
+    @Test
+    void testFailedCallStopsReading() {
+        client.setMaxRetries(0);
+        LLMResponseException error = assertThrows(LLMResponseException.class,
+                () -> new MapReduce(client, "test-model").withChunkTokens(40, 4).withMaxInFlight(2)
+                        .run(new StringReader(words(0, 100_000))));
+        assertEquals(400, error.getStatusCode());
+        assertTrue(maps.get() < 1000);
+    }
+}
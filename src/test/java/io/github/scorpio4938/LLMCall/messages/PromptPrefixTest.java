@@ -0,0 +1,45 @@
+package io.github.scorpio4938.LLMCall.messages;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptPrefixTest {
+
+    @Test
+    void testSharedPrefixIsByteIdentical() {
+        PromptPrefix prefix = PromptPrefix.of("You are a support agent.")
+                .withTools(List.of(new LLMRequest.Tool("lookup", "Looks up an order",
+                        Map.of("type", "object"))))
+                .withExample("Where is my order?", "Let me check.");
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("temperature", 0.2);
+        params.put("max_tokens", 50);
+        Map<String, Object> reordered = new HashMap<>();
+        reordered.put("max_tokens", 50);
+        reordered.put("temperature", 0.2);
+
+        String first = prefix.toRequestBody("gpt-4o-mini",
+                List.of(LLMRequest.createMessage("user", "Refund order 1")), params);
+        String second = prefix.toRequestBody("gpt-4o-mini",
+                List.of(LLMRequest.createMessage("user", "Cancel order 2")), reordered);
+
+        String shared = "{\"model\":\"gpt-4o-mini\",\"tools\":[{\"type\":\"function\"";
+        assertTrue(first.startsWith(shared));
+        int divergence = 0;
+        while (first.charAt(divergence) == second.charAt(divergence)) {
+            divergence++;
+        }
+        String common = first.substring(0, divergence);
+        assertTrue(common.endsWith("{\"role\":\"user\",\"content\":\""), common);
+        assertTrue(common.contains("{\"role\":\"system\",\"content\":\"You are a support agent.\"}"));
+        assertTrue(first.endsWith("\"parameters\":{\"max_tokens\":50,\"temperature\":0.2}}"));
+        assertTrue(second.endsWith("\"parameters\":{\"max_tokens\":50,\"temperature\":0.2}}"));
+    }
+}
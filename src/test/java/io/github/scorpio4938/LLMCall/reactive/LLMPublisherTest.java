@@ -0,0 +1,158 @@
+package io.github.scorpio4938.LLMCall.reactive;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LLMPublisherTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String requestBody = new String(exchange.getRequestBody().readAllBytes());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                // Earlier prompts answer more slowly, so unordered results arrive reversed
+                int number = Integer.parseInt(requestBody.replaceAll(".*\"content\":\"q(\\d+)\".*", "$1"));
+                Thread.sleep(200 - number * 40L);
+            } catch (InterruptedException | NumberFormatException e) {
+                // Answer immediately
+            }
+            inFlight.decrementAndGet();
+
+            int status = requestBody.contains("\"content\":\"fail\"") ? 400 : 200;
+            String response = status == 200
+                    ? "{\"choices\": [{\"message\": {\"content\": \"" + requestBody.replaceAll(".*\"content\":\"(\\w+)\".*", "$1")
+                            + "!\"}}]}"
+                    : "{\"error\": \"bad request\"}";
+            exchange.sendResponseHeaders(status, response.getBytes().length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response.getBytes());
+            }
+        });
+        server.start();
+        // Thread per call, so the number of calls in flight is bounded by the prefetch only
+        client = LLMApiClient.withVirtualThreads(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("test-model")));
+        client.setMaxRetries(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /** Subscriber requesting one element at a time. */
+    private static class Collector implements Flow.Subscriber<Completion> {
+        private final List<Completion> received = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<List<Completion>> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Completion item) {
+            received.add(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(received);
+        }
+    }
+
+    private List<Completion> run(LLMPublisher publisher, List<String> questions) throws Exception {
+        Collector collector = new Collector();
+        try (SubmissionPublisher<Map<String, String>> prompts = new SubmissionPublisher<>()) {
+            publisher.completions(prompts).subscribe(collector);
+            for (String question : questions) {
+                prompts.submit(Map.of("user", question));
+            }
+        }
+        return collector.done.get(10, TimeUnit.SECONDS);
+    }
+
+    private static List<String> contents(List<Completion> completions) {
+        List<String> contents = new ArrayList<>();
+        for (Completion completion : completions) {
+            contents.add(completion.isSuccess() ? completion.getContent() : "error");
+        }
+        return contents;
+    }
+
+    @Test
+    void testOrderedModeKeepsPromptOrder() throws Exception {
+        List<Completion> completions = run(new LLMPublisher(client, "test-model", Map.of()).withPrefetch(4),
+                List.of("q0", "q1", "q2", "q3"));
+
+        assertEquals(List.of("q0!", "q1!", "q2!", "q3!"), contents(completions));
+        assertEquals(3, completions.get(3).getIndex());
+    }
+
+    @Test
+    void testUnorderedModeEmitsAsReady() throws Exception {
+        List<Completion> completions = run(new LLMPublisher(client, "test-model", Map.of())
+                .withPrefetch(4).withOrdering(false), List.of("q0", "q1", "q2", "q3"));
+
+        assertEquals(List.of("q3!", "q2!", "q1!", "q0!"), contents(completions));
+    }
+
+    @Test
+    void testErrorsAreDeliveredPerElement() throws Exception {
+        List<Completion> completions = run(new LLMPublisher(client, "test-model", Map.of()),
+                List.of("q4", "fail", "q4"));
+
+        assertEquals(List.of("q4!", "error", "q4!"), contents(completions));
+        assertNotNull(completions.get(1).getError());
+    }
+
+    @Test
+    void testPrefetchBoundsCallsInFlight() throws Exception {
+        List<String> questions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            questions.add("q" + (i % 5));
+        }
+        List<Completion> completions = run(new LLMPublisher(client, "test-model", Map.of()).withPrefetch(2),
+                questions);
+
+        assertEquals(12, completions.size());
+        assertTrue(maxInFlight.get() <= 2, "At most prefetch calls in flight, saw " + maxInFlight.get());
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.scorpio4938.LLMCall.recording;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMResponseException;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records traffic from a local stub and replays it without the stub.
+ */
+class TrafficReplayTest {
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final AtomicInteger served = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String answer = request.contains("Ping") ? "Pong" : "Other";
+            byte[] bytes = ("{\"id\": \"r" + served.incrementAndGet() + "\", \"choices\": [{\"message\": "
+                    + "{\"role\": \"assistant\", \"content\": \"" + answer + "\"}}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("x-request-id", "req-" + served.get());
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private Provider provider(int port) {
+        return new Provider("test-provider", "http://localhost:" + port + "/", "test-key", List.of("test-model"));
+    }
+
+    @Test
+    void testRecordedTrafficReplaysOffline() throws Exception {
+        Path log = tempDir.resolve("traffic.bin");
+        LLMApiClient live = new LLMApiClient(provider(server.getAddress().getPort()));
+        try (TrafficRecorder recorder = new TrafficRecorder(log)) {
+            live.setRecorder(recorder);
+            assertEquals("Pong", live.directCallLLM("test-model", Map.of("user", "Ping")));
+            assertEquals("Other", live.directCallLLM("test-model", Map.of("user", "Hello")));
+        }
+
+        List<TrafficRecord> records;
+        try (TrafficLog.Reader reader = new TrafficLog.Reader(log)) {
+            records = new ArrayList<>();
+            TrafficRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        assertEquals(2, records.size());
+        assertEquals(200, records.get(0).getStatusCode());
+        assertTrue(records.get(0).getRequestBody().contains("Ping"));
+        assertTrue(records.get(0).getLatencyNanos() > 0);
+        assertEquals("req-1", records.get(0).getHeaders().get("x-request-id"));
+
+        server.stop(0);
+        LLMApiClient offline = new LLMApiClient(provider(1));
+        offline.setMaxRetries(0);
+        offline.setReplayer(TrafficReplayer.load(log).withTimeScale(0));
+        assertEquals("Other", offline.directCallLLM("test-model", Map.of("user", "Hello")));
+        assertEquals("Pong", offline.directCallLLM("test-model", Map.of("user", "Ping")));
+        assertEquals(2, served.get());
+    }
+
+    @Test
+    void testReplayScalesRecordedLatencyAndErrors() throws Exception {
+        long latency = TimeUnit.MILLISECONDS.toNanos(200);
+        TrafficReplayer replayer = new TrafficReplayer(List.of(
+                new TrafficRecord(0, latency, 200, "a", "ok", Map.of()),
+                new TrafficRecord(0, latency, 429, "b", "slow down", Map.of())))
+                .withTimeScale(0.25);
+
+        long start = System.nanoTime();
+        assertEquals("ok", replayer.replay("a"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 50 && elapsedMillis < 200, "Replay took " + elapsedMillis + "ms");
+
+        LLMResponseException error = assertThrows(LLMResponseException.class, () -> replayer.replay("b"));
+        assertEquals(429, error.getStatusCode());
+
+        replayer.withStrictMatching(true);
+        assertThrows(IllegalStateException.class, () -> replayer.replay("unknown"));
+    }
+}
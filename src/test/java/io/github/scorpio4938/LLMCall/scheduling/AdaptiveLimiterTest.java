@@ -0,0 +1,138 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static void call(AdaptiveLimiter limiter, long rttNanos, AdaptiveLimiter.Outcome outcome)
+            throws InterruptedException {
+        limiter.acquire();
+        limiter.release(rttNanos, outcome);
+    }
+
+    @Test
+    void testLimitGrowsOnlyWhileUsed() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 100);
+
+        // One call at a time never uses half of the limit
+        for (int i = 0; i < 10; i++) {
+            call(limiter, RTT, AdaptiveLimiter.Outcome.SUCCESS);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // Filling the limit grows it by one per fast success
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        limiter.release(RTT, AdaptiveLimiter.Outcome.SUCCESS);
+        assertEquals(5, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void testOverloadSignalsBackOffMultiplicatively() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(100, 2, 100).withBackoffRatio(0.5).withLatencyTolerance(2);
+        call(limiter, RTT, AdaptiveLimiter.Outcome.SUCCESS);
+
+        // With a latency tolerance, an RTT far above the baseline counts as queueing at the provider
+        call(limiter, RTT * 5, AdaptiveLimiter.Outcome.SUCCESS);
+        assertEquals(50, limiter.getLimit());
+
+        // Each call below starts after the previous decrease
+        call(limiter, 0, AdaptiveLimiter.Outcome.DROPPED);
+        assertEquals(25, limiter.getLimit());
+
+        call(limiter, 0, AdaptiveLimiter.Outcome.IGNORED);
+        assertEquals(25, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            call(limiter, 0, AdaptiveLimiter.Outcome.DROPPED);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(RTT, limiter.getMinRtt().toNanos());
+    }
+
+    @Test
+    void testConcurrentOverloadSignalsBackOffOnce() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(100, 2, 100).withBackoffRatio(0.5);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(RTT, AdaptiveLimiter.Outcome.DROPPED); // A burst of 429s from one round trip
+        }
+        assertEquals(50, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testMixedGenerationLengthsKeepTheLimit() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                limiter.acquire();
+            }
+            while (limiter.getInFlight() > 0) {
+                // Short and long answers side by side: 5 tokens beside 500
+                long rtt = limiter.getInFlight() % 2 == 0 ? RTT : RTT * 100;
+                limiter.release(rtt, AdaptiveLimiter.Outcome.SUCCESS);
+            }
+        }
+        assertTrue(limiter.getLimit() >= 10, "The limit shrank to " + limiter.getLimit());
+        assertEquals(RTT, limiter.getMinRtt().toNanos());
+    }
+
+    @Test
+    void testAcquireWaitsForAFreeSlot() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1);
+        limiter.acquire();
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, runnable -> new Thread(runnable).start());
+        assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+        limiter.release(RTT, AdaptiveLimiter.Outcome.SUCCESS);
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void testAcquireGivesUpAtTheDeadline() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1);
+        limiter.acquire(Instant.now().plusSeconds(5)); // A free slot is claimed at once
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> limiter.acquire(Instant.now().plusMillis(100)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+        assertEquals(1, limiter.getInFlight());
+
+        // A client call waiting for the held slot fails at its own deadline
+        LLMApiClient client = new LLMApiClient(new Provider("test-provider", "http://localhost:1/", "test-key",
+                List.of("test-model")));
+        client.setConcurrencyLimiter(limiter);
+        CallOptions options = CallOptions.defaults().withTimeout(Duration.ofMillis(100));
+        assertThrows(DeadlineExceededException.class,
+                () -> client.directCallLLM("test-model", Map.of("user", "hi"), Map.of(), options));
+        assertEquals(1, limiter.getInFlight());
+    }
+}
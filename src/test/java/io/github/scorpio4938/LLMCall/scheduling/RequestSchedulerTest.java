@@ -0,0 +1,79 @@
+package io.github.scorpio4938.LLMCall.scheduling;
+
+import io.github.scorpio4938.LLMCall.CallOptions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSchedulerTest {
+    private final RequestScheduler scheduler = new RequestScheduler(1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void testHigherPriorityServedFirst() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Occupy the only worker, then queue batch work before interactive work
+        CompletableFuture<String> blocker = scheduler.submit("p", CallOptions.defaults(), () -> {
+            release.await();
+            return "blocker";
+        });
+        Thread.sleep(50);
+        CompletableFuture<String> batch = scheduler.submit("p", CallOptions.defaults().withPriority(Priority.BATCH),
+                () -> {
+                    order.add("batch");
+                    return "batch";
+                });
+        CompletableFuture<String> interactive = scheduler.submit("p",
+                CallOptions.defaults().withPriority(Priority.INTERACTIVE), () -> {
+                    order.add("interactive");
+                    return "interactive";
+                });
+        release.countDown();
+
+        CompletableFuture.allOf(blocker, batch, interactive).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("interactive", "batch"), order);
+    }
+
+    @Test
+    void testUnmeetableDeadlineFailsFast() {
+        scheduler.latencyOf("p").record(Duration.ofMillis(500));
+
+        CompletableFuture<String> future = scheduler.submit("p",
+                CallOptions.defaults().withTimeout(Duration.ofMillis(100)), () -> "too late");
+
+        assertTrue(future.isCompletedExceptionally(), "Should be rejected without queueing");
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(DeadlineExceededException.class, error.getCause());
+    }
+
+    @Test
+    void testQueueWaitCountsTowardsEstimate() {
+        scheduler.latencyOf("p").record(Duration.ofMillis(100));
+        assertEquals(Duration.ofMillis(100), scheduler.estimatedCompletion("p", Priority.NORMAL));
+
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit("p", CallOptions.defaults(), () -> release.await(5, TimeUnit.SECONDS));
+        scheduler.submit("p", CallOptions.defaults().withPriority(Priority.BATCH), () -> "queued");
+
+        // Batch work does not delay interactive calls
+        assertTrue(scheduler.estimatedCompletion("p", Priority.INTERACTIVE).toMillis() <= 200);
+        assertTrue(scheduler.estimatedCompletion("p", Priority.BATCH).toMillis() >= 200);
+        release.countDown();
+    }
+}
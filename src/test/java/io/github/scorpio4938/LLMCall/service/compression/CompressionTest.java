@@ -0,0 +1,127 @@
+package io.github.scorpio4938.LLMCall.service.compression;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks encoding negotiation against a local stub that compresses its
+ * responses when asked to.
+ */
+class CompressionTest {
+    private HttpServer server;
+    private LLMApiClient client;
+    private final AtomicReference<String> requestEncoding = new AtomicReference<>();
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        Provider provider = new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("test-model"));
+        client = new LLMApiClient(provider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        requestEncoding.set(encoding);
+        try (InputStream in = ContentEncoding.fromHeader(encoding).decode(exchange.getRequestBody())) {
+            requestBody.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        acceptEncoding.set(accept);
+        ContentEncoding responseEncoding = accept == null ? ContentEncoding.IDENTITY
+                : ContentEncoding.fromHeader(accept.split(",")[0]);
+
+        String content = requestBody.get().contains("\"stream\":true")
+                ? "data: {\"choices\": [{\"delta\": {\"content\": \"Hel\"}}]}\n\n"
+                        + "data: {\"choices\": [{\"delta\": {\"content\": \"lo\"}}]}\n\ndata: [DONE]\n\n"
+                : "{\"id\": \"r1\", \"choices\": [{\"message\": {\"role\": \"assistant\", \"content\": \"Hello\"}}]}";
+        byte[] bytes = responseEncoding.encode(content.getBytes(StandardCharsets.UTF_8));
+        if (responseEncoding != ContentEncoding.IDENTITY) {
+            exchange.getResponseHeaders().add("Content-Encoding", responseEncoding.token());
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    void testEncodingsRoundTrip() throws Exception {
+        byte[] body = "{\"messages\": [\"repeated repeated repeated repeated\"]}".repeat(100)
+                .getBytes(StandardCharsets.UTF_8);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            byte[] encoded = encoding.encode(body);
+            if (encoding != ContentEncoding.IDENTITY) {
+                assertTrue(encoded.length < body.length / 10, encoding + " did not compress");
+            }
+            try (InputStream in = encoding.decode(new ByteArrayInputStream(encoded))) {
+                assertArrayEquals(body, in.readAllBytes());
+            }
+        }
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromHeader(" GZip "));
+        assertThrows(IOException.class, () -> ContentEncoding.fromHeader("br"));
+    }
+
+    @Test
+    void testResponsesAreNegotiatedAndDecoded() throws Exception {
+        assertEquals("Hello", client.directCallLLM("test-model", Map.of("user", "Hi")));
+        assertEquals("gzip, deflate", acceptEncoding.get());
+        assertNull(requestEncoding.get());
+
+        client.setCompression(CompressionPolicy.defaults().withAcceptedEncodings(ContentEncoding.DEFLATE));
+        List<String> deltas = new ArrayList<>();
+        assertEquals("Hello", client.streamCallLLM("test-model", Map.of("user", "Hi"), Map.of(), deltas::add));
+        assertEquals(List.of("Hel", "lo"), deltas);
+        assertEquals("deflate", acceptEncoding.get());
+
+        client.setCompression(CompressionPolicy.none());
+        assertEquals("Hello", client.directCallLLM("test-model", Map.of("user", "Hi")));
+        assertNull(acceptEncoding.get());
+    }
+
+    @Test
+    void testRequestsAreCompressedAboveThreshold() throws Exception {
+        client.setCompression(CompressionPolicy.defaults()
+                .withRequestEncoding(ContentEncoding.GZIP)
+                .withThreshold(4096));
+
+        client.directCallLLM("test-model", Map.of("user", "Hi"));
+        assertNull(requestEncoding.get());
+
+        String document = "x".repeat(8192);
+        client.directCallLLM("test-model", Map.of("user", document));
+        assertEquals("gzip", requestEncoding.get());
+        assertTrue(requestBody.get().contains(document));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutTest {
+
+    @Test
+    void testResultsInForkOrder() throws Exception {
+        try (FanOut<String> scope = new FanOut<>()) {
+            scope.fork(() -> {
+                Thread.sleep(50);
+                return "slow";
+            });
+            scope.fork(() -> "fast");
+
+            assertEquals(List.of("slow", "fast"), scope.join());
+        }
+    }
+
+    @Test
+    void testFirstFailureCancelsSiblings() throws Exception {
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        AtomicBoolean siblingInterrupted = new AtomicBoolean(false);
+
+        try (FanOut<String> scope = new FanOut<>()) {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                    throw e;
+                }
+                return "never";
+            });
+            scope.fork(() -> {
+                siblingStarted.await(5, TimeUnit.SECONDS);
+                throw new IllegalStateException("boom");
+            });
+
+            ExecutionException error = assertThrows(ExecutionException.class, scope::join);
+            assertEquals("boom", error.getCause().getMessage());
+        }
+        assertTrue(siblingInterrupted.get(), "Closing the scope waits for cancelled tasks to stop");
+    }
+
+    @Test
+    void testCloseWaitsForTasksWhenInterrupted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean stopped = new AtomicBoolean(false);
+
+        FanOut<String> scope = new FanOut<>();
+        scope.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.sleep(100); // Still running after the cancel
+                stopped.set(true);
+                throw e;
+            }
+            return "never";
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        Thread.currentThread().interrupt();
+        scope.close();
+        assertTrue(Thread.interrupted(), "The interrupt is kept");
+        assertTrue(stopped.get(), "Tasks do not outlive the scope");
+    }
+
+    @Test
+    void testVirtualThreadSupportMatchesRuntime() {
+        // Classes are loaded from target/classes here, so the Java 17 variant is used
+        assertFalse(VirtualThreads.isSupported());
+    }
+}
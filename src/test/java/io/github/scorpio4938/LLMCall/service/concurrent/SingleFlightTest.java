@@ -0,0 +1,200 @@
+package io.github.scorpio4938.LLMCall.service.concurrent;
+
+import io.github.scorpio4938.LLMCall.scheduling.DeadlineExceededException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> flight.execute("key", () -> {
+                executions.incrementAndGet();
+                release.await();
+                return "shared";
+            })));
+        }
+        while (flight.inFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100); // Let the other callers join
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("shared", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, flight.inFlightCount(), "Nothing is retained after completion");
+    }
+
+    @Test
+    void testErrorIsSharedAndNotRetained() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> flight.execute("key", () -> {
+            release.await();
+            throw new IllegalStateException("boom");
+        }));
+        while (flight.inFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+        Future<String> follower = pool.submit(() -> flight.execute("key", () -> "not run"));
+        Thread.sleep(100);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("boom", leaderError.getCause().getMessage());
+        assertEquals("boom", followerError.getCause().getMessage());
+        assertEquals("fresh", flight.execute("key", () -> "fresh"));
+    }
+
+    @Test
+    void testLeaderLocalFailuresAreNotShared() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(e -> e instanceof IllegalStateException);
+        for (Exception leaderFailure : List.of(new InterruptedException(), new IllegalStateException("deadline"))) {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger executions = new AtomicInteger();
+
+            Future<String> leader = pool.submit(() -> flight.execute("key", () -> {
+                executions.incrementAndGet();
+                release.await();
+                throw leaderFailure;
+            }));
+            while (flight.inFlightCount() == 0) {
+                Thread.sleep(5);
+            }
+            Future<String> follower = pool.submit(() -> flight.execute("key", () -> {
+                executions.incrementAndGet();
+                return "own result";
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertSame(leaderFailure, leaderError.getCause());
+            assertEquals("own result", follower.get(5, TimeUnit.SECONDS)); // The follower ran the call itself
+            assertEquals(2, executions.get());
+        }
+    }
+
+    @Test
+    void testFollowerStopsWaitingAtItsDeadline() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> flight.execute("key", () -> {
+            release.await();
+            return "shared";
+        }));
+        while (flight.inFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+                () -> flight.execute("key", Instant.now().plusMillis(100), () -> "not run"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+
+        release.countDown();
+        assertEquals("shared", leader.get(5, TimeUnit.SECONDS)); // The shared call was not cancelled
+    }
+
+    @Test
+    void testStreamFollowerReceivesReplayAndLiveDeltas() throws Exception {
+        StreamFlight<String> flight = new StreamFlight<>();
+        CountDownLatch firstDeltaSent = new CountDownLatch(1);
+        CountDownLatch followerAttached = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> flight.execute("key", delta -> {
+        }, onDelta -> {
+            onDelta.accept("Hel");
+            firstDeltaSent.countDown();
+            followerAttached.await();
+            Thread.sleep(50);
+            onDelta.accept("lo");
+            return "Hello";
+        }));
+
+        firstDeltaSent.await();
+        List<String> received = new ArrayList<>();
+        Future<String> follower = pool.submit(() -> {
+            followerAttached.countDown();
+            return flight.execute("key", received::add, onDelta -> "not run");
+        });
+
+        assertEquals("Hello", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("Hello", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Hel", "lo"), received);
+    }
+
+    @Test
+    void testStreamLeaderLocalFailuresAreNotShared() throws Exception {
+        StreamFlight<String> flight = new StreamFlight<>();
+        for (boolean interrupt : new boolean[] { false, true }) {
+            CountDownLatch firstDeltaSent = new CountDownLatch(1);
+            CountDownLatch followerReceived = new CountDownLatch(1);
+            AtomicInteger executions = new AtomicInteger();
+
+            Future<String> leader = pool.submit(() -> flight.execute("key", delta -> {
+                if (!interrupt && delta.equals("lo")) {
+                    throw new IllegalStateException("consumer failed"); // Only the leader's own consumer
+                }
+            }, onDelta -> {
+                executions.incrementAndGet();
+                onDelta.accept("Hel");
+                firstDeltaSent.countDown();
+                followerReceived.await();
+                if (interrupt) {
+                    throw new InterruptedException();
+                }
+                onDelta.accept("lo");
+                return "Hello";
+            }));
+
+            firstDeltaSent.await();
+            List<String> received = new ArrayList<>();
+            Future<String> follower = pool.submit(() -> flight.execute("key", delta -> {
+                received.add(delta);
+                followerReceived.countDown();
+            }, onDelta -> {
+                executions.incrementAndGet();
+                onDelta.accept("He");
+                onDelta.accept("llo!");
+                return "Hello!";
+            }));
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertEquals(interrupt ? InterruptedException.class : IllegalStateException.class,
+                    leaderError.getCause().getClass());
+            assertEquals("Hello!", follower.get(5, TimeUnit.SECONDS)); // The follower ran the stream itself
+            assertEquals("Hello!", String.join("", received)); // Without repeating what it received
+            assertEquals(2, executions.get());
+        }
+    }
+}
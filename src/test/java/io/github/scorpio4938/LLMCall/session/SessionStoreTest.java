@@ -0,0 +1,140 @@
+package io.github.scorpio4938.LLMCall.session;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.messages.ToolCall;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+    private static final Gson GSON = new GsonBuilder().create();
+
+    @Test
+    void testHistoryRoundTripsMessages() throws Exception {
+        List<LLMRequest.Message> messages = List.of(
+                LLMRequest.createMessage("system", "You are <helpful> & \"terse\""),
+                LLMRequest.createMessage("user", "Gr\u00fc\u00dfe, \u4f60\u597d \ud83d\ude00"),
+                LLMRequest.createToolCallMessage(null, List.of(new ToolCall("call_1", "weather", "{\"city\":\"Oslo\"}"))),
+                LLMRequest.createToolResultMessage("call_1", "-3\u00b0C"));
+
+        try (SessionStore sessions = SessionStore.builder().build()) {
+            sessions.append("chat", messages.get(0), messages.get(1));
+            sessions.append("chat", messages.get(2), messages.get(3));
+
+            List<LLMRequest.Message> history = sessions.history("chat");
+            assertEquals(4, history.size());
+            assertEquals(GSON.toJson(messages), GSON.toJson(history));
+
+            LLMRequest.Message next = LLMRequest.createMessage("user", "And tomorrow?");
+            assertEquals(5, sessions.history("chat", next).size());
+            assertSame(next, sessions.history("chat", next).get(4));
+            assertTrue(sessions.history("unknown").isEmpty());
+        }
+    }
+
+    @Test
+    void testColdSessionsSpillAndComeBack() throws Exception {
+        try (SessionStore sessions = SessionStore.builder().withMaxMemory(4096).withMaxSessionBytes(512).build()) {
+            for (int i = 0; i < 200; i++) {
+                sessions.append("chat-" + i, LLMRequest.createMessage("user", "Question " + i + " ".repeat(60)));
+            }
+            assertEquals(200, sessions.getSessionCount());
+            assertTrue(sessions.getSpilledSessionCount() > 150);
+            assertTrue(sessions.getMemoryBytes() <= 4096);
+
+            for (int i = 0; i < 200; i++) {
+                sessions.append("chat-" + i, LLMRequest.createMessage("assistant", "Answer " + i));
+            }
+            for (int i = 0; i < 200; i++) {
+                List<LLMRequest.Message> history = sessions.history("chat-" + i);
+                assertEquals(2, history.size());
+                assertEquals("Question " + i, history.get(0).getContent().trim());
+                assertEquals("Answer " + i, history.get(1).getContent());
+            }
+            assertEquals(0, sessions.getDroppedCount());
+
+            assertTrue(sessions.remove("chat-0"));
+            assertFalse(sessions.contains("chat-0"));
+            assertEquals(199, sessions.getSessionCount());
+        }
+    }
+
+    @Test
+    void testLongSessionsKeepSystemPromptAndRecentMessages() throws Exception {
+        try (SessionStore sessions = SessionStore.builder().withMaxSessionBytes(300).build()) {
+            sessions.append("chat", LLMRequest.createMessage("system", "Be brief."));
+            for (int i = 0; i < 20; i++) {
+                sessions.append("chat", LLMRequest.createMessage("user", "Message number " + i));
+                int size = SessionHistory.encode(sessions.history("chat").toArray(new LLMRequest.Message[0])).length;
+                assertTrue(size <= 300, "Session grew to " + size + " bytes"); // Even when its block has room
+            }
+
+            List<LLMRequest.Message> history = sessions.history("chat");
+            assertTrue(history.size() < 21);
+            assertEquals("system", history.get(0).getRole());
+            assertEquals("Message number 19", history.get(history.size() - 1).getContent());
+            assertEquals("Message number " + (21 - history.size()), history.get(1).getContent());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> sessions.append("chat", LLMRequest.createMessage("user", "x".repeat(400))));
+        }
+    }
+
+    @Test
+    void testWithoutSpillingColdSessionsAreDropped() throws Exception {
+        try (SessionStore sessions = SessionStore.builder().withMaxMemory(1024).withMaxSpill(0).build()) {
+            for (int i = 0; i < 50; i++) {
+                sessions.append("chat-" + i, LLMRequest.createMessage("user", "Hello " + i));
+            }
+            assertTrue(sessions.getDroppedCount() > 0);
+            assertFalse(sessions.contains("chat-0"));
+            assertTrue(sessions.contains("chat-49"));
+            assertEquals(50, sessions.getSessionCount() + sessions.getDroppedCount());
+        }
+    }
+
+    @Test
+    void testSessionCallSendsHistoryAndRecordsTheTurn() throws Exception {
+        AtomicReference<String> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] bytes = "{\"choices\": [{\"message\": {\"content\": \"Hello again\"}}]}".getBytes();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try (SessionStore sessions = SessionStore.builder().build()) {
+            LLMApiClient client = new LLMApiClient(new Provider("test-provider",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "test-key", List.of("test-model")));
+            sessions.append("chat", LLMRequest.createMessage("system", "Be kind."));
+
+            assertEquals("Hello again", client.sessionCallLLM("test-model", sessions, "chat", "Hi", Map.of()));
+
+            List<LLMRequest.Message> expected = new ArrayList<>(List.of(
+                    LLMRequest.createMessage("system", "Be kind."), LLMRequest.createMessage("user", "Hi")));
+            assertEquals(GSON.toJson(new LLMRequest("test-model", expected)), received.get());
+            expected.add(LLMRequest.createMessage("assistant", "Hello again"));
+            assertEquals(GSON.toJson(expected), GSON.toJson(sessions.history("chat")));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.scorpio4938.LLMCall.streaming;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StopConditionTest {
+
+    private static int feed(StopCondition condition, String... deltas) {
+        StopCondition.Check check = condition.newCheck();
+        StringBuilder content = new StringBuilder();
+        for (String delta : deltas) {
+            int from = content.length();
+            content.append(delta);
+            int end = check.stopAt(content, from);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testDetectors() {
+        assertEquals(5, feed(StopCondition.maxChars(5), "abc", "defg"));
+        assertEquals(-1, feed(StopCondition.maxChars(50), "abc", "defg"));
+
+        assertEquals(11, feed(StopCondition.regex(Pattern.compile("\n")), "first", " line\nsecond"));
+
+        String json = "Sure: {\"a\": \"}\\\"]\", \"b\": [1, {\"c\": 2}]} trailing";
+        assertEquals(json.indexOf(" trailing"), feed(StopCondition.balancedJson(),
+                json.substring(0, 10), json.substring(10, 25), json.substring(25)));
+        assertEquals(-1, feed(StopCondition.balancedJson(), "{\"a\": [1, 2"));
+
+        assertEquals(7, feed(StopCondition.when(content -> content.contains("STOP")), "abc", "STOP", "more"));
+        assertEquals(4, feed(StopCondition.maxChars(4).or(StopCondition.regex(Pattern.compile("x"))),
+                "abcdefx"));
+    }
+
+    @Test
+    void testStopCancelsTheHttpStream() throws Exception {
+        int chunks = 100;
+        AtomicInteger written = new AtomicInteger();
+        CountDownLatch serverDone = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int i = 0; i < chunks; i++) {
+                    String delta = i == 2 ? "line two\\nline three" : "word" + i + " ";
+                    os.write(("data: {\"choices\": [{\"delta\": {\"content\": \"" + delta + "\"}}]}\n\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                    os.flush();
+                    written.incrementAndGet();
+                    Thread.sleep(20);
+                }
+                os.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | InterruptedException e) {
+                // The client cancelled the stream
+            } finally {
+                serverDone.countDown();
+            }
+        });
+        server.start();
+        try {
+            LLMApiClient client = new LLMApiClient(new Provider("test-provider",
+                    "http://localhost:" + server.getAddress().getPort() + "/", "test-key", List.of("test-model")));
+            List<String> deltas = new ArrayList<>();
+
+            long start = System.nanoTime();
+            String result = client.streamCallLLM("test-model", Map.of("user", "Write"), Map.of(),
+                    StopCondition.regex(Pattern.compile("\n")), deltas::add);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals("word0 word1 line two\n", result);
+            assertEquals(List.of("word0 ", "word1 ", "line two\n"), deltas);
+            assertTrue(elapsed < chunks * 20 / 2, "Stream was not cut short: " + elapsed + "ms");
+
+            assertTrue(serverDone.await(5, TimeUnit.SECONDS));
+            assertTrue(written.get() < chunks, "Provider kept generating after the stop");
+        } finally {
+            server.stop(0);
+        }
+    }
+}
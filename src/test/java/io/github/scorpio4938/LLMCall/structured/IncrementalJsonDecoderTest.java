@@ -0,0 +1,51 @@
+package io.github.scorpio4938.LLMCall.structured;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalJsonDecoderTest {
+
+    private static List<String> decodeInChunks(String json, int chunkSize, IncrementalJsonDecoder[] holder) {
+        List<String> elements = new ArrayList<>();
+        IncrementalJsonDecoder decoder = new IncrementalJsonDecoder(elements::add);
+        for (int i = 0; i < json.length(); i += chunkSize) {
+            decoder.feed(json.substring(i, Math.min(json.length(), i + chunkSize)));
+        }
+        holder[0] = decoder;
+        return elements;
+    }
+
+    @Test
+    void testTopLevelArrayElements() {
+        IncrementalJsonDecoder[] decoder = new IncrementalJsonDecoder[1];
+        List<String> elements = decodeInChunks("[{\"a\": 1}, {\"a\": [2, 3]}, \"x,]\", 4]", 3, decoder);
+
+        assertEquals(List.of("{\"a\": 1}", "{\"a\": [2, 3]}", "\"x,]\"", "4"), elements);
+        assertTrue(decoder[0].isComplete());
+    }
+
+    @Test
+    void testArrayPropertyOfRootObject() {
+        String json = "Sure! {\"title\": \"t\", \"items\": [{\"name\": \"a\\\"}\"}, {\"name\": \"b\"}], \"n\": {\"x\": [9]}}";
+        IncrementalJsonDecoder[] decoder = new IncrementalJsonDecoder[1];
+        List<String> elements = decodeInChunks(json, 1, decoder);
+
+        assertEquals(List.of("{\"name\": \"a\\\"}\"}", "{\"name\": \"b\"}"), elements);
+        assertTrue(decoder[0].isComplete());
+        assertTrue(decoder[0].getDocument().startsWith("{\"title\""));
+    }
+
+    @Test
+    void testElementEmittedBeforeDocumentEnds() {
+        List<String> elements = new ArrayList<>();
+        IncrementalJsonDecoder decoder = new IncrementalJsonDecoder(elements::add);
+
+        decoder.feed("{\"items\": [{\"id\": 1}, {\"id\"");
+        assertEquals(List.of("{\"id\": 1}"), elements);
+        assertFalse(decoder.isComplete());
+    }
+}
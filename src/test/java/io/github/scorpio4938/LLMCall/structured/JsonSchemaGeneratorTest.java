@@ -0,0 +1,66 @@
+package io.github.scorpio4938.LLMCall.structured;
+
+import com.google.gson.annotations.SerializedName;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaGeneratorTest {
+    enum Mood {
+        HAPPY, @SerializedName("sad") SAD
+    }
+
+    record Item(String name, int count, Mood mood) {
+    }
+
+    static class Inventory {
+        @SerializedName("owner_name")
+        private String ownerName;
+        private List<Item> items;
+        private transient String ignored;
+    }
+
+    static class Tags {
+        private Map<String, Double> weights;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordSchema() {
+        Map<String, Object> schema = JsonSchemaGenerator.schemaOf(Item.class);
+        Map<String, Object> properties = (Map<String, Object>) schema.get("properties");
+
+        assertEquals("object", schema.get("type"));
+        assertEquals(List.of("name", "count", "mood"), schema.get("required"));
+        assertEquals("integer", ((Map<String, Object>) properties.get("count")).get("type"));
+        assertEquals(List.of("HAPPY", "sad"), ((Map<String, Object>) properties.get("mood")).get("enum"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClassSchemaFollowsGsonNames() {
+        Map<String, Object> schema = JsonSchemaGenerator.schemaOf(Inventory.class);
+        Map<String, Object> properties = (Map<String, Object>) schema.get("properties");
+
+        assertEquals(List.of("owner_name", "items"), List.copyOf(properties.keySet()));
+        Map<String, Object> items = (Map<String, Object>) properties.get("items");
+        assertEquals("array", items.get("type"));
+        assertEquals("object", ((Map<String, Object>) items.get("items")).get("type"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testResponseFormatIsCachedAndStrictWhenPossible() {
+        Map<String, Object> format = JsonSchemaGenerator.responseFormat(Inventory.class);
+
+        assertSame(format, JsonSchemaGenerator.responseFormat(Inventory.class));
+        assertEquals("json_schema", format.get("type"));
+        assertEquals(true, ((Map<String, Object>) format.get("json_schema")).get("strict"));
+        assertEquals(false, ((Map<String, Object>) JsonSchemaGenerator.responseFormat(Tags.class)
+                .get("json_schema")).get("strict"));
+    }
+}
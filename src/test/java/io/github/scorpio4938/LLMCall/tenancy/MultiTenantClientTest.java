@@ -0,0 +1,142 @@
+package io.github.scorpio4938.LLMCall.tenancy;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.providers.Providers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks tenant isolation against a slow local stub.
+ */
+class MultiTenantClientTest {
+    private HttpServer server;
+    private MultiTenantClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (request.contains("slow")) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = "{\"choices\": [{\"message\": {\"content\": \"Hello!\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        Providers providers = new Providers();
+        providers.setProvider("LOCAL", "http://localhost:" + server.getAddress().getPort() + "/", null,
+                List.of("test-model"));
+        client = new MultiTenantClient(providers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testBusyTenantDoesNotStarveAnother() throws Exception {
+        TenantClient batch = client.registerTenant("batch",
+                TenantQuota.defaults().withMaxConcurrent(2).withMaxQueued(2));
+        TenantClient interactive = client.registerTenant("interactive", TenantQuota.defaults());
+
+        List<CompletableFuture<String>> batchCalls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            batchCalls.add(batch.submit("LOCAL", "test-model", Map.of("user", "slow " + i), Map.of()));
+        }
+        assertEquals(2, batch.getInFlight());
+        assertEquals(2, batch.getQueued());
+        assertEquals(2, batch.getRejected());
+
+        long start = System.nanoTime();
+        assertEquals("Hello!", interactive.call("LOCAL", "test-model", Map.of("user", "quick"), Map.of()));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 290,
+                "Interactive call waited behind the batch tenant");
+
+        int succeeded = 0;
+        for (CompletableFuture<String> call : batchCalls) {
+            try {
+                assertEquals("Hello!", call.get(5, TimeUnit.SECONDS));
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(TenantRejectedException.class, e.getCause());
+            }
+        }
+        assertEquals(4, succeeded);
+        assertEquals(4, batch.getCompleted());
+        assertEquals(0, batch.getInFlight());
+        assertTrue(batch.getMedianLatency().toMillis() >= 300);
+    }
+
+    @Test
+    void testRateQuotaRejectsBursts() throws Exception {
+        TenantClient limited = client.registerTenant("limited", TenantQuota.defaults().withRequestsPerSecond(2));
+
+        assertEquals("Hello!", limited.call("LOCAL", "test-model", Map.of("user", "a"), Map.of()));
+        assertEquals("Hello!", limited.call("LOCAL", "test-model", Map.of("user", "b"), Map.of()));
+        assertThrows(TenantRejectedException.class,
+                () -> limited.call("LOCAL", "test-model", Map.of("user", "c"), Map.of()));
+        assertEquals(1, limited.getRejected());
+        assertThrows(IllegalStateException.class, () -> client.registerTenant("limited", TenantQuota.defaults()));
+    }
+
+    @Test
+    void testSubOneRateAdmitsOneCall() throws Exception {
+        TenantClient trickle = client.registerTenant("trickle", TenantQuota.defaults().withRequestsPerSecond(0.5));
+
+        assertEquals("Hello!", trickle.call("LOCAL", "test-model", Map.of("user", "a"), Map.of()));
+        assertThrows(TenantRejectedException.class,
+                () -> trickle.call("LOCAL", "test-model", Map.of("user", "b"), Map.of()));
+        assertEquals(1, trickle.getRejected());
+    }
+
+    @Test
+    void testCloseFailsQueuedCalls() throws Exception {
+        TenantClient batch = client.registerTenant("batch",
+                TenantQuota.defaults().withMaxConcurrent(1).withMaxQueued(2));
+        CompletableFuture<String> running = batch.submit("LOCAL", "test-model", Map.of("user", "slow"), Map.of());
+        List<CompletableFuture<String>> queued = List.of(
+                batch.submit("LOCAL", "test-model", Map.of("user", "slow 1"), Map.of()),
+                batch.submit("LOCAL", "test-model", Map.of("user", "slow 2"), Map.of()));
+        assertEquals(2, batch.getQueued());
+
+        client.close();
+        for (CompletableFuture<String> call : queued) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(TenantRejectedException.class, e.getCause());
+        }
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS)); // Interrupted
+        assertEquals(0, batch.getQueued());
+        assertEquals(0, batch.getInFlight());
+        assertThrows(TenantRejectedException.class,
+                () -> batch.call("LOCAL", "test-model", Map.of("user", "late"), Map.of()));
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.scorpio4938.LLMCall.tools;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.scorpio4938.LLMCall.LLMApiClient;
+import io.github.scorpio4938.LLMCall.messages.LLMRequest;
+import io.github.scorpio4938.LLMCall.providers.Provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolExecutorTest {
+    private static final String TOOL_CALLS_RESPONSE = "{\"choices\": [{\"finish_reason\": \"tool_calls\", \"message\": "
+            + "{\"role\": \"assistant\", \"content\": null, \"tool_calls\": ["
+            + "{\"id\": \"call_1\", \"type\": \"function\", \"function\": {\"name\": \"weather\", \"arguments\": \"{\\\"city\\\":\\\"Paris\\\"}\"}},"
+            + "{\"id\": \"call_2\", \"type\": \"function\", \"function\": {\"name\": \"time\", \"arguments\": \"{}\"}}]}}]}";
+
+    private HttpServer server;
+    private LLMApiClient client;
+    private ExecutorService toolPool;
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            String requestBody = new String(exchange.getRequestBody().readAllBytes());
+            requestBodies.add(requestBody);
+            // Answer with tool calls until the conversation contains tool results
+            String response = requestBody.contains("\"role\":\"tool\"")
+                    ? "{\"choices\": [{\"message\": {\"role\": \"assistant\", \"content\": \"Done\"}}]}"
+                    : TOOL_CALLS_RESPONSE;
+            exchange.sendResponseHeaders(200, response.getBytes().length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response.getBytes());
+            }
+        });
+        server.start();
+
+        client = new LLMApiClient(new Provider("test-provider", "http://localhost:" + server.getAddress().getPort() + "/",
+                "test-key", List.of("test-model")));
+        toolPool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        toolPool.shutdownNow();
+    }
+
+    private static List<LLMRequest.Message> question() {
+        return List.of(LLMRequest.createMessage("user", "Weather and time in Paris?"));
+    }
+
+    @Test
+    void testToolCallsRunInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ToolHandler waitForOther = args -> {
+            bothStarted.countDown();
+            return bothStarted.await(2, TimeUnit.SECONDS) ? "parallel" : "sequential";
+        };
+
+        String result = new ToolExecutor(client)
+                .withExecutor(toolPool)
+                .register(new Tool("weather", "Gets the weather", null, waitForOther),
+                        new Tool("time", "Gets the time", null, waitForOther))
+                .run("test-model", question(), Map.of("max_tokens", 50));
+
+        assertEquals("Done", result);
+        assertEquals(2, requestBodies.size());
+        String secondRequest = requestBodies.get(1);
+        assertTrue(secondRequest.contains("\"tool_call_id\":\"call_1\""));
+        assertTrue(secondRequest.contains("\"content\":\"parallel\""));
+        assertFalse(secondRequest.contains("\"content\":\"sequential\""));
+        assertTrue(requestBodies.get(0).contains("\"tools\":[{\"type\":\"function\""));
+    }
+
+    @Test
+    void testToolTimeoutIsReportedToModel() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        String result = new ToolExecutor(client)
+                .withExecutor(toolPool)
+                .register(new Tool("weather", "Gets the weather", null, args -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return "sunny";
+                }).withTimeout(Duration.ofMillis(100)),
+                        new Tool("time", "Gets the time", null, args -> "noon"))
+                .run("test-model", question(), null);
+
+        assertEquals("Done", result);
+        assertTrue(requestBodies.get(1).contains("Error: tool timed out"));
+        assertTrue(requestBodies.get(1).contains("\"content\":\"noon\""));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS)); // The hung handler released its thread
+    }
+
+    @Test
+    void testCacheableToolRunsOncePerArguments() throws Exception {
+        AtomicInteger weatherCalls = new AtomicInteger();
+        ToolExecutor executor = new ToolExecutor(client)
+                .withExecutor(toolPool)
+                .register(new Tool("weather", "Gets the weather", null, args -> {
+                    weatherCalls.incrementAndGet();
+                    return "sunny";
+                }).withCaching(true),
+                        new Tool("time", "Gets the time", null, args -> "noon").withCaching(true));
+
+        executor.run("test-model", question(), null);
+        executor.run("test-model", question(), null);
+
+        assertEquals(1, weatherCalls.get());
+
+        executor.withCacheSize(1);
+        executor.run("test-model", question(), null); // Shrinking the cache evicted the older weather result
+        assertEquals(2, weatherCalls.get());
+    }
+
+    @Test
+    void testMaxStepsExceeded() {
+        ToolExecutor executor = new ToolExecutor(client)
+                .withExecutor(toolPool)
+                .withMaxSteps(1)
+                .register(new Tool("weather", "Gets the weather", null, args -> "sunny"));
+
+        // The stub keeps answering with tool calls when no tool result was sent
+        assertThrows(ToolExecutionException.class, () -> executor.run("test-model", question(), null));
+    }
+}